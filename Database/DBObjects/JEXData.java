@@ -10,6 +10,7 @@ import utilities.DateUtility;
 import Database.DBObjects.dimension.Dim;
 import Database.DBObjects.dimension.DimTable;
 import Database.DBObjects.dimension.DimensionMap;
+import Database.DBObjects.dimension.NumericTable;
 import Database.Definition.TypeName;
 import Database.SingleUserDatabase.JEXDataIO;
 
@@ -44,6 +45,7 @@ public class JEXData {
 	public String                              name;
 	public HashMap<String,String>              info = new HashMap<String,String>();;
 	public TreeMap<DimensionMap,JEXDataSingle> datamap = null;
+	public NumericTable                        numericTable = null; // values of numeric value objects, see setNumericTable
 	public DimTable                            dimTable;
 	public String                              eid;
 	
@@ -88,6 +90,13 @@ public class JEXData {
 		this.setDataID(jd.getDataID());
 		this.setDimTable(jd.getDimTable());
 		
+		NumericTable numericTable = jd.getNumericTable();
+		if(numericTable != null)
+		{
+			this.setNumericTable(new NumericTable(numericTable.dimTable, numericTable.data.clone()));
+			return;
+		}
+		
 		TreeMap<DimensionMap,JEXDataSingle> datamap = jd.getDataMap();
 		for (DimensionMap map: datamap.keySet()){
 			// get the datasingle
@@ -326,7 +335,7 @@ public class JEXData {
 	 * @return boolean
 	 */
 	public boolean isLoaded(){
-		return this.datamap != null;
+		return this.datamap != null || this.numericTable != null;
 	}
 
 	/**
@@ -336,6 +345,7 @@ public class JEXData {
 	{
 		// Release the data from the memory
 		this.datamap  = null;
+		this.numericTable = null;
 	}
 	
 	// ----------------------------------------------------
@@ -353,6 +363,9 @@ public class JEXData {
 			value.setParent(this);
 			value.setDimensionMap(map);
 			this.getDataMap().put(map, value);
+			
+			// The data map is now the only up to date version of the values
+			this.numericTable = null;
 		}
 	}
 	
@@ -396,6 +409,22 @@ public class JEXData {
 			// THEN CREATE AND FILL THIS JEXDATAs DATAMAP FROM THE DETACHED FILE
 			JEXDataIO.loadDimTableAndDataMap(this);
 		}
+		if(this.datamap == null && this.numericTable != null)
+		{
+			// A NUMERIC VALUE OBJECT, MAKE THE DATASINGLES OF ITS VALUES
+			this.datamap = new TreeMap<DimensionMap,JEXDataSingle>();
+			int offset = 0;
+			for(DimensionMap map : this.numericTable)
+			{
+				double value = this.numericTable.data[offset];
+				offset++;
+				if(Double.isNaN(value)) continue;
+				JEXDataSingle ds = new JEXDataSingle(""+value);
+				ds.setParent(this);
+				ds.setDimensionMap(map);
+				this.datamap.put(map, ds);
+			}
+		}
 		
 		// OTHERWISE THIS IS A PREVIOUSLY LOADED FILE THAT HAS A DETACHED FILE
 		// OR IT IS AN OLD XML FILE THAT HAS BEEN LOADED BUT DOESN'T HAVE A DETACHED FILE
@@ -439,8 +468,54 @@ public class JEXData {
 	 * @param dimTable
 	 */
 	public void setDimTable(DimTable dimTable){
+		if(this.numericTable != null && this.numericTable.dimTable != dimTable)
+		{
+			// Lay the values out along the new DimTable, or keep them as datasingles if they don't fit in it
+			NumericTable newTable = (dimTable == null || dimTable.size() == 0) ? null : new NumericTable(dimTable);
+			int offset = 0;
+			for(DimensionMap map : this.numericTable)
+			{
+				double value = this.numericTable.data[offset];
+				offset++;
+				if(newTable != null && !Double.isNaN(value) && !newTable.set(map, value))
+				{
+					newTable = null;
+				}
+				if(newTable == null) break;
+			}
+			if(newTable == null)
+			{
+				this.getDataMap();
+			}
+			this.numericTable = newTable;
+		}
 		this.dimTable = dimTable;
 	}
+	
+	/**
+	 * Return the values of this value object as doubles, loading them from the detached
+	 * file if they were saved as a numeric table, or null if this object holds strings
+	 * @return
+	 */
+	public NumericTable getNumericTable(){
+		if(this.numericTable == null && !this.isLoaded() && this.hasDetachedFile())
+		{
+			JEXDataIO.loadNumericTable(this);
+		}
+		return this.numericTable;
+	}
+	
+	/**
+	 * Set the values of this value object. They are kept as doubles in TABLE and saved as a
+	 * numeric table, the datasingles are only made when the data map is asked for. Adding
+	 * datasingles afterwards turns this object back into a regular one.
+	 * @param table
+	 */
+	public void setNumericTable(NumericTable table){
+		this.numericTable = table;
+		this.dimTable = table.dimTable;
+		this.datamap = null;
+	}
 
 	/**
 	 * Get the dimension size with name dimName
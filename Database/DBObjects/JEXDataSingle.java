@@ -5,6 +5,7 @@ import java.util.Set;
 import java.util.TreeMap;
 
 import Database.DBObjects.dimension.DimensionMap;
+import Database.DataReader.ImageMetadata;
 import Database.SingleUserDatabase.JEXWriter;
 
 public class JEXDataSingle {
@@ -24,6 +25,7 @@ public class JEXDataSingle {
 	TreeMap<String,String> data;
 	DimensionMap           map ;
 	JEXData                parent;
+	ImageMetadata          imageMetadata; // not saved, see ImageReader.readImageMetadata
 	
 	public JEXDataSingle(){
 		data = new TreeMap<String,String>();
@@ -127,6 +129,22 @@ public class JEXDataSingle {
 		return this.parent;
 	}
 
+	/**
+	 * Return the metadata of the image file of this datasingle if it was read before
+	 * @return
+	 */
+	public ImageMetadata getImageMetadata(){
+		return this.imageMetadata;
+	}
+	
+	/**
+	 * Remember the metadata of the image file of this datasingle
+	 * @param imageMetadata
+	 */
+	public void setImageMetadata(ImageMetadata imageMetadata){
+		this.imageMetadata = imageMetadata;
+	}
+
 	// ----------------------------------------------------
 	// --------- OUTPUTTING AND EXPORT --------------------
 	// ----------------------------------------------------
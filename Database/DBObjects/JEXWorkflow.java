@@ -2,6 +2,7 @@ package Database.DBObjects;
 
 import java.io.File;
 import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.Vector;
 
 import jex.statics.JEXStatics;
@@ -9,6 +10,7 @@ import utilities.DateUtility;
 import utilities.Pair;
 import Database.DBObjects.dimension.DimTable;
 import Database.DBObjects.dimension.DimensionMap;
+import Database.Definition.TypeName;
 import Database.SingleUserDatabase.JEXDataIO;
 import cruncher.JEXFunction;
 
@@ -44,6 +46,37 @@ public class JEXWorkflow extends Vector<JEXFunction> {
 		return ret;
 	}
 	
+	/**
+	 * Return the indices of the functions placed before INDEX in the workflow that
+	 * create one of the inputs of the function at INDEX. These edges make the
+	 * workflow a dependency graph, functions without a path between them are
+	 * independent branches.
+	 * @param index
+	 * @return
+	 */
+	public TreeSet<Integer> getPrerequisites(int index)
+	{
+		TreeSet<TypeName> inputs = new TreeSet<TypeName>();
+		for(TypeName tn : this.get(index).getInputs().values())
+		{
+			if(tn != null) inputs.add(tn);
+		}
+		
+		TreeSet<Integer> ret = new TreeSet<Integer>();
+		for(int i = 0; i < index; i++)
+		{
+			for(TypeName tn : this.get(i).getExpectedOutputs().values())
+			{
+				if(tn != null && inputs.contains(tn))
+				{
+					ret.add(i);
+					break;
+				}
+			}
+		}
+		return ret;
+	}
+	
 	/**
 	 * Save the list of functions into an xml file
 	 * @param Path
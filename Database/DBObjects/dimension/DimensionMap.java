@@ -1,6 +1,7 @@
 package Database.DBObjects.dimension;
 
 import java.util.LinkedHashSet;
+import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeMap;
 
@@ -11,9 +12,12 @@ import utilities.StringUtility;
 
 public class DimensionMap extends TreeMap<String,String> implements Comparable<DimensionMap>, Copiable<DimensionMap>{
 	private static final long serialVersionUID = 1L;
+	
+	// The alphanumeric comparator holds no state, share it between all the maps
+	private static final StringUtility KEY_COMPARATOR = new StringUtility();
 
 	public DimensionMap(){
-		super(new StringUtility());
+		super(KEY_COMPARATOR);
 	}
 	
 	public DimensionMap(String csvDimStr){
@@ -28,6 +32,22 @@ public class DimensionMap extends TreeMap<String,String> implements Comparable<D
 		}
 	}
 	
+	/**
+	 * Dimension names are interned so that comparing the keys of two maps
+	 * mostly stops at an identity check
+	 */
+	@Override
+	public String put(String key, String value){
+		return super.put((key == null) ? null : key.intern(), value);
+	}
+	
+	/**
+	 * Put a key that is already interned (i.e. taken from another DimensionMap)
+	 */
+	private void putInterned(String key, String value){
+		super.put(key, value);
+	}
+	
 	@Override
 	public boolean equals(Object o){
 		if (o instanceof DimensionMap){
@@ -77,9 +97,8 @@ public class DimensionMap extends TreeMap<String,String> implements Comparable<D
 	public DimensionMap copy(){
 		DimensionMap result = new DimensionMap();
 		
-		Set<String> keys = this.keySet();
-		for (String key: keys){
-			result.put(key, this.get(key));
+		for (Entry<String,String> e: this.entrySet()){
+			result.putInterned(e.getKey(), e.getValue());
 		}
 		
 		return result;
@@ -124,31 +143,26 @@ public class DimensionMap extends TreeMap<String,String> implements Comparable<D
 			return -1;
 		}
 		
-		// This has more keys that d so check to see if all the keys in d are contained in this. If not, compare the keys (not values) of each sorted alhpanumerically
-		for(String key : d.keySet())
+		// This has more keys that d so check to see if all the keys in d are contained in this. If not, compare the keys (not values) of each sorted alhpanumerically.
+		// Otherwise all the keys in d are contained in this and the result is the first difference of the values for the matching keys in a predefined order (i.e. alhpanumeric sort of the d keys).
+		// Both are found in a single pass with a single lookup per key
+		int comparison = 0;
+		for(Entry<String,String> e : d.entrySet())
 		{
-			if(this.get(key) == null)
+			String value = this.get(e.getKey());
+			if(value == null)
 			{
 				return compareKeys(this, d);
 			}
+			if(comparison == 0)
+			{
+				comparison = StringUtility.compareString(value, e.getValue());
+			}
 		}
 		
-		// Otherwise all the keys in d are contained in this and we can compare each of the values for the matching keys in a predefined order (i.e. alhpanumeric sort of the d keys) 
-		return compareValues(d);
-		
-	}
-	
-	private int compareValues(DimensionMap that)
-	{
-		// Otherwise all the keys in d are contained in this and we can compare each of the values for the matching keys in a predefined order (i.e. alhpanumeric sort of the d keys) 
-		for (String key: that.keySet())
-		{
-			int comparison = StringUtility.compareString(this.get(key), that.get(key));
-			if (comparison > 0) return 1;
-			if (comparison < 0) return -1;
-		}
-		
-		// all the keys of d are contained in this map and the values for those matching keys also matched
+		// all the keys of d are contained in this map, return the first difference of values if any
+		if (comparison > 0) return 1;
+		if (comparison < 0) return -1;
 		return 0;
 	}
 	
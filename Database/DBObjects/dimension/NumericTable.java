@@ -0,0 +1,268 @@
+package Database.DBObjects.dimension;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Dense numeric version of Table<Double>. The values are stored in a single double[]
+ * in the order of the DimTable iterator (last dim varies fastest) and a DimensionMap
+ * is turned into an offset in that array from the index of each of its values, so
+ * no DimensionMap or Double is kept per cell. Missing cells are stored as NaN.
+ */
+public class NumericTable implements Iterable<DimensionMap>{
+
+	public DimTable dimTable;
+	public double[] data;
+
+	private int[] strides;
+	private List<HashMap<String,Integer>> valueIndices;
+
+	public NumericTable(DimTable dimTable)
+	{
+		this(dimTable, null);
+	}
+
+	/**
+	 * Create a table on DIMTABLE using DATA as storage (in DimTable iterator order)
+	 * @param dimTable
+	 * @param data null to create an empty table
+	 */
+	public NumericTable(DimTable dimTable, double[] data)
+	{
+		this.dimTable = dimTable;
+
+		// Mixed-radix strides of the dims
+		int n = dimTable.size();
+		this.strides = new int[n];
+		this.valueIndices = new ArrayList<HashMap<String,Integer>>(n);
+		int stride = 1;
+		for(int i = n - 1; i > -1; i--)
+		{
+			Dim dim = dimTable.get(i);
+			this.strides[i] = stride;
+			stride = stride * dim.size();
+
+			HashMap<String,Integer> indices = new HashMap<String,Integer>();
+			for(int j = dim.size() - 1; j > -1; j--)
+			{
+				indices.put(dim.valueAt(j), j);
+			}
+			this.valueIndices.add(0, indices);
+		}
+
+		if(data == null)
+		{
+			data = new double[dimTable.mapCount()];
+			Arrays.fill(data, Double.NaN);
+		}
+		this.data = data;
+	}
+
+	/**
+	 * Convert a Table<Double> into a dense table
+	 * @param table
+	 * @return
+	 */
+	public static NumericTable fromTable(Table<Double> table)
+	{
+		NumericTable ret = new NumericTable(table.dimTable);
+		int offset = 0;
+		for(DimensionMap map : table.dimTable.getIterator())
+		{
+			Double value = table.data.get(map);
+			if(value != null)
+			{
+				ret.data[offset] = value;
+			}
+			offset++;
+		}
+		return ret;
+	}
+
+	/**
+	 * Convert this table into a Table<Double>, missing cells are left out
+	 * @return
+	 */
+	public Table<Double> toTable()
+	{
+		return new Table<Double>(this.dimTable, this.getFilteredData(new DimensionMap()));
+	}
+
+	// ---------------------------------------------
+	// Access
+	// ---------------------------------------------
+
+	/**
+	 * Return the offset of MAP in the data array. MAP can be overdefined
+	 * compared to the dims of the table (i.e. like Table.getData)
+	 * @param map
+	 * @return the offset or -1 if MAP is not in the table
+	 */
+	public int offset(DimensionMap map)
+	{
+		int offset = 0;
+		for(int i = 0; i < this.strides.length; i++)
+		{
+			String value = map.get(this.dimTable.get(i).dimName);
+			if(value == null) return -1;
+			Integer index = this.valueIndices.get(i).get(value);
+			if(index == null) return -1;
+			offset = offset + index * this.strides[i];
+		}
+		return offset;
+	}
+
+	/**
+	 * Return the offset of the cell with value index INDICES[i] for dim i
+	 * @param indices
+	 * @return
+	 */
+	public int offset(int[] indices)
+	{
+		int offset = 0;
+		for(int i = 0; i < this.strides.length; i++)
+		{
+			offset = offset + indices[i] * this.strides[i];
+		}
+		return offset;
+	}
+
+	/**
+	 * Return the value at MAP or NaN if it is missing
+	 * @param map
+	 * @return
+	 */
+	public double get(DimensionMap map)
+	{
+		int offset = this.offset(map);
+		if(offset < 0) return Double.NaN;
+		return this.data[offset];
+	}
+
+	/**
+	 * Same as Table.getData, return the value at KEY or null if it is missing
+	 * @param key
+	 * @return
+	 */
+	public Double getData(DimensionMap key)
+	{
+		double value = this.get(key);
+		if(Double.isNaN(value)) return null;
+		return value;
+	}
+
+	/**
+	 * Set the value at MAP
+	 * @param map
+	 * @param value
+	 * @return false if MAP is not in the table
+	 */
+	public boolean set(DimensionMap map, double value)
+	{
+		int offset = this.offset(map);
+		if(offset < 0) return false;
+		this.data[offset] = value;
+		return true;
+	}
+
+	public Iterator<DimensionMap> iterator()
+	{
+		return this.dimTable.getIterator().iterator();
+	}
+
+	public DimTableMapIterable getIterator(DimensionMap filter)
+	{
+		return this.dimTable.getIterator(filter);
+	}
+
+	// ---------------------------------------------
+	// Slicing
+	// ---------------------------------------------
+
+	/**
+	 * Return the sub table of the cells matching FILTER, copied by stepping
+	 * through the strides of the unfiltered dims
+	 * @param filter
+	 * @return null if FILTER is not in the table
+	 */
+	public NumericTable getFilteredTable(DimensionMap filter)
+	{
+		DimTable subTable = this.dimTable.getSubTable(filter);
+		if(subTable == null) return null;
+
+		NumericTable ret = new NumericTable(subTable);
+		int n = this.strides.length;
+		int[] start = new int[n];
+		int[] sizes = new int[n];
+		int base = 0;
+		for(int i = 0; i < n; i++)
+		{
+			String value = filter.get(this.dimTable.get(i).dimName);
+			if(value == null)
+			{
+				sizes[i] = this.dimTable.get(i).size();
+			}
+			else
+			{
+				start[i] = this.valueIndices.get(i).get(value);
+				sizes[i] = 1;
+			}
+			base = base + start[i] * this.strides[i];
+		}
+
+		// Walk the sub table in order with a mixed-radix counter
+		int[] counter = new int[n];
+		for(int k = 0; k < ret.data.length; k++)
+		{
+			int offset = base;
+			for(int i = 0; i < n; i++)
+			{
+				offset = offset + counter[i] * this.strides[i];
+			}
+			ret.data[k] = this.data[offset];
+			for(int i = n - 1; i > -1; i--)
+			{
+				counter[i]++;
+				if(counter[i] < sizes[i]) break;
+				counter[i] = 0;
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Same as Table.getFilteredData, return the cells matching FILTER
+	 * @param filter
+	 * @return
+	 */
+	public TreeMap<DimensionMap,Double> getFilteredData(DimensionMap filter)
+	{
+		TreeMap<DimensionMap,Double> ret = new TreeMap<DimensionMap,Double>();
+		NumericTable filtered = this.getFilteredTable(filter);
+		if(filtered == null) return ret;
+
+		int offset = 0;
+		for(DimensionMap map : filtered.dimTable.getIterator())
+		{
+			double value = filtered.data[offset];
+			if(!Double.isNaN(value))
+			{
+				ret.put(map, value);
+			}
+			offset++;
+		}
+		return ret;
+	}
+
+	/**
+	 * Return the number of cells (including missing cells)
+	 */
+	public int size()
+	{
+		return this.data.length;
+	}
+}
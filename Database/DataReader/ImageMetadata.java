@@ -0,0 +1,142 @@
+package Database.DataReader;
+
+import ij.ImagePlus;
+import ij.io.FileInfo;
+import ij.io.TiffDecoder;
+
+import java.awt.image.ColorModel;
+import java.awt.image.IndexColorModel;
+import java.io.File;
+import java.io.IOException;
+
+import utilities.ImageCache;
+
+/**
+ * Dimensions, bit depth and LUT of an image file. For TIFF files only the IFD headers
+ * are read so the cost does not depend on the size of the image, other formats are
+ * decoded through the image cache.
+ */
+public class ImageMetadata {
+
+	public String path;
+	public long length, lastModified;
+	public int width, height, bitDepth, nImages = 1;
+	public ColorModel colorModel; // null for the default grayscale LUT
+
+	/**
+	 * Read the metadata of the image at PATH
+	 * @param path
+	 * @return null if the file cannot be read
+	 */
+	public static ImageMetadata read(String path)
+	{
+		if(path == null) return null;
+		File file = new File(path);
+		if(!file.exists()) return null;
+
+		ImageMetadata ret = new ImageMetadata();
+		ret.path = path;
+		ret.length = file.length();
+		ret.lastModified = file.lastModified();
+
+		String name = file.getName().toLowerCase();
+		if(name.endsWith(".tif") || name.endsWith(".tiff"))
+		{
+			try
+			{
+				FileInfo[] info = new TiffDecoder(file.getParent() + File.separator, file.getName()).getTiffInfo();
+				if(info != null && info.length > 0 && ret.setFileInfo(info[0], info.length))
+				{
+					return ret;
+				}
+			}
+			catch (IOException e)
+			{
+				e.printStackTrace();
+			}
+		}
+
+		// Not a tiff or a tiff ImageJ cannot describe, decode it
+		ImagePlus im = ImageCache.getSharedImagePlus(path);
+		if(im.getProcessor() == null) return null;
+		ret.width = im.getWidth();
+		ret.height = im.getHeight();
+		ret.bitDepth = im.getBitDepth();
+		ret.nImages = im.getStackSize();
+		ret.colorModel = im.getProcessor().getColorModel();
+		return ret;
+	}
+
+	/**
+	 * Return true if this metadata still describes the file at PATH
+	 * @param path
+	 * @return
+	 */
+	public boolean isCurrent(String path)
+	{
+		if(path == null || !path.equals(this.path)) return false;
+		File file = new File(path);
+		return file.length() == this.length && file.lastModified() == this.lastModified;
+	}
+
+	private boolean setFileInfo(FileInfo fi, int ifdCount)
+	{
+		this.width = fi.width;
+		this.height = fi.height;
+		this.nImages = (ifdCount > 1) ? ifdCount : Math.max(1, fi.nImages);
+		switch (fi.fileType)
+		{
+			case FileInfo.GRAY8:
+			case FileInfo.COLOR8:
+			case FileInfo.BITMAP:
+				this.bitDepth = 8;
+				break;
+			case FileInfo.GRAY16_SIGNED:
+			case FileInfo.GRAY16_UNSIGNED:
+			case FileInfo.GRAY12_UNSIGNED:
+			case FileInfo.RGB48:
+			case FileInfo.RGB48_PLANAR:
+				this.bitDepth = 16;
+				break;
+			case FileInfo.GRAY24_UNSIGNED:
+			case FileInfo.GRAY32_INT:
+			case FileInfo.GRAY32_UNSIGNED:
+			case FileInfo.GRAY32_FLOAT:
+			case FileInfo.GRAY64_FLOAT:
+				this.bitDepth = 32;
+				break;
+			case FileInfo.RGB:
+			case FileInfo.BGR:
+			case FileInfo.ARGB:
+			case FileInfo.ABGR:
+			case FileInfo.BARG:
+			case FileInfo.RGB_PLANAR:
+				this.bitDepth = 24;
+				break;
+			default:
+				return false;
+		}
+		if(this.width <= 0 || this.height <= 0) return false;
+
+		// LUT stored in the file or inverted grayscale
+		if(this.bitDepth == 8 && fi.lutSize > 0 && fi.reds != null)
+		{
+			this.colorModel = new IndexColorModel(8, fi.lutSize, fi.reds, fi.greens, fi.blues);
+		}
+		else if(this.bitDepth == 8 && fi.whiteIsZero)
+		{
+			byte[] lut = new byte[256];
+			for(int i = 0; i < 256; i++)
+			{
+				lut[i] = (byte) (255 - i);
+			}
+			this.colorModel = new IndexColorModel(8, 256, lut, lut, lut);
+		}
+		return true;
+	}
+
+	public String toString()
+	{
+		return this.width + "x" + this.height + "x" + this.nImages + " " + this.bitDepth + "-bit";
+	}
+}
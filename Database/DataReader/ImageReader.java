@@ -6,6 +6,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.TreeMap;
 
+import utilities.ImageCache;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXDataSingle;
 import Database.DBObjects.dimension.DimensionMap;
@@ -133,6 +134,37 @@ public class ImageReader {
 		return result;
 	}
 	
+	/**
+	 * Return the dimensions, bit depth and LUT of the image of DS without decoding it.
+	 * The result is kept on DS until its file changes.
+	 * @param ds
+	 * @return null if the image cannot be read
+	 */
+	public static ImageMetadata readImageMetadata(JEXDataSingle ds)
+	{
+		String path = readImagePath(ds);
+		ImageMetadata ret = ds.getImageMetadata();
+		if(ret != null && ret.isCurrent(path))
+		{
+			return ret;
+		}
+		ret = ImageMetadata.read(path);
+		ds.setImageMetadata(ret);
+		return ret;
+	}
+	
+	/**
+	 * Return the dimensions, bit depth and LUT of the first image of the data object
+	 * @param data
+	 * @return
+	 */
+	public static ImageMetadata readObjectToImageMetadata(JEXData data){
+		if (!data.getDataObjectType().equals(JEXData.IMAGE)) return null;
+		JEXDataSingle ds = data.getFirstSingle();
+		if(ds == null) return null;
+		return readImageMetadata(ds);
+	}
+	
 	/**
 	 * Get the imagepath stored in the data object
 	 * @param data
@@ -142,7 +174,7 @@ public class ImageReader {
 		if (!data.getDataObjectType().equals(JEXData.IMAGE)) return null;
 		JEXDataSingle ds = data.getFirstSingle();
 		String path    = readImagePath(ds);
-		ImagePlus im     = new ImagePlus(path);
+		ImagePlus im     = ImageCache.getImagePlus(path);
 		return im;
 	}
 	
@@ -171,7 +203,7 @@ public class ImageReader {
 		ImagePlus[] imresult = new ImagePlus[result.length];
 		for (int i=0; i<result.length; i++){
 			String path = result[i];
-			imresult[i] = new ImagePlus(path);
+			imresult[i] = ImageCache.getImagePlus(path);
 		}
 		return imresult;
 	}
@@ -190,7 +222,7 @@ public class ImageReader {
 //			String folder    = ds.get(JEXDataSingle.FOLDERNAME);
 //			String fileName  = ds.get(JEXDataSingle.FILENAME);
 //			String path      = folder + File.separator + fileName;
-			ImagePlus im     = new ImagePlus(path);
+			ImagePlus im     = ImageCache.getImagePlus(path);
 			result.put(map, im);
 		}
 		return result;
@@ -6,7 +6,9 @@ import java.util.TreeMap;
 
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXDataSingle;
+import Database.DBObjects.dimension.DimTable;
 import Database.DBObjects.dimension.DimensionMap;
+import Database.DBObjects.dimension.NumericTable;
 
 public class ValueReader {
 
@@ -96,6 +98,8 @@ public class ValueReader {
 	 */
 	public static TreeMap<DimensionMap,Double> readObjectToDoubleTable(JEXData data){
 		if (!data.getDataObjectType().equals(JEXData.VALUE)) return null;
+		NumericTable table = data.getNumericTable();
+		if (table != null) return table.getFilteredData(new DimensionMap());
 		TreeMap<DimensionMap,Double> result = new TreeMap<DimensionMap,Double>();
 		for (DimensionMap map: data.getDataMap().keySet()){
 			JEXDataSingle ds = data.getData(map);
@@ -106,4 +110,31 @@ public class ValueReader {
 		return result;
 	}
 	
+	/**
+	 * Read the values of the value object into a dense numeric table. Objects made from
+	 * doubles (see ValueWriter.makeValueTable) are returned as is without parsing, the
+	 * values of other objects are parsed and the ones that are not numbers are missing (NaN)
+	 * @param data
+	 * @return null for objects without dimension
+	 */
+	public static NumericTable readNumericTable(JEXData data){
+		if (!data.getDataObjectType().equals(JEXData.VALUE)) return null;
+		NumericTable result = data.getNumericTable();
+		if (result != null) return result;
+		DimTable dimTable = data.getDimTable();
+		if (dimTable == null || dimTable.size() == 0) return null;
+		result = new NumericTable(dimTable);
+		for (DimensionMap map: data.getDataMap().keySet()){
+			String value = data.getData(map).get(JEXDataSingle.VALUE);
+			if (value == null) continue;
+			try {
+				result.set(map, Double.parseDouble(value));
+			}
+			catch (NumberFormatException e){
+				// Leave it missing
+			}
+		}
+		return result;
+	}
+	
 }
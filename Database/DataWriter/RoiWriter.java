@@ -21,8 +21,8 @@ public class RoiWriter {
 		result.put(JEXEntry.DATE, utilities.DateUtility.getDate());
 		result.put(JEXEntry.MODIFDATE, utilities.DateUtility.getDate());
 
-		String value = roi.getPointList().pointListString();
-		String pattern = roi.getPattern().pointListString();
+		String value = roi.getPointList().packedString();
+		String pattern = roi.getPattern().packedString();
 		JEXDataSingle ds = new JEXDataSingle();
 		ds.put(JEXDataSingle.ROITYPE,""+roi.type);
 		ds.put(JEXDataSingle.POINTLIST,value);
@@ -95,8 +95,8 @@ public class RoiWriter {
 		
 		for (DimensionMap map: rois.keySet()){
 			ROIPlus roi  = rois.get(map);
-			String value = roi.getPointList().pointListString();
-			String pattern = roi.getPattern().pointListString();
+			String value = roi.getPointList().packedString();
+			String pattern = roi.getPattern().packedString();
 			JEXDataSingle ds = new JEXDataSingle();
 			ds.put(JEXDataSingle.ROITYPE,""+roi.type);
 			ds.put(JEXDataSingle.POINTLIST,value);
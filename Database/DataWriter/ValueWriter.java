@@ -3,10 +3,13 @@ package Database.DataWriter;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXDataSingle;
+import Database.DBObjects.dimension.DimTable;
 import Database.DBObjects.dimension.DimensionMap;
+import Database.DBObjects.dimension.NumericTable;
 
 public class ValueWriter {
 
@@ -327,6 +330,15 @@ public class ValueWriter {
 	 * @return
 	 */
 	public static JEXData makeValueTableFromDouble(String objectName, Map<DimensionMap, Double> valueMap){
+		// Keep the values as doubles when they fill at least half of their DimTable
+		TreeMap<DimensionMap,Double> sorted = (valueMap instanceof TreeMap) ? (TreeMap<DimensionMap,Double>) valueMap : new TreeMap<DimensionMap,Double>(valueMap);
+		DimTable dimTable = new DimTable(sorted);
+		if(dimTable.size() > 0 && 2L * valueMap.size() >= dimTable.mapCount())
+		{
+			JEXData data = makeValueTable(objectName, dimTable, valueMap);
+			if(data != null) return data;
+		}
+		
 		JEXData data = new JEXData(JEXData.VALUE,objectName);
 		for (DimensionMap dim: valueMap.keySet()){
 			Double value = valueMap.get(dim);
@@ -337,6 +349,49 @@ public class ValueWriter {
 		return data;
 	}
 
+	/**
+	 * Make a value table data object from a numeric table. The values stay doubles: they
+	 * are saved in the binary table format and read back with ValueReader.readNumericTable
+	 * without parsing, the datasingles are only made if something asks for the data map
+	 * @param objectName
+	 * @param table
+	 * @return
+	 */
+	public static JEXData makeValueTable(String objectName, NumericTable table){
+		JEXData data = new JEXData(JEXData.VALUE,objectName);
+		data.setNumericTable(table);
+		return data;
+	}
+	
+	/**
+	 * Make a value table data object from a column of values in the order of the
+	 * DimTable iterator (last dim varies fastest), NaN for missing values
+	 * @param objectName
+	 * @param dimTable
+	 * @param values
+	 * @return
+	 */
+	public static JEXData makeValueTable(String objectName, DimTable dimTable, double[] values){
+		return makeValueTable(objectName, new NumericTable(dimTable, values));
+	}
+	
+	/**
+	 * Make a value table data object holding the values of VALUEMAP as doubles laid out
+	 * along DIMTABLE
+	 * @param objectName
+	 * @param dimTable
+	 * @param valueMap
+	 * @return null if a dimension map of VALUEMAP is not in DIMTABLE
+	 */
+	public static JEXData makeValueTable(String objectName, DimTable dimTable, Map<DimensionMap, Double> valueMap){
+		NumericTable table = new NumericTable(dimTable);
+		for (Map.Entry<DimensionMap,Double> e: valueMap.entrySet()){
+			if(e.getValue() == null) continue;
+			if(!table.set(e.getKey(), e.getValue())) return null;
+		}
+		return makeValueTable(objectName, table);
+	}
+
 //	/**
 //	 * Make a valud table data object with row and column labels, and a list of values for each column
 //	 * @param objectName
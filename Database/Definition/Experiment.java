@@ -87,6 +87,29 @@ public class Experiment extends TreeMap<String,Tray> implements Comparable<Exper
 		a.addEntry(entry);
 	}
 	
+	/**
+	 * Remove an entry from the experiment and from its tray
+	 * @param entry
+	 */
+	public void removeEntry(JEXEntry entry)
+	{
+		// Remove the entry from the list
+		if (entries == null || !entries.remove(entry)) return;
+		
+		// Remove from the dictionaries
+		this.TNVI.removeEntryForAllDataInEntry(entry);
+		
+		// Remove the entry from its tray and drop the tray if it is empty
+		String arrayName = entry.getEntryTrayName();
+		Tray a = this.get(arrayName);
+		if (a == null) return;
+		a.removeEntry(entry);
+		if (a.getEntries() == null || a.getEntries().size() == 0)
+		{
+			this.remove(arrayName);
+		}
+	}
+	
 	/**
 	 * Update the experiment by adding data 
 	 * @param entry
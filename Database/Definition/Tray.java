@@ -48,6 +48,27 @@ public class Tray extends TreeMap<Integer,TreeMap<Integer,JEXEntry>> implements
 		row.put(y, entry);
 	}
 	
+	/**
+	 * Remove an entry from the tray
+	 * @param entry
+	 */
+	public void removeEntry(JEXEntry entry)
+	{
+		// Remove the entry from the list
+		if (entries == null || !entries.remove(entry)) return;
+		
+		// Remove from the dictionaries
+		this.TNVI.removeEntryForAllDataInEntry(entry);
+		
+		// Remove it from the array
+		Integer x = entry.getTrayX();
+		Integer y = entry.getTrayY();
+		TreeMap<Integer,JEXEntry> row = this.get(x);
+		if (row == null) return;
+		if (row.get(y) == entry) row.remove(y);
+		if (row.size() == 0) this.remove(x);
+	}
+	
 	/**
 	 * Update the Tray TNVI 
 	 * @param entry
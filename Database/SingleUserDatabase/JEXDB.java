@@ -41,6 +41,11 @@ public class JEXDB implements Iterable<JEXEntry> {
 	private TreeMap<String,Experiment> experimentalTable;
 	private int maxID;
 	
+	// Changes since the last save, written to the journal on the next save
+	private TreeSet<JEXEntry> modifiedEntries;
+	private TreeSet<String> removedEntryIDs;
+	private boolean needsFullSave = true; // true until the database xml matches the entry IDs of this database
+	
 	// Filters and groups
 	private FilterSet      filters;
 	private List<TypeName> groups;
@@ -78,6 +83,9 @@ public class JEXDB implements Iterable<JEXEntry> {
 		
 		this.entries = new TreeSet<JEXEntry>();
 		this.filteredEntries = new TreeSet<JEXEntry>();
+		
+		this.modifiedEntries = new TreeSet<JEXEntry>();
+		this.removedEntryIDs = new TreeSet<String>();
 	}
 	
 	
@@ -127,6 +135,62 @@ public class JEXDB implements Iterable<JEXEntry> {
 		return true;
 	}
 	
+	/**
+	 * Return the entries modified since the last save
+	 * @return
+	 */
+	public TreeSet<JEXEntry> getModifiedEntries()
+	{
+		return this.modifiedEntries;
+	}
+	
+	/**
+	 * Return the IDs of the entries removed since the last save
+	 * @return
+	 */
+	public TreeSet<String> getRemovedEntryIDs()
+	{
+		return this.removedEntryIDs;
+	}
+	
+	/**
+	 * Mark an entry for saving in the journal
+	 * @param entry
+	 */
+	public void markModified(JEXEntry entry)
+	{
+		this.modifiedEntries.add(entry);
+		this.containsUnsavedData = true;
+	}
+	
+	/**
+	 * Return true if the whole database has to be written to xml instead of journaling the changes
+	 * @return
+	 */
+	public boolean needsFullSave()
+	{
+		return this.needsFullSave;
+	}
+	
+	public void setNeedsFullSave(boolean needsFullSave)
+	{
+		this.needsFullSave = needsFullSave;
+	}
+	
+	/**
+	 * Forget the pending changes once they are on disk
+	 * @param journaled number of entry records appended to the journal or -1 if the full xml was written
+	 */
+	public void changesSaved(int journaled)
+	{
+		this.modifiedEntries.clear();
+		this.removedEntryIDs.clear();
+		if(journaled < 0)
+		{
+			this.needsFullSave = false;
+		}
+	}
+	
 	
 	// ---------------------------------------------
 	// Settings, options and administration
@@ -148,14 +212,14 @@ public class JEXDB implements Iterable<JEXEntry> {
 	 */
 	public void addEntry(String expName, String arrayName, int row, int col, String date, String author, String info)
 	{	
-		_addEntry(expName, arrayName, row, col, date, author, info);
+		JEXEntry entry = _addEntry(expName, arrayName, row, col, date, author, info);
 		
 		containsUnsavedData = true;
 		
-		// Make the libraries
-		makeTNVIs();
-		makeFiltTNVI();
-		makeExperimentTree();
+		// Update the libraries
+		addEntryToExperimentTree(entry);
+		publishExperimentTree();
+		this.TNVI.sendChangeSignal();
 	}
 	
 	/**
@@ -169,15 +233,15 @@ public class JEXDB implements Iterable<JEXEntry> {
 			for (int y=0; y<height; y++)
 			{
 				JEXEntry entry = this._addEntry(expName, arrayName, y, x, date, author, info);
+				addEntryToExperimentTree(entry);
 				result[x][y] = entry;
 			}
 		}
 
-		// Make the libraries
+		// Update the libraries
 		containsUnsavedData = true;
-		makeTNVIs();
-		makeFiltTNVI();
-		makeExperimentTree();
+		publishExperimentTree();
+		this.TNVI.sendChangeSignal();
 		return result;
 	}
 	
@@ -208,6 +272,7 @@ public class JEXDB implements Iterable<JEXEntry> {
 		
 		// Add entry to the entry list of JEX
 		this.entries.add(result);
+		this.markModified(result);
 		
 		// Add the required datas to the entry that was created
 		
@@ -260,15 +325,16 @@ public class JEXDB implements Iterable<JEXEntry> {
 		// remove the entries
 		boolean success = true;
 		for (JEXEntry entry: entries){
+			removeEntryFromTNVIs(entry);
+			removeEntryFromExperimentTree(entry);
 			boolean b = _removeEntry(entry);
 			success = success && b;
 		}
 		
-		// Make the libraries
+		// Update the libraries
 		containsUnsavedData = true;
-		makeTNVIs();
-		makeFiltTNVI();
-		makeExperimentTree();
+		publishExperimentTree();
+		this.TNVI.sendChangeSignal();
 		return success;
 	}
 	
@@ -278,6 +344,8 @@ public class JEXDB implements Iterable<JEXEntry> {
 	 */
 	private boolean _removeEntry(JEXEntry entry)
 	{
+		this.modifiedEntries.remove(entry);
+		this.removedEntryIDs.add(entry.getEntryID());
 		return this.entries.remove(entry);
 	}
 	
@@ -285,6 +353,10 @@ public class JEXDB implements Iterable<JEXEntry> {
 	{
 		for(JEXEntry entry : entries)
 		{
+			// Take the entry out of the libraries while its hierarchy still has the old values
+			removeEntryFromTNVIs(entry);
+			removeEntryFromExperimentTree(entry);
+			
 			entry.setEntryExperiment(experiment);
 			entry.setEntryTrayName(tray);
 			entry.setEntryExperimentInfo(info);
@@ -315,12 +387,16 @@ public class JEXDB implements Iterable<JEXEntry> {
 			
 			// Set the unsaved data flag to true
 			containsUnsavedData = true;
+			this.markModified(entry);
+			
+			// Put it back in the libraries with the new values
+			addEntryToTNVIs(entry);
+			addEntryToExperimentTree(entry);
 		}
 		
-		// Make the libraries
-		makeTNVIs();
-		makeFiltTNVI();
-		makeExperimentTree();
+		// Update the libraries
+		publishExperimentTree();
+		this.TNVI.sendChangeSignal();
 	}
 	
 	
@@ -337,6 +413,7 @@ public class JEXDB implements Iterable<JEXEntry> {
 		
 		// Make the libraries
 		containsUnsavedData = true;
+		this.markModified(entry);
 		addEntryForDataToTNVIs(entry,data);
 		addEntryForDataToExperimentTree(entry,data);
 		return true;
@@ -401,11 +478,10 @@ public class JEXDB implements Iterable<JEXEntry> {
 			{
 				// Remove from database
 				entry.removeData(data);
+				this.markModified(entry);
 
 				// Remove from dictionaries
-				this.TNVI.removeEntryForData(entry, data);
-				this.fTNVI.removeEntryForData(entry, data);
-//				this.sTNVI.removeEntryForData(entry, data); // THINK ABOUT DOING THIS IN THE FUTURE WHEN CHANGING PANELS DOESNT JUST RESET sTNVI ANYWAY
+				removeEntryForDataFromTNVIs(entry, data);
 				
 				// Remove from Experiment Tree
 				removeEntryForDataFromExperimentTree(entry,data);
@@ -414,6 +490,7 @@ public class JEXDB implements Iterable<JEXEntry> {
 
 		// Make the libraries
 		containsUnsavedData = true;
+		this.TNVI.sendChangeSignal();
 		return true;
 	}
 	
@@ -803,9 +880,19 @@ public class JEXDB implements Iterable<JEXEntry> {
 	 * Rebuild all the dictionaries
 	 */
 	protected void makeTNVIs(){
-		TNVI      = new tnvi()  ;
-		fTNVI     = new tnvi()  ;
-		sTNVI     = new tnvi()  ;
+		TNVI      = buildTNVI();
+		fTNVI     = TNVI;
+		sTNVI     = TNVI;
+		this.filteredEntries = this.entries;
+	}
+	
+	/**
+	 * Build a new TNVI from all the data of all the entries
+	 * @return
+	 */
+	private tnvi buildTNVI()
+	{
+		tnvi result = new tnvi();
 		
 		// Build the TNVI by looping through each data/value and adding to the TNVI
 		int index = 0;
@@ -820,10 +907,10 @@ public class JEXDB implements Iterable<JEXEntry> {
 					String value = data.getDictionaryValue(); // V
 
 					// Make the TNVI
-					TreeMap<String,TreeMap<String,Set<JEXEntry>>> NVI = TNVI.get(type);
+					TreeMap<String,TreeMap<String,Set<JEXEntry>>> NVI = result.get(type);
 					if (NVI == null){
 						NVI = new TreeMap<String,TreeMap<String,Set<JEXEntry>>>();
-						TNVI.put(type, NVI);
+						result.put(type, NVI);
 					}
 					TreeMap<String,Set<JEXEntry>> VI = NVI.get(name);
 					if (VI == null){
@@ -846,9 +933,68 @@ public class JEXDB implements Iterable<JEXEntry> {
 		}
 		JEXStatics.statusBar.setProgressPercentage(0);
 		
-		fTNVI     = TNVI;
-		sTNVI     = TNVI;
-		this.filteredEntries = this.entries;
+		return result;
+	}
+	
+	/**
+	 * Compare the dictionaries maintained on each change with a full rebuild
+	 * and rebuild them if they differ. Walks the whole database, so only use
+	 * it as a consistency check (e.g. when the whole database is saved anyway)
+	 * @return true if the dictionaries were consistent
+	 */
+	public boolean checkDictionaries()
+	{
+		boolean consistent = sameDictionary(buildTNVI(), this.TNVI);
+		
+		// The experiment tree should hold each entry exactly once
+		int treeSize = 0;
+		if (this.experimentalTable != null)
+		{
+			for (Experiment exp: this.experimentalTable.values())
+			{
+				if (exp.getEntries() != null) treeSize = treeSize + exp.getEntries().size();
+			}
+		}
+		consistent = consistent && treeSize == this.entries.size();
+		
+		if (!consistent)
+		{
+			JEXStatics.logManager.log("Database dictionaries were out of date, rebuilding them", 0, this);
+			
+			// Keep the entries of the current view rather than showing the whole database again
+			TreeSet<JEXEntry> filtered = new TreeSet<JEXEntry>(this.filteredEntries);
+			filtered.retainAll(this.entries);
+			makeTNVIs();
+			this.filteredEntries = filtered;
+			makeFiltTNVI();
+			makeStatTNVI();
+			makeExperimentTree();
+		}
+		return consistent;
+	}
+	
+	/**
+	 * Compare two dictionaries by content. The entry sets are hashed by entry ID,
+	 * which changes when the entries are renumbered, so compare them in ID order
+	 */
+	private static boolean sameDictionary(tnvi a, tnvi b)
+	{
+		if (b == null || !a.keySet().equals(b.keySet())) return false;
+		for (String type: a.keySet())
+		{
+			TreeMap<String,TreeMap<String,Set<JEXEntry>>> aNVI = a.get(type), bNVI = b.get(type);
+			if (!aNVI.keySet().equals(bNVI.keySet())) return false;
+			for (String name: aNVI.keySet())
+			{
+				TreeMap<String,Set<JEXEntry>> aVI = aNVI.get(name), bVI = bNVI.get(name);
+				if (!aVI.keySet().equals(bVI.keySet())) return false;
+				for (String value: aVI.keySet())
+				{
+					if (!new TreeSet<JEXEntry>(aVI.get(value)).equals(new TreeSet<JEXEntry>(bVI.get(value)))) return false;
+				}
+			}
+		}
+		return true;
 	}
 	
 	protected void makeFiltTNVI()
@@ -872,48 +1018,8 @@ public class JEXDB implements Iterable<JEXEntry> {
 		// Loop through the entries and check if they match the filterset
 		for (JEXEntry entry: entries)
 		{
-			
-			// Does it match the filterset?
-			boolean match = true;
-			
-			// Loop through the filters
-			for (Filter filter: statFilters)
-			{				
-				// Get the fields of the filter
-				String type = filter.getType();
-				String name = filter.getName();
-				Set<String> values = filter.getValues();
-
-				// Send message
-				JEXStatics.logManager.log("Filtering TNVI based on filter: type="+type+" name="+name+" values="+values.toString(), 2, this);
-				
-				// does the entry have an object of type TYPE
-				TreeMap<String,JEXData> nv = entry.getDataList().get(type);
-				if (nv == null) 
-				{
-					match = false;
-					break;
-				}
-				
-				// does the entry have an object of name NAME
-				JEXData data = nv.get(name);
-				if (data == null)
-				{
-					match = false;
-					break;
-				}
-				
-				// does the value of the object match one of the filtered values
-				boolean e = values.contains(data.getDictionaryValue());
-				if (!e)
-				{
-					match = false;
-					break;
-				}
-			}
-			
 			// Does the entry match the filterset
-			if (match)
+			if (entryMatchesStatFilters(entry))
 			{				
 				// Send message
 				JEXStatics.logManager.log("Entry with ID="+entry.getEntryID()+" added to filtered database", 1, this);
@@ -923,6 +1029,55 @@ public class JEXDB implements Iterable<JEXEntry> {
 			}
 		}
 	}
+	
+	/**
+	 * Does the entry ENTRY match all the statistics filters
+	 * @param entry
+	 * @return
+	 */
+	private boolean entryMatchesStatFilters(JEXEntry entry)
+	{
+		// Loop through the filters
+		for (Filter filter: statFilters)
+		{				
+			// Get the fields of the filter
+			String type = filter.getType();
+			String name = filter.getName();
+			Set<String> values = filter.getValues();
+
+			// Send message
+			JEXStatics.logManager.log("Filtering TNVI based on filter: type="+type+" name="+name+" values="+values.toString(), 2, this);
+			
+			// does the entry have an object of type TYPE
+			TreeMap<String,JEXData> nv = entry.getDataList().get(type);
+			if (nv == null) return false;
+			
+			// does the entry have an object of name NAME
+			JEXData data = nv.get(name);
+			if (data == null) return false;
+			
+			// does the value of the object match one of the filtered values
+			if (!values.contains(data.getDictionaryValue())) return false;
+		}
+		return true;
+	}
+	
+	/**
+	 * Does the data DATA fall under one of the filters of the filtered fTNVI
+	 * @param data
+	 * @return
+	 */
+	private boolean dataMatchesFilters(JEXData data)
+	{
+		if (filters == null) return false;
+		for (Filter filter: filters)
+		{
+			if (!filter.getType().equals(data.getTypeName().getType())) continue;
+			if (!filter.getName().equals(data.getTypeName().getName())) continue;
+			if (filter.getValues().contains(data.getDictionaryValue())) return true;
+		}
+		return false;
+	}
 
 	/**
 	 * Recreate the exprimental tree of the database becuase
@@ -963,11 +1118,20 @@ public class JEXDB implements Iterable<JEXEntry> {
 		
 		
 		// Update the experimental table in the database Info
-		// MAYBE CHECK FOR PASSWORD PROTECTION IF YOU DONT WANT UNWANTED CHANGES
-		JEXStatics.jexManager.getDatabaseInfo().setExperimentalTable(result);
+		publishExperimentTree();
 		return;
 	}
 	
+	/**
+	 * Update the experimental table in the database Info
+	 */
+	private void publishExperimentTree()
+	{
+		// MAYBE CHECK FOR PASSWORD PROTECTION IF YOU DONT WANT UNWANTED CHANGES
+		if (JEXStatics.jexManager == null || JEXStatics.jexManager.getDatabaseInfo() == null) return;
+		JEXStatics.jexManager.getDatabaseInfo().setExperimentalTable(this.experimentalTable);
+	}
+	
 //	/**
 //	 * Update the experimental tree without re-creating it
 //	 */
@@ -997,6 +1161,60 @@ public class JEXDB implements Iterable<JEXEntry> {
 	// Dictionnary updating methods
 	// ---------------------------------------------
 	
+	/**
+	 * Add the entry ENTRY to the experiment tree, creating its experiment if needed
+	 * @param entry
+	 */
+	private void addEntryToExperimentTree(JEXEntry entry)
+	{
+		if (this.experimentalTable == null) this.experimentalTable = new TreeMap<String,Experiment>();
+		
+		// Get the experiment if it has already been created, else create one
+		Experiment exp = this.experimentalTable.get(entry.getEntryExperiment());
+		if (exp == null)
+		{
+			String expName 	 = entry.getEntryExperiment();
+			String expInfo   = entry.getEntryExperimentInfo();
+			String expDate   = entry.getDate();
+			String expMDate  = entry.getModificationDate();
+			String expAuthor = entry.getAuthor();
+			String expNumber = "1";
+			exp = new Experiment(expName,expInfo,expDate,expMDate,expAuthor,expNumber);
+			this.experimentalTable.put(expName, exp);
+		}
+		else if (!exp.containsEntry(entry))
+		{
+			int expNumber = Integer.parseInt(exp.expNumber) + 1;
+			exp.expNumber = "" + expNumber;
+		}
+		
+		// Add the array name and entry to the experiment
+		exp.addEntry(entry);
+	}
+	
+	/**
+	 * Remove the entry ENTRY from the experiment tree, dropping its experiment if it is empty
+	 * @param entry
+	 */
+	private void removeEntryFromExperimentTree(JEXEntry entry)
+	{
+		if (this.experimentalTable == null) return;
+		
+		Experiment exp = this.experimentalTable.get(entry.getEntryExperiment());
+		if (exp == null || exp.getEntries() == null || !exp.containsEntry(entry)) return;
+		
+		exp.removeEntry(entry);
+		if (exp.getEntries().size() == 0)
+		{
+			this.experimentalTable.remove(entry.getEntryExperiment());
+		}
+		else
+		{
+			int expNumber = Integer.parseInt(exp.expNumber) - 1;
+			exp.expNumber = "" + expNumber;
+		}
+	}
+	
 	/**
 	 * Update the experiment tree with additional data
 	 * @param entry
@@ -1004,23 +1222,41 @@ public class JEXDB implements Iterable<JEXEntry> {
 	 */
 	private void addEntryForDataToExperimentTree(JEXEntry entry, JEXData data)
 	{
-		// Loop through the experimental tree
-		TreeMap<String,Experiment> expTree = this.getExperimentalTable();
-		for (String expname: expTree.keySet())
-		{
-			// Get the experiment
-			Experiment exp = expTree.get(expname);
-			
-			// Does the experiment contain the entry ENTRY
-			if (!exp.containsEntry(entry)) continue;
-			
-			// Update the experiment with the data
-			exp.addEntryForData(entry, data);
-		}
+		if (this.experimentalTable == null) return;
+		
+		// Get the experiment of the entry
+		Experiment exp = this.experimentalTable.get(entry.getEntryExperiment());
+		
+		// Does the experiment contain the entry ENTRY
+		if (exp == null || exp.getEntries() == null || !exp.containsEntry(entry)) return;
+		
+		// Update the experiment with the data
+		exp.addEntryForData(entry, data);
+	}
+
+	/**
+	 * Update the experiment tree by removing data
+	 * @param entry
+	 * @param data
+	 */
+	private void removeEntryForDataFromExperimentTree(JEXEntry entry, JEXData data)
+	{
+		if (this.experimentalTable == null) return;
+		
+		// Get the experiment of the entry
+		Experiment exp = this.experimentalTable.get(entry.getEntryExperiment());
+		
+		// Does the experiment contain the entry ENTRY
+		if (exp == null || exp.getEntries() == null || !exp.containsEntry(entry)) return;
+		
+		// Update the experiment with the data
+		exp.removeEntryForData(entry, data);
 	}
 
 	/**
-	 * Update the main dictionaries by adding a data to an entry
+	 * Update the main dictionaries by adding a data to an entry.
+	 * The filtered and statistics dictionaries are only touched when 
+	 * they are not the main TNVI itself
 	 * @param entry
 	 * @param data
 	 */
@@ -1031,29 +1267,83 @@ public class JEXDB implements Iterable<JEXEntry> {
 		
 		// Update TNVI
 		this.TNVI.addEntryForData(entry, data);
-		this.fTNVI.addEntryForData(entry, data);
-
+		
+		// Update the fTNVI if the data passes the filters
+		if (this.fTNVI != this.TNVI && dataMatchesFilters(data))
+		{
+			this.fTNVI.addEntryForData(entry, data);
+		}
+		
+		// Update the sTNVI, the new data might make the entry match the statistics filters
+		if (this.sTNVI != this.TNVI && this.sTNVI != this.fTNVI && entryMatchesStatFilters(entry))
+		{
+			this.sTNVI._addEntryForAllDataInEntry(entry);
+		}
 	}
-
+	
 	/**
-	 * Update the experiment tree with additional data
+	 * Update the main dictionaries by removing a data from an entry
 	 * @param entry
 	 * @param data
 	 */
-	private void removeEntryForDataFromExperimentTree(JEXEntry entry, JEXData data)
+	private void removeEntryForDataFromTNVIs(JEXEntry entry, JEXData data)
 	{
-		// Loop through the experimental tree
-		TreeMap<String,Experiment> expTree = this.getExperimentalTable();
-		for (String expname: expTree.keySet())
+		// if data is null pass
+		if (data == null) return;
+		
+		// Update TNVI
+		this.TNVI._removeEntryForData(entry, data);
+		if (this.fTNVI != this.TNVI)
 		{
-			// Get the experiment
-			Experiment exp = expTree.get(expname);
-			
-			// Does the experiment contain the entry ENTRY
-			if (!exp.containsEntry(entry)) continue;
-			
-			// Update the experiment with the data
-			exp.removeEntryForData(entry, data);
+			this.fTNVI._removeEntryForData(entry, data);
+		}
+		
+		// Update the sTNVI, drop the entry if it doesn't match the statistics filters anymore
+		if (this.sTNVI != this.TNVI && this.sTNVI != this.fTNVI)
+		{
+			this.sTNVI._removeEntryForData(entry, data);
+			if (!entryMatchesStatFilters(entry))
+			{
+				for (TreeMap<String,JEXData> nv: entry.getDataList().values())
+				{
+					for (JEXData d: nv.values())
+					{
+						this.sTNVI._removeEntryForData(entry, d);
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Add all the data of the entry ENTRY to the dictionaries
+	 * @param entry
+	 */
+	private void addEntryToTNVIs(JEXEntry entry)
+	{
+		for (TreeMap<String,JEXData> nv: entry.getDataList().values())
+		{
+			for (JEXData data: nv.values())
+			{
+				addEntryForDataToTNVIs(entry, data);
+			}
+		}
+	}
+	
+	/**
+	 * Remove all the data of the entry ENTRY from the dictionaries
+	 * @param entry
+	 */
+	private void removeEntryFromTNVIs(JEXEntry entry)
+	{
+		for (TreeMap<String,JEXData> nv: entry.getDataList().values())
+		{
+			for (JEXData data: nv.values())
+			{
+				this.TNVI._removeEntryForData(entry, data);
+				if (this.fTNVI != this.TNVI) this.fTNVI._removeEntryForData(entry, data);
+				if (this.sTNVI != this.TNVI && this.sTNVI != this.fTNVI) this.sTNVI._removeEntryForData(entry, data);
+			}
 		}
 	}
 	
@@ -4,13 +4,15 @@ import image.roi.ROIPlus;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.TreeSet;
 
 import jex.statics.JEXStatics;
 
-import org.apache.commons.io.FileUtils;
 import org.jdom.Document;
 import org.jdom.JDOMException;
 import org.jdom.input.SAXBuilder;
@@ -53,8 +55,16 @@ public class JEXDBIO {
 	{
 		JEXStatics.logManager.log("Loading the local database "+xmlPath, 0, null);
 		
-		// Load the xml into this db object
-		JEXDB db = JEXDBIO.XEntrySetToDatabaseObject(xmlPath);
+		// Put the files of an interrupted save where its xml expects them
+		JEXFileUpdatePlan.recover(new File(xmlPath).getParentFile());
+		
+		// Open the database from its header index when it is up to date,
+		// otherwise load the xml into this db object
+		JEXDB db = JEXDBIndex.load(xmlPath);
+		if(db == null)
+		{
+			db = JEXDBIO.XEntrySetToDatabaseObject(xmlPath);
+		}
 		
 		if(db == null)
 		{
@@ -66,6 +76,10 @@ public class JEXDBIO {
 	/**
 	 * Save the database in folder FOLDER
 	 * Set consolidate flag to true to copy all raw data with it
+	 * 
+	 * Only the entries changed since the last save are written, appended to the
+	 * database journal. The whole xml is written only for databases that have
+	 * never been saved or whose entry IDs were renumbered while loading.
 	 * @param folder
 	 * @param consolidate
 	 * @return
@@ -73,6 +87,39 @@ public class JEXDBIO {
 	 */
 	public static boolean saveDB(JEXDB db) {
 		
+		// Finish the file moves of a previous save before planning new ones
+		File folder = new File(JEXWriter.getDatabaseFolder());
+		JEXFileUpdatePlan.recover(folder);
+		if(JEXFileUpdatePlan.getLogFile(folder).exists())
+		{
+			JEXStatics.logManager.log("The file moves of the previous save couldn't be finished, not saving", 0, JEXDBIO.class.getSimpleName());
+			return false;
+		}
+		
+		boolean success;
+		if(db.needsFullSave() || !JEXDBJournal.getDatabaseFile().exists())
+		{
+			success = JEXDBIO.saveFullDB(db);
+			
+			// The whole database was walked anyway, check the dictionaries kept up to date on each change
+			db.checkDictionaries();
+		}
+		else
+		{
+			success = JEXDBIO.saveJournal(db);
+		}
+		
+		// Return save success
+		return success;
+	}
+	
+	/**
+	 * Write the whole database to xml, archiving the previous version
+	 * @param db
+	 * @return
+	 */
+	private static boolean saveFullDB(JEXDB db) {
+		
 		// Get the saving folder
 		File folder = new File(JEXWriter.getDatabaseFolder());
 		
@@ -86,75 +133,28 @@ public class JEXDBIO {
 		
 		////////////////////////////////////////////////////////////////////////////////////////
 		// Get the XML version of the database and any file updates that need to be performed //
-		// Then perform the file updates													  //
+		// Log the file updates, they are performed once the xml is saved					  //
 		////////////////////////////////////////////////////////////////////////////////////////
 		Pair<XEntrySet,TreeMap<String,Pair<String,String>>> results  = JEXDBIO.DatabaseObjectToXEntrySet(db);
 		XEntrySet xml = results.p1;
-		TreeMap<String,Pair<String,String>> fileUpdatesToPerform = results.p2;
-
-		// Temporarily move changed files to the temp folder to avoid moving files in
-		// the wrong order and deleting something that we should be keeping.
-		try
-		{
-			File src, temp, dst;
-			for(String srcPath : fileUpdatesToPerform.keySet())
-			{
-				Pair<String,String> fileUpdate = fileUpdatesToPerform.get(srcPath);
-				src = new File(srcPath);
-				temp = new File(fileUpdate.p1); // The temp file name should already be unique because it was given to use by JEXWriter.
-				dst = new File(fileUpdate.p2);
-				if(!src.equals(dst))
-				{
-					if(src.isDirectory())
-					{
-						FileUtility.moveFolderContents(src, temp);
-					}
-					else
-					{
-						if(temp.exists())
-						{
-							// We can delete this because we know we alread have a unique name from JEXWriter for this Database session
-							// This is a leftover file from a previous session
-							FileUtils.deleteQuietly(temp);
-						}
-						FileUtils.moveFile(src, temp);
-					}
-				}
-			}
-			// Now move from the temp folder to the new location in the database.
-			// Now we can assume that everything in the way of the file move can be deleted.
-			for(String srcPath : fileUpdatesToPerform.keySet())
-			{
-				Pair<String,String> fileUpdate = fileUpdatesToPerform.get(srcPath);
-				src = new File(srcPath);
-				temp = new File(fileUpdate.p1); // The temp file name should already be unique because it was given to use by JEXWriter.
-				dst = new File(fileUpdate.p2);
-				if(!src.equals(dst))
-				{
-					// Now we know we can delete any file that might exists at dst
-					FileUtils.deleteQuietly(dst); // make room for the new file or else moveFile will error
-					if(src.isDirectory())
-					{
-						FileUtility.moveFolderContents(temp, dst);
-					}
-					else
-					{
-						FileUtils.moveFile(temp, dst);
-					}
-				}
-			}
-		}
-		catch(IOException e)
-		{
-			e.printStackTrace();
-		}
+		JEXFileUpdatePlan plan = JEXDBIO.planFileUpdates(results.p2);
 		
 		/////////////////////////////////////////
 		// Save the real XML version of the DB //
 		/////////////////////////////////////////
 		String XMLDBString = XMLUtility.toHardXML(xml);
 		String xmlPath     = JEXWriter.getDatabaseFolder() + File.separator + LOCAL_DATABASE_FILENAME; 
-		XMLUtility.XMLsave(xmlPath, XMLDBString);
+		synchronized(JEXDBJournal.class)
+		{
+			XMLUtility.XMLsave(xmlPath, XMLDBString);
+			plan.commit();
+			
+			// The xml now contains everything that was journaled
+			JEXDBJournal.clear();
+			JEXDBIndex.write(xml, new File(xmlPath));
+		}
+		JEXDBIO.performFileUpdates(plan);
+		db.changesSaved(-1);
 		JEXStatics.logManager.log("======================================================", 0, JEXDBIO.class.getSimpleName());
 		JEXStatics.logManager.log("Saved hard XML at location "+xmlPath, 0, JEXDBIO.class.getSimpleName());
 		
@@ -165,16 +165,131 @@ public class JEXDBIO {
 		JEXStatics.logManager.log("Saved pretty XML at location "+prettypath, 0, JEXDBIO.class.getSimpleName());
 		JEXStatics.logManager.log("======================================================", 0, JEXDBIO.class.getSimpleName());
 		
-		// Remake the tnvis because the dictionary values have been updated 
-		db.makeTNVIs();
-		db.makeFiltTNVI();
-		db.makeStatTNVI();
-		db.makeExperimentTree();
+		return true;
+	}
+	
+	/**
+	 * Append the entries changed since the last save to the database journal
+	 * and compact the journal in the background if it got large
+	 * @param db
+	 * @return
+	 */
+	private static boolean saveJournal(JEXDB db)
+	{
+		StopWatch stopwatch = new StopWatch();
+		stopwatch.start();
+		
+		LinkedHashMap<String,XEntry> xentries = new LinkedHashMap<String,XEntry>();
+		TreeMap<String,Pair<String,String>> fileUpdatesToPerform = new TreeMap<String,Pair<String,String>>();
+		for(JEXEntry entry : JEXDBIO.getEntriesToSave(db))
+		{
+			try 
+			{
+				Pair<XEntry,TreeMap<String,Pair<String,String>>> results = JEXDBIO.DatabaseObjectToXEntry(entry);
+				xentries.put(entry.getEntryID(), results.p1);
+				fileUpdatesToPerform.putAll(results.p2);
+			} 
+			catch (Exception e)
+			{
+				e.printStackTrace();
+				JEXStatics.logManager.log("Error in saving entry number "+entry.getEntryID(), 0, JEXDBIO.class.getSimpleName());
+				JEXStatics.statusBar.setStatusText("Error in saving entry number "+entry.getEntryID());
+			}
+		}
+		JEXFileUpdatePlan plan = JEXDBIO.planFileUpdates(fileUpdatesToPerform);
 		
-		// Return save success
+		boolean success = JEXDBJournal.append(xentries, new ArrayList<String>(db.getRemovedEntryIDs()));
+		
+		if(!success)
+		{
+			// The saved database still references the old locations of the files, leave them there
+			plan.abort();
+			JEXStatics.logManager.log("Couldn't write the journal, the files of this save weren't moved. Reopen the database before saving again", 0, JEXDBIO.class.getSimpleName());
+			return false;
+		}
+		plan.commit();
+		JEXDBIO.performFileUpdates(plan);
+		db.changesSaved(xentries.size());
+		
+		stopwatch.stop();
+		JEXStatics.logManager.log("Saved " + xentries.size() + " entries to the journal in " + stopwatch.toString(), 0, JEXDBIO.class.getSimpleName());
+		
+		JEXDBJournal.compactIfNeeded();
 		return true;
 	}
 	
+	/**
+	 * Return the entries that have to be written on the next save, i.e. the ones
+	 * modified through the database, the ones holding loaded data that might need
+	 * updating and the ones whose experiment or tray was renamed
+	 * @param db
+	 * @return
+	 */
+	private static TreeSet<JEXEntry> getEntriesToSave(JEXDB db)
+	{
+		TreeSet<JEXEntry> ret = new TreeSet<JEXEntry>(db.getModifiedEntries());
+		for(JEXEntry entry : db)
+		{
+			if(ret.contains(entry))
+			{
+				continue;
+			}
+			if(didExperimentOrTrayNameChange(entry) || hasLoadedData(entry))
+			{
+				ret.add(entry);
+			}
+		}
+		return ret;
+	}
+	
+	private static boolean hasLoadedData(JEXEntry entry)
+	{
+		for(TreeMap<String,JEXData> datas : entry.getDataList().values())
+		{
+			for(JEXData data : datas.values())
+			{
+				if(data.isLoaded() && !data.getTypeName().getType().equals(JEXData.HIERARCHY))
+				{
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Plan the moves of the files referenced by the saved data objects and log
+	 * them in the database folder before the xml or journal is written
+	 * @param fileUpdatesToPerform map of source path to (temp path, destination path or null to delete the source)
+	 * @return
+	 */
+	private static JEXFileUpdatePlan planFileUpdates(TreeMap<String,Pair<String,String>> fileUpdatesToPerform)
+	{
+		JEXFileUpdatePlan plan = new JEXFileUpdatePlan(fileUpdatesToPerform);
+		if(!plan.writeLog())
+		{
+			JEXStatics.logManager.log("Couldn't log the file moves of this save, an interrupted save won't be recovered", 0, JEXDBIO.class.getSimpleName());
+		}
+		return plan;
+	}
+	
+	/**
+	 * Move the files referenced by the saved data objects to their new location
+	 * @param plan
+	 */
+	private static void performFileUpdates(JEXFileUpdatePlan plan)
+	{
+		StopWatch stopwatch = new StopWatch();
+		stopwatch.start();
+		boolean success = plan.perform();
+		stopwatch.stop();
+		if(!success)
+		{
+			JEXStatics.logManager.log("Some files couldn't be moved, they will be moved again when the database is opened", 0, JEXDBIO.class.getSimpleName());
+		}
+		JEXStatics.logManager.log("File updates performed in " + stopwatch.toString(), 1, JEXDBIO.class.getSimpleName());
+	}
+	
 	// ----------------------------
 	// XEntrySet to JEXLocalDatabaseCore
 	// ----------------------------
@@ -211,6 +326,12 @@ public class JEXDBIO {
 		JEXStatics.logManager.log("Factory TIME: "+stopwatch.toString(), 0, JEXDBIO.class.getSimpleName());
 		JEXStatics.logManager.log("======================================================", 0, JEXDBIO.class.getSimpleName());
 		XEntrySet xmlElement = (XEntrySet) resturnDoc.getRootElement();
+		
+		// Index the headers so the next opening doesn't need to parse the xml
+		JEXDBIndex.write(xmlElement, xmlFile);
+		
+		// Bring the xml up to date with the saves journaled since it was written
+		JEXDBJournal.applyTo(xmlElement);
 
 		stopwatch = new StopWatch();
 	    stopwatch.start();
@@ -250,40 +371,8 @@ public class JEXDBIO {
 			int thisID = Integer.parseInt(entry.getEntryID());
 			maxID      = Math.max(maxID, thisID) + 1;
 			
-			// get the data list
-			TreeMap<String, TreeMap<String, JEXData>> datalist = entry.getDataList();
-			
-			// Make the hierarchy map
-			TreeMap<String, JEXData> hmap = datalist.get(JEXData.HIERARCHY);
-			if (hmap == null) {
-				hmap = new TreeMap<String, JEXData>();
-				datalist.put(JEXData.HIERARCHY, hmap);
-			}
-			
-			// Add the experiment, array name, and x, y locations to the datamap
-			JEXData expData = HeirarchyWriter.makeHeirarchy(JEXEntry.EXPERIMENT, entry.getEntryExperiment());
-			hmap.put(JEXEntry.EXPERIMENT, expData);
-			
-			JEXData trayData = HeirarchyWriter.makeHeirarchy(JEXEntry.TRAY, entry.getEntryTrayName());
-			hmap.put(JEXEntry.TRAY, trayData);
-			
-			JEXData xData = HeirarchyWriter.makeHeirarchy(JEXEntry.X, ""+entry.getTrayX());
-			hmap.put(JEXEntry.X, xData);
-			
-			JEXData yData = HeirarchyWriter.makeHeirarchy(JEXEntry.Y, ""+entry.getTrayY());
-			hmap.put(JEXEntry.Y, yData);
-			
-			// Check that the valid label exists
-			TreeMap<String, JEXData> vmap = datalist.get(JEXData.LABEL);
-			if (vmap == null){
-				vmap = new TreeMap<String, JEXData>();
-				datalist.put(JEXData.LABEL, vmap);
-			}
-			JEXData vLabel = vmap.get(JEXEntry.VALID);
-			if (vLabel == null){
-				vLabel = new JEXLabel(JEXEntry.VALID,"true",""); //makeJEXMLDataValue(JEXData.LABEL,JEXEntry.VALID,"validity","true");
-				vmap.put(JEXEntry.VALID, vLabel);
-			}
+			// Add the experiment, array name, x, y locations and valid label to the datamap
+			JEXDBIO.addHierarchyData(entry);
 			
 			// add the data list
 			ret.getEntries().add(entry);
@@ -294,6 +383,7 @@ public class JEXDBIO {
 		}
 		
 		ret.setMaxID(maxID);
+		ret.setNeedsFullSave(resetIDs);
 		ret.makeTNVIs();
 		ret.makeFiltTNVI();
 		ret.makeStatTNVI();
@@ -351,17 +441,7 @@ public class JEXDBIO {
 		}
 		
 		// set the meta data on the entry
-		result.setEntryExperiment(expName);
-		result.loadTimeExperimentName = expName;
-		result.setEntryExperimentInfo(expInfo);
-		result.setEntryTrayName(trayName);
-		result.loadTimeTrayName = trayName;
-		result.setTrayX(Integer.parseInt(trayX));
-		result.setTrayY(Integer.parseInt(trayY));
-		result.setDate(date);
-		result.setModificationDate(modif);
-		result.setEntryID(ID);
-		result.setAuthor(author);
+		JEXDBIO.setEntryHeader(result, ID, expName, expInfo, trayName, trayX, trayY, date, modif, author);
 		
 		// Loop though to add the common data
 		for (XElement elem: children){
@@ -398,6 +478,66 @@ public class JEXDBIO {
 		return result;
 	}
 	
+	/**
+	 * Set the hierarchy and administrative fields of an entry being loaded
+	 */
+	public static void setEntryHeader(JEXEntry result, String ID, String expName, String expInfo, String trayName, String trayX, String trayY, String date, String modif, String author)
+	{
+		result.setEntryExperiment(expName);
+		result.loadTimeExperimentName = expName;
+		result.setEntryExperimentInfo(expInfo);
+		result.setEntryTrayName(trayName);
+		result.loadTimeTrayName = trayName;
+		result.setTrayX(Integer.parseInt(trayX));
+		result.setTrayY(Integer.parseInt(trayY));
+		result.setDate(date);
+		result.setModificationDate(modif);
+		result.setEntryID(ID);
+		result.setAuthor(author);
+	}
+	
+	/**
+	 * Add the hierarchy data objects and the valid label to a freshly loaded entry
+	 * @param entry
+	 */
+	public static void addHierarchyData(JEXEntry entry)
+	{
+		// get the data list
+		TreeMap<String, TreeMap<String, JEXData>> datalist = entry.getDataList();
+		
+		// Make the hierarchy map
+		TreeMap<String, JEXData> hmap = datalist.get(JEXData.HIERARCHY);
+		if (hmap == null) {
+			hmap = new TreeMap<String, JEXData>();
+			datalist.put(JEXData.HIERARCHY, hmap);
+		}
+		
+		// Add the experiment, array name, and x, y locations to the datamap
+		JEXData expData = HeirarchyWriter.makeHeirarchy(JEXEntry.EXPERIMENT, entry.getEntryExperiment());
+		hmap.put(JEXEntry.EXPERIMENT, expData);
+		
+		JEXData trayData = HeirarchyWriter.makeHeirarchy(JEXEntry.TRAY, entry.getEntryTrayName());
+		hmap.put(JEXEntry.TRAY, trayData);
+		
+		JEXData xData = HeirarchyWriter.makeHeirarchy(JEXEntry.X, ""+entry.getTrayX());
+		hmap.put(JEXEntry.X, xData);
+		
+		JEXData yData = HeirarchyWriter.makeHeirarchy(JEXEntry.Y, ""+entry.getTrayY());
+		hmap.put(JEXEntry.Y, yData);
+		
+		// Check that the valid label exists
+		TreeMap<String, JEXData> vmap = datalist.get(JEXData.LABEL);
+		if (vmap == null){
+			vmap = new TreeMap<String, JEXData>();
+			datalist.put(JEXData.LABEL, vmap);
+		}
+		JEXData vLabel = vmap.get(JEXEntry.VALID);
+		if (vLabel == null){
+			vLabel = new JEXLabel(JEXEntry.VALID,"true",""); //makeJEXMLDataValue(JEXData.LABEL,JEXEntry.VALID,"validity","true");
+			vmap.put(JEXEntry.VALID, vLabel);
+		}
+	}
+	
 	// ----------------------------
 	// XData to JEXData
 	// ----------------------------
@@ -425,20 +565,8 @@ public class JEXDBIO {
 		dataInfo           = (dataInfo == null) ? "No" : dataInfo;
 		
 		if (type == null) return null;
-		result = new JEXData(type,dataName,dataInfo);
-		result.setParent(entry);
+		result = JEXDBIO.makeDataHeader(type, dataName, dataInfo, dataDate, dataModif, author, dictKey, entry);
 		
-		result.setDataObjectDate(dataDate);
-		result.setDataObjectModifDate(dataModif);
-		result.setDataObjectInfo(dataInfo);
-		result.setDataObjectName(dataName);
-		result.setAuthor(author);
-		
-		if (dictKey != null && !dictKey.equals(""))
-		{
-			// Else the next request for the dictionaryvalue witll load the object and set it
-			result.setDictionaryValue(dictKey);
-		}
 		if(objPath == null || objPath.equals(""))
 		{
 			// IF WE HAVE AN OLD XML TYP JEXDATA THAT DOESN'T HAVE A DETACHED PATH
@@ -469,20 +597,50 @@ public class JEXDBIO {
 		}
 		else
 		{
-			if(objPath.endsWith("xml")) // XML VERSIONS OF JEXDATA WERE SAVED IN THE ENTRY FOLDER NOT THE JEXDATA FOLDER
-			{
-				result.setDetachedRelativePath(JEXWriter.getEntryFolder(entry, true, true) + File.separator + FileUtility.getFileNameWithExtension(objPath));
-				result.setDimTable(new DimTable(dataDims)); // DIM TABLE WAS SAVED IN DATABASE XML
-			}
-			else // CSV/ARFF SAVED IN JEXDATA FOLDER
-			{
-				result.setDetachedRelativePath(JEXWriter.getDataFolder(result, true) + File.separator + FileUtility.getFileNameWithExtension(objPath));
-				// DIM TABLE IS CONTAINED IN CSV/ARFF SO WE DONT WANT TO LOAD IT YET
-			}
+			JEXDBIO.setDetachedLocation(result, objPath, dataDims, entry);
 		}
 		
 		return result;
 	}
+	
+	/**
+	 * Make an unloaded JEXData with its administrative fields set
+	 */
+	public static JEXData makeDataHeader(String type, String dataName, String dataInfo, String dataDate, String dataModif, String author, String dictKey, JEXEntry entry)
+	{
+		JEXData result = new JEXData(type,dataName,dataInfo);
+		result.setParent(entry);
+		
+		result.setDataObjectDate(dataDate);
+		result.setDataObjectModifDate(dataModif);
+		result.setDataObjectInfo(dataInfo);
+		result.setDataObjectName(dataName);
+		result.setAuthor(author);
+		
+		if (dictKey != null && !dictKey.equals(""))
+		{
+			// Else the next request for the dictionaryvalue witll load the object and set it
+			result.setDictionaryValue(dictKey);
+		}
+		return result;
+	}
+	
+	/**
+	 * Point a JEXData to its detached file, its content is loaded on the first call to getDataMap()
+	 */
+	public static void setDetachedLocation(JEXData result, String objPath, String dataDims, JEXEntry entry)
+	{
+		if(objPath.endsWith("xml")) // XML VERSIONS OF JEXDATA WERE SAVED IN THE ENTRY FOLDER NOT THE JEXDATA FOLDER
+		{
+			result.setDetachedRelativePath(JEXWriter.getEntryFolder(entry, true, true) + File.separator + FileUtility.getFileNameWithExtension(objPath));
+			result.setDimTable(new DimTable(dataDims)); // DIM TABLE WAS SAVED IN DATABASE XML
+		}
+		else // CSV/ARFF SAVED IN JEXDATA FOLDER
+		{
+			result.setDetachedRelativePath(JEXWriter.getDataFolder(result, true) + File.separator + FileUtility.getFileNameWithExtension(objPath));
+			// DIM TABLE IS CONTAINED IN CSV/ARFF SO WE DONT WANT TO LOAD IT YET
+		}
+	}
 
 	// ----------------------------
 	// XDataSingle to JEXDataSingle
@@ -0,0 +1,333 @@
+package Database.SingleUserDatabase;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+
+import jex.statics.JEXStatics;
+
+import org.apache.commons.io.FileUtils;
+
+import utilities.StopWatch;
+import Database.DBObjects.JEXData;
+import Database.DBObjects.JEXEntry;
+import Database.DBObjects.JEXLabel;
+import Database.SingleUserDatabase.xml.XData;
+import Database.SingleUserDatabase.xml.XDataSingle;
+import Database.SingleUserDatabase.xml.XElement;
+import Database.SingleUserDatabase.xml.XEntry;
+import Database.SingleUserDatabase.xml.XEntrySet;
+
+/**
+ * Compact binary index of the entry and data headers of JEX4Database.xml.
+ *
+ * Opening a database through the index skips building the JDOM tree of the whole xml.
+ * Only the headers needed to build the entries and the tnvi (experiment, tray, x/y and
+ * the TypeName and dictionary key of each data object) are read, the content of each
+ * JEXData stays in its detached file until getDataMap() is called. The index remembers
+ * the length and date of the xml it was made from and is ignored once they change.
+ */
+public class JEXDBIndex {
+	
+	public static String LOCAL_INDEX_FILENAME = "JEX4Database.index";
+	public static String INDEX_VERSION = "JEXDBIndex-1";
+	
+	public static File getIndexFile(File xmlFile)
+	{
+		return new File(xmlFile.getParent() + File.separator + LOCAL_INDEX_FILENAME);
+	}
+	
+	// ---------------------------------------------
+	// Writing
+	// ---------------------------------------------
+	
+	/**
+	 * Write the index of the headers of the xml saved at XMLFILE. Databases still containing
+	 * data objects stored inside the xml (old format) are not indexed.
+	 * @param xml
+	 * @param xmlFile
+	 * @return true if the index was written
+	 */
+	public static boolean write(XEntrySet xml, File xmlFile)
+	{
+		File indexFile = getIndexFile(xmlFile);
+		FileUtils.deleteQuietly(indexFile);
+		
+		List<XElement> xentries = xml.getXElements();
+		DataOutputStream out = null;
+		boolean success = false;
+		try
+		{
+			out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(indexFile)));
+			out.writeUTF(INDEX_VERSION);
+			out.writeLong(xmlFile.length());
+			out.writeLong(xmlFile.lastModified());
+			out.writeInt(xentries.size());
+			for(XElement elem : xentries)
+			{
+				if(!writeEntry(out, (XEntry) elem))
+				{
+					JEXStatics.logManager.log("Database contains embedded data objects, no index written", 1, JEXDBIndex.class.getSimpleName());
+					return false;
+				}
+			}
+			out.flush();
+			success = true;
+		}
+		catch (IOException e)
+		{
+			e.printStackTrace();
+		}
+		finally
+		{
+			try
+			{
+				if(out != null) out.close();
+			}
+			catch (IOException e)
+			{
+				e.printStackTrace();
+			}
+			if(!success)
+			{
+				FileUtils.deleteQuietly(indexFile);
+			}
+		}
+		return success;
+	}
+	
+	private static boolean writeEntry(DataOutputStream out, XEntry xe) throws IOException
+	{
+		String id = xe.getAtt(JEXEntry.EID);
+		if(id == null || id.equals(""))
+		{
+			return false;
+		}
+		
+		String expName = "", expInfo = "", trayName = "", trayX = "", trayY = "";
+		int dataCount = 0;
+		for (XElement elem : xe.getXElements())
+		{
+			XData xdata = (XData) elem;
+			if (!xdata.getTypeField().equals(JEXData.HIERARCHY))
+			{
+				dataCount++;
+				continue;
+			}
+			String level = xdata.getAtt(JEXData.NAME);
+			XDataSingle ds = xdata.getFirstDataElement();
+			if (level.equals(JEXEntry.EXPERIMENT)){
+				expName = ds.getAtt("Value");
+				expInfo = xdata.getAtt("Info");
+			}
+			if (level.equals(JEXEntry.TRAY)){
+				trayName = ds.getAtt("Value");
+			}
+			if (level.equals("Row")){
+				trayX = ds.getAtt("Value");
+			}
+			if (level.equals("Column")){
+				trayY = ds.getAtt("Value");
+			}
+		}
+		
+		writeString(out, id);
+		writeString(out, expName);
+		writeString(out, expInfo);
+		writeString(out, trayName);
+		writeString(out, trayX);
+		writeString(out, trayY);
+		writeString(out, xe.getAtt(JEXEntry.DATE));
+		writeString(out, xe.getAtt(JEXEntry.MODIFDATE));
+		writeString(out, xe.getAtt(JEXEntry.AUTHOR));
+		out.writeInt(dataCount);
+		
+		for (XElement elem : xe.getXElements())
+		{
+			XData xdata = (XData) elem;
+			if (xdata.getTypeField().equals(JEXData.HIERARCHY))
+			{
+				continue;
+			}
+			String objPath = xdata.getAtt(JEXData.DETACHED_RELATIVEPATH);
+			if(objPath == null || objPath.equals(""))
+			{
+				return false;
+			}
+			writeString(out, xdata.getAttributeValue(JEXData.TYPE));
+			writeString(out, xdata.getAtt(JEXData.NAME));
+			writeString(out, xdata.getAtt(JEXData.INFO));
+			writeString(out, xdata.getAtt(JEXData.DATE));
+			writeString(out, xdata.getAtt(JEXData.MDATE));
+			writeString(out, xdata.getAtt(JEXData.AUTHOR));
+			writeString(out, xdata.getAtt(JEXData.DIMS));
+			writeString(out, objPath);
+			writeString(out, xdata.getAtt(JEXData.DICTKEY));
+		}
+		return true;
+	}
+	
+	// ---------------------------------------------
+	// Reading
+	// ---------------------------------------------
+	
+	/**
+	 * Open the database at XMLPATH from its index and journal
+	 * @param xmlPath
+	 * @return the database or null if there is no up to date index
+	 */
+	public static JEXDB load(String xmlPath)
+	{
+		File xmlFile = new File(xmlPath);
+		File indexFile = getIndexFile(xmlFile);
+		if(!xmlFile.exists() || !indexFile.exists())
+		{
+			return null;
+		}
+		
+		StopWatch stopwatch = new StopWatch();
+		stopwatch.start();
+		JEXDB ret = new JEXDB();
+		int maxID = 0;
+		DataInputStream in = null;
+		try
+		{
+			in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)));
+			if(!INDEX_VERSION.equals(in.readUTF()) || in.readLong() != xmlFile.length() || in.readLong() != xmlFile.lastModified())
+			{
+				JEXStatics.logManager.log("Database index is out of date", 0, JEXDBIndex.class.getSimpleName());
+				return null;
+			}
+			int entryCount = in.readInt();
+			for(int i = 0; i < entryCount; i++)
+			{
+				JEXEntry entry = readEntry(in);
+				entry.setParent(ret);
+				JEXDBIO.addHierarchyData(entry);
+				ret.getEntries().add(entry);
+				maxID = Math.max(maxID, Integer.parseInt(entry.getEntryID()) + 1);
+			}
+		}
+		catch (Exception e)
+		{
+			e.printStackTrace();
+			JEXStatics.logManager.log("Database index could not be read", 0, JEXDBIndex.class.getSimpleName());
+			return null;
+		}
+		finally
+		{
+			try
+			{
+				if(in != null) in.close();
+			}
+			catch (IOException e)
+			{
+				e.printStackTrace();
+			}
+		}
+		
+		// Replace the entries saved in the journal since the xml was written
+		TreeMap<String,JEXEntry> byID = new TreeMap<String,JEXEntry>();
+		for(JEXEntry entry : ret.getEntries())
+		{
+			byID.put(entry.getEntryID(), entry);
+		}
+		for(Entry<String,XEntry> record : JEXDBJournal.read(-1).entrySet())
+		{
+			JEXEntry old = byID.remove(record.getKey());
+			if(old != null)
+			{
+				ret.getEntries().remove(old);
+			}
+			if(record.getValue() != null)
+			{
+				JEXEntry entry = JEXDBIO.XEntryToDatabaseObject(record.getValue());
+				entry.setParent(ret);
+				JEXDBIO.addHierarchyData(entry);
+				ret.getEntries().add(entry);
+				maxID = Math.max(maxID, Integer.parseInt(entry.getEntryID()) + 1);
+			}
+		}
+		
+		ret.setMaxID(maxID);
+		ret.setNeedsFullSave(false);
+		ret.makeTNVIs();
+		ret.makeFiltTNVI();
+		ret.makeStatTNVI();
+		ret.makeExperimentTree();
+		
+		stopwatch.stop();
+		JEXStatics.logManager.log("Opened " + ret.getEntries().size() + " entries from the database index in " + stopwatch.toString(), 0, JEXDBIndex.class.getSimpleName());
+		return ret;
+	}
+	
+	private static JEXEntry readEntry(DataInputStream in) throws IOException
+	{
+		JEXEntry result = new JEXEntry();
+		String ID       = readString(in);
+		String expName  = readString(in);
+		String expInfo  = readString(in);
+		String trayName = readString(in);
+		String trayX    = readString(in);
+		String trayY    = readString(in);
+		String date     = readString(in);
+		String modif    = readString(in);
+		String author   = readString(in);
+		JEXDBIO.setEntryHeader(result, ID, expName, expInfo, trayName, trayX, trayY, date, modif, author);
+		
+		int dataCount = in.readInt();
+		boolean hasValidLabel = false;
+		for(int i = 0; i < dataCount; i++)
+		{
+			String type      = readString(in);
+			String dataName  = readString(in);
+			String dataInfo  = readString(in);
+			String dataDate  = readString(in);
+			String dataModif = readString(in);
+			String author2   = readString(in);
+			String dataDims  = readString(in);
+			String objPath   = readString(in);
+			String dictKey   = readString(in);
+			if(type == null) continue;
+			dataName = (dataName == null) ? "No" : dataName;
+			dataInfo = (dataInfo == null) ? "No" : dataInfo;
+			
+			JEXData data = JEXDBIO.makeDataHeader(type, dataName, dataInfo, dataDate, dataModif, author2, dictKey, result);
+			JEXDBIO.setDetachedLocation(data, objPath, dataDims, result);
+			result.addData(data, true);
+			if(type.equals(JEXData.LABEL) && dataName.equals(JEXEntry.VALID))
+			{
+				hasValidLabel = true;
+			}
+		}
+		if(!hasValidLabel)
+		{
+			result.addData(new JEXLabel(JEXEntry.VALID, "true", ""), false);
+		}
+		return result;
+	}
+	
+	// ---------------------------------------------
+	// Helpers
+	// ---------------------------------------------
+	
+	private static void writeString(DataOutputStream out, String s) throws IOException
+	{
+		out.writeBoolean(s != null);
+		if(s != null) out.writeUTF(s);
+	}
+	
+	private static String readString(DataInputStream in) throws IOException
+	{
+		if(!in.readBoolean()) return null;
+		return in.readUTF();
+	}
+}
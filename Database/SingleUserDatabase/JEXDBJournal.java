@@ -0,0 +1,592 @@
+package Database.SingleUserDatabase;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import jex.statics.JEXStatics;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.CountingInputStream;
+import org.jdom.Document;
+import org.jdom.input.SAXBuilder;
+
+import utilities.FileUtility;
+import utilities.XMLUtility;
+import Database.SingleUserDatabase.xml.ObjectFactory;
+import Database.SingleUserDatabase.xml.XElement;
+import Database.SingleUserDatabase.xml.XEntry;
+import Database.SingleUserDatabase.xml.XEntrySet;
+import Database.DBObjects.JEXEntry;
+
+/**
+ * Append-only journal of the entries changed since the database xml was last written.
+ *
+ * Each save appends one record per changed (or removed) entry followed by a commit
+ * marker. Loading applies the committed records on top of the database xml, and a
+ * background compaction folds the journal back into the xml once it grows large,
+ * so the cost of a save depends on the size of the change and not of the database.
+ *
+ * A record is: a type byte, the entry ID (UTF), and for entries the length and UTF-8
+ * bytes of the hard xml of the XEntry. A torn record at the end of the file (crash or
+ * failed write during a save) is cut off, along with everything after the last commit
+ * marker, when the journal is read on opening and before the first append, so later
+ * saves are never written after a broken record.
+ */
+public class JEXDBJournal {
+	
+	public static String LOCAL_JOURNAL_FILENAME = "JEX4Database.journal";
+	
+	// Compact once the journal is this large compared to the database xml
+	public static double COMPACTION_RATIO = 0.5;
+	public static long COMPACTION_MIN_BYTES = 1024*1024;
+	
+	private static final byte RECORD_ENTRY  = 1;
+	private static final byte RECORD_REMOVE = 2;
+	private static final byte RECORD_COMMIT = 3;
+	
+	private static final ExecutorService compactionQueue = Executors.newFixedThreadPool(1);
+	private static volatile boolean compacting = false;
+	
+	// Incremented each time the whole xml is written, guarded by the journal lock
+	private static long xmlGeneration = 0;
+	
+	// Path of the journal known to end with a commit marker, guarded by the journal lock
+	private static String checkedJournal = null;
+	
+	// ---------------------------------------------
+	// Paths
+	// ---------------------------------------------
+	
+	public static File getJournalFile()
+	{
+		return new File(JEXWriter.getDatabaseFolder() + File.separator + LOCAL_JOURNAL_FILENAME);
+	}
+	
+	public static File getDatabaseFile()
+	{
+		return new File(JEXWriter.getDatabaseFolder() + File.separator + JEXDBIO.LOCAL_DATABASE_FILENAME);
+	}
+	
+	// ---------------------------------------------
+	// Writing
+	// ---------------------------------------------
+	
+	/**
+	 * Append the given entries and removals to the journal as one committed save
+	 * @param entries map of entry ID to XEntry
+	 * @param removedIDs IDs of the entries removed since the last save
+	 * @return success flag
+	 */
+	public static synchronized boolean append(Map<String,XEntry> entries, List<String> removedIDs)
+	{
+		File journal = getJournalFile();
+		DataOutputStream out = null;
+		long start = -1;
+		try
+		{
+			truncateToLastCommit(journal);
+			start = journal.length();
+			out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(journal, true)));
+			for(Entry<String,XEntry> e : entries.entrySet())
+			{
+				byte[] bytes = XMLUtility.toHardXML(e.getValue()).getBytes("UTF-8");
+				out.writeByte(RECORD_ENTRY);
+				out.writeUTF(e.getKey());
+				out.writeInt(bytes.length);
+				out.write(bytes);
+			}
+			for(String id : removedIDs)
+			{
+				out.writeByte(RECORD_REMOVE);
+				out.writeUTF(id);
+			}
+			out.writeByte(RECORD_COMMIT);
+			out.writeUTF("");
+			out.flush();
+			out.close();
+			out = null;
+			JEXStatics.logManager.log("Journaled " + entries.size() + " entries and " + removedIDs.size() + " removals", 0, JEXDBJournal.class.getSimpleName());
+			return true;
+		}
+		catch (IOException e)
+		{
+			e.printStackTrace();
+			closeQuietly(out);
+			out = null;
+			
+			// Cut the partial save off so the next one is not written after it
+			if(start >= 0 && !truncate(journal, start))
+			{
+				checkedJournal = null;
+			}
+			return false;
+		}
+		finally
+		{
+			closeQuietly(out);
+		}
+	}
+	
+	/**
+	 * Delete the journal, called after the full database xml has been written
+	 */
+	public static synchronized void clear()
+	{
+		FileUtils.deleteQuietly(getJournalFile());
+		xmlGeneration++;
+	}
+	
+	// ---------------------------------------------
+	// Reading
+	// ---------------------------------------------
+	
+	/**
+	 * Read the committed records of the journal up to the byte offset LIMIT
+	 * (or the whole file if LIMIT is negative). The returned map is keyed by entry
+	 * ID and holds the latest XEntry of each changed entry, or null if it was removed.
+	 * Reading the whole file cuts off what follows the last commit marker.
+	 * @param limit
+	 * @return
+	 */
+	public static LinkedHashMap<String,XEntry> read(long limit)
+	{
+		return read(getJournalFile(), limit);
+	}
+	
+	private static LinkedHashMap<String,XEntry> read(File journal, long limit)
+	{
+		LinkedHashMap<String,XEntry> committed = new LinkedHashMap<String,XEntry>();
+		if(!journal.exists())
+		{
+			return committed;
+		}
+		
+		LinkedHashMap<String,byte[]> records = new LinkedHashMap<String,byte[]>();
+		long length = journal.length();
+		long end = scan(journal, limit, records);
+		if(limit < 0 && end < length)
+		{
+			synchronized(JEXDBJournal.class)
+			{
+				// Only if nothing was appended since the scan
+				if(journal.length() == length && truncate(journal, end))
+				{
+					checkedJournal = journal.getPath();
+				}
+			}
+		}
+		
+		// Parse the surviving records
+		for(Entry<String,byte[]> e : records.entrySet())
+		{
+			if(e.getValue() == null)
+			{
+				committed.put(e.getKey(), null);
+				continue;
+			}
+			XEntry xentry = parseXEntry(e.getValue());
+			if(xentry != null)
+			{
+				committed.put(e.getKey(), xentry);
+			}
+		}
+		return committed;
+	}
+	
+	/**
+	 * Read the records of JOURNAL up to the byte offset LIMIT (or the whole file if LIMIT
+	 * is negative) and put the committed ones in RECORDS (if not null) by entry ID, null
+	 * for a removal. Return the offset of the end of the last commit marker.
+	 */
+	private static long scan(File journal, long limit, LinkedHashMap<String,byte[]> records)
+	{
+		LinkedHashMap<String,byte[]> pending = new LinkedHashMap<String,byte[]>();
+		long end = 0;
+		DataInputStream in = null;
+		try
+		{
+			// Count the bytes actually read, the UTF strings are in modified UTF-8
+			CountingInputStream counter = new CountingInputStream(new BufferedInputStream(new FileInputStream(journal)));
+			in = new DataInputStream(counter);
+			while(limit < 0 || counter.getByteCount() < limit)
+			{
+				byte type = in.readByte();
+				String id = in.readUTF();
+				if(type == RECORD_ENTRY)
+				{
+					int length = in.readInt();
+					if(length < 0)
+					{
+						throw new EOFException();
+					}
+					byte[] bytes = null;
+					if(records != null)
+					{
+						bytes = new byte[length];
+						in.readFully(bytes);
+					}
+					else
+					{
+						IOUtils.skipFully(in, length);
+					}
+					pending.remove(id);
+					pending.put(id, bytes);
+				}
+				else if(type == RECORD_REMOVE)
+				{
+					pending.remove(id);
+					pending.put(id, null);
+				}
+				else if(type == RECORD_COMMIT)
+				{
+					if(records != null)
+					{
+						for(Entry<String,byte[]> e : pending.entrySet())
+						{
+							records.remove(e.getKey());
+							records.put(e.getKey(), e.getValue());
+						}
+					}
+					pending.clear();
+					end = counter.getByteCount();
+				}
+				else
+				{
+					JEXStatics.logManager.log("Corrupted journal record, ignoring the rest of the journal", 0, JEXDBJournal.class.getSimpleName());
+					break;
+				}
+			}
+		}
+		catch (EOFException e)
+		{
+			// End of the journal or record torn by a crash, uncommitted records are dropped
+		}
+		catch (IOException e)
+		{
+			e.printStackTrace();
+		}
+		finally
+		{
+			closeQuietly(in);
+		}
+		return end;
+	}
+	
+	/**
+	 * Cut JOURNAL after its last commit marker, once per journal.
+	 * Must be called while holding the journal lock.
+	 * @param journal
+	 * @throws IOException
+	 */
+	private static void truncateToLastCommit(File journal) throws IOException
+	{
+		if(journal.getPath().equals(checkedJournal))
+		{
+			return;
+		}
+		if(journal.exists())
+		{
+			long end = scan(journal, -1, null);
+			if(end < journal.length() && !truncate(journal, end))
+			{
+				throw new IOException("Could not remove the unfinished records of " + journal.getPath());
+			}
+		}
+		checkedJournal = journal.getPath();
+	}
+	
+	/**
+	 * Cut JOURNAL to LENGTH bytes, or delete it if LENGTH is 0
+	 * @return success flag
+	 */
+	private static boolean truncate(File journal, long length)
+	{
+		JEXStatics.logManager.log("Removing " + (journal.length() - length) + " bytes of unfinished records at the end of the journal", 0, JEXDBJournal.class.getSimpleName());
+		if(length == 0)
+		{
+			return journal.delete();
+		}
+		RandomAccessFile raf = null;
+		try
+		{
+			raf = new RandomAccessFile(journal, "rw");
+			raf.setLength(length);
+			return true;
+		}
+		catch (IOException e)
+		{
+			e.printStackTrace();
+			return false;
+		}
+		finally
+		{
+			closeQuietly(raf);
+		}
+	}
+	
+	/**
+	 * Apply the journal on top of a freshly parsed database xml
+	 * @param xml
+	 * @return the number of records applied
+	 */
+	public static int applyTo(XEntrySet xml)
+	{
+		LinkedHashMap<String,XEntry> records = read(-1);
+		if(records.size() == 0)
+		{
+			return 0;
+		}
+		merge(xml, records);
+		JEXStatics.logManager.log("Applied " + records.size() + " journal records to the database", 0, JEXDBJournal.class.getSimpleName());
+		return records.size();
+	}
+	
+	/**
+	 * Replace the entries of XML by their journaled version and drop the removed ones
+	 * @param xml
+	 * @param records
+	 */
+	private static void merge(XEntrySet xml, LinkedHashMap<String,XEntry> records)
+	{
+		// Remove the stale versions of the journaled entries
+		List<XElement> children = new ArrayList<XElement>(xml.getXElements());
+		for(XElement elem : children)
+		{
+			String id = elem.getAtt(JEXEntry.EID);
+			if(id != null && records.containsKey(id))
+			{
+				elem.detach();
+			}
+		}
+		
+		// Add the journaled versions
+		for(Entry<String,XEntry> e : records.entrySet())
+		{
+			if(e.getValue() != null)
+			{
+				xml.addEntry(e.getValue());
+			}
+		}
+	}
+	
+	/**
+	 * Return the number of bytes currently in the journal
+	 * @return
+	 */
+	public static long length()
+	{
+		return length(getJournalFile());
+	}
+	
+	private static synchronized long length(File journal)
+	{
+		return journal.exists() ? journal.length() : 0;
+	}
+	
+	// ---------------------------------------------
+	// Compaction
+	// ---------------------------------------------
+	
+	/**
+	 * Schedule a background compaction if the journal is large compared to the
+	 * database xml. Both sizes are read from the files so a compaction brings
+	 * the journal back under the threshold.
+	 */
+	public static void compactIfNeeded()
+	{
+		if(compacting)
+		{
+			return;
+		}
+		long journalBytes = length();
+		if(journalBytes < COMPACTION_MIN_BYTES || journalBytes < COMPACTION_RATIO*getDatabaseFile().length())
+		{
+			return;
+		}
+		compacting = true;
+		final String databaseFolder = JEXWriter.getDatabaseFolder();
+		final File journal = getJournalFile();
+		final File dbFile = getDatabaseFile();
+		compactionQueue.submit(new Runnable(){
+			public void run()
+			{
+				try
+				{
+					compact(databaseFolder, journal, dbFile);
+				}
+				finally
+				{
+					compacting = false;
+				}
+			}
+		});
+	}
+	
+	public static boolean isCompacting()
+	{
+		return compacting;
+	}
+	
+	/**
+	 * Fold the committed part of the journal into the database xml. Only the files are
+	 * touched, not the live database, so this can run while the user keeps working.
+	 * Saves appended while compacting are kept in the journal. JOURNAL and DBFILE are
+	 * those of DATABASEFOLDER even if another database is opened meanwhile.
+	 */
+	private static void compact(String databaseFolder, File journal, File dbFile)
+	{
+		if(!databaseFolder.equals(JEXWriter.getDatabaseFolder()))
+		{
+			return; // The database was closed in the meantime
+		}
+		JEXStatics.logManager.log("Compacting the database journal", 0, JEXDBJournal.class.getSimpleName());
+		long limit, baseGeneration;
+		synchronized(JEXDBJournal.class)
+		{
+			limit = length(journal);
+			baseGeneration = xmlGeneration;
+		}
+		
+		// Merge the xml and the journal
+		XEntrySet xml = (XEntrySet) XMLUtility.XMLload(dbFile, new ObjectFactory());
+		if(xml == null)
+		{
+			return;
+		}
+		merge(xml, read(journal, limit));
+		
+		// Write the merged xml next to the old one then swap them, archiving the old one
+		File folder = dbFile.getParentFile();
+		File merged = new File(folder.getPath() + File.separator + JEXDBIO.LOCAL_DATABASE_FILENAME + ".compact");
+		if(!XMLUtility.XMLsave(merged.getPath(), xml))
+		{
+			// Keep the journal, it is the only copy of the saves not in the xml
+			JEXStatics.logManager.log("Could not write " + merged.getPath() + ", the journal is not compacted", 0, JEXDBJournal.class.getSimpleName());
+			FileUtils.deleteQuietly(merged);
+			return;
+		}
+		String archiveName = FileUtility.getNextName(folder.getPath(), JEXDBIO.LOCAL_DATABASE_FILENAME, "Archive");
+		File archive = new File(folder.getPath() + File.separator + archiveName);
+		try
+		{
+			synchronized(JEXDBJournal.class)
+			{
+				if(xmlGeneration != baseGeneration)
+				{
+					// A full save rewrote the xml while we were merging, it already contains everything
+					FileUtils.deleteQuietly(merged);
+					return;
+				}
+				if(dbFile.exists())
+				{
+					FileUtils.moveFile(dbFile, archive);
+				}
+				FileUtils.moveFile(merged, dbFile);
+				JEXDBIndex.write(xml, dbFile);
+				dropPrefix(journal, limit);
+			}
+		}
+		catch (IOException e)
+		{
+			e.printStackTrace();
+			return;
+		}
+		String xmlPath = dbFile.getPath();
+		XMLUtility.XMLsavePretty(xmlPath.substring(0, xmlPath.length()-4)+"_pretty.xml", xml);
+		JEXStatics.logManager.log("Database journal compacted into " + dbFile.getPath(), 0, JEXDBJournal.class.getSimpleName());
+	}
+	
+	/**
+	 * Remove the first LIMIT bytes of JOURNAL, keeping what was appended after them.
+	 * Must be called while holding the journal lock.
+	 * @param journal
+	 * @param limit
+	 * @throws IOException
+	 */
+	private static void dropPrefix(File journal, long limit) throws IOException
+	{
+		if(!journal.exists())
+		{
+			return;
+		}
+		if(journal.length() <= limit)
+		{
+			FileUtils.deleteQuietly(journal);
+			return;
+		}
+		File rest = new File(journal.getPath() + ".tmp");
+		RandomAccessFile in = null;
+		FileOutputStream out = null;
+		try
+		{
+			in = new RandomAccessFile(journal, "r");
+			out = new FileOutputStream(rest);
+			in.seek(limit);
+			byte[] buffer = new byte[64*1024];
+			int read;
+			while((read = in.read(buffer)) > 0)
+			{
+				out.write(buffer, 0, read);
+			}
+		}
+		finally
+		{
+			closeQuietly(in);
+			closeQuietly(out);
+		}
+		FileUtils.deleteQuietly(journal);
+		FileUtils.moveFile(rest, journal);
+	}
+	
+	// ---------------------------------------------
+	// Helpers
+	// ---------------------------------------------
+	
+	private static XEntry parseXEntry(byte[] bytes)
+	{
+		try
+		{
+			SAXBuilder sb = new SAXBuilder();
+			sb.setFactory(new ObjectFactory());
+			Document doc = sb.build(new ByteArrayInputStream(bytes));
+			XEntry ret = (XEntry) doc.getRootElement();
+			doc.removeContent(ret);
+			return ret;
+		}
+		catch (Exception e)
+		{
+			e.printStackTrace();
+			return null;
+		}
+	}
+	
+	private static void closeQuietly(java.io.Closeable c)
+	{
+		if(c == null) return;
+		try
+		{
+			c.close();
+		}
+		catch (IOException e)
+		{
+			e.printStackTrace();
+		}
+	}
+}
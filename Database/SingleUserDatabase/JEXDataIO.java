@@ -18,6 +18,7 @@ import Database.DBObjects.JEXWorkflow;
 import Database.DBObjects.dimension.Dim;
 import Database.DBObjects.dimension.DimTable;
 import Database.DBObjects.dimension.DimensionMap;
+import Database.DBObjects.dimension.NumericTable;
 import Database.DBObjects.dimension.Table;
 import Database.DataReader.FileReader;
 import Database.SingleUserDatabase.xml.ObjectFactory;
@@ -47,7 +48,7 @@ public class JEXDataIO {
 		// THIS ONLY GETS CALLED IF THIS DATA OBJECT WAS LOADED (NEW OBJECTS AND VIEWED OBJECTS)	(updateData IS CALLED FROM DatabaseObjectToXData which is called upon call to saveDB)
 		// OR IF THE ENTRY THIS BELONGS TO NOW BELONGS TO AN EXPERIMENT OR TRAY WITH A DIFFERENT NAME
 		// IN WHICH CASE WE NEED TO LOAD THE JEXDATA dataMap
-		if(!data.isLoaded())// THIS IS JUST IN CASE
+		if(!data.isLoaded() && data.getNumericTable() == null)// THIS IS JUST IN CASE
 		{
 			data.getDataMap();
 		}
@@ -67,33 +68,48 @@ public class JEXDataIO {
 				// For each JEXDataSingle, move the referenced file
 				JEXDataSingle ds = datamap.get(map);
 				src = FileReader.readToPath(ds);
-				temp = JEXWriter.getDatabaseFolder() + File.separator + JEXWriter.getUniqueRelativeTempPath(FileUtility.getFileNameExtension(src));
 				dstRelativePath = JEXWriter.getDataFolder(data, true) + File.separator + JEXDataIO.createReferencedFileName(ds);
 				dst = JEXWriter.getDatabaseFolder() + File.separator + dstRelativePath;
-				fileUpdatesToPerform.put(src, new Pair<String,String>(temp,dst));
+				if(!new File(src).equals(new File(dst)))
+				{
+					temp = JEXWriter.getDatabaseFolder() + File.separator + JEXWriter.getUniqueRelativeTempPath(FileUtility.getFileNameExtension(src));
+					fileUpdatesToPerform.put(src, new Pair<String,String>(temp,dst));
+				}
 				// update the datasingle with the new path that the file will be saved at
 				ds.put(JEXDataSingle.RELATIVEPATH, dstRelativePath);
 			}
 		}
 		
-		// Save a new version of the detached file in the current detached file location
+		// Save a new version of the detached file
+		String oldPath = null;
 		if(data.hasDetachedFile())
 		{
-			src = JEXWriter.getDatabaseFolder() + File.separator + data.getDetachedRelativePath();
+			oldPath = JEXWriter.getDatabaseFolder() + File.separator + data.getDetachedRelativePath();
+		}
+		dstRelativePath = JEXWriter.getDataFolder(data, true) + File.separator + JEXDataIO.createDetachedFileName(data);
+		dst = JEXWriter.getDatabaseFolder() + File.separator + dstRelativePath;
+		if((oldPath != null && new File(oldPath).equals(new File(dst))) || !new File(dst).exists())
+		{
+			// Nothing else is at the destination, write it there directly
+			saveDetachedFileToLocation(data, dst);
 		}
 		else
 		{
-			src = JEXWriter.getDatabaseFolder() + File.separator + JEXWriter.getUniqueRelativeTempPath(JEXDataIO.DETACHED_FILEEXTENSION);
+			// The file at the destination belongs to a data object that is moved by this save,
+			// write to the temp folder and move it there with the other files
+			src = JEXWriter.getDatabaseFolder() + File.separator + JEXWriter.getUniqueRelativeTempPath(FileUtility.getFileNameExtension(dst));
+			temp = JEXWriter.getDatabaseFolder() + File.separator + JEXWriter.getUniqueRelativeTempPath(FileUtility.getFileNameExtension(dst));
+			saveDetachedFileToLocation(data, src);
+			fileUpdatesToPerform.put(src, new Pair<String,String>(temp,dst));
+		}
+		if(oldPath != null && !new File(oldPath).equals(new File(dst)))
+		{
+			// The previous version is deleted once the database is saved
+			fileUpdatesToPerform.put(oldPath, new Pair<String,String>(null,null));
 		}
-		saveDetachedFileToLocation(data, src);
-		// Get file paths for moving the detached file into the correct location
-		temp = JEXWriter.getDatabaseFolder() + File.separator + JEXWriter.getUniqueRelativeTempPath(FileUtility.getFileNameExtension(src));
-		dstRelativePath = JEXWriter.getDataFolder(data, true) + File.separator + JEXDataIO.createDetachedFileName(data);
-		dst = JEXWriter.getDatabaseFolder() + File.separator + dstRelativePath;
 		
 		// update the data with the new detached path that the detached file will be saved at
 		data.setDetachedRelativePath(dstRelativePath);
-		fileUpdatesToPerform.put(src, new Pair<String,String>(temp,dst));
 		data.unloadObject();
 		return fileUpdatesToPerform;
 	}
@@ -102,6 +118,24 @@ public class JEXDataIO {
 	{
 		File dst = new File(fullPath);
 		
+		// Write next to the destination and rename, so the file is never copied and
+		// the destination is never left half written
+		File parent = dst.getAbsoluteFile().getParentFile();
+		if(!parent.exists())
+		{
+			parent.mkdirs();
+		}
+		
+		// Numeric value objects are written straight from their doubles in the binary format
+		if(data.numericTable != null)
+		{
+			File src = new File(parent, "~" + dst.getName() + "." + JEXTableWriter2.BINARY_FILE);
+			JEXTableWriter2 writer = new JEXTableWriter2(data.getTypeName().toString(), JEXTableWriter2.BINARY_FILE);
+			writer.setAlternateFileOutputPath(src.getPath());
+			writer.writeTable(data.numericTable);
+			return JEXDataIO.replaceFile(src, dst);
+		}
+		
 		TreeMap<DimensionMap,JEXDataSingle> dataMap = data.getDataMap();
 		TreeMap<DimensionMap,String> dataTable = new TreeMap<DimensionMap,String>();
 		Dim metaDim = new Dim(JEXTableWriter2.METADATA);
@@ -124,9 +158,36 @@ public class JEXDataIO {
 		DimTable dimTable = data.getDimTable().copy();
 		dimTable.add(metaDim);
 		Table<String> tableToSave = new Table<String>(dimTable,dataTable);
-		String sourcePath = JEXTableWriter2.writeTable(data.getTypeName().toString(), tableToSave, DETACHED_FILEEXTENSION);
-		File src = new File(sourcePath);
-		return FileUtility.copy(src, dst);
+		File src = new File(parent, "~" + dst.getName() + "." + DETACHED_FILEEXTENSION);
+		JEXTableWriter2 writer = new JEXTableWriter2(data.getTypeName().toString(), DETACHED_FILEEXTENSION);
+		writer.setAlternateFileOutputPath(src.getPath());
+		writer.writeTable(tableToSave);
+		return JEXDataIO.replaceFile(src, dst);
+	}
+	
+	/**
+	 * Rename SRC to DST, replacing DST
+	 * @param src
+	 * @param dst
+	 * @return success flag
+	 */
+	private static boolean replaceFile(File src, File dst)
+	{
+		if(!src.exists())
+		{
+			return false;
+		}
+		if(!src.renameTo(dst))
+		{
+			dst.delete();
+			if(!src.renameTo(dst))
+			{
+				JEXStatics.logManager.log("Couldn't save the detached file {}", 0, JEXDataIO.class.getSimpleName(), dst.getPath());
+				src.delete();
+				return false;
+			}
+		}
+		return true;
 	}
 	
 	/**
@@ -194,8 +255,8 @@ public class JEXDataIO {
 		String row      = "" + entry.getTrayX();
 		String column   = "" + entry.getTrayY();
 		
-		// Get the extension
-		String extension = "csv";
+		// Get the extension, numeric value objects are saved in the binary table format
+		String extension = (data.numericTable == null) ? DETACHED_FILEEXTENSION : JEXTableWriter2.BINARY_FILE;
 		
 		// Construct a file name
 		String fileName = "x" + row + "_y" + column + "." + extension;
@@ -246,6 +307,11 @@ public class JEXDataIO {
 				// OLD XML VERSION OF JEXDATA FOUND
 				JEXDataIO.loadDetachedXMLJEXData(data);
 			}
+			else if(JEXTableWriter2.isBinary(data.getDetachedRelativePath()))
+			{
+				// NUMERIC VALUE OBJECT, THE DATAMAP IS MADE FROM THE NUMERIC TABLE BY getDataMap
+				JEXDataIO.loadNumericTable(data);
+			}
 			else // THEN CSV/ARFF
 			{
 				JEXDataIO.loadDetachedARFFJEXData(data, JEXWriter.getDatabaseFolder() + File.separator + data.getDetachedRelativePath());
@@ -357,6 +423,24 @@ public class JEXDataIO {
 		}
 	}
 	
+	/**
+	 * Load the values of a numeric value object saved in the binary table format,
+	 * does nothing for other objects
+	 * @param data
+	 */
+	public static void loadNumericTable(JEXData data)
+	{
+		if(!data.hasDetachedFile() || !JEXTableWriter2.isBinary(data.getDetachedRelativePath()))
+		{
+			return;
+		}
+		NumericTable table = JEXTableReader2.getDenseNumericTable(JEXWriter.getDatabaseFolder() + File.separator + data.getDetachedRelativePath());
+		if(table != null)
+		{
+			data.setNumericTable(table);
+		}
+	}
+	
 	public static void loadDetachedARFFJEXData(JEXData data, String fullpath)
 	{
 		Table<String> table = JEXTableReader2.getStringTable(fullpath);
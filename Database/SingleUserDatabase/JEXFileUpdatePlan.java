@@ -0,0 +1,495 @@
+package Database.SingleUserDatabase;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import jex.statics.JEXStatics;
+
+import org.apache.commons.io.FileUtils;
+
+import utilities.Pair;
+
+/**
+ * File moves and deletions to perform when the database is saved.
+ *
+ * The data objects give a map of source path to (temp path, destination path), a null
+ * destination meaning that the source is deleted. Moves whose source is the destination
+ * are dropped. A move goes straight to its destination (a rename on the same volume)
+ * unless its source is the destination of another move, its destination the source of
+ * another move, several moves share its destination or it moves a folder: only those
+ * go through their temp path in two steps as before. Moves of the same step are
+ * independent and run on IO_THREADS threads.
+ *
+ * The plan is written to LOCAL_LOG_FILENAME before the database xml or journal, with
+ * paths relative to the database folder, and marked committed once the xml or journal
+ * is written. It is deleted once all the files are in place, so the files of a save
+ * interrupted after the xml was written are moved on the next load (recover) to where
+ * the xml expects them. A plan that was never committed is dropped instead.
+ */
+public class JEXFileUpdatePlan {
+
+	public static String LOCAL_LOG_FILENAME = "JEX4Database.moves";
+	public static int IO_THREADS = 4;
+
+	private static final String DELETE = "D", DIRECT = "M", TWO_STEPS = "T", COMMITTED = "COMMITTED", SECOND_STEP = "STEP2";
+
+	private List<String[]> deletions = new ArrayList<String[]>(); // {src}
+	private List<String[]> direct    = new ArrayList<String[]>(); // {src, dst}
+	private List<String[]> twoSteps  = new ArrayList<String[]>(); // {src, temp, dst}
+	private boolean committed = false;
+	private boolean secondStepStarted = false;
+	private boolean recovering = false;
+	private File dbFolder;
+	private File log;
+
+	/**
+	 * Plan the updates of FILEUPDATESTOPERFORM
+	 * @param fileUpdatesToPerform map of source path to (temp path, destination path or null to delete the source)
+	 */
+	public JEXFileUpdatePlan(TreeMap<String,Pair<String,String>> fileUpdatesToPerform)
+	{
+		// Sources and destinations of the actual moves
+		TreeMap<String,Pair<String,String>> moves = new TreeMap<String,Pair<String,String>>();
+		HashMap<String,Integer> destinations = new HashMap<String,Integer>();
+		int skipped = 0;
+		for(Entry<String,Pair<String,String>> e : fileUpdatesToPerform.entrySet())
+		{
+			String dst = e.getValue().p2;
+			if(dst == null || new File(e.getKey()).equals(new File(dst)))
+			{
+				skipped += (dst == null) ? 0 : 1;
+				continue;
+			}
+			if(!new File(e.getKey()).exists())
+			{
+				JEXStatics.logManager.log("Can't move missing file {}", 0, JEXFileUpdatePlan.class.getSimpleName(), e.getKey());
+				continue;
+			}
+			moves.put(e.getKey(), e.getValue());
+			Integer n = destinations.get(dst);
+			destinations.put(dst, (n == null) ? 1 : n + 1);
+		}
+
+		for(Entry<String,Pair<String,String>> e : fileUpdatesToPerform.entrySet())
+		{
+			// Files moved or overwritten anyway don't need to be deleted
+			String src = e.getKey();
+			if(e.getValue().p2 == null && !moves.containsKey(src) && !destinations.containsKey(src))
+			{
+				this.deletions.add(new String[]{src});
+			}
+		}
+		for(Entry<String,Pair<String,String>> e : moves.entrySet())
+		{
+			String src = e.getKey(), temp = e.getValue().p1, dst = e.getValue().p2;
+			if(destinations.containsKey(src) || moves.containsKey(dst) || destinations.get(dst) > 1 || new File(src).isDirectory())
+			{
+				this.twoSteps.add(new String[]{src, temp, dst});
+			}
+			else
+			{
+				this.direct.add(new String[]{src, dst});
+			}
+		}
+		JEXStatics.logManager.log("Planned {} direct moves, {} moves through the temp folder, {} deletions, {} files already in place", 1, JEXFileUpdatePlan.class.getSimpleName(), this.direct.size(), this.twoSteps.size(), this.deletions.size(), skipped);
+	}
+
+	private JEXFileUpdatePlan()
+	{}
+
+	public boolean isEmpty()
+	{
+		return this.deletions.size() == 0 && this.direct.size() == 0 && this.twoSteps.size() == 0;
+	}
+
+	public static File getLogFile(File dbFolder)
+	{
+		return new File(dbFolder, LOCAL_LOG_FILENAME);
+	}
+
+	/**
+	 * Write the plan to the log of the database folder, call before saving the xml or journal.
+	 * The log of a previous save must have been recovered first, it is never overwritten.
+	 * @return success flag
+	 */
+	public boolean writeLog()
+	{
+		if(this.isEmpty())
+		{
+			return true;
+		}
+		this.dbFolder = new File(JEXWriter.getDatabaseFolder()).getAbsoluteFile();
+		File log = getLogFile(this.dbFolder);
+		if(log.exists())
+		{
+			JEXStatics.logManager.log("The file moves of a previous save are still pending in {}", 0, JEXFileUpdatePlan.class.getSimpleName(), log.getPath());
+			return false;
+		}
+		Writer out = null;
+		try
+		{
+			out = new OutputStreamWriter(new FileOutputStream(log), "UTF-8");
+			for(String[] op : this.deletions)
+			{
+				this.writeLine(out, DELETE, op);
+			}
+			for(String[] op : this.direct)
+			{
+				this.writeLine(out, DIRECT, op);
+			}
+			for(String[] op : this.twoSteps)
+			{
+				this.writeLine(out, TWO_STEPS, op);
+			}
+			out.close();
+			out = null;
+			this.log = log;
+			return true;
+		}
+		catch (IOException e)
+		{
+			e.printStackTrace();
+			FileUtils.deleteQuietly(log);
+			return false;
+		}
+		finally
+		{
+			closeQuietly(out);
+		}
+	}
+
+	/**
+	 * Mark the logged plan as committed, call once the xml or journal referencing
+	 * the new file locations is written
+	 */
+	public void commit()
+	{
+		this.committed = true;
+		if(this.log != null && !this.appendToLog(COMMITTED))
+		{
+			JEXStatics.logManager.log("Couldn't mark the file moves as committed, an interrupted save won't be recovered", 0, JEXFileUpdatePlan.class.getSimpleName());
+		}
+	}
+
+	/**
+	 * Drop the plan without moving anything, call when the xml or journal couldn't be written
+	 */
+	public void abort()
+	{
+		if(this.log != null)
+		{
+			FileUtils.deleteQuietly(this.log);
+			this.log = null;
+		}
+	}
+
+	/**
+	 * Perform the deletions and moves of a committed plan, the log is deleted if they all succeeded
+	 * @return success flag
+	 */
+	public boolean perform()
+	{
+		if(this.isEmpty())
+		{
+			return true;
+		}
+		if(!this.committed)
+		{
+			return false;
+		}
+		ExecutorService pool = Executors.newFixedThreadPool(IO_THREADS);
+		boolean success = true;
+		try
+		{
+			if(!this.secondStepStarted)
+			{
+				// Deletions, direct moves and the first step of the others are independent
+				List<Callable<Boolean>> tasks = new ArrayList<Callable<Boolean>>();
+				for(final String[] op : this.deletions)
+				{
+					tasks.add(new Callable<Boolean>(){
+						public Boolean call() throws IOException
+						{
+							FileUtils.deleteQuietly(new File(op[0]));
+							return true;
+						}
+					});
+				}
+				for(final String[] op : this.direct)
+				{
+					tasks.add(this.moveTask(op[0], op[1]));
+				}
+				for(final String[] op : this.twoSteps)
+				{
+					tasks.add(this.moveTask(op[0], op[1]));
+				}
+				success = run(pool, tasks);
+				if(!success)
+				{
+					// Leave the second step to the recovery rather than moving files over the wrong ones
+					return false;
+				}
+				this.markSecondStep();
+			}
+
+			// Second step, moves to the same destination stay in one task in the order of the plan
+			TreeMap<String,List<String[]>> byDestination = new TreeMap<String,List<String[]>>();
+			for(String[] op : this.twoSteps)
+			{
+				List<String[]> ops = byDestination.get(op[2]);
+				if(ops == null)
+				{
+					ops = new ArrayList<String[]>(1);
+					byDestination.put(op[2], ops);
+				}
+				ops.add(op);
+			}
+			List<Callable<Boolean>> tasks = new ArrayList<Callable<Boolean>>();
+			for(final List<String[]> ops : byDestination.values())
+			{
+				tasks.add(new Callable<Boolean>(){
+					public Boolean call() throws IOException
+					{
+						for(String[] op : ops)
+						{
+							if(!recovering || new File(op[1]).exists())
+							{
+								move(op[1], op[2]);
+							}
+						}
+						return true;
+					}
+				});
+			}
+			success = run(pool, tasks);
+		}
+		finally
+		{
+			pool.shutdown();
+			if(success && this.log != null)
+			{
+				FileUtils.deleteQuietly(this.log);
+			}
+		}
+		return success;
+	}
+
+	/**
+	 * Finish the file updates of a save that was interrupted, call when opening the database
+	 * and before saving it. A plan whose xml or journal was never written is dropped along
+	 * with its temp files.
+	 * @param dbFolder
+	 */
+	public static void recover(File dbFolder)
+	{
+		File log = getLogFile(dbFolder);
+		if(!log.exists())
+		{
+			return;
+		}
+		JEXFileUpdatePlan plan = new JEXFileUpdatePlan();
+		plan.dbFolder = dbFolder.getAbsoluteFile();
+		plan.log = log;
+		BufferedReader in = null;
+		try
+		{
+			in = new BufferedReader(new InputStreamReader(new FileInputStream(log), "UTF-8"));
+			String line;
+			while((line = in.readLine()) != null)
+			{
+				String[] fields = line.split("\t", -1);
+				String[] op = new String[fields.length - 1];
+				for(int i = 0; i < op.length; i++)
+				{
+					op[i] = plan.resolve(fields[i + 1]);
+				}
+				if(fields[0].equals(DELETE) && op.length == 1) plan.deletions.add(op);
+				else if(fields[0].equals(DIRECT) && op.length == 2) plan.direct.add(op);
+				else if(fields[0].equals(TWO_STEPS) && op.length == 3) plan.twoSteps.add(op);
+				else if(fields[0].equals(COMMITTED)) plan.committed = true;
+				else if(fields[0].equals(SECOND_STEP)) plan.secondStepStarted = true;
+			}
+			in.close();
+			in = null;
+		}
+		catch (IOException e)
+		{
+			e.printStackTrace();
+			return;
+		}
+		finally
+		{
+			closeQuietly(in);
+		}
+
+		if(!plan.committed)
+		{
+			// The xml or journal still references the old locations, nothing was moved yet
+			JEXStatics.logManager.log("The last save was interrupted before the database was written, dropping its file moves", 0, JEXFileUpdatePlan.class.getSimpleName());
+			for(String[] op : plan.twoSteps)
+			{
+				FileUtils.deleteQuietly(new File(op[1]));
+			}
+			FileUtils.deleteQuietly(log);
+			return;
+		}
+		
+		// Moves whose source is gone already happened
+		JEXStatics.logManager.log("The last save was interrupted, finishing its file moves", 0, JEXFileUpdatePlan.class.getSimpleName());
+		plan.recovering = true;
+		if(plan.perform())
+		{
+			FileUtils.deleteQuietly(log);
+		}
+	}
+
+	// ---------------------------------------------
+	// Helpers
+	// ---------------------------------------------
+
+	private void markSecondStep()
+	{
+		if(this.log != null && this.twoSteps.size() > 0)
+		{
+			this.appendToLog(SECOND_STEP);
+		}
+		this.secondStepStarted = true;
+	}
+
+	private boolean appendToLog(String line)
+	{
+		Writer out = null;
+		try
+		{
+			out = new OutputStreamWriter(new FileOutputStream(this.log, true), "UTF-8");
+			out.write(line + "\n");
+			out.close();
+			out = null;
+			return true;
+		}
+		catch (IOException e)
+		{
+			e.printStackTrace();
+			return false;
+		}
+		finally
+		{
+			closeQuietly(out);
+		}
+	}
+
+	private Callable<Boolean> moveTask(final String src, final String dst)
+	{
+		return new Callable<Boolean>(){
+			public Boolean call() throws IOException
+			{
+				if(!recovering || new File(src).exists())
+				{
+					move(src, dst);
+				}
+				return true;
+			}
+		};
+	}
+
+	/**
+	 * Move SRC to DST, deleting whatever is at DST. moveFile and moveDirectory rename
+	 * when SRC and DST are on the same volume and only copy otherwise.
+	 */
+	private static void move(String srcPath, String dstPath) throws IOException
+	{
+		File src = new File(srcPath), dst = new File(dstPath);
+		FileUtils.deleteQuietly(dst);
+		if(src.isDirectory())
+		{
+			FileUtils.moveDirectory(src, dst);
+		}
+		else
+		{
+			FileUtils.moveFile(src, dst);
+		}
+	}
+
+	private static boolean run(ExecutorService pool, List<Callable<Boolean>> tasks)
+	{
+		boolean success = true;
+		try
+		{
+			for(Future<Boolean> future : pool.invokeAll(tasks))
+			{
+				try
+				{
+					future.get();
+				}
+				catch (ExecutionException e)
+				{
+					// Keep going with the other files, the log keeps the plan for the next load
+					e.getCause().printStackTrace();
+					success = false;
+				}
+			}
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			return false;
+		}
+		return success;
+	}
+
+	private void writeLine(Writer out, String type, String[] op) throws IOException
+	{
+		out.write(type);
+		for(String path : op)
+		{
+			out.write("\t");
+			out.write(this.relativize(path));
+		}
+		out.write("\n");
+	}
+
+	/**
+	 * Paths in the database folder are logged relative to it so the log survives moving the database
+	 */
+	private String relativize(String path)
+	{
+		String folder = this.dbFolder.getPath() + File.separator;
+		String absolute = new File(path).getAbsolutePath();
+		return absolute.startsWith(folder) ? absolute.substring(folder.length()) : absolute;
+	}
+
+	private String resolve(String path)
+	{
+		return new File(path).isAbsolute() ? path : new File(this.dbFolder, path).getPath();
+	}
+
+	private static void closeQuietly(java.io.Closeable c)
+	{
+		if(c == null) return;
+		try
+		{
+			c.close();
+		}
+		catch (IOException e)
+		{
+			e.printStackTrace();
+		}
+	}
+}
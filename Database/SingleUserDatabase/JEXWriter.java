@@ -125,7 +125,7 @@ public class JEXWriter {
 		// Save the image
 		FileSaver imFS = new FileSaver(im);
 		imFS.saveAsTiff(fullPath);
-		JEXStatics.logManager.log("Saving image to: " + fullPath, 1, "JEXWriter");
+		JEXStatics.logManager.log("Saving image to: {}", 1, "JEXWriter", fullPath);
 		return fullPath;
 	}
 
@@ -156,7 +156,7 @@ public class JEXWriter {
 	{
 		String fullPath   = JEXWriter.getDatabaseFolder() + File.separator + JEXWriter.getUniqueRelativeTempPath(extension);
 		
-		JEXStatics.logManager.log("Saving figure to: " + fullPath, 1, null);
+		JEXStatics.logManager.log("Saving figure to: {}", 1, null, fullPath);
 		
 		FileSaver fs = new FileSaver(im);
 		if (extension.equals("jpg"))
@@ -1,28 +1,41 @@
 package cruncher;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.Vector;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 
 import jex.statics.JEXStatics;
+import utilities.ThumbnailCache;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
+import Database.DataReader.ImageReader;
+import Database.Definition.TypeName;
 
 public class Cruncher {
 	
 	public volatile boolean stopGuiTask = false;
-	public volatile boolean stopCrunch = false;
+	
+	// Ticket of the function running in each thread of the function queues, see isCanceled
+	private static final ThreadLocal<Ticket> currentTicket = new ThreadLocal<Ticket>();
+	
+	// Pool sizes are derived from the machine rather than hardcoded
+	public static final int NUM_PROCESSORS = Runtime.getRuntime().availableProcessors();
+	public static final int MAX_CONCURRENT_TICKETS = Math.max(2, NUM_PROCESSORS / 4);
+	public static final int MAX_THREADS_PER_TICKET = Math.max(1, NUM_PROCESSORS / 2);
 	
 	List<Callable<Integer>> guiTasks;
-	List<Ticket> tickets;
+	List<Ticket> tickets; // tickets that have been submitted and not yet finished, in submission order
 	private final ExecutorService guiTicketQueue = Executors.newFixedThreadPool(1);
-	private final ExecutorService ticketQueue   = Executors.newFixedThreadPool(1);
-	private ExecutorService multiFunctionQueue = Executors.newFixedThreadPool(5);
+	private final ExecutorService ticketQueue   = Executors.newFixedThreadPool(MAX_CONCURRENT_TICKETS);
+	private ExecutorService multiFunctionQueue = Executors.newFixedThreadPool(NUM_PROCESSORS); // shared by all running tickets
 	private ExecutorService singleFunctionQueue = Executors.newFixedThreadPool(1);
 	
 	public Cruncher()
@@ -34,12 +47,31 @@ public class Cruncher {
 	
 	public void runTicket(Ticket ticket)
 	{
-		this.stopCrunch = false;
+		synchronized(tickets)
+		{
+			tickets.add(ticket);
+		}
 		JEXStatics.logManager.log("Added ticket to running queue ",1,this);
 		JEXStatics.statusBar.setStatusText("Added ticket to running queue ");
 		ticketQueue.submit(ticket);
 	}
 	
+	/**
+	 * Queue a workflow. Its stages are registered as active tickets so that tickets
+	 * submitted later wait for the stages that create their inputs.
+	 * @param workflow
+	 */
+	public void runWorkflow(WorkflowTicket workflow)
+	{
+		synchronized(tickets)
+		{
+			tickets.addAll(workflow.getStages());
+		}
+		JEXStatics.logManager.log("Added workflow to running queue ",1,this);
+		JEXStatics.statusBar.setStatusText("Added workflow to running queue ");
+		ticketQueue.submit(workflow);
+	}
+	
 	public Future<Integer> runFunction(FunctionCallable function, boolean multiThreading)
 	{
 		JEXStatics.logManager.log("Added function to cruncher queue ",1,this);
@@ -56,6 +88,253 @@ public class Cruncher {
 		return result;
 	}
 	
+	/**
+	 * Submit a function of a ticket to the shared pool, holding one of the
+	 * ticket's permits until the function has finished. This caps the number
+	 * of threads a single ticket can occupy so concurrent tickets interleave.
+	 * @param function
+	 * @param multiThreading
+	 * @param permits
+	 * @return
+	 */
+	public Future<Integer> runFunction(FunctionCallable function, boolean multiThreading, Semaphore permits) throws InterruptedException
+	{
+		Callable<Integer> throttled = this.throttle(function, permits);
+		JEXStatics.logManager.log("Added function to cruncher queue ",1,this);
+		return this.getFunctionQueue(multiThreading).submit(throttled);
+	}
+	
+	/**
+	 * Same as runFunction but the resulting future is also placed on the completion
+	 * service as soon as the function finishes, so that results can be collected
+	 * in completion order rather than submission order
+	 * @param function
+	 * @param completion a completion service wrapping getFunctionQueue(...)
+	 * @param permits
+	 * @return
+	 */
+	public Future<Integer> runFunction(FunctionCallable function, CompletionService<Integer> completion, Semaphore permits) throws InterruptedException
+	{
+		Callable<Integer> throttled = this.throttle(function, permits);
+		JEXStatics.logManager.log("Added function to cruncher queue ",1,this);
+		return completion.submit(throttled);
+	}
+	
+	/**
+	 * Return the executor that runs functions with the given threading policy
+	 * @param multiThreading
+	 * @return
+	 */
+	public ExecutorService getFunctionQueue(boolean multiThreading)
+	{
+		if(multiThreading)
+		{
+			return multiFunctionQueue;
+		}
+		return singleFunctionQueue;
+	}
+	
+	private Callable<Integer> throttle(final FunctionCallable function, final Semaphore permits) throws InterruptedException
+	{
+		permits.acquire();
+		return new Callable<Integer>(){
+			public Integer call() throws Exception
+			{
+				try
+				{
+					return function.call();
+				}
+				finally
+				{
+					permits.release();
+				}
+			}
+		};
+	}
+	
+	/**
+	 * Block until no ticket submitted before this one still has to create
+	 * one of the inputs of this ticket. Independent tickets run concurrently
+	 * while chained functions keep the order in which they were submitted.
+	 * @param ticket
+	 * @throws InterruptedException
+	 */
+	public void waitForPrerequisites(Ticket ticket) throws InterruptedException
+	{
+		synchronized(tickets)
+		{
+			while(this.hasPendingPrerequisite(ticket))
+			{
+				JEXStatics.logManager.log("Ticket waiting for the outputs of a previous ticket",1,this);
+				tickets.wait();
+			}
+		}
+	}
+	
+	/**
+	 * Block until no ticket submitted before the workflow still has to create
+	 * one of the inputs of its stages. Dependencies between the stages of the
+	 * workflow are handled by the workflow itself.
+	 * @param workflow
+	 * @throws InterruptedException
+	 */
+	public void waitForPrerequisites(WorkflowTicket workflow) throws InterruptedException
+	{
+		synchronized(tickets)
+		{
+			while(this.hasPendingPrerequisite(workflow.getStages()))
+			{
+				JEXStatics.logManager.log("Workflow waiting for the outputs of a previous ticket",1,this);
+				tickets.wait();
+			}
+		}
+	}
+	
+	private boolean hasPendingPrerequisite(Ticket ticket)
+	{
+		return this.hasPendingPrerequisite(ticket, null);
+	}
+	
+	private boolean hasPendingPrerequisite(Collection<Ticket> stages)
+	{
+		for(Ticket stage : stages)
+		{
+			if(this.hasPendingPrerequisite(stage, stages))
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	private boolean hasPendingPrerequisite(Ticket ticket, Collection<Ticket> ignored)
+	{
+		Set<TypeName> inputs = ticket.getInputTypeNames();
+		for(Ticket previous : tickets)
+		{
+			if(previous == ticket)
+			{
+				return false;
+			}
+			if(ignored != null && ignored.contains(previous))
+			{
+				continue;
+			}
+			for(TypeName tn : previous.getOutputTypeNames())
+			{
+				if(inputs.contains(tn))
+				{
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Remove the ticket from the list of active tickets and wake the tickets waiting on it
+	 * @param ticket
+	 */
+	void ticketDone(Ticket ticket)
+	{
+		synchronized(tickets)
+		{
+			tickets.remove(ticket);
+			tickets.notifyAll();
+		}
+	}
+	
+	/**
+	 * Cancel the tickets and workflows submitted so far, tickets submitted
+	 * afterwards run normally
+	 */
+	public void cancelTickets()
+	{
+		synchronized(tickets)
+		{
+			for(Ticket ticket : tickets)
+			{
+				ticket.cancel();
+			}
+		}
+	}
+	
+	/**
+	 * Return true if the ticket of the function running in the calling thread
+	 * was canceled, so long loops inside functions can stop early
+	 * @return
+	 */
+	public boolean isCanceled()
+	{
+		Ticket ticket = currentTicket.get();
+		return ticket != null && ticket.isCanceled();
+	}
+	
+	static void setCurrentTicket(Ticket ticket)
+	{
+		if(ticket == null)
+		{
+			currentTicket.remove();
+		}
+		else
+		{
+			currentTicket.set(ticket);
+		}
+	}
+	
+	/**
+	 * Return a short summary of the queue depth and throughput of each active ticket
+	 * @return
+	 */
+	public String getTicketStatus()
+	{
+		StringBuffer ret = new StringBuffer();
+		synchronized(tickets)
+		{
+			for(Ticket ticket : tickets)
+			{
+				if(ret.length() > 0) ret.append("; ");
+				ret.append(ticket.getStatus());
+			}
+		}
+		return ret.toString();
+	}
+	
+	/**
+	 * Commit the outputs of a single entry of a streaming ticket to the database
+	 * @param ticket
+	 * @param entry
+	 * @param datas
+	 */
+	public synchronized void finishEntry(Ticket ticket, JEXEntry entry, Set<JEXData> datas)
+	{
+		if(datas == null || datas.size() == 0)
+		{
+			return;
+		}
+		TreeMap<JEXEntry,Set<JEXData>> outputList = new TreeMap<JEXEntry,Set<JEXData>>();
+		outputList.put(entry, datas);
+		JEXStatics.jexDBManager.saveDataListInEntries(outputList, true);
+		
+		// Build the thumbnails of the new images for the array view in the background
+		for (JEXData data : datas)
+		{
+			if(data.getTypeName().getType().equals(JEXData.IMAGE))
+			{
+				ThumbnailCache.prefetch(ImageReader.readObjectToImagePath(data));
+			}
+		}
+	}
+	
+	/**
+	 * Save the database in the middle of a streaming ticket
+	 */
+	public synchronized void saveProgress()
+	{
+		JEXStatics.logManager.log("Saving partial results of running ticket", 0, this);
+		JEXStatics.main.save();
+	}
+	
 	public synchronized void finishTicket(Ticket ticket)
 	{
 		String str = "Crunch canceled, failed, or created no objects. No changes made.";
@@ -65,6 +344,31 @@ public class Cruncher {
 			JEXStatics.logManager.log(str, 0, this);
 			return;
 		}
+		if(ticket.isStreaming() && ticket.isCanceled())
+		{
+			// The entries committed before the cancel are kept but not saved
+			String canceled = "Crunch canceled. Outputs of " + ticket.getCommittedCount() + " entries were created before the cancel.";
+			JEXStatics.statusBar.setStatusText(canceled);
+			JEXStatics.logManager.log(canceled, 0, this);
+			return;
+		}
+		if(ticket.isStreaming())
+		{
+			// Outputs were already committed entry by entry
+			if(ticket.getCommittedCount() == 0)
+			{
+				JEXStatics.statusBar.setStatusText(str);
+				JEXStatics.logManager.log(str, 0, this);
+				return;
+			}
+			JEXStatics.statusBar.setStatusText("Function successful. Outputs of " + ticket.getCommittedCount() + " entries created.");
+			JEXStatics.logManager.log("Function successful. Outputs of " + ticket.getCommittedCount() + " entries created.", 0, this);
+			if(ticket.getAutoSave())
+			{
+				JEXStatics.main.save();
+			}
+			return;
+		}
 		TreeMap<JEXEntry,Set<JEXData>> outputList = ticket.outputList;
 		if(outputList == null || outputList.size() == 0)
 		{
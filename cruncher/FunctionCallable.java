@@ -15,6 +15,7 @@ public class FunctionCallable implements Callable<Integer> {
 	JEXEntry                entry;
 	HashMap<String,JEXData> inputs;
 	Set<JEXData>            outputData;
+	Ticket                  ticket; // ticket that submitted this function, null if run directly
 
 	public FunctionCallable(JEXFunction function, JEXEntry entry, HashMap<String,JEXData> inputs) { 
 		this.function = function;
@@ -27,6 +28,7 @@ public class FunctionCallable implements Callable<Integer> {
 		// Run the function for this FunctionCallable's entry.
 		outputData = new HashSet<JEXData>();
 		
+		Cruncher.setCurrentTicket(this.ticket);
 		try
 		{
 			// Function run
@@ -44,6 +46,10 @@ public class FunctionCallable implements Callable<Integer> {
 			e.printStackTrace();
 			return 0;
 		}
+		finally
+		{
+			Cruncher.setCurrentTicket(null);
+		}
 		
 		return 1;
 	}
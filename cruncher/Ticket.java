@@ -5,8 +5,12 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 
 import jex.statics.JEXStatics;
 import Database.DBObjects.JEXData;
@@ -22,8 +26,21 @@ public class Ticket implements Callable<Integer> {
 	ExperimentalDataCrunch cr;
 	ParameterSet firstParamSet;
 	TreeMap<JEXEntry,Set<JEXData>> outputList;
+	TreeSet<TypeName> inputTNs, outputTNs;
+	Semaphore permits;
+	
+	// Statistics of the ticket
+	volatile int submitted = 0, completed = 0, committed = 0;
+	volatile long startTime = 0;
+	
+	// Minimum time between two saves of the database while streaming an auto-saved ticket
+	public static long STREAMING_SAVE_INTERVAL = 10*60*1000;
 	
 	public boolean autoSave;
+	public boolean streaming;
+	
+	// Set by Cruncher.cancelTickets, only stops this ticket
+	volatile boolean canceled = false;
 	
 	public Ticket(TreeMap<JEXEntry, JEXFunction> runList){
 		
@@ -47,6 +64,34 @@ public class Ticket implements Callable<Integer> {
 		// Initialize output list
 		outputList   = new TreeMap<JEXEntry,Set<JEXData>>();
 		
+		// Remember what this ticket reads and writes to order it with respect to other tickets
+		inputTNs = new TreeSet<TypeName>();
+		for(TypeName tn : func.getInputs().values())
+		{
+			if(tn != null) inputTNs.add(tn.duplicate());
+		}
+		outputTNs = new TreeSet<TypeName>();
+		for(TypeName tn : func.getExpectedOutputs().values())
+		{
+			if(tn != null) outputTNs.add(tn);
+		}
+		
+		// Commit the outputs of each entry as soon as it is done when the function allows it
+		streaming = (cr != null && cr.allowStreamingOutputs());
+		
+		// Cap the number of threads this ticket may hold in the shared pool
+		int maxThreads = (cr != null && cr.allowMultithreading()) ? Cruncher.MAX_THREADS_PER_TICKET : 1;
+		permits = new Semaphore(maxThreads);
+	}
+	
+	public void cancel()
+	{
+		this.canceled = true;
+	}
+	
+	public boolean isCanceled()
+	{
+		return this.canceled;
 	}
 	
 	public void setAutoSave(boolean autoSave)
@@ -59,6 +104,30 @@ public class Ticket implements Callable<Integer> {
 		return this.autoSave;
 	}
 	
+	/**
+	 * When streaming, the outputs of each entry are committed to the database in
+	 * the order the entries finish and the output list of the ticket stays empty.
+	 * @param streaming
+	 */
+	public void setStreaming(boolean streaming)
+	{
+		this.streaming = streaming && cr != null && cr.allowStreamingOutputs();
+	}
+	
+	public boolean isStreaming()
+	{
+		return this.streaming;
+	}
+	
+	/**
+	 * Number of entries whose outputs have been committed to the database by a streaming ticket
+	 * @return
+	 */
+	public int getCommittedCount()
+	{
+		return this.committed;
+	}
+	
 	public TreeMap<JEXEntry,Set<JEXData>> getOutputList()
 	{
 		return this.outputList;
@@ -69,47 +138,99 @@ public class Ticket implements Callable<Integer> {
 		this.outputList = outputList;	
 	}
 	
+	public Set<TypeName> getInputTypeNames()
+	{
+		return this.inputTNs;
+	}
+	
+	public Set<TypeName> getOutputTypeNames()
+	{
+		return this.outputTNs;
+	}
+	
+	/**
+	 * Number of function calls submitted to the cruncher that have not finished yet
+	 * @return
+	 */
+	public int getQueueDepth()
+	{
+		return this.submitted - this.completed;
+	}
+	
+	/**
+	 * Number of entries finished per second since the ticket started running
+	 * @return
+	 */
+	public double getThroughput()
+	{
+		if(this.startTime == 0) return 0;
+		double seconds = (System.currentTimeMillis() - this.startTime) / 1000.0;
+		if(seconds <= 0) return 0;
+		return this.completed / seconds;
+	}
+	
+	public String getStatus()
+	{
+		String name = (cr == null) ? "?" : cr.getName();
+		if(this.startTime == 0)
+		{
+			return name + ": waiting";
+		}
+		return name + ": " + this.completed + " of " + this.runList.size() + " done, " + this.getQueueDepth() + " queued, " + String.format("%.2f", this.getThroughput()) + " entries/s";
+	}
+	
 	public Integer call() throws Exception {
 		
+		try
+		{
+			JEXStatics.cruncher.waitForPrerequisites(this);
+			return this.runTicket();
+		}
+		finally
+		{
+			JEXStatics.cruncher.ticketDone(this);
+		}
+	}
+	
+	private Integer runTicket() throws Exception {
+		
 		JEXStatics.logManager.log("Running new ticket ",1,this);
 		
 		// If the experimental data crunch is null then stop right here
 		if (cr == null) return 0;
 		
+		this.startTime = System.currentTimeMillis();
+		
+		if(this.streaming)
+		{
+			return this.runStreamingTicket();
+		}
+		
 		// Gather inputs and submit the functioncallables to the executor service
 		futures = new ArrayList<Future<Integer>>(0);
 		TreeMap<JEXEntry,FunctionCallable> fcs = new TreeMap<JEXEntry,FunctionCallable>();
 		for (JEXEntry entry: runList.keySet())
 		{
-			if(JEXStatics.cruncher.stopCrunch == true)
+			if(this.canceled)
 			{
-				JEXStatics.cruncher.stopCrunch = false;
 				JEXStatics.cruncher.finishTicket(null);
 				return 0;
 			}
 			JEXStatics.logManager.log("Submitting new function to the cruncher",1,this);
 			JEXStatics.statusBar.setStatusText("Submitting new function to the cruncher");
 			
-			JEXFunction func = runList.get(entry);
-			
-			// Allow functions to share a paramset if they are not multithreaded
-			// Needed for semiManual actions.
-			if(!cr.allowMultithreading())
-			{
-				func.setParameters(firstParamSet);
-			}
-			
 			// Gather the inputs and run
 			// We gather inputs in the ticket because upon running we want to
 			// grab inputs that may have been created with a ticket that was
 			// submitted at the "same time" as this ticket
-			FunctionCallable fc = this.getFunctionCallable(func, entry);
-			JEXStatics.logManager.log("Running entry: " + entry.toString(), 0, this);
+			FunctionCallable fc = this.getFunctionCallable(entry);
+			JEXStatics.logManager.log("Running entry: {}", 0, this, entry);
 			if(fc != null)
 			{
 				fcs.put(entry, fc);
-				Future<Integer> future = JEXStatics.cruncher.runFunction(fc,cr.allowMultithreading());
+				Future<Integer> future = JEXStatics.cruncher.runFunction(fc,cr.allowMultithreading(),permits);
 				futures.add(future);
+				submitted++;
 			}
 		}
 		
@@ -117,22 +238,23 @@ public class Ticket implements Callable<Integer> {
 		int done = 0;  
 		for (Future<Integer> future: futures)
 		{
-			if(JEXStatics.cruncher.stopCrunch == true)
+			if(this.canceled)
 			{
-				JEXStatics.cruncher.stopCrunch = false;
 				JEXStatics.cruncher.finishTicket(null);
 				return 0;
 			}
 			done += future.get();
+			completed++;
+			JEXStatics.statusBar.setStatusText(this.getStatus());
 		}
+		JEXStatics.logManager.log("Ticket finished. " + this.getStatus(), 0, this);
 		
 		// Collect outputted data
 		TreeMap<JEXEntry,Set<JEXData>> output = new TreeMap<JEXEntry,Set<JEXData>>();
 		for (JEXEntry entry: fcs.keySet())
 		{
-			if(JEXStatics.cruncher.stopCrunch == true)
+			if(this.canceled)
 			{
-				JEXStatics.cruncher.stopCrunch = false;
 				JEXStatics.cruncher.finishTicket(null);
 				return 0;
 			}
@@ -158,13 +280,120 @@ public class Ticket implements Callable<Integer> {
 		
 		return 1;
 	}
+	
+	/**
+	 * Run the ticket collecting each entry as soon as its function finishes, in
+	 * completion order, and commit its outputs to the database right away.
+	 * Only the outputs of functions that are running or waiting to be collected
+	 * are held in memory.
+	 * @return
+	 * @throws Exception
+	 */
+	private Integer runStreamingTicket() throws Exception
+	{
+		CompletionService<Integer> completion = new ExecutorCompletionService<Integer>(JEXStatics.cruncher.getFunctionQueue(cr.allowMultithreading()));
+		HashMap<Future<Integer>,FunctionCallable> running = new HashMap<Future<Integer>,FunctionCallable>();
+		long lastSave = System.currentTimeMillis();
+		
+		for (JEXEntry entry: runList.keySet())
+		{
+			if(this.canceled)
+			{
+				JEXStatics.cruncher.finishTicket(this);
+				return 0;
+			}
+			FunctionCallable fc = this.getFunctionCallable(entry);
+			JEXStatics.logManager.log("Running entry: {}", 0, this, entry);
+			if(fc != null)
+			{
+				Future<Integer> future = JEXStatics.cruncher.runFunction(fc,completion,permits);
+				running.put(future, fc);
+				submitted++;
+			}
+			
+			// Commit whatever finished while we were submitting
+			Future<Integer> done;
+			while((done = completion.poll()) != null)
+			{
+				this.commit(running.remove(done), done);
+			}
+		}
+		
+		while(running.size() > 0)
+		{
+			if(this.canceled)
+			{
+				JEXStatics.cruncher.finishTicket(this);
+				return 0;
+			}
+			Future<Integer> done = completion.take();
+			this.commit(running.remove(done), done);
+			
+			// Save from time to time so that partial results survive a crash
+			if(this.autoSave && System.currentTimeMillis() - lastSave > STREAMING_SAVE_INTERVAL)
+			{
+				JEXStatics.cruncher.saveProgress();
+				lastSave = System.currentTimeMillis();
+			}
+		}
+		JEXStatics.logManager.log("Ticket finished. " + this.getStatus(), 0, this);
+		
+		if (cr != null) cr.finalizeTicket(this);
+		JEXStatics.cruncher.finishTicket(this);
+		
+		return 1;
+	}
+	
+	private void commit(FunctionCallable fc, Future<Integer> future) throws Exception
+	{
+		completed++;
+		if(future.get() > 0)
+		{
+			JEXStatics.cruncher.finishEntry(this, fc.getEntry(), fc.getOutputtedData());
+			committed++;
+		}
+		fc.outputData = null; // release the outputs as soon as they are in the database
+		JEXStatics.statusBar.setStatusText(this.getStatus());
+	}
 
 
+	/**
+	 * Return the function callable of ENTRY in the run list of this ticket
+	 * @param entry
+	 * @return null if an input of the function is missing in ENTRY
+	 */
+	FunctionCallable getFunctionCallable(JEXEntry entry)
+	{
+		JEXFunction func = runList.get(entry);
+		
+		// Allow functions to share a paramset if they are not multithreaded
+		// Needed for semiManual actions.
+		if(!cr.allowMultithreading())
+		{
+			func.setParameters(firstParamSet);
+		}
+		FunctionCallable fc = this.getFunctionCallable(func, entry);
+		if(fc != null)
+		{
+			fc.ticket = this;
+		}
+		return fc;
+	}
+	
 	/**
 	 * Run the JEXfunction function on the pre-set entry entry
 	 * @param function
 	 */
-	public synchronized FunctionCallable getFunctionCallable(JEXFunction function, JEXEntry entry)
+	public FunctionCallable getFunctionCallable(JEXFunction function, JEXEntry entry)
+	{
+		// Read the entry under the lock the cruncher holds while committing the outputs of other tickets
+		synchronized(JEXStatics.cruncher)
+		{
+			return this.collectFunctionCallable(function, entry);
+		}
+	}
+	
+	private FunctionCallable collectFunctionCallable(JEXFunction function, JEXEntry entry)
 	{
 		// Collect and verify the existence of the inputs
 		TreeMap<String,TypeName> inputs = function.getInputs();
@@ -0,0 +1,317 @@
+package cruncher;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import jex.statics.JEXStatics;
+import Database.DBObjects.JEXData;
+import Database.DBObjects.JEXEntry;
+import Database.DBObjects.JEXWorkflow;
+
+/**
+ * Run a whole workflow entry by entry instead of function by function.
+ *
+ * Each function of the workflow is a stage with its own Ticket. A function of an entry
+ * is submitted as soon as the functions it depends on (see JEXWorkflow.getPrerequisites)
+ * have committed their outputs for that entry, so each entry flows through the whole
+ * chain while other entries are still in the first stages and independent branches run
+ * side by side. Functions that do not allow streaming outputs need the outputs of all
+ * their entries in finalizeTicket, they are barriers: the stages depending on them wait
+ * until they are finalized.
+ */
+public class WorkflowTicket implements Callable<Integer> {
+
+	private static final int WAITING = 0, RUNNING = 1, DONE = 2;
+
+	List<Ticket> stages;
+	List<TreeSet<Integer>> prerequisites;
+	TreeSet<JEXEntry> entries;
+	boolean autoSave;
+
+	// State of each function of each entry
+	List<HashMap<JEXEntry,Integer>> states;
+	boolean[] finished;
+
+	// Functions running in the shared pools, collected in completion order
+	BlockingQueue<Future<Integer>> completed;
+	CompletionService<Integer> multiCompletion, singleCompletion;
+	HashMap<Future<Integer>,Node> running;
+
+	public WorkflowTicket(JEXWorkflow workflow, TreeSet<JEXEntry> entries)
+	{
+		this.entries = entries;
+		this.stages = new ArrayList<Ticket>(workflow.size());
+		this.prerequisites = new ArrayList<TreeSet<Integer>>(workflow.size());
+		this.states = new ArrayList<HashMap<JEXEntry,Integer>>(workflow.size());
+		for(int i = 0; i < workflow.size(); i++)
+		{
+			// Duplicate the functions and make a run list for each stage
+			TreeMap<JEXEntry,JEXFunction> runlist = new TreeMap<JEXEntry,JEXFunction>();
+			HashMap<JEXEntry,Integer> state = new HashMap<JEXEntry,Integer>();
+			for(JEXEntry entry : entries)
+			{
+				runlist.put(entry, workflow.get(i).duplicate());
+				state.put(entry, WAITING);
+			}
+			Ticket stage = new Ticket(runlist);
+			stage.setAutoSave(false); // the workflow saves once at the end
+			this.stages.add(stage);
+			this.prerequisites.add(workflow.getPrerequisites(i));
+			this.states.add(state);
+		}
+		this.finished = new boolean[this.stages.size()];
+	}
+
+	public void setAutoSave(boolean autoSave)
+	{
+		this.autoSave = autoSave;
+	}
+
+	public boolean getAutoSave()
+	{
+		return this.autoSave;
+	}
+
+	/**
+	 * Return the ticket of each function of the workflow
+	 * @return
+	 */
+	public List<Ticket> getStages()
+	{
+		return this.stages;
+	}
+
+	public Integer call() throws Exception
+	{
+		try
+		{
+			JEXStatics.cruncher.waitForPrerequisites(this);
+			return this.runWorkflow();
+		}
+		finally
+		{
+			for(Ticket stage : this.stages)
+			{
+				JEXStatics.cruncher.ticketDone(stage);
+			}
+		}
+	}
+
+	/**
+	 * The workflow is canceled with its stages
+	 * @return
+	 */
+	public boolean isCanceled()
+	{
+		for(Ticket stage : this.stages)
+		{
+			if(stage.isCanceled()) return true;
+		}
+		return false;
+	}
+
+	private Integer runWorkflow() throws Exception
+	{
+		JEXStatics.logManager.log("Running new workflow of " + this.stages.size() + " functions on " + this.entries.size() + " entries", 1, this);
+
+		// Both pools report to the same queue
+		this.completed = new LinkedBlockingQueue<Future<Integer>>();
+		this.multiCompletion = new ExecutorCompletionService<Integer>(JEXStatics.cruncher.getFunctionQueue(true), this.completed);
+		this.singleCompletion = new ExecutorCompletionService<Integer>(JEXStatics.cruncher.getFunctionQueue(false), this.completed);
+		this.running = new HashMap<Future<Integer>,Node>();
+		long start = System.currentTimeMillis(), lastSave = start;
+		for(Ticket stage : this.stages)
+		{
+			stage.startTime = start;
+		}
+
+		while(true)
+		{
+			if(this.isCanceled())
+			{
+				JEXStatics.cruncher.finishTicket(null);
+				return 0;
+			}
+
+			this.submitReadyFunctions();
+			this.finishStages();
+			if(this.isFinished())
+			{
+				break;
+			}
+			if(this.running.size() == 0)
+			{
+				// Functions that could not be run were marked done, look again
+				continue;
+			}
+
+			// Commit everything that finished
+			Future<Integer> done = this.completed.take();
+			do
+			{
+				this.collect(done);
+			}
+			while((done = this.completed.poll()) != null);
+
+			// Save from time to time so that partial results survive a crash
+			if(this.autoSave && System.currentTimeMillis() - lastSave > Ticket.STREAMING_SAVE_INTERVAL)
+			{
+				JEXStatics.cruncher.saveProgress();
+				lastSave = System.currentTimeMillis();
+			}
+		}
+		JEXStatics.logManager.log("Workflow finished in " + (System.currentTimeMillis() - start) / 1000 + " s", 0, this);
+
+		if(this.autoSave)
+		{
+			JEXStatics.main.save();
+		}
+		return 1;
+	}
+
+	/**
+	 * Submit the functions whose inputs are ready. The last stages are looked at first
+	 * so that entries already in the pipe go through before new entries are started.
+	 */
+	private void submitReadyFunctions() throws InterruptedException
+	{
+		for(int s = this.stages.size() - 1; s > -1; s--)
+		{
+			if(this.finished[s]) continue;
+			Ticket stage = this.stages.get(s);
+			HashMap<JEXEntry,Integer> state = this.states.get(s);
+			for(JEXEntry entry : this.entries)
+			{
+				if(state.get(entry) != WAITING || !this.isReady(s, entry)) continue;
+
+				if(stage.cr == null)
+				{
+					state.put(entry, DONE);
+					continue;
+				}
+
+				// Only take a thread the stage is allowed to hold so that the loop never blocks
+				if(stage.permits.availablePermits() == 0) break;
+
+				FunctionCallable fc = stage.getFunctionCallable(entry);
+				if(fc == null)
+				{
+					state.put(entry, DONE);
+					stage.completed++;
+					continue;
+				}
+				JEXStatics.logManager.log("Running entry: {}", 0, stage, entry);
+				CompletionService<Integer> completion = stage.cr.allowMultithreading() ? this.multiCompletion : this.singleCompletion;
+				Future<Integer> future = JEXStatics.cruncher.runFunction(fc, completion, stage.permits);
+				this.running.put(future, new Node(s, fc));
+				state.put(entry, RUNNING);
+				stage.submitted++;
+			}
+		}
+	}
+
+	/**
+	 * A function of an entry can run when each function it depends on is done for
+	 * that entry, or is completely finalized if it does not stream its outputs
+	 * @param s
+	 * @param entry
+	 * @return
+	 */
+	private boolean isReady(int s, JEXEntry entry)
+	{
+		for(Integer p : this.prerequisites.get(s))
+		{
+			if(this.stages.get(p).isStreaming())
+			{
+				if(this.states.get(p).get(entry) != DONE) return false;
+			}
+			else if(!this.finished[p])
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Commit the outputs of a function that finished
+	 * @param future
+	 * @throws Exception
+	 */
+	private void collect(Future<Integer> future) throws Exception
+	{
+		Node node = this.running.remove(future);
+		Ticket stage = this.stages.get(node.stage);
+		JEXEntry entry = node.fc.getEntry();
+		stage.completed++;
+		if(future.get() > 0)
+		{
+			Set<JEXData> datas = node.fc.getOutputtedData();
+			if(stage.isStreaming())
+			{
+				JEXStatics.cruncher.finishEntry(stage, entry, datas);
+				stage.committed++;
+				node.fc.outputData = null; // release the outputs as soon as they are in the database
+			}
+			else
+			{
+				stage.outputList.put(entry, datas);
+			}
+		}
+		this.states.get(node.stage).put(entry, DONE);
+		JEXStatics.statusBar.setStatusText(stage.getStatus());
+	}
+
+	/**
+	 * Finalize the stages that are done for every entry
+	 */
+	private void finishStages()
+	{
+		for(int s = 0; s < this.stages.size(); s++)
+		{
+			if(this.finished[s] || this.states.get(s).containsValue(WAITING) || this.states.get(s).containsValue(RUNNING)) continue;
+
+			Ticket stage = this.stages.get(s);
+			JEXStatics.logManager.log("Workflow function finished. " + stage.getStatus(), 0, this);
+			if(stage.cr != null)
+			{
+				stage.cr.finalizeTicket(stage);
+				JEXStatics.cruncher.finishTicket(stage);
+			}
+			this.finished[s] = true;
+
+			// Let tickets waiting on this function start
+			JEXStatics.cruncher.ticketDone(stage);
+		}
+	}
+
+	private boolean isFinished()
+	{
+		for(boolean f : this.finished)
+		{
+			if(!f) return false;
+		}
+		return true;
+	}
+
+	class Node {
+		int stage;
+		FunctionCallable fc;
+
+		Node(int stage, FunctionCallable fc)
+		{
+			this.stage = stage;
+			this.fc = fc;
+		}
+	}
+}
@@ -186,6 +186,17 @@ public abstract class ExperimentalDataCrunch {
 	 */
 	public abstract boolean allowMultithreading();
 	
+	/**
+	 * Returns true if the outputs of each entry can be committed to the database
+	 * as soon as that entry finishes. Functions that need the outputs of the whole
+	 * ticket in finalizeTicket must return false.
+	 * @return
+	 */
+	public boolean allowStreamingOutputs()
+	{
+		return true;
+	}
+	
 	/**
 	 * Set the progress indicator of this function
 	 * @param progress
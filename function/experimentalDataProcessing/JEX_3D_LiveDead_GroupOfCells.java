@@ -378,7 +378,7 @@ class LiveDeadCellFinder2 implements GraphicalCrunchingEnabling, ImagePanelInter
 		}
 		if (rectangle != null){
 			ROIPlus roip = RoiReader.readObjectToRoi(rectangle);
-			rectroi      = (roip!=null && roip.roi!=null) ? roip.roi.getBounds() : null;
+			rectroi      = (roip!=null && roip.getRoi()!=null) ? roip.getRoi().getBounds() : null;
 		}
 		
 		// Prepare the graphics
@@ -347,7 +347,7 @@ class FluorescentCellFinder implements GraphicalCrunchingEnabling, ImagePanelInt
 		}
 		if (rectangle != null){
 			ROIPlus roip = RoiReader.readObjectToRoi(rectangle);
-			rectroi      = (roip!=null && roip.roi!=null) ? roip.roi.getBounds() : null;
+			rectroi      = (roip!=null && roip.getRoi()!=null) ? roip.getRoi().getBounds() : null;
 		}
 		
 		// Prepare the graphics
@@ -9,6 +9,7 @@ import java.util.TreeMap;
 
 import jex.statics.JEXStatics;
 import utilities.FunctionUtility;
+import utilities.ImageCache;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXDataSingle;
 import Database.DBObjects.JEXEntry;
@@ -289,7 +290,7 @@ class AdjustImageHelperFunction implements GraphicalCrunchingEnabling, ImagePane
 	}
 
 	private void displayImage(int index){
-		ImagePlus im = new ImagePlus(images[index]);
+		ImagePlus im = ImageCache.getImagePlus(images[index]);
 		imagepanel.setImage(im);
 	}
 	
@@ -319,7 +320,7 @@ class AdjustImageHelperFunction implements GraphicalCrunchingEnabling, ImagePane
 		depth     = Integer.parseInt(params.getValueOfParameter("Output Bit Depth"));
 		
 		// prepare the images for calculation
-		ImagePlus im = new ImagePlus(images[index]);
+		ImagePlus im = ImageCache.getImagePlus(images[index]);
 		imagepanel.setImage(im);
 		imp = (FloatProcessor) im.getProcessor().convertToFloat(); // should be a float processor
 		
@@ -388,7 +389,7 @@ class AdjustImageHelperFunction implements GraphicalCrunchingEnabling, ImagePane
 //			String imageName = imageFile.getName();
 			
 			// get the image
-			im  = new ImagePlus(imagePath);
+			im  = ImageCache.getImagePlus(imagePath);
 			imp = (FloatProcessor) im.getProcessor().convertToFloat(); // should be a float processor
 			
 			////// Begin Actual Function
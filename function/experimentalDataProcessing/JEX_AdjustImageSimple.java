@@ -9,6 +9,7 @@ import java.util.TreeMap;
 
 import jex.statics.JEXStatics;
 import utilities.FunctionUtility;
+import utilities.ImageCache;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
 import Database.DBObjects.dimension.DimensionMap;
@@ -254,7 +255,7 @@ public class JEX_AdjustImageSimple extends ExperimentalDataCrunch{
 		// Get image data
 		File f = new File(imagePath);
 		if(!f.exists()) return null;
-		ImagePlus im = new ImagePlus(imagePath);
+		ImagePlus im = ImageCache.getImagePlus(imagePath);
 		FloatProcessor imp = (FloatProcessor) im.getProcessor().convertToFloat(); // should be a float processor
 		
 		// Adjust the image
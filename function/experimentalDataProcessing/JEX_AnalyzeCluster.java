@@ -12,6 +12,7 @@ import java.util.HashMap;
 import java.util.TreeMap;
 
 import jex.statics.JEXStatics;
+import utilities.ImageCache;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
 import Database.DBObjects.dimension.DimensionMap;
@@ -227,7 +228,7 @@ public class JEX_AnalyzeCluster extends ExperimentalDataCrunch{
 			// Get the image
 			String path  = imageMap.get(dim);
 //			File   fpath = new File(path);
-			ImagePlus im = new ImagePlus(path);
+			ImagePlus im = ImageCache.getImagePlus(path);
 			
 			// get the image
 			FloatProcessor imp = (FloatProcessor) im.getProcessor().convertToFloat(); // should be a float processor
@@ -244,7 +245,7 @@ public class JEX_AnalyzeCluster extends ExperimentalDataCrunch{
 			
 			// Crop image
 			if (roi != null){
-				ij.gui.Roi imroi = roi.roi;
+				ij.gui.Roi imroi = roi.getRoi();
 				java.awt.Rectangle rect = imroi.getBounds();
 				imp.setRoi(rect);
 				imp = (FloatProcessor) imp.crop();
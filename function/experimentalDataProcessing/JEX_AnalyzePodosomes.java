@@ -21,6 +21,7 @@ import java.util.List;
 import java.util.TreeMap;
 
 import jex.statics.JEXStatics;
+import utilities.ImageCache;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
 import Database.DBObjects.dimension.DimensionMap;
@@ -317,7 +318,7 @@ class FindPodosomeHelperFunction implements GraphicalCrunchingEnabling, ImagePan
 		
 		// Prepare the graphics
 		imagepanel = new ImagePanel(this,"Analyze podosomes");
-		imagepanel.setRoi(roi.roi);
+		imagepanel.setRoi(roi.getRoi());
 		displayImage(index);
 		wrap = new GraphicalFunctionWrap(this,params);
 		wrap.addStep(0, "Subtract background", new String[] {"Background radius"});
@@ -332,7 +333,7 @@ class FindPodosomeHelperFunction implements GraphicalCrunchingEnabling, ImagePan
 	}
 
 	private void displayImage(int index){
-		ImagePlus im = new ImagePlus(jimages.get(index)) ;
+		ImagePlus im = ImageCache.getImagePlus(jimages.get(index)) ;
 		imagepanel.setImage(im);
 	}
 	
@@ -365,14 +366,14 @@ class FindPodosomeHelperFunction implements GraphicalCrunchingEnabling, ImagePan
 		///// Run step index
 		JEXStatics.logManager.log("Running step "+atStep,1,this);
 		if (atStep == 0){
-			im = new ImagePlus(jimages.get(index));
+			im = ImageCache.getImagePlus(jimages.get(index));
 			imp = (ByteProcessor) im.getProcessor().convertToByte(true);
 			imagepanel.setPointListArray(null,null);
 			
 			subtractBackground();
 		}
 		else if (atStep == 1){
-			im = new ImagePlus(jimages.get(index));
+			im = ImageCache.getImagePlus(jimages.get(index));
 			imp = (ByteProcessor) im.getProcessor().convertToByte(true);
 			imagepanel.setPointListArray(null,null);
 			
@@ -380,7 +381,7 @@ class FindPodosomeHelperFunction implements GraphicalCrunchingEnabling, ImagePan
 			threshold();
 		}
 		else if (atStep == 2){
-			im = new ImagePlus(jimages.get(index));
+			im = ImageCache.getImagePlus(jimages.get(index));
 			imp = (ByteProcessor) im.getProcessor().convertToByte(true);
 			imagepanel.setPointListArray(null,null);
 			
@@ -389,7 +390,7 @@ class FindPodosomeHelperFunction implements GraphicalCrunchingEnabling, ImagePan
 			analyzeParticles();
 		}
 		else if (atStep == 3){
-			im = new ImagePlus(jimages.get(index));
+			im = ImageCache.getImagePlus(jimages.get(index));
 			imp = (ByteProcessor) im.getProcessor().convertToByte(true);
 			
 			if (recalc || pointListArray==null){
@@ -498,7 +499,7 @@ class FindPodosomeHelperFunction implements GraphicalCrunchingEnabling, ImagePan
 		bS.run(imp);
 		
 		if (roi != null){
-			java.awt.Rectangle rect = roi.roi.getBounds();
+			java.awt.Rectangle rect = roi.getRoi().getBounds();
 			imp.setRoi(rect);
 			imp = (ij.process.ByteProcessor) imp.crop();
 		}
@@ -592,7 +593,7 @@ class FindPodosomeHelperFunction implements GraphicalCrunchingEnabling, ImagePan
 			String path = imageMap.get(dim);
 
 			// get the image
-			im = new ImagePlus(path);
+			im = ImageCache.getImagePlus(path);
 			imp = (ByteProcessor) im.getProcessor().convertToByte(true);
 			frame = count;
 			
@@ -276,7 +276,7 @@ class AdvancedAnalyzeTracksHelperFunction implements GraphicalCrunchingEnabling,
 		if (roiData != null){
 			rois   = RoiReader.readObjectToRoiMap(roiData);
 			ROIPlus roip = RoiReader.readObjectToRoi(roiData);
-			this.roi = (roip==null) ? null : roip.roi;
+			this.roi = (roip==null) ? null : roip.getRoi();
 		}
 		
 		////// Get params
@@ -10,6 +10,7 @@ import java.util.TreeMap;
 
 import jex.statics.JEXStatics;
 import utilities.FunctionUtility;
+import utilities.ImageCache;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
 import Database.DBObjects.dimension.DimensionMap;
@@ -230,7 +231,7 @@ public class JEX_AutoThreshold extends ExperimentalDataCrunch{
 		for(DimensionMap map : imageMap.keySet())
 		{
 			// Get the image
-			ImagePlus im = new ImagePlus(imageMap.get(map));
+			ImagePlus im = ImageCache.getImagePlus(imageMap.get(map));
 			ImageProcessor ip = im.getProcessor();
 			
 			// Do threshold
@@ -31,6 +31,7 @@ import jex.arrayView.ImageDisplayController;
 import jex.statics.DisplayStatics;
 import jex.statics.JEXStatics;
 import utilities.FontUtility;
+import utilities.ImageCache;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
 import Database.DBObjects.dimension.DimensionMap;
@@ -280,7 +281,7 @@ class MigrationDistanceAnalysisFunction implements ActionListener, ImageDisplayC
 		// Extract the variables
 		imageMap   = ImageReader.readObjectToImagePathTable(data);
 		currentDim = imageMap.firstKey();
-		im         = new ImagePlus(imageMap.get(currentDim));
+		im         = ImageCache.getImagePlus(imageMap.get(currentDim));
 
 		////// Get params
 		getParams();
@@ -390,7 +391,7 @@ class MigrationDistanceAnalysisFunction implements ActionListener, ImageDisplayC
 	 */
 	private void displayImage(DimensionMap dim){
 		// Display the image
-		im = new ImagePlus(imageMap.get(currentDim));
+		im = ImageCache.getImagePlus(imageMap.get(currentDim));
 		imageDisplay.setImage(im);
 		
 		// Display the polygon roi
@@ -405,7 +406,7 @@ class MigrationDistanceAnalysisFunction implements ActionListener, ImageDisplayC
 	private double getRoiHeight(ROIPlus roip, ImagePlus image)
 	{
 		// Make an imageJ roi
-		Roi       imageJRoi  = roip.roi;
+		Roi       imageJRoi  = roip.getRoi();
 		
 		// Set the roi on an ImagePLus
 		image.setRoi(imageJRoi);
@@ -440,7 +441,7 @@ class MigrationDistanceAnalysisFunction implements ActionListener, ImageDisplayC
 		// Loop though the images and get the image and the ROI
 		for (DimensionMap dim: imageMap.keySet())
 		{
-			ImagePlus image   = new ImagePlus(imageMap.get(dim));
+			ImagePlus image   = ImageCache.getImagePlus(imageMap.get(dim));
 			ROIPlus   polygon = roiMap.get(dim);
 			
 			if (polygon != null)
@@ -8,6 +8,7 @@ import java.util.TreeMap;
 
 import jex.statics.JEXStatics;
 import utilities.FunctionUtility;
+import utilities.ImageCache;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
 import Database.DBObjects.dimension.DimensionMap;
@@ -227,7 +228,7 @@ public class JEX_BackGroundSubtract extends ExperimentalDataCrunch{
 //			File   f    = new File(path);
 			
 			// get the image
-			ImagePlus im = new ImagePlus(path);
+			ImagePlus im = ImageCache.getImagePlus(path);
 			FloatProcessor imp = (FloatProcessor) im.getProcessor().convertToFloat(); // should be a float processor
 
 			////// Begin Actual Function
@@ -29,6 +29,7 @@ import jex.arrayView.ImageDisplayController;
 import jex.statics.DisplayStatics;
 import jex.statics.JEXStatics;
 import utilities.FontUtility;
+import utilities.ImageCache;
 import utilities.StatisticsUtility;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
@@ -274,7 +275,7 @@ class BondStrengthAnalysisFunction implements ActionListener, ImageDisplayContro
 
 		// Prepare function
 		String imagePath = ImageReader.readObjectToImagePath(data);
-		im               = new ImagePlus(imagePath);
+		im               = ImageCache.getImagePlus(imagePath);
 
 		// Prepare the graphics
 		imageDisplay = new ImageDisplay(this, "Bond strenght analysis");
@@ -6,6 +6,7 @@ import ij.process.ImageStatistics;
 import java.util.HashMap;
 import java.util.TreeMap;
 
+import utilities.ImageCache;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
 import Database.DBObjects.dimension.DimensionMap;
@@ -212,11 +213,11 @@ public class JEX_CalculateIntensityWithMask extends ExperimentalDataCrunch{
 			
 			// Open the image to quantify
 			String imPath = images.get(dim);
-			ImagePlus imp = new ImagePlus(imPath);
+			ImagePlus imp = ImageCache.getImagePlus(imPath);
 			
 			// Open the mask
 			String maskPath = masks.get(dim);
-			ImagePlus imm   = new ImagePlus(maskPath);
+			ImagePlus imm   = ImageCache.getImagePlus(maskPath);
 
 			// calculate integrated intensity in the image to quantify
 			ImageStatistics imStat = imp.getStatistics();
@@ -24,6 +24,7 @@ import java.util.TreeMap;
 import java.util.Vector;
 
 import jex.statics.JEXStatics;
+import utilities.ImageCache;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
 import Database.DataReader.ImageReader;
@@ -342,7 +343,7 @@ class CellDivisionHelperFunction implements GraphicalCrunchingEnabling, ImagePan
 	
 
 	private void displayImage(int index){
-		ImagePlus im = new ImagePlus(jimages.get(index));
+		ImagePlus im = ImageCache.getImagePlus(jimages.get(index));
 		imagepanel.setImage(im);
 	}
 	
@@ -369,7 +370,7 @@ class CellDivisionHelperFunction implements GraphicalCrunchingEnabling, ImagePan
 		///// Run step index
 		JEXStatics.logManager.log("Running step "+atStep,1,this);
 		if (atStep == 0){
-			im = new ImagePlus(jimages.get(index));
+			im = ImageCache.getImagePlus(jimages.get(index));
 			imp = (ByteProcessor) im.getProcessor().convertToByte(true);
 			imagepanel.setPointListArray(null,null);
 			imagepanel.setRoi(null);
@@ -382,7 +383,7 @@ class CellDivisionHelperFunction implements GraphicalCrunchingEnabling, ImagePan
 			}
 		}
 		else if (atStep == 1){
-			im = new ImagePlus(jimages.get(index));
+			im = ImageCache.getImagePlus(jimages.get(index));
 			imp = (ByteProcessor) im.getProcessor().convertToByte(true);
 			imagepanel.setPointListArray(null,null);
 			imagepanel.setRoi(null);
@@ -392,7 +393,7 @@ class CellDivisionHelperFunction implements GraphicalCrunchingEnabling, ImagePan
 			interactionMode = true;
 		}
 		else if (atStep == 2){
-			im = new ImagePlus(jimages.get(index));
+			im = ImageCache.getImagePlus(jimages.get(index));
 			imp = (ByteProcessor) im.getProcessor().convertToByte(true);
 			imagepanel.setPointListArray(null,null);
 			imagepanel.setRoi(null);
@@ -406,7 +407,7 @@ class CellDivisionHelperFunction implements GraphicalCrunchingEnabling, ImagePan
 			}
 		}
 		else if (atStep == 3){
-			im = new ImagePlus(jimages.get(index));
+			im = ImageCache.getImagePlus(jimages.get(index));
 			imp = (ByteProcessor) im.getProcessor().convertToByte(true);
 			imagepanel.setPointListArray(null,null);
 			imagepanel.setRoi(imageRoi);
@@ -420,7 +421,7 @@ class CellDivisionHelperFunction implements GraphicalCrunchingEnabling, ImagePan
 			}
 		}
 		else if (atStep == 4){
-			im = new ImagePlus(jimages.get(index));
+			im = ImageCache.getImagePlus(jimages.get(index));
 			imp = (ByteProcessor) im.getProcessor().convertToByte(true);
 			
 			binImage();
@@ -438,7 +439,7 @@ class CellDivisionHelperFunction implements GraphicalCrunchingEnabling, ImagePan
 			}
 		}
 		else if (atStep == 5){
-			im = new ImagePlus(jimages.get(index));
+			im = ImageCache.getImagePlus(jimages.get(index));
 			imp = (ByteProcessor) im.getProcessor().convertToByte(true);
 			imagepanel.setPointListArray(null,null);
 			
@@ -593,7 +594,7 @@ class CellDivisionHelperFunction implements GraphicalCrunchingEnabling, ImagePan
 	private void findMaxInStack(){
 		for (int j=0, len=jimages.size(); j<len; j++){
 			index = j;
-			im = new ImagePlus(jimages.get(index));
+			im = ImageCache.getImagePlus(jimages.get(index));
 			imp = (ByteProcessor) im.getProcessor().convertToByte(true);
 			
 			binImage();
@@ -701,7 +702,7 @@ class CellDivisionHelperFunction implements GraphicalCrunchingEnabling, ImagePan
 		
 		// add each image one by one
 		for (int k = 0, len = jimages.size(); (k < len); k++) {
-			ImagePlus imk = new ImagePlus(jimages.get(k));
+			ImagePlus imk = ImageCache.getImagePlus(jimages.get(k));
 			BufferedImage bimage = trackImage(k, binning, imk, trajectories);
 
 			if (k == 0){
@@ -12,6 +12,7 @@ import java.util.TreeMap;
 
 import jex.statics.JEXStatics;
 import utilities.CSVList;
+import utilities.ImageCache;
 import utilities.LSVList;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
@@ -292,7 +293,7 @@ public class JEX_CellIntensityAnalyzer extends ExperimentalDataCrunch{
 					
 					//create intensity list based on points
 					String imPath    = images.get(map);
-					ImagePlus im = new ImagePlus(imPath);
+					ImagePlus im = ImageCache.getImagePlus(imPath);
 					im.setRoi(oval);
 					ImageStatistics imStat = im.getStatistics(Measurements.MIN_MAX);
 					intensity = (int) imStat.max;
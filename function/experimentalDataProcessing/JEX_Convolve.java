@@ -8,6 +8,7 @@ import java.util.TreeMap;
 
 import jex.statics.JEXStatics;
 import utilities.FunctionUtility;
+import utilities.ImageCache;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
 import Database.DBObjects.dimension.DimensionMap;
@@ -19,6 +20,7 @@ import Database.Definition.TypeName;
 import Database.SingleUserDatabase.JEXWriter;
 import function.ExperimentalDataCrunch;
 import function.tracker.SimpleConvolve;
+import function.tracker.TemplateMatcher;
 import guiObject.FormLine;
 
 
@@ -40,6 +42,8 @@ import guiObject.FormLine;
  */
 public class JEX_Convolve extends ExperimentalDataCrunch{
 
+	public static final String CONVOLUTION = "Convolution", NCC = "Normalized cross-correlation";
+
 	// ----------------------------------------------------
 	// --------- INFORMATION ABOUT THE FUNCTION -----------
 	// ----------------------------------------------------
@@ -155,11 +159,13 @@ public class JEX_Convolve extends ExperimentalDataCrunch{
 	public ParameterSet requiredParameters() {
 		Parameter p1 = new Parameter("Normalize","Normalize the image",FormLine.DROPDOWN,new String[] {"true","false"},1);
 		Parameter p2 = new Parameter("Output Bit Depth","Depth of the outputted image",FormLine.DROPDOWN,new String[] {"8","16","32"},1);
+		Parameter p3 = new Parameter("Method","Convolution with the small image (8 bit result) or normalized cross-correlation with it (between -1 and 1)",FormLine.DROPDOWN,new String[] {CONVOLUTION,NCC},0);
 		
 		// Make an array of the parameters and return it
 		ParameterSet parameterArray = new ParameterSet();
 		parameterArray.addParameter(p1);
 		parameterArray.addParameter(p2);
+		parameterArray.addParameter(p3);
 		return parameterArray;
 	}
 	
@@ -205,41 +211,46 @@ public class JEX_Convolve extends ExperimentalDataCrunch{
 		////// Get params
 		String norm  = parameters.getValueOfParameter("Normalize");
 		int depth    = Integer.parseInt(parameters.getValueOfParameter("Output Bit Depth"));
+		boolean ncc  = NCC.equals(parameters.getValueOfParameter("Method"));
 		
 		// Run the function
 		TreeMap<DimensionMap,String> images = ImageReader.readObjectToImagePathTable(data1);
 		TreeMap<DimensionMap,String> outputMap = new TreeMap<DimensionMap,String>();
 		
+		// The transform of the small image is computed once per image size and shared by the frames
+		HashMap<String,TemplateMatcher> matchers = new HashMap<String,TemplateMatcher>();
 		int count                   = 0;
 		int total                   = images.size();
-		SimpleConvolve convolver    = new SimpleConvolve();
 		JEXStatics.statusBar.setProgressPercentage(0);
 		for (DimensionMap dim:images.keySet()){
 			String path = images.get(dim);
-//			File   f    = new File(path);
 			
 			// get the image
-			ImagePlus im = new ImagePlus(path);
+			ImagePlus im = ImageCache.getSharedImagePlus(path);
+			String size = im.getWidth() + "x" + im.getHeight();
+			TemplateMatcher matcher = matchers.get(size);
+			if (matcher == null)
+			{
+				matcher = ncc ? new TemplateMatcher(conv.getProcessor(), im.getWidth(), im.getHeight()) : SimpleConvolve.makeConvolutionMatcher(conv, im.getWidth(), im.getHeight());
+				matchers.put(size, matcher);
+			}
 			
 			////// Begin Actual Function
-			ImagePlus result = convolver.start(im, conv, null);
-			FloatProcessor fpr = (FloatProcessor) result.getProcessor().convertToFloat();
+			FloatProcessor fpr;
+			if (ncc) fpr = matcher.normalizedCorrelate(im.getProcessor());
+			else fpr = (FloatProcessor) SimpleConvolve.makeConvolution(matcher, im.getProcessor()).convertToFloat();
 			////// End Actual Function
 			
 			////// Save the results
-//			String localDir    = JEXWriter.getEntryFolder(entry);
-//			String newFileName = FunctionUtility.getNextName(localDir, f.getName(), "A");
-//			String finalPath   = localDir + File.separator + newFileName;
-//			FunctionUtility.imSave(fpr, norm, depth, finalPath);
 			ImagePlus toSave = FunctionUtility.makeImageToSave(fpr, norm, depth);
 			String finalPath = JEXWriter.saveImage(toSave);
 
 			outputMap.put(dim.copy(), finalPath);
-			JEXStatics.logManager.log("Finished processing " + count + " of " + total + ".",1,this);
 			count++;
+			JEXStatics.logManager.log("Finished processing {} of {}.",1,this,count,total);
 			
 			// Status bar
-			int percentage = (int) (100 * ((double) count/ (double)images.size()));
+			int percentage = (int) (100 * ((double) count/ (double)total));
 			JEXStatics.statusBar.setProgressPercentage(percentage);
 		}
 		
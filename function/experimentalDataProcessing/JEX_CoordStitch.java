@@ -21,6 +21,7 @@ import java.util.List;
 import jex.statics.JEXStatics;
 import utilities.CSVList;
 import utilities.FunctionUtility;
+import utilities.ImageCache;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
 import Database.DBObjects.dimension.DimensionMap;
@@ -277,7 +278,7 @@ public class JEX_CoordStitch extends ExperimentalDataCrunch{
 			DimensionMap map = itr.next();
 			////// Prepare float processor
 			JEXStatics.logManager.log("Getting file " + ImageReader.readObjectToImagePath(imageData, map) + " in entry " + entry.getTrayX() + "," + entry.getTrayY() + " for dim " + map.toString(), 0, "JEX_CoordStitch");
-			im = new ImagePlus(ImageReader.readObjectToImagePath(imageData, map));
+			im = ImageCache.getImagePlus(ImageReader.readObjectToImagePath(imageData, map));
 			imp = (FloatProcessor) im.getProcessor().convertToFloat(); // should be a float processor
 			
 			////// Begin Actual Function
@@ -20,6 +20,7 @@ import java.util.HashMap;
 import java.util.TreeMap;
 
 import jex.statics.JEXStatics;
+import utilities.ImageCache;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
 import Database.DBObjects.dimension.DimensionMap;
@@ -316,7 +317,7 @@ class HaemocytometerCountingHelperFunction implements GraphicalCrunchingEnabling
 		// Prepare the variables
 		currentDim   = imageMap.firstKey();
 		currentRoi   = roiMap.get(currentDim);
-		im           = new ImagePlus(imageMap.get(currentDim));
+		im           = ImageCache.getImagePlus(imageMap.get(currentDim));
 		currentPList = new PointList();
 		
 		// Reset the image maps
@@ -357,7 +358,7 @@ class HaemocytometerCountingHelperFunction implements GraphicalCrunchingEnabling
 		imagepanel.setImage(image);
 		imagepanel.setPointList(pList);
 //		imagepanel.setPointListArray(null,null);
-		imagepanel.setRoi(roip.roi);
+		imagepanel.setRoi(roip.getRoi());
 	}
 	
 	/**
@@ -421,7 +422,7 @@ class HaemocytometerCountingHelperFunction implements GraphicalCrunchingEnabling
 			interactionMode = false;
 
 			// Make the overlay image
-			ImagePlus image1 = new ImagePlus(imageMap.get(currentDim));
+			ImagePlus image1 = ImageCache.getImagePlus(imageMap.get(currentDim));
 			ImagePlus image2 = convolvedImages.get(currentDim);
 			
 			int imWidth = image2.getWidth();
@@ -445,7 +446,7 @@ class HaemocytometerCountingHelperFunction implements GraphicalCrunchingEnabling
 			
 			// Display the image and rois
 			currentRoi   = roiMap.get(currentDim);
-			im           = new ImagePlus(imageMap.get(currentDim));
+			im           = ImageCache.getImagePlus(imageMap.get(currentDim));
 			currentPList = pLists.get(currentDim);
 			
 			// Set the interactionmode to true
@@ -470,7 +471,7 @@ class HaemocytometerCountingHelperFunction implements GraphicalCrunchingEnabling
 		DimensionMap lowerKey = imageMap.lowerKey(currentDim);
 		if (lowerKey != null) currentDim = lowerKey;
 		currentRoi = roiMap.get(currentDim);
-		im         = new ImagePlus(imageMap.get(currentDim));
+		im         = ImageCache.getImagePlus(imageMap.get(currentDim));
 		this.displayImage(im, currentRoi, currentPList);
 		
 		runStep(atStep);
@@ -480,7 +481,7 @@ class HaemocytometerCountingHelperFunction implements GraphicalCrunchingEnabling
 		DimensionMap higherKey = imageMap.higherKey(currentDim);
 		if (higherKey != null)  currentDim = higherKey;
 		currentRoi = roiMap.get(currentDim);
-		im         = new ImagePlus(imageMap.get(currentDim));
+		im         = ImageCache.getImagePlus(imageMap.get(currentDim));
 		this.displayImage(im, currentRoi, currentPList);
 		
 		runStep(atStep);
@@ -516,7 +517,7 @@ class HaemocytometerCountingHelperFunction implements GraphicalCrunchingEnabling
 		Roi       rroi = new Roi(rect);
 		
 		// Extract the image
-		ImagePlus image = new ImagePlus(imageMap.get(currentDim));
+		ImagePlus image = ImageCache.getImagePlus(imageMap.get(currentDim));
 		image.setRoi(rroi);
 		ImageProcessor cellImp = image.getProcessor().crop();
 		cellImage = new ImagePlus("",cellImp);
@@ -536,7 +537,7 @@ class HaemocytometerCountingHelperFunction implements GraphicalCrunchingEnabling
 		{
 			// Get the image
 			String    imagePath = imageMap.get(dim);
-			ImagePlus image     = new ImagePlus(imagePath);
+			ImagePlus image     = ImageCache.getImagePlus(imagePath);
 			if (image==null || image.getProcessor()==null) continue;
 			
 			// Perform the convolution
@@ -632,7 +633,7 @@ class HaemocytometerCountingHelperFunction implements GraphicalCrunchingEnabling
 			
 			// Make the point list
 			PointList result = new PointList();
-			Rectangle rect = roip.roi.getBounds();
+			Rectangle rect = roip.getRoi().getBounds();
 			for (int i=0; i<xPos.length; i++)
 			{
 				// Get the next point
@@ -664,7 +665,7 @@ class HaemocytometerCountingHelperFunction implements GraphicalCrunchingEnabling
 		for (DimensionMap dim: imageMap.keySet())
 		{	
 			// Get the image
-			ImagePlus image = new ImagePlus(imageMap.get(dim));
+			ImagePlus image = ImageCache.getImagePlus(imageMap.get(dim));
 			
 			// Get the point list
 			PointList pList = pLists.get(dim);
@@ -9,6 +9,7 @@ import java.util.TreeMap;
 
 import jex.statics.JEXStatics;
 import utilities.FunctionUtility;
+import utilities.ImageCache;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
 import Database.DBObjects.dimension.DimensionMap;
@@ -227,7 +228,7 @@ public class JEX_CropImageUsingROI extends ExperimentalDataCrunch{
 		
 		for(DimensionMap map : imageList.keySet())
 		{
-			image = new ImagePlus(imageList.get(map));
+			image = ImageCache.getImagePlus(imageList.get(map));
 			imageP = (FloatProcessor)image.getProcessor().convertToFloat();
 			int bitDepth = image.getBitDepth();
 			region = regionROI.get(map);
@@ -11,6 +11,7 @@ import java.util.HashMap;
 import java.util.List;
 
 import jex.statics.JEXStatics;
+import utilities.ImageCache;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
 import Database.DataReader.ImageReader;
@@ -228,8 +229,8 @@ public class JEX_EY_LiveDead_FindMaxima extends ExperimentalDataCrunch{
 //		String currentName2 = imFile2.getName();
 		
 		// Define All Necessary Images
-		ImagePlus imPlus1 = new ImagePlus(path1);	
-		ImagePlus imPlus2 = new ImagePlus(path2);
+		ImagePlus imPlus1 = ImageCache.getImagePlus(path1);	
+		ImagePlus imPlus2 = ImageCache.getImagePlus(path2);
 
 		int imWidth = imPlus1.getWidth();
 		int imHeight = imPlus1.getHeight();
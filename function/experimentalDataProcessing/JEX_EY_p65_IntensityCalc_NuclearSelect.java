@@ -23,6 +23,7 @@ import java.util.List;
 
 import jex.statics.JEXStatics;
 import utilities.FunctionUtility;
+import utilities.ImageCache;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
 import Database.DataReader.ImageReader;
@@ -255,8 +256,8 @@ public class JEX_EY_p65_IntensityCalc_NuclearSelect extends ExperimentalDataCrun
 			String path1  = image1.get(i);
 			String path2  = image2.get(i);
 		// Read the paths into ImagePlus images		
-			ImagePlus imPlus1 = new ImagePlus(path1);	
-			ImagePlus imPlus2 = new ImagePlus(path2);
+			ImagePlus imPlus1 = ImageCache.getImagePlus(path1);	
+			ImagePlus imPlus2 = ImageCache.getImagePlus(path2);
 			
 			ShortProcessor shortOriginalImPlus1 = (ShortProcessor) imPlus1.getProcessor().convertToShort(true);
 			ShortProcessor shortOriginalImPlus2 = (ShortProcessor) imPlus2.getProcessor().convertToShort(true);
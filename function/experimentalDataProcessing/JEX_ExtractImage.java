@@ -12,6 +12,7 @@ import java.util.List;
 
 import jex.statics.JEXStatics;
 import utilities.FunctionUtility;
+import utilities.ImageCache;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
 import Database.DataReader.ImageReader;
@@ -275,7 +276,7 @@ class VisualExtractionHelperFunction implements GraphicalCrunchingEnabling, Imag
 		auto           = Boolean.parseBoolean(autoStr);
 		
 		// Prepare the graphics
-		im = new ImagePlus(images.get(0));
+		im = ImageCache.getImagePlus(images.get(0));
 		JEXStatics.logManager.log("Placing in imagepanel "+images.get(0),1,this);
 		imagepanel = new ImagePanel(this,"Select Cell");
 		imagepanel.setImage(im);
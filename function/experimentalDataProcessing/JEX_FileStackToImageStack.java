@@ -7,6 +7,7 @@ import ij.process.ImageProcessor;
 import java.util.ArrayList;
 import java.util.HashMap;
 
+import utilities.ImageCache;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
 import Database.DataReader.FileReader;
@@ -194,7 +195,7 @@ public class JEX_FileStackToImageStack extends ExperimentalDataCrunch{
 		String fileName = FileReader.readFileObject(data);
 		
 		// Open an imageJ stack
-		ImagePlus imstack = new ImagePlus(fileName);
+		ImagePlus imstack = ImageCache.getImagePlus(fileName);
 		
 		// Save each image of the stack into a new file
 		ImageStack stack = imstack.getImageStack();
@@ -8,6 +8,7 @@ import java.util.HashMap;
 import java.util.TreeMap;
 
 import jex.statics.JEXStatics;
+import utilities.ImageCache;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
 import Database.DBObjects.dimension.DimensionMap;
@@ -212,7 +213,7 @@ public class JEX_Filters extends ExperimentalDataCrunch{
 		int count = 0, percentage = 0;
 		for(DimensionMap map : imageMap.keySet())
 		{
-			ImagePlus im = new ImagePlus(imageMap.get(map));
+			ImagePlus im = ImageCache.getImagePlus(imageMap.get(map));
 			ImageProcessor ip = im.getProcessor().convertToFloat();
 			
 			////// Begin Actual Function
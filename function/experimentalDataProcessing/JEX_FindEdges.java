@@ -7,6 +7,7 @@ import java.util.HashMap;
 import java.util.TreeMap;
 
 import jex.statics.JEXStatics;
+import utilities.ImageCache;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
 import Database.DBObjects.dimension.DimensionMap;
@@ -211,7 +212,7 @@ public class JEX_FindEdges extends ExperimentalDataCrunch{
 			String path = images.get(dim);
 			
 			// get the image
-			ImagePlus im = new ImagePlus(path);
+			ImagePlus im = ImageCache.getImagePlus(path);
 			ByteProcessor bimp = (ByteProcessor) im.getProcessor().convertToByte(true); // should be a float processor
 			
 			// invert if needed
@@ -12,6 +12,7 @@ import java.util.List;
 import java.util.TreeMap;
 
 import jex.statics.JEXStatics;
+import utilities.ImageCache;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
 import Database.DBObjects.dimension.DimensionMap;
@@ -269,7 +270,7 @@ class FindMaxHelperFunction implements GraphicalCrunchingEnabling, ImagePanelInt
 		if (jroi != null){
 			rois   = RoiReader.readObjectToRoiMap(jroi);
 			ROIPlus roip = RoiReader.readObjectToRoi(jroi);
-			this.roi = (roip==null) ? null : roip.roi;
+			this.roi = (roip==null) ? null : roip.getRoi();
 		}
 		
 		dimensions = new ArrayList<DimensionMap>(0);
@@ -307,7 +308,7 @@ class FindMaxHelperFunction implements GraphicalCrunchingEnabling, ImagePanelInt
 	private void displayImage(int index){
 		DimensionMap map = dimensions.get(index);
 		String imPath    = images.get(map);
-		ImagePlus im = new ImagePlus(imPath);
+		ImagePlus im = ImageCache.getImagePlus(imPath);
 		JEXStatics.logManager.log("Placing in imagepanel "+imPath,1,this);
 		
 		imagepanel.setImage(im);
@@ -335,7 +336,7 @@ class FindMaxHelperFunction implements GraphicalCrunchingEnabling, ImagePanelInt
 		// prepare the images for calculation
 		DimensionMap map = dimensions.get(index);
 		String imPath    = images.get(map);
-		ImagePlus im = new ImagePlus(imPath);
+		ImagePlus im = ImageCache.getImagePlus(imPath);
 		java.awt.Rectangle rect   = (roi == null) ? null : roi.getBounds();
 		PointList result = finder.findMaximum(im, rect);
 		
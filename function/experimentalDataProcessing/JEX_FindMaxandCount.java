@@ -12,6 +12,7 @@ import java.util.List;
 import java.util.TreeMap;
 
 import jex.statics.JEXStatics;
+import utilities.ImageCache;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
 import Database.DBObjects.dimension.DimensionMap;
@@ -278,7 +279,7 @@ class FindMaxHelperFunction2 implements GraphicalCrunchingEnabling, ImagePanelIn
 		if (jroi != null){
 			rois   = RoiReader.readObjectToRoiMap(jroi);
 			ROIPlus roip = RoiReader.readObjectToRoi(jroi);
-			this.roi = (roip==null) ? null : roip.roi;
+			this.roi = (roip==null) ? null : roip.getRoi();
 		}
 		
 		dimensions = new ArrayList<DimensionMap>(0);
@@ -318,7 +319,7 @@ class FindMaxHelperFunction2 implements GraphicalCrunchingEnabling, ImagePanelIn
 	private void displayImage(int index){
 		DimensionMap map = dimensions.get(index);
 		String imPath    = images.get(map);
-		ImagePlus im = new ImagePlus(imPath);
+		ImagePlus im = ImageCache.getImagePlus(imPath);
 		JEXStatics.logManager.log("Placing in imagepanel "+imPath,1,this);
 		
 		imagepanel.setImage(im);
@@ -348,7 +349,7 @@ class FindMaxHelperFunction2 implements GraphicalCrunchingEnabling, ImagePanelIn
 		// prepare the images for calculation
 		DimensionMap map = dimensions.get(index);
 		String imPath    = images.get(map);
-		ImagePlus im = new ImagePlus(imPath);
+		ImagePlus im = ImageCache.getImagePlus(imPath);
 		java.awt.Rectangle rect   = (roi == null) ? null : roi.getBounds();
 		PointList result = finder.findMaximum(im, rect);
 		
@@ -9,6 +9,7 @@ import java.util.HashMap;
 import java.util.TreeMap;
 
 import jex.statics.JEXStatics;
+import utilities.ImageCache;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
 import Database.DBObjects.dimension.DimensionMap;
@@ -236,7 +237,7 @@ public class JEX_FindMaximaSegmentation extends ExperimentalDataCrunch{
 		ROIPlus roip;
 		for(DimensionMap map : imageMap.keySet())
 		{
-			ImageProcessor ip = new ImagePlus(imageMap.get(map)).getProcessor();
+			ImageProcessor ip = ImageCache.getImagePlus(imageMap.get(map)).getProcessor();
 			
 			roi = null;
 			roip = roiMap.get(map);
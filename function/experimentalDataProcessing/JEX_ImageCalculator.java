@@ -10,6 +10,7 @@ import java.util.HashMap;
 import java.util.TreeMap;
 
 import jex.statics.JEXStatics;
+import utilities.ImageCache;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
 import Database.DBObjects.dimension.DimensionMap;
@@ -230,10 +231,10 @@ public class JEX_ImageCalculator extends ExperimentalDataCrunch{
 		int count = 0, percentage = 0;
 		for(DimensionMap map : imageAMap.keySet())
 		{
-			ImagePlus imA = new ImagePlus(imageAMap.get(map));
+			ImagePlus imA = ImageCache.getImagePlus(imageAMap.get(map));
 			String pathB = imageBMap.get(map);
 			if(pathB == null) continue;
-			ImagePlus imB = new ImagePlus(pathB);
+			ImagePlus imB = ImageCache.getImagePlus(pathB);
 			FloatProcessor ipA = (FloatProcessor)imA.getProcessor().convertToFloat();
 			FloatProcessor ipB = (FloatProcessor)imB.getProcessor().convertToFloat();
 			
@@ -13,6 +13,7 @@ import java.util.List;
 import java.util.TreeMap;
 
 import jex.statics.JEXStatics;
+import utilities.ImageCache;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
 import Database.DBObjects.dimension.DimensionMap;
@@ -304,7 +305,7 @@ class DeformationCalculationHelperFunction implements GraphicalCrunchingEnabling
 	
 
 	private void displayImage(int index){
-		ImagePlus im = new ImagePlus(jimages.get(index));
+		ImagePlus im = ImageCache.getImagePlus(jimages.get(index));
 		imagepanel.setImage(im);
 	}
 	
@@ -334,7 +335,7 @@ class DeformationCalculationHelperFunction implements GraphicalCrunchingEnabling
 		///// Run step index
 		JEXStatics.logManager.log("Running step "+atStep,1,this);
 		if (atStep == 0){
-			im = new ImagePlus(jimages.get(index));
+			im = ImageCache.getImagePlus(jimages.get(index));
 			imp = (ByteProcessor) im.getProcessor().convertToByte(true);
 			imagepanel.setPointListArray(null,null);
 			imagepanel.setRoi(null);
@@ -343,7 +344,7 @@ class DeformationCalculationHelperFunction implements GraphicalCrunchingEnabling
 			drawGrid();
 		}
 		else if (atStep == 1){
-			im = new ImagePlus(jimages.get(index));
+			im = ImageCache.getImagePlus(jimages.get(index));
 			imp = (ByteProcessor) im.getProcessor().convertToByte(true);
 			imagepanel.setPointListArray(null,null);
 			imagepanel.setRoi(null);
@@ -460,7 +461,7 @@ class DeformationCalculationHelperFunction implements GraphicalCrunchingEnabling
 	
 	private void findDeformation(){
 		// Get the current image
-		im  = new ImagePlus(jimages.get(index));;
+		im  = ImageCache.getImagePlus(jimages.get(index));;
 		imp = (ByteProcessor) im.getProcessor().convertToByte(true);
 		int newWidth = (int) ((double) imp.getWidth() / bin);
 		imp = (ByteProcessor) imp.resize(newWidth);
@@ -469,7 +470,7 @@ class DeformationCalculationHelperFunction implements GraphicalCrunchingEnabling
 		// Get the next image
 		//int nextIndex = index + 1;
 		//if (index >= jimages.size()-1) nextIndex = index;
-		ImagePlus nextIm  = new ImagePlus(jimages.get(index));
+		ImagePlus nextIm  = ImageCache.getImagePlus(jimages.get(index));
 		ByteProcessor nextImp = (ByteProcessor) nextIm.getProcessor().convertToByte(true);
 		int nextWidth = (int) ((double) nextImp.getWidth() / bin);
 		nextImp = (ByteProcessor) nextImp.resize(nextWidth);
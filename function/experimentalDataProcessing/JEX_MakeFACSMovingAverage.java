@@ -17,6 +17,7 @@ import Database.DBObjects.JEXEntry;
 import Database.DBObjects.dimension.Dim;
 import Database.DBObjects.dimension.DimTable;
 import Database.DBObjects.dimension.DimensionMap;
+import Database.DBObjects.dimension.NumericTable;
 import Database.DBObjects.dimension.Table;
 import Database.DataReader.FileReader;
 import Database.DataWriter.FileWriter;
@@ -258,7 +259,7 @@ public class JEX_MakeFACSMovingAverage extends ExperimentalDataCrunch{
 		JEXStatics.statusBar.setProgressPercentage(0);
 		for(DimensionMap fileMap : fileTable.getIterator())
 		{
-			Table<Double> timePoint = JEXTableReader2.getNumericTable(fileTreeMap.get(fileMap));
+			NumericTable timePoint = JEXTableReader2.getDenseNumericTable(fileTreeMap.get(fileMap));
 			if(trackDim == null)
 			{
 				trackDim = timePoint.dimTable.getDimWithName(trackDimName).copy();
@@ -19,6 +19,7 @@ import Database.DBObjects.JEXEntry;
 import Database.DBObjects.dimension.Dim;
 import Database.DBObjects.dimension.DimTable;
 import Database.DBObjects.dimension.DimensionMap;
+import Database.DBObjects.dimension.NumericTable;
 import Database.DBObjects.dimension.Table;
 import Database.DataReader.FileReader;
 import Database.DataWriter.ImageWriter;
@@ -271,7 +272,7 @@ public class JEX_MakeFACSTimeCoursePlots extends ExperimentalDataCrunch{
 		TreeMap<DimensionMap,Double> trackMinTreeMap = new TreeMap<DimensionMap,Double>();
 		for(DimensionMap fileMap : fileTable.getIterator(new DimensionMap(), skipN))
 		{
-			Table<Double> track = JEXTableReader2.getNumericTable(fileTreeMap.get(fileMap));
+			NumericTable track = JEXTableReader2.getDenseNumericTable(fileTreeMap.get(fileMap));
 			for(String color : colorDim.dimValues)
 			{
 				TreeMap<DimensionMap,Double> colorSubset = track.getFilteredData(new DimensionMap("Measurement=1," + colorDimName + "=" + color));
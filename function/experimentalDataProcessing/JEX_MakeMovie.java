@@ -10,6 +10,7 @@ import java.util.HashMap;
 import java.util.List;
 
 import jex.statics.JEXStatics;
+import utilities.ImageCache;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
 import Database.DataReader.ImageReader;
@@ -233,7 +234,7 @@ public class JEX_MakeMovie extends ExperimentalDataCrunch {
 		
 		// add each image one by one
 		for (int k = 0, len = imset.size(); (k < len); k++) {
-			ImagePlus imk = new ImagePlus(imset.get(k));
+			ImagePlus imk = ImageCache.getImagePlus(imset.get(k));
 			ImageProcessor imp = imk.getProcessor();
 			imp = imp.resize((imk.getWidth()/binning));
 			BufferedImage bimage = imp.getBufferedImage();
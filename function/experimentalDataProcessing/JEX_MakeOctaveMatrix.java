@@ -387,6 +387,13 @@ public class JEX_MakeOctaveMatrix extends ExperimentalDataCrunch{
 		return indexList.toString();
 	}
 	
+	@Override
+	public boolean allowStreamingOutputs()
+	{
+		// finalizeTicket rewrites the outputs of every entry of the ticket
+		return false;
+	}
+	
 	@Override
 	public void finalizeTicket(Ticket t)
 	{
@@ -12,6 +12,7 @@ import java.util.List;
 import java.util.TreeMap;
 
 import jex.statics.JEXStatics;
+import utilities.ImageCache;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
 import Database.DBObjects.dimension.DimensionMap;
@@ -264,7 +265,7 @@ class MakeRoiHelperFunction implements GraphicalCrunchingEnabling, ImagePanelInt
 		}
 		JEXStatics.logManager.log("Loading with list of "+images.size()+" images",1,this);
 		
-		ImagePlus im = new ImagePlus(images.get(0));
+		ImagePlus im = ImageCache.getImagePlus(images.get(0));
 		JEXStatics.logManager.log("Placing in imagepanel "+images.get(0),1,this);
 		imagepanel = new ImagePanel(this,"Select ROI");
 		imagepanel.setImage(im);
@@ -42,6 +42,7 @@ import jex.arrayView.ImageDisplayController;
 import jex.statics.DisplayStatics;
 import jex.statics.JEXStatics;
 import utilities.FontUtility;
+import utilities.ImageCache;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
 import Database.DataReader.ImageReader;
@@ -416,7 +417,7 @@ class ManualTrackingFunction implements ActionListener, AdjustmentListener,
 	 * @param index
 	 */
 	private void displayImage(int index){
-		im = new ImagePlus(images.get(index));
+		im = ImageCache.getImagePlus(images.get(index));
 		imageDisplay.setImage(im);
 	}
 
@@ -484,7 +485,7 @@ class ManualTrackingFunction implements ActionListener, AdjustmentListener,
 
 		// add each image one by one
 		for (int k = 0, len = images.size(); (k < len); k++) {
-			ImagePlus imk = new ImagePlus(images.get(k));
+			ImagePlus imk = ImageCache.getImagePlus(images.get(k));
 			BufferedImage bimage = trackImage(k, binning, imk, getTrajectories());
 
 			if (k == 0){
@@ -712,14 +713,14 @@ class ManualTrackingFunction implements ActionListener, AdjustmentListener,
 			Trajectory currentTrack)
 	{
 		// Setup the gliding variables
-		ImagePlus image1      = new ImagePlus(images.get(index));
+		ImagePlus image1      = ImageCache.getImagePlus(images.get(index));
 		ImagePlus currentCell = extractImageAroundPoint(image1,startingPoint,radius);
 		Point     maxPoint    = startingPoint;
 		
 		int endFrame = Math.min(images.size(), index+nbFrames);
 		for (int i=index+1; i<endFrame; i++){
 			// Get the next image
-			ImagePlus image = new ImagePlus(images.get(i));
+			ImagePlus image = ImageCache.getImagePlus(images.get(i));
 			
 			// Convolve the cell in the search area of the next image
 			Vect maxDisp = convolveNeutrophilAroundPointInImage(image,currentCell,maxPoint,movement);
@@ -754,14 +755,14 @@ class ManualTrackingFunction implements ActionListener, AdjustmentListener,
 			Trajectory currentTrack)
 	{
 		// Setup the gliding variables
-		ImagePlus image1      = new ImagePlus(images.get(index));
+		ImagePlus image1      = ImageCache.getImagePlus(images.get(index));
 		ImagePlus currentCell = extractImageAroundPoint(image1,startingPoint,radius);
 		Point     maxPoint    = startingPoint;
 		
 		int endFrame = Math.max(0, index-nbFrames);
 		for (int i=index-1; i>=endFrame; i--){
 			// Get the next image
-			ImagePlus image = new ImagePlus(images.get(i));
+			ImagePlus image = ImageCache.getImagePlus(images.get(i));
 			
 			// Convolve the cell in the search area of the next image
 			Vect maxDisp = convolveNeutrophilAroundPointInImage(image,currentCell,maxPoint,movement);
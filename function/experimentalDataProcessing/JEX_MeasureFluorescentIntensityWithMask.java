@@ -9,6 +9,7 @@ import java.util.HashMap;
 import java.util.TreeMap;
 
 import jex.statics.JEXStatics;
+import utilities.ImageCache;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
 import Database.DBObjects.dimension.DimensionMap;
@@ -208,12 +209,12 @@ public class JEX_MeasureFluorescentIntensityWithMask extends ExperimentalDataCru
 			
 			// Get the image
 			String path = images.get(dim);
-			ImagePlus im = new ImagePlus(path);
+			ImagePlus im = ImageCache.getImagePlus(path);
 			ByteProcessor bimp = (ByteProcessor) im.getProcessor().convertToByte(true); // should be a float processor
 			
 			// Get the mask
 			String maskImage = masks.get(dim);
-			ImagePlus imask  = new ImagePlus(maskImage);
+			ImagePlus imask  = ImageCache.getImagePlus(maskImage);
 			ByteProcessor bimpmask = (ByteProcessor) imask.getProcessor().convertToByte(true); // should be a float processor
 			
 			// Do the masking
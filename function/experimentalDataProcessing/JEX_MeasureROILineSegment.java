@@ -220,10 +220,10 @@ public class JEX_MeasureROILineSegment extends ExperimentalDataCrunch{
 		// Run the function
 		TreeMap<DimensionMap,ROIPlus> rois = RoiReader.readObjectToRoiMap(roiData);
 
-		TreeMap<DimensionMap,String> widthMap = new TreeMap<DimensionMap,String>();
-		TreeMap<DimensionMap,String> heightMap = new TreeMap<DimensionMap,String>();
-		TreeMap<DimensionMap,String> lengthMap = new TreeMap<DimensionMap,String>();
-		TreeMap<DimensionMap,String> angleMap = new TreeMap<DimensionMap,String>();
+		TreeMap<DimensionMap,Double> widthMap = new TreeMap<DimensionMap,Double>();
+		TreeMap<DimensionMap,Double> heightMap = new TreeMap<DimensionMap,Double>();
+		TreeMap<DimensionMap,Double> lengthMap = new TreeMap<DimensionMap,Double>();
+		TreeMap<DimensionMap,Double> angleMap = new TreeMap<DimensionMap,Double>();
 		ROIPlus roi;
 		double width, height, length, angle;
 		DecimalFormat formatD = new DecimalFormat("##0.000");
@@ -269,20 +269,20 @@ public class JEX_MeasureROILineSegment extends ExperimentalDataCrunch{
 				}
 				else
 				{
-					widthMap.put(map, formatD.format(width));
-					heightMap.put(map, formatD.format(height));
-					lengthMap.put(map, formatD.format(length));
-					angleMap.put(map, formatD.format(angle));
+					widthMap.put(map, width);
+					heightMap.put(map, height);
+					lengthMap.put(map, length);
+					angleMap.put(map, angle);
 					
 					JEXStatics.statusBar.setProgressPercentage((int) (100* (double) count / total));
 				}
 			}
 		}
 		
-		JEXData output1 = ValueWriter.makeValueTable(outputNames[0].getName(), widthMap);
-		JEXData output2 = ValueWriter.makeValueTable(outputNames[1].getName(), heightMap);
-		JEXData output3 = ValueWriter.makeValueTable(outputNames[2].getName(), lengthMap);
-		JEXData output4 = ValueWriter.makeValueTable(outputNames[3].getName(), angleMap);
+		JEXData output1 = ValueWriter.makeValueTableFromDouble(outputNames[0].getName(), widthMap);
+		JEXData output2 = ValueWriter.makeValueTableFromDouble(outputNames[1].getName(), heightMap);
+		JEXData output3 = ValueWriter.makeValueTableFromDouble(outputNames[2].getName(), lengthMap);
+		JEXData output4 = ValueWriter.makeValueTableFromDouble(outputNames[3].getName(), angleMap);
 		
 		output1.setDimTable(roiDimTable);
 		output2.setDimTable(roiDimTable);
@@ -14,6 +14,7 @@ import java.util.HashMap;
 import java.util.TreeMap;
 
 import jex.statics.JEXStatics;
+import utilities.ImageCache;
 import weka.core.converters.JEXTableWriter2;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
@@ -284,7 +285,7 @@ public class JEX_MeasureROIPoints extends ExperimentalDataCrunch{
 			JEXStatics.logManager.log("Performing " + total + " total measurements on " + imageTable.mapCount() + " total images.", 0, this);
 			for(DimensionMap imMap : imageTable.getIterator())
 			{
-				im = new ImagePlus(paths.get(imMap));
+				im = ImageCache.getImagePlus(paths.get(imMap));
 				String time = imMap.get(timeDimName);
 				for(DimensionMap trackMap : trackTable.getIterator())
 				{
@@ -286,7 +286,7 @@ public class JEX_MeasureROIPointsXY extends ExperimentalDataCrunch{
 				String time = imMap.get(timeDimName);
 				for(DimensionMap trackMap : trackTable.getIterator())
 				{
-					if(JEXStatics.cruncher.stopCrunch)
+					if(JEXStatics.cruncher.isCanceled())
 					{
 						return false;
 					}
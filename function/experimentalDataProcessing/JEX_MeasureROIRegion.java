@@ -2,11 +2,12 @@ package function.experimentalDataProcessing;
 
 import ij.ImagePlus;
 import ij.gui.Roi;
+import ij.measure.Calibration;
 import ij.measure.Measurements;
 import ij.process.ImageStatistics;
 import image.roi.ROIPlus;
 
-import java.text.DecimalFormat;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -15,6 +16,7 @@ import java.util.TreeMap;
 
 
 import jex.statics.JEXStatics;
+import utilities.ImageCache;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
 import Database.DBObjects.dimension.Dim;
@@ -27,6 +29,7 @@ import Database.Definition.Parameter;
 import Database.Definition.ParameterSet;
 import Database.Definition.TypeName;
 import function.ExperimentalDataCrunch;
+import function.imageUtility.RegionStatistics;
 import guiObject.FormLine;
 
 
@@ -237,17 +240,15 @@ public class JEX_MeasureROIRegion extends ExperimentalDataCrunch{
 			return false;
 		}
 
-		TreeMap<DimensionMap,String> meanMap = new TreeMap<DimensionMap,String>();
-		TreeMap<DimensionMap,String> areaMap = new TreeMap<DimensionMap,String>();
-		TreeMap<DimensionMap,String> minMap = new TreeMap<DimensionMap,String>();
-		TreeMap<DimensionMap,String> maxMap = new TreeMap<DimensionMap,String>();
-		TreeMap<DimensionMap,String> stdDevMap = new TreeMap<DimensionMap,String>();
-		TreeMap<DimensionMap,String> medianMap = new TreeMap<DimensionMap,String>();
+		TreeMap<DimensionMap,Double> meanMap = new TreeMap<DimensionMap,Double>();
+		TreeMap<DimensionMap,Double> areaMap = new TreeMap<DimensionMap,Double>();
+		TreeMap<DimensionMap,Double> minMap = new TreeMap<DimensionMap,Double>();
+		TreeMap<DimensionMap,Double> maxMap = new TreeMap<DimensionMap,Double>();
+		TreeMap<DimensionMap,Double> stdDevMap = new TreeMap<DimensionMap,Double>();
+		TreeMap<DimensionMap,Double> medianMap = new TreeMap<DimensionMap,Double>();
 		ROIPlus roi, baseRoi;
-		Roi imageJRoi;
 		ImageStatistics stats;
 		ImagePlus im;
-		DecimalFormat formatD = new DecimalFormat("##0.000");
 		int count = 0;
 		int percentage = 0;
 		List<DimensionMap> maps = roiTable.getDimensionMaps();
@@ -272,7 +273,12 @@ public class JEX_MeasureROIRegion extends ExperimentalDataCrunch{
 		int maxPatternSize = 1;
 		for(String path : roisOrganizedByImage.keySet())
 		{
-			im = new ImagePlus(path);
+			im = ImageCache.getImagePlus(path);
+			
+			// Draw all the rois of this image in one label map
+			RegionStatistics regions = new RegionStatistics(im.getWidth(), im.getHeight());
+			List<DimensionMap> newMaps = new ArrayList<DimensionMap>();
+			List<Roi> imageJRois = new ArrayList<Roi>();
 			for(DimensionMap map : roisOrganizedByImage.get(path))
 			{
 				baseRoi = rois.get(map);
@@ -298,51 +304,68 @@ public class JEX_MeasureROIRegion extends ExperimentalDataCrunch{
 				while(itr.hasNext())
 				{
 					roi = itr.next();
-					imageJRoi = roi.getRoi();
-					im.setRoi(imageJRoi);
-					stats = im.getStatistics(Measurements.MEAN+Measurements.AREA+Measurements.MIN_MAX+Measurements.STD_DEV+Measurements.MEDIAN);
-					
 					DimensionMap newMap = map.copy();
 					if(hasPattern)
 					{
 						newMap.put(patternDimName, ""+patternCount);
 					}
-					
-					meanMap.put(newMap, formatD.format(stats.mean));
-					areaMap.put(newMap, formatD.format(stats.area));
-					minMap.put(newMap, formatD.format(stats.min));
-					maxMap.put(newMap, formatD.format(stats.max));
-					stdDevMap.put(newMap, formatD.format(stats.stdDev));
-					medianMap.put(newMap, formatD.format(stats.median));
-					
+					Roi imageJRoi = roi.getRoi();
+					regions.addRegion(imageJRoi);
+					newMaps.add(newMap);
+					imageJRois.add(imageJRoi);
 					patternCount = patternCount + 1;
-					count = count + 1;
-					percentage = (int) (100 * ((double) (count)/ (double) total));
-					JEXStatics.statusBar.setProgressPercentage(percentage);
 				}
 			}
 			
+			// Measure them all in one go, RGB and calibrated images are left to ImageJ
+			Calibration cal = im.getCalibration();
+			boolean useRegions = im.getBitDepth() != 24 && !cal.calibrated();
+			if(useRegions)
+			{
+				regions.measure(im.getProcessor());
+			}
+			for(int i = 0; i < newMaps.size(); i++)
+			{
+				DimensionMap newMap = newMaps.get(i);
+				if(useRegions && regions.isMeasured(i))
+				{
+					meanMap.put(newMap, regions.getMean(i));
+					areaMap.put(newMap, regions.getArea(i, cal.pixelWidth, cal.pixelHeight));
+					minMap.put(newMap, regions.getMin(i));
+					maxMap.put(newMap, regions.getMax(i));
+					stdDevMap.put(newMap, regions.getStdDev(i));
+					medianMap.put(newMap, regions.getMedian(i));
+				}
+				else
+				{
+					im.setRoi(imageJRois.get(i));
+					stats = im.getStatistics(Measurements.MEAN+Measurements.AREA+Measurements.MIN_MAX+Measurements.STD_DEV+Measurements.MEDIAN);
+					meanMap.put(newMap, stats.mean);
+					areaMap.put(newMap, stats.area);
+					minMap.put(newMap, stats.min);
+					maxMap.put(newMap, stats.max);
+					stdDevMap.put(newMap, stats.stdDev);
+					medianMap.put(newMap, stats.median);
+				}
+				
+				count = count + 1;
+				percentage = (int) (100 * ((double) (count)/ (double) total));
+				JEXStatics.statusBar.setProgressPercentage(percentage);
+			}
 		}
 		
-		JEXData output1 = ValueWriter.makeValueTable(outputNames[0].getName(), meanMap);
-		JEXData output2 = ValueWriter.makeValueTable(outputNames[1].getName(), areaMap);
-		JEXData output3 = ValueWriter.makeValueTable(outputNames[2].getName(), minMap);
-		JEXData output4 = ValueWriter.makeValueTable(outputNames[3].getName(), maxMap);
-		JEXData output5 = ValueWriter.makeValueTable(outputNames[4].getName(), stdDevMap);
-		JEXData output6 = ValueWriter.makeValueTable(outputNames[5].getName(), medianMap);
-		
 		DimTable dTable = roiTable.copy();
 		if(atLeastOneHasPattern)
 		{
 			Dim d = new Dim(patternDimName, 1, maxPatternSize);
 			dTable.add(d);
 		}
-		output1.setDimTable(dTable);
-		output2.setDimTable(dTable);
-		output3.setDimTable(dTable);
-		output4.setDimTable(dTable);
-		output5.setDimTable(dTable);
-		output6.setDimTable(dTable);
+		JEXData output1 = this.makeOutput(outputNames[0].getName(), dTable, meanMap);
+		JEXData output2 = this.makeOutput(outputNames[1].getName(), dTable, areaMap);
+		JEXData output3 = this.makeOutput(outputNames[2].getName(), dTable, minMap);
+		JEXData output4 = this.makeOutput(outputNames[3].getName(), dTable, maxMap);
+		JEXData output5 = this.makeOutput(outputNames[4].getName(), dTable, stdDevMap);
+		JEXData output6 = this.makeOutput(outputNames[5].getName(), dTable, medianMap);
 		
 		// Set the outputs
 		realOutputs.add(output1);
@@ -356,6 +379,21 @@ public class JEX_MeasureROIRegion extends ExperimentalDataCrunch{
 		return true;
 	}
 	
+	/**
+	 * Make a value table of VALUES on DTABLE, kept as doubles unless some of the values are
+	 * not in DTABLE (e.g. rois without pattern next to rois with one)
+	 */
+	private JEXData makeOutput(String name, DimTable dTable, TreeMap<DimensionMap,Double> values)
+	{
+		JEXData ret = ValueWriter.makeValueTable(name, dTable, values);
+		if(ret == null)
+		{
+			ret = ValueWriter.makeValueTableFromDouble(name, values);
+			ret.setDimTable(dTable);
+		}
+		return ret;
+	}
+	
 	private String getNextDimName(String baseName, DimTable roiTable)
 	{
 		boolean foundUniqueName = false;
@@ -13,6 +13,7 @@ import java.util.List;
 import java.util.TreeMap;
 
 import jex.statics.JEXStatics;
+import utilities.ImageCache;
 import weka.core.converters.JEXTableWriter2;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
@@ -261,7 +262,7 @@ public class JEX_MeasureROIRegion2 extends ExperimentalDataCrunch{
 		int maxPatternSize = 1;
 		for(String path : roisOrganizedByImage.keySet())
 		{
-			im = new ImagePlus(path);
+			im = ImageCache.getImagePlus(path);
 			for(DimensionMap map : roisOrganizedByImage.get(path))
 			{
 				baseRoi = rois.get(map);
@@ -329,7 +329,7 @@ class NuclearCellCounter implements GraphicalCrunchingEnabling, ImagePanelIntera
 		nuclear = ImageReader.readObjectToImagePlus(nuclearCell);
 		if (imageROI != null){
 			ROIPlus roip = RoiReader.readObjectToRoi(imageROI);
-			rectroi      = (roip!=null && roip.roi!=null) ? roip.roi.getBounds() : null;
+			rectroi      = (roip!=null && roip.getRoi()!=null) ? roip.getRoi().getBounds() : null;
 		}
 		
 		// Prepare the graphics
@@ -19,12 +19,14 @@ import java.util.Vector;
 import jex.statics.JEXStatics;
 import utilities.CSVList;
 import utilities.FunctionUtility;
+import utilities.ImageCache;
 import utilities.LSVList;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
 import Database.DBObjects.dimension.Dim;
 import Database.DBObjects.dimension.DimTable;
 import Database.DBObjects.dimension.DimensionMap;
+import Database.DataReader.ImageMetadata;
 import Database.DataReader.ImageReader;
 import Database.DataReader.LabelReader;
 import Database.DataReader.RoiReader;
@@ -367,7 +369,7 @@ public class JEX_OscillatoryAdhesionAnalysis extends ExperimentalDataCrunch{
 			String path = paths.get(map);
 			if(path != null)
 			{
-				imAvg = new ImagePlus(paths.get(map));
+				imAvg = ImageCache.getImagePlus(paths.get(map));
 				if(errorDetectionRoi == null)
 				{
 					Rectangle r = new Rectangle(imAvg.getWidth(), 100);
@@ -477,9 +479,9 @@ public class JEX_OscillatoryAdhesionAnalysis extends ExperimentalDataCrunch{
 	{
 		if(maps.size() == 0 || imagePaths.size() == 0) return null;
 		String firstPath = imagePaths.firstEntry().getValue();
-		ImagePlus im = new ImagePlus(firstPath);
+		ImageMetadata im = ImageMetadata.read(firstPath);
 		File temp = new File(firstPath);
-		VirtualStack stack = new VirtualStack(im.getWidth(), im.getHeight(), im.getProcessor().getColorModel(), temp.getParent());
+		VirtualStack stack = new VirtualStack(im.width, im.height, im.colorModel, temp.getParent());
 		for(DimensionMap map : maps)
 		{
 			String path = imagePaths.get(map);
@@ -17,6 +17,7 @@ import java.util.Vector;
 import jex.statics.JEXStatics;
 import utilities.CSVList;
 import utilities.FunctionUtility;
+import utilities.ImageCache;
 import utilities.LSVList;
 import utilities.StatisticsUtility;
 import Database.DBObjects.JEXData;
@@ -349,7 +350,7 @@ public class JEX_OscillatoryAdhesionAnalysis2 extends ExperimentalDataCrunch{
 				baselineImages.add(map);
 				
 				// Get data
-				imAvg = new ImagePlus(paths.get(map));
+				imAvg = ImageCache.getImagePlus(paths.get(map));
 				impAvgFloat = (FloatProcessor) imAvg.getProcessor().convertToFloat();
 				FunctionUtility.imAdjust(impAvgFloat, 0, 4095, 0, 255, 1);
 				impAvgByte = (ByteProcessor) impAvgFloat.convertToByte(false);
@@ -451,7 +452,7 @@ public class JEX_OscillatoryAdhesionAnalysis2 extends ExperimentalDataCrunch{
 	{
 		String baselinePath = imagePaths.get(baselineImage);
 		if(baselinePath == null) return null;
-		FloatProcessor baselineP = (FloatProcessor) (new ImagePlus(baselinePath).getProcessor().convertToFloat());
+		FloatProcessor baselineP = (FloatProcessor) (ImageCache.getImagePlus(baselinePath).getProcessor().convertToFloat());
 		FunctionUtility.imThresh(baselineP, threshold, false);
 		float[] bg = (float[]) baselineP.getPixels();
 		baselineP = null;
@@ -471,7 +472,7 @@ public class JEX_OscillatoryAdhesionAnalysis2 extends ExperimentalDataCrunch{
 			if(path != null)
 			{
 				// Get Data
-				temp = new ImagePlus(path);
+				temp = ImageCache.getImagePlus(path);
 				tempP = (FloatProcessor) temp.getProcessor().convertToFloat();
 				FunctionUtility.imThresh(tempP, threshold, false);
 				tempPix = (float[]) tempP.getPixels();
@@ -18,12 +18,14 @@ import java.util.TreeMap;
 import java.util.Vector;
 
 import jex.statics.JEXStatics;
+import utilities.ImageCache;
 import utilities.StatisticsUtility;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
 import Database.DBObjects.dimension.Dim;
 import Database.DBObjects.dimension.DimTable;
 import Database.DBObjects.dimension.DimensionMap;
+import Database.DataReader.ImageMetadata;
 import Database.DataReader.ImageReader;
 import Database.DataWriter.ImageWriter;
 import Database.Definition.Parameter;
@@ -271,7 +273,7 @@ public class JEX_OscillatoryAdhesionFilter extends ExperimentalDataCrunch{
 				String path = imagePaths.get(stackMap);
 				if(path != null)
 				{
-					temp = new ImagePlus(path);
+					temp = ImageCache.getImagePlus(path);
 					fpOrig = (FloatProcessor) temp.getProcessor().convertToFloat();
 					temp.setProcessor(fpOrig);
 					temp.setRoi(imageJRoi);
@@ -342,7 +344,7 @@ public class JEX_OscillatoryAdhesionFilter extends ExperimentalDataCrunch{
 			path = imagePaths.get(map);
 			if(path != null)
 			{
-				im = new ImagePlus(path);
+				im = ImageCache.getImagePlus(path);
 				im.setRoi(imageJRoi);
 				stats = im.getStatistics(Measurements.MEAN);
 				imMeans.add(stats.mean);
@@ -384,9 +386,9 @@ public class JEX_OscillatoryAdhesionFilter extends ExperimentalDataCrunch{
 	{
 		if(maps.size() == 0 || imagePaths.size() == 0) return null;
 		String firstPath = imagePaths.firstEntry().getValue();
-		ImagePlus im = new ImagePlus(firstPath);
+		ImageMetadata im = ImageMetadata.read(firstPath);
 		File temp = new File(firstPath);
-		VirtualStack stack = new VirtualStack(im.getWidth(), im.getHeight(), im.getProcessor().getColorModel(), temp.getParent());
+		VirtualStack stack = new VirtualStack(im.width, im.height, im.colorModel, temp.getParent());
 		for(DimensionMap map : maps)
 		{
 			String path = imagePaths.get(map);
@@ -15,6 +15,7 @@ import java.util.Vector;
 import jex.statics.JEXStatics;
 import utilities.CSVList;
 import utilities.FileUtility;
+import utilities.ImageCache;
 import utilities.SimpleFileFilter;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
@@ -301,7 +302,7 @@ public class JEX_OscillatoryImportData extends ExperimentalDataCrunch{
 			for(DimensionMap map : maps)
 			{
 				path = calibrationImages.get(fileCounter).getPath();
-				temp = new ImagePlus(path);
+				temp = ImageCache.getImagePlus(path);
 				newPath = JEXWriter.saveImage(temp);
 				calMap.put(map, newPath);
 				fileCounter = fileCounter + 1;
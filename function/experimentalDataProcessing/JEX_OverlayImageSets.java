@@ -7,6 +7,7 @@ import java.util.HashMap;
 import java.util.TreeMap;
 
 import jex.statics.JEXStatics;
+import utilities.ImageCache;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
 import Database.DBObjects.dimension.DimensionMap;
@@ -219,8 +220,8 @@ public class JEX_OverlayImageSets extends ExperimentalDataCrunch{
 			String path2  = images2.get(dim);
 			
 			// get the image
-			ImagePlus im1 = new ImagePlus(path1);
-			ImagePlus im2 = new ImagePlus(path2);
+			ImagePlus im1 = ImageCache.getImagePlus(path1);
+			ImagePlus im2 = ImageCache.getImagePlus(path2);
 			
 			// get the image processor
 			ij.process.ByteProcessor imp1 = (ij.process.ByteProcessor) im1.getProcessor().convertToByte(true); // should be a float processor
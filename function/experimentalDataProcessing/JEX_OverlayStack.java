@@ -11,6 +11,7 @@ import java.util.TreeMap;
 
 import jex.statics.JEXStatics;
 import utilities.FunctionUtility;
+import utilities.ImageCache;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
 import Database.DBObjects.dimension.Dim;
@@ -265,7 +266,7 @@ public class JEX_OverlayStack extends ExperimentalDataCrunch{
 			int w=0, h=0;
 			if(rPath != null)
 			{
-				im = new ImagePlus(rPath);
+				im = ImageCache.getImagePlus(rPath);
 				imp = (FloatProcessor) im.getProcessor().convertToFloat(); // should be a float processor
 				FunctionUtility.imAdjust(imp, rMin, rMax, 0, 255, 1);
 				rIm = FunctionUtility.makeImageToSave(imp, "false", 8);
@@ -279,7 +280,7 @@ public class JEX_OverlayStack extends ExperimentalDataCrunch{
 			}
 			if(gPath != null)
 			{
-				im = new ImagePlus(gPath);
+				im = ImageCache.getImagePlus(gPath);
 				imp = (FloatProcessor) im.getProcessor().convertToFloat(); // should be a float processor
 				FunctionUtility.imAdjust(imp, gMin, gMax, 0, 255, 1);
 				gIm = FunctionUtility.makeImageToSave(imp, "false", 8);
@@ -293,7 +294,7 @@ public class JEX_OverlayStack extends ExperimentalDataCrunch{
 			}
 			if(bPath != null)
 			{
-				im = new ImagePlus(bPath);
+				im = ImageCache.getImagePlus(bPath);
 				imp = (FloatProcessor) im.getProcessor().convertToFloat(); // should be a float processor
 				FunctionUtility.imAdjust(imp, bMin, bMax, 0, 255, 1);
 				bIm = FunctionUtility.makeImageToSave(imp, "false", 8);
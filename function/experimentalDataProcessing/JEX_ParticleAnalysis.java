@@ -22,6 +22,7 @@ import java.util.zip.ZipOutputStream;
 
 import jex.statics.JEXStatics;
 import utilities.CSVList;
+import utilities.ImageCache;
 import utilities.LSVList;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
@@ -281,7 +282,7 @@ public class JEX_ParticleAnalysis extends ExperimentalDataCrunch{
 		HashMap<ROIPlus,ImageStatistics> results;
 		for(DimensionMap map : binaryMap.keySet())
 		{
-			ByteProcessor binary = (ByteProcessor)new ImagePlus(binaryMap.get(map)).getProcessor();
+			ByteProcessor binary = (ByteProcessor)ImageCache.getImagePlus(binaryMap.get(map)).getProcessor();
 			
 			roi = null;
 			roip = roiMap.get(map);
@@ -298,7 +299,7 @@ public class JEX_ParticleAnalysis extends ExperimentalDataCrunch{
 			grayPath = grayMap.get(map);
 			if(grayPath != null)
 			{
-				grayIm = new ImagePlus(grayPath);
+				grayIm = ImageCache.getImagePlus(grayPath);
 				if(grayIm != null)
 				{
 					gray = grayIm.getProcessor();
@@ -375,7 +375,7 @@ class PhagocytosisAnalyzer implements GraphicalCrunchingEnabling, ImagePanelInte
 		// Get the roi
 		if (roiData != null){
 			ROIPlus roip = RoiReader.readObjectToRoi(roiData);
-			rectangle    = (roip!=null && roip.roi!=null) ? roip.roi.getBounds() : null;
+			rectangle    = (roip!=null && roip.getRoi()!=null) ? roip.getRoi().getBounds() : null;
 		}
 		
 		// Prepare the graphics
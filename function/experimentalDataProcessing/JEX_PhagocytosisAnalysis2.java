@@ -27,6 +27,7 @@ import java.util.TreeMap;
 
 import jex.arrayView.ImageDisplayController;
 import jex.statics.JEXStatics;
+import utilities.ImageCache;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
 import Database.DataReader.ImageReader;
@@ -386,14 +387,14 @@ class PhagocytosisAnalyzer2 implements GraphicalCrunchingEnabling, ImagePanelInt
 		// Get the roi
 		if (roiData != null){
 			ROIPlus roip = RoiReader.readObjectToRoi(roiData);
-			rectangle    = (roip!=null && roip.roi!=null) ? roip.roi.getBounds() : null;
+			rectangle    = (roip!=null && roip.getRoi()!=null) ? roip.getRoi().getBounds() : null;
 		}
 		
 		// Prepare the graphics
 //		imageDisplay = new ImageDisplay(this,"Locate particles and cells");
 //		imageDisplay.setImage(new ImagePlus(cellPath));
 		imageDisplay = new ImagePanel(this,"Locate particles and cells");
-		imageDisplay.setImage(new ImagePlus(cellPath));
+		imageDisplay.setImage(ImageCache.getImagePlus(cellPath));
 		
 		wrap = new GraphicalFunctionWrap(this,params);
 		wrap.addStep(0, "CELL - Process image", new String[] {"RollingBall 1","Cell threshold","Minimum c-thresh","Watershed","Dilate","Erode","Contrast enhance"});
@@ -469,24 +470,24 @@ class PhagocytosisAnalyzer2 implements GraphicalCrunchingEnabling, ImagePanelInt
 		
 		if (atStep == 0){
 			processCellImage();
-			imageDisplay.setImage(new ImagePlus(cellPathMerge));
+			imageDisplay.setImage(ImageCache.getImagePlus(cellPathMerge));
 //			imageDisplay.setImage(new ImagePlus(cellMaskPath));
 		}
 		if (atStep == 1){
 			analyzeCellImage();
-			imageDisplay.setImage(new ImagePlus(cellPathMergeWithRois));
+			imageDisplay.setImage(ImageCache.getImagePlus(cellPathMergeWithRois));
 		}
 		else if (atStep == 2){
 			processParticleImage();
-			imageDisplay.setImage(new ImagePlus(particlePathMerge));
+			imageDisplay.setImage(ImageCache.getImagePlus(particlePathMerge));
 		}
 		else if (atStep == 3){
 			analyzeParticleImage();
-			imageDisplay.setImage(new ImagePlus(particlePathMergeWithRois));
+			imageDisplay.setImage(ImageCache.getImagePlus(particlePathMergeWithRois));
 		}
 		else if (atStep == 4){
 			analyze();
-			imageDisplay.setImage(new ImagePlus(finalPath));
+			imageDisplay.setImage(ImageCache.getImagePlus(finalPath));
 		}
 		
 	}
@@ -524,7 +525,7 @@ class PhagocytosisAnalyzer2 implements GraphicalCrunchingEnabling, ImagePanelInt
 	private void processCellImage()
 	{
 		// Get the processor of the cell image
-		ImagePlus image = new ImagePlus(cellPath);
+		ImagePlus image = ImageCache.getImagePlus(cellPath);
 		ImageProcessor cellImp = (ShortProcessor) image.getProcessor().convertToShort(true);
 		
 		// Do the background subtract
@@ -587,7 +588,7 @@ class PhagocytosisAnalyzer2 implements GraphicalCrunchingEnabling, ImagePanelInt
 		
 		// Make Overlay Image
 //		ColorProcessor color1 = (ColorProcessor) cellImp.convertToByte(true).convertToRGB();
-		ImageProcessor cimp   = (new ImagePlus(cellPath)).getProcessor();
+		ImageProcessor cimp   = (ImageCache.getImagePlus(cellPath)).getProcessor();
 		cimp.multiply((double)contrastPlus);
 		cimp = cimp.convertToByte(true);
 		
@@ -617,7 +618,7 @@ class PhagocytosisAnalyzer2 implements GraphicalCrunchingEnabling, ImagePanelInt
 		| ParticleAnalyzer.CENTROID | ParticleAnalyzer.ELLIPSE | ParticleAnalyzer.PERIMETER;
 		cellTable   = new ResultsTable();
 		ParticleAnalyzer analyzer1 = new ParticleAnalyzer(options, measure, cellTable, minRadius1, maxRadius1, 0, 1);
-		analyzer1.analyze(new ImagePlus(cellMaskPath));
+		analyzer1.analyze(ImageCache.getImagePlus(cellMaskPath));
 		
 		// Find the rois
 		List<Roi> cellRoisFound = analyzer1.foundRois;
@@ -636,7 +637,7 @@ class PhagocytosisAnalyzer2 implements GraphicalCrunchingEnabling, ImagePanelInt
 		}
 		
 		// Make an image showing the rois that were kept
-		BufferedImage  cimp  = ((ColorProcessor) (new ImagePlus(cellPathMerge)).getProcessor()).getBufferedImage();
+		BufferedImage  cimp  = ((ColorProcessor) (ImageCache.getImagePlus(cellPathMerge)).getProcessor()).getBufferedImage();
 		Graphics       g     = cimp.getGraphics();
 		int            index = 0;
 		g.setColor(Color.yellow);
@@ -680,7 +681,7 @@ class PhagocytosisAnalyzer2 implements GraphicalCrunchingEnabling, ImagePanelInt
 	private void processParticleImage()
 	{
 		// Get the processor of the cell image
-		ImagePlus image = new ImagePlus(particlePath);
+		ImagePlus image = ImageCache.getImagePlus(particlePath);
 		ShortProcessor particleImp = (ShortProcessor) image.getProcessor().convertToShort(true);
 		
 		// Do the background subtract
@@ -764,7 +765,7 @@ class PhagocytosisAnalyzer2 implements GraphicalCrunchingEnabling, ImagePanelInt
 		| ParticleAnalyzer.CENTROID | ParticleAnalyzer.ELLIPSE | ParticleAnalyzer.PERIMETER;
 		particleTable              = new ResultsTable();
 		ParticleAnalyzer analyzer2 = new ParticleAnalyzer(options, measure, particleTable, minRadius2, maxRadius2, 0, 1);
-		analyzer2.analyze(new ImagePlus(particleMaskPath));
+		analyzer2.analyze(ImageCache.getImagePlus(particleMaskPath));
 		
 		// Find the rois
 		List<Roi> particleRoisFound = analyzer2.foundRois;
@@ -783,7 +784,7 @@ class PhagocytosisAnalyzer2 implements GraphicalCrunchingEnabling, ImagePanelInt
 		}
 		
 		// Make an image showing the rois that were kept
-		BufferedImage  cimp  = ((ColorProcessor) (new ImagePlus(particlePathMerge)).getProcessor()).getBufferedImage();
+		BufferedImage  cimp  = ((ColorProcessor) (ImageCache.getImagePlus(particlePathMerge)).getProcessor()).getBufferedImage();
 		Graphics       g     = cimp.getGraphics();
 		int            index = 0;
 		g.setColor(Color.yellow);
@@ -984,7 +985,7 @@ class PhagocytosisAnalyzer2 implements GraphicalCrunchingEnabling, ImagePanelInt
 	 */
 	private ImagePlus plotImage(String brightFieldPath, TreeMap<Integer,List<Roi>> roiMap, List<Roi> outsideRois){
 		// Load BF image
-		ImagePlus brightFieldImage = new ImagePlus(brightFieldPath);
+		ImagePlus brightFieldImage = ImageCache.getImagePlus(brightFieldPath);
 		ImageProcessor bfProc      = brightFieldImage.getProcessor();
 		bfProc.multiply((double)contrastPlus);
 		ColorProcessor color = (ColorProcessor) bfProc.convertToRGB();
@@ -20,6 +20,7 @@ import java.util.Random;
 import java.util.TreeMap;
 
 import jex.statics.JEXStatics;
+import utilities.ImageCache;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
 import Database.DBObjects.dimension.DimensionMap;
@@ -313,7 +314,7 @@ class FindNeutrophilsHelperFunction implements GraphicalCrunchingEnabling, Image
 		this.outputNames = outputNames;
 		if (jroi != null) {
 			ROIPlus roip = RoiReader.readObjectToRoi(jroi);
-			this.roi = (roip == null)? null: roip.roi;
+			this.roi = (roip == null)? null: roip.getRoi();
 		}
 		
 		// Get params
@@ -348,7 +349,7 @@ class FindNeutrophilsHelperFunction implements GraphicalCrunchingEnabling, Image
 	}
 
 	private void displayImage(int index){
-		ImagePlus im = new ImagePlus(images.get(index));
+		ImagePlus im = ImageCache.getImagePlus(images.get(index));
 		JEXStatics.logManager.log("Placing in imagepanel "+images.get(index),1,this);
 		
 		imagepanel.setImage(im);
@@ -376,7 +377,7 @@ class FindNeutrophilsHelperFunction implements GraphicalCrunchingEnabling, Image
 		getParameters();
 		
 		// Get the image
-		im = new ImagePlus(images.get(index));
+		im = ImageCache.getImagePlus(images.get(index));
 		imp = (ByteProcessor) im.getProcessor().convertToByte(true);
 		
 		///// Run step index
@@ -452,7 +453,7 @@ class FindNeutrophilsHelperFunction implements GraphicalCrunchingEnabling, Image
 			String path = images.get(dim);
 			
 			// get the image
-			ImagePlus im = new ImagePlus(path);
+			ImagePlus im = ImageCache.getImagePlus(path);
 			imp = (ByteProcessor) im.getProcessor().convertToByte(true);
 			
 			////// Begin Actual Function
@@ -672,7 +673,7 @@ class FindNeutrophilsHelperFunction implements GraphicalCrunchingEnabling, Image
 			Roi imageRoi,
 			List<Roi> rois)
 	{
-		ImagePlus brightFieldImage = new ImagePlus(brightFieldPath);
+		ImagePlus brightFieldImage = ImageCache.getImagePlus(brightFieldPath);
 		ColorProcessor color = (ColorProcessor) brightFieldImage.getProcessor().convertToRGB();
 		BufferedImage  cimp  = color.getBufferedImage();
 		Graphics       g     = cimp.getGraphics();
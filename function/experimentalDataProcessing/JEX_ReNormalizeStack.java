@@ -8,6 +8,7 @@ import java.util.HashMap;
 import java.util.TreeMap;
 
 import jex.statics.JEXStatics;
+import utilities.ImageCache;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
 import Database.DBObjects.dimension.DimensionMap;
@@ -208,7 +209,7 @@ public class JEX_ReNormalizeStack extends ExperimentalDataCrunch{
 //			File   f    = new File(path);
 			
 			// get the image
-			ImagePlus im = new ImagePlus(path);
+			ImagePlus im = ImageCache.getImagePlus(path);
 			ByteProcessor imp = (ByteProcessor) im.getProcessor().convertToByte(true); 
 			ImageStatistics stats = (new ImagePlus("",imp)).getStatistics();
 			
@@ -9,6 +9,7 @@ import java.util.TreeMap;
 
 import jex.statics.JEXStatics;
 import utilities.FunctionUtility;
+import utilities.ImageCache;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
 import Database.DBObjects.dimension.DimensionMap;
@@ -210,7 +211,7 @@ public class JEX_ReduceSize extends ExperimentalDataCrunch{
 //			File   f    = new File(path);
 			
 			// get the image
-			ImagePlus im = new ImagePlus(path);
+			ImagePlus im = ImageCache.getImagePlus(path);
 			ij.process.ImageProcessor imProc = im.getProcessor();
 			if (imProc == null) continue;
 			FloatProcessor imp = (FloatProcessor) im.getProcessor().convertToFloat(); // should be a float processor
@@ -13,6 +13,7 @@ import java.util.List;
 import java.util.TreeMap;
 
 import jex.statics.JEXStatics;
+import utilities.ImageCache;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
 import Database.DBObjects.dimension.DimensionMap;
@@ -293,7 +294,7 @@ class RegionMeasureHelper implements GraphicalCrunchingEnabling, ImagePanelInter
 	}
 
 	private void displayImage(int index){
-		ImagePlus im = new ImagePlus(jimages.get(index));
+		ImagePlus im = ImageCache.getImagePlus(jimages.get(index));
 		imagepanel.setImage(im);
 	}
 	
@@ -315,7 +316,7 @@ class RegionMeasureHelper implements GraphicalCrunchingEnabling, ImagePanelInter
 		///// Run step index
 		JEXStatics.logManager.log("Running step "+atStep,1,this);
 		if (atStep == 0){
-			im = new ImagePlus(jimages.get(index));
+			im = ImageCache.getImagePlus(jimages.get(index));
 			imp = (ByteProcessor) im.getProcessor().convertToByte(true);
 			imagepanel.setPointListArray(null,null);
 			imagepanel.setRoi(null);
@@ -324,7 +325,7 @@ class RegionMeasureHelper implements GraphicalCrunchingEnabling, ImagePanelInter
 			interactionMode = true;
 		}
 		else if (atStep == 1){
-			im = new ImagePlus(jimages.get(index));
+			im = ImageCache.getImagePlus(jimages.get(index));
 			imp = (ByteProcessor) im.getProcessor().convertToByte(true);
 			imagepanel.setPointListArray(null,null);
 			imagepanel.setRoi(null);
@@ -334,7 +335,7 @@ class RegionMeasureHelper implements GraphicalCrunchingEnabling, ImagePanelInter
 			interactionMode = true;
 		}
 		else if (atStep == 2){
-			im = new ImagePlus(jimages.get(index));
+			im = ImageCache.getImagePlus(jimages.get(index));
 			imp = (ByteProcessor) im.getProcessor().convertToByte(true);
 			imagepanel.setPointListArray(null,null);
 			imagepanel.setRoi(region1);
@@ -344,7 +345,7 @@ class RegionMeasureHelper implements GraphicalCrunchingEnabling, ImagePanelInter
 			interactionMode = true;
 		}
 		else if (atStep == 3){
-			im = new ImagePlus(jimages.get(index));
+			im = ImageCache.getImagePlus(jimages.get(index));
 			imp = (ByteProcessor) im.getProcessor().convertToByte(true);
 			imagepanel.setPointListArray(null,null);
 			imagepanel.setRoi(region2);
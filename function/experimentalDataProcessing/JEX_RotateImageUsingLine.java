@@ -11,6 +11,7 @@ import java.util.TreeMap;
 
 import jex.statics.JEXStatics;
 import utilities.FunctionUtility;
+import utilities.ImageCache;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
 import Database.DBObjects.dimension.DimensionMap;
@@ -241,12 +242,12 @@ public class JEX_RotateImageUsingLine extends ExperimentalDataCrunch{
 		
 		for(DimensionMap map : imageList.keySet())
 		{
-			image = new ImagePlus(imageList.get(map));
+			image = ImageCache.getImagePlus(imageList.get(map));
 			imageP = (FloatProcessor)image.getProcessor().convertToFloat();
 			imageP.setInterpolationMethod(interpMode);
 			int bitDepth = image.getBitDepth();
 			line = lineROI.get(map);
-			if (line == null || line.roi == null) continue;
+			if (line == null || line.getRoi() == null) continue;
 			point1 = line.getPointList().get(0);
 			point2 = line.getPointList().get(1);
 			if (orientangle == 0 || point1.x > point2.x) 
@@ -1,16 +1,14 @@
 package function.experimentalDataProcessing;
 
 import ij.ImagePlus;
-import ij.ImageStack;
 import ij.process.ByteProcessor;
 import ij.process.ImageProcessor;
 
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
 import java.util.TreeMap;
 
 import jex.statics.JEXStatics;
+import utilities.ImageCache;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
 import Database.DBObjects.dimension.DimensionMap;
@@ -101,7 +99,7 @@ public class JEX_StabilizeStack extends ExperimentalDataCrunch{
 	@Override
 	public boolean allowMultithreading()
 	{
-		return false;
+		return true;
 	}
 	
 	
@@ -203,58 +201,54 @@ public class JEX_StabilizeStack extends ExperimentalDataCrunch{
 		// Run the function
 		TreeMap<DimensionMap,String> imageMap  = ImageReader.readObjectToImagePathTable(data);
 		TreeMap<DimensionMap,String> outputMap = new TreeMap<DimensionMap,String>();
-		List<DimensionMap>           dimMap    = new ArrayList<DimensionMap>(0);
-		
-		// Make stack
-		int count        = 0;
-		ImageStack stack = null;
-		for (DimensionMap map: imageMap.keySet()){
-			
-			// get the image
-			String path  = imageMap.get(map);
-			ImagePlus im = new ImagePlus(path);
-			ByteProcessor imp = (ByteProcessor) im.getProcessor().convertToByte(true); 
-			
-			// make stack
-			if (stack == null) stack = new ImageStack(im.getWidth(),im.getHeight());
-			stack.addSlice(""+count, imp);
-			count ++;
-			
-			// place dim
-			dimMap.add(map);
-			
-		}
-		ImagePlus sim = new ImagePlus("",stack);
 		
-		JEXStatics.logManager.log("Starting StackRef_",1,this);
+		// Register each frame on the previous one as it is read and save it right away
+		// so that only the frames being registered are in memory
 		String mode = parameters.getValueOfParameter("Type");
-		StackReg_ stackred = new StackReg_();
-		stackred.run(sim,mode);
-		ImageStack donestack = sim.getImageStack();
-
-		JEXStatics.logManager.log("Saving stabilized stack",1,this);
-		int len = donestack.getSize();
+		StackReg_ stackreg = new StackReg_();
+		JEXStatics.logManager.log("Starting StackReg_",1,this);
 		JEXStatics.statusBar.setProgressPercentage(0);
-		for (int i=0; i<len; i++){
-			// Get dim
-			DimensionMap map = dimMap.get(i);
-			// get path
-//			String impath    = imageMap.get(map);
-//			File   f         = new File(impath);
-//			String localDir     = JEXWriter.getEntryFolder(entry);
-//			String newFileName = FunctionUtility.getNextName(localDir, f.getName(), "Reg");
-//			String path        = localDir + File.separator + newFileName;
-			ImageProcessor imp = donestack.getProcessor(i+1);
-			ByteProcessor bimp = (ByteProcessor) imp.convertToByte(true); 
-//			FunctionUtility.imSave(bimp, path);
-			String path = JEXWriter.saveImage(bimp);
-			
-			outputMap.put(map, path);
-			JEXStatics.logManager.log("Saved image " + i + " of " + len + ".",1,this);
-			
-			// Status bar
-			int percentage = (int) (100 * ((double) i/ (double)len));
-			JEXStatics.statusBar.setProgressPercentage(percentage);
+		int count = 0;
+		int len   = imageMap.size();
+		try
+		{
+			for (DimensionMap map: imageMap.keySet()){
+				
+				// get the image
+				String path  = imageMap.get(map);
+				ImagePlus im = ImageCache.getImagePlus(path);
+				ImageProcessor imp = im.getProcessor().convertToByte(true);
+				
+				// register it
+				if (count == 0)
+				{
+					if (!stackreg.startStream(imp, mode)) return false;
+				}
+				else
+				{
+					imp = stackreg.registerNext(imp);
+					if (imp == null)
+					{
+						JEXStatics.logManager.log("Registration failed for image {} of {}.",0,this,count,len);
+						return false;
+					}
+				}
+				
+				// save it
+				ByteProcessor bimp = (ByteProcessor) imp.convertToByte(true);
+				String outPath = JEXWriter.saveImage(bimp);
+				outputMap.put(map, outPath);
+				JEXStatics.logManager.log("Saved image {} of {}.",1,this,count,len);
+				count ++;
+				
+				// Status bar
+				int percentage = (int) (100 * ((double) count/ (double)len));
+				JEXStatics.statusBar.setProgressPercentage(percentage);
+			}
+		}
+		finally
+		{
+			stackreg.endStream();
 		}
 		
 		//. Collect outputs
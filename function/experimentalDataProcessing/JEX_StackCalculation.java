@@ -10,6 +10,7 @@ import java.util.List;
 import java.util.TreeMap;
 
 import jex.statics.JEXStatics;
+import utilities.ImageCache;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
 import Database.DBObjects.dimension.DimensionMap;
@@ -272,7 +273,7 @@ class StackCalculationHelper{
 		for (String impath: jimages){
 
 			// Get the image
-			ImagePlus im = new ImagePlus(impath);
+			ImagePlus im = ImageCache.getImagePlus(impath);
 			ImageProcessor imp = im.getProcessor();
 			FloatProcessor fmp = (FloatProcessor)imp.convertToFloat();
 			
@@ -330,7 +331,7 @@ class StackCalculationHelper{
 			
 			// Get image 1
 			String path1  = map1.get(dim);
-			ImagePlus im1 = new ImagePlus(path1);
+			ImagePlus im1 = ImageCache.getImagePlus(path1);
 			if (im1 == null || im1.getProcessor() == null) continue;
 			ImageProcessor imp1 = im1.getProcessor();
 			FloatProcessor fmp1 = (FloatProcessor)imp1.convertToFloat();
@@ -338,7 +339,7 @@ class StackCalculationHelper{
 			
 			// Get image 2
 			String path2  = map2.get(dim);
-			ImagePlus im2 = new ImagePlus(path2);
+			ImagePlus im2 = ImageCache.getImagePlus(path2);
 			if (im2 == null || im2.getProcessor() == null) continue;
 			ImageProcessor imp2 = im2.getProcessor();
 			FloatProcessor fmp2 = (FloatProcessor)imp2.convertToFloat();
@@ -395,7 +396,7 @@ class StackCalculationHelper{
 			
 			// Get image 1
 			String path1  = map1.get(dim);
-			ImagePlus im1 = new ImagePlus(path1);
+			ImagePlus im1 = ImageCache.getImagePlus(path1);
 			if (im1 == null || im1.getProcessor() == null) continue;
 			ImageProcessor imp1 = im1.getProcessor();
 			FloatProcessor fmp1 = (FloatProcessor)imp1.convertToFloat();
@@ -403,7 +404,7 @@ class StackCalculationHelper{
 			
 			// Get image 2
 			String path2  = map2.get(dim);
-			ImagePlus im2 = new ImagePlus(path2);
+			ImagePlus im2 = ImageCache.getImagePlus(path2);
 			if (im2 == null || im2.getProcessor() == null) continue;
 			ImageProcessor imp2 = im2.getProcessor();
 			FloatProcessor fmp2 = (FloatProcessor)imp2.convertToFloat();
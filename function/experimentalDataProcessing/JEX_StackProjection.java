@@ -13,11 +13,13 @@ import java.util.Vector;
 
 import jex.statics.JEXStatics;
 import utilities.FunctionUtility;
+import utilities.ImageCache;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
 import Database.DBObjects.dimension.Dim;
 import Database.DBObjects.dimension.DimTable;
 import Database.DBObjects.dimension.DimensionMap;
+import Database.DataReader.ImageMetadata;
 import Database.DataReader.ImageReader;
 import Database.DataWriter.ImageWriter;
 import Database.Definition.Parameter;
@@ -25,6 +27,7 @@ import Database.Definition.ParameterSet;
 import Database.Definition.TypeName;
 import Database.SingleUserDatabase.JEXWriter;
 import function.ExperimentalDataCrunch;
+import function.imageUtility.SlidingWindowProjector;
 import guiObject.FormLine;
 
 
@@ -227,6 +230,12 @@ public class JEX_StackProjection extends ExperimentalDataCrunch{
 		int originalDimIndex = subDimTable.indexOfDimWithName(dimToProject.name());
 		subDimTable.remove(originalDimIndex);
 		
+		// RGB windows are still projected with ZProjector (per channel)
+		ImageMetadata metadata = ImageReader.readObjectToImageMetadata(imageData);
+		boolean incremental = (metadata != null && metadata.bitDepth != 24);
+		int method = SlidingWindowProjector.getMethod(mathOperation);
+		TreeMap<DimensionMap,String> paths = ImageReader.readObjectToImagePathTable(imageData);
+		
 		List<DimensionMap> maps = subDimTable.getDimensionMaps();
 		TreeMap<DimensionMap,String> dataMap = new TreeMap<DimensionMap,String>();
 		String baseName;
@@ -235,7 +244,28 @@ public class JEX_StackProjection extends ExperimentalDataCrunch{
 		int bitDepth = 32;
 		for(DimensionMap map : maps)
 		{
-			if(slidingWindow)
+			if(slidingWindow && incremental)
+			{
+				// Slide the window one slice at a time, each slice is read once (the projector keeps its own copy)
+				List<DimensionMap> stackMaps = this.getAllStackMaps(map, dimToProject);
+				SlidingWindowProjector projector = new SlidingWindowProjector(method, slidingWindowSize, metadata.width, metadata.height);
+				for(int i = 0; i < stackMaps.size(); i++)
+				{
+					ImagePlus slice = ImageCache.getSharedImagePlus(paths.get(stackMaps.get(i)));
+					bitDepth = slice.getBitDepth();
+					projector.add(slice.getProcessor());
+					if(projector.size() < slidingWindowSize) continue;
+					
+					DimensionMap saveDim = this.getAStackMap(map, dimToProject, i - slidingWindowSize + 1);
+					baseName = ImageReader.readObjectToImageName(imageData, saveDim);
+					actualPath = this.saveProjectedImage(entry, baseName, projector.getProjection(), bitDepth);
+					if(actualPath != null)
+					{
+						dataMap.put(saveDim, actualPath);
+					}
+				}
+			}
+			else if(slidingWindow)
 			{
 				for(int i = 0; i <= dimToProject.size()-slidingWindowSize; i++)
 				{
@@ -324,10 +354,10 @@ public class JEX_StackProjection extends ExperimentalDataCrunch{
 	private ImagePlus getVirtualStack(JEXEntry entry, JEXData imageData, List<DimensionMap> maps)
 	{
 		if(maps.size() == 0) return null;
-		ImagePlus im = ImageReader.readObjectToImagePlus(imageData);
+		ImageMetadata im = ImageReader.readObjectToImageMetadata(imageData);
 		TreeMap<DimensionMap,String> paths = ImageReader.readObjectToImagePathTable(imageData);
 		File temp = new File(paths.get(maps.get(0)));
-		VirtualStack stack = new VirtualStack(im.getWidth(), im.getHeight(), im.getProcessor().getColorModel(), temp.getParent());
+		VirtualStack stack = new VirtualStack(im.width, im.height, im.colorModel, temp.getParent());
 		for(DimensionMap map : maps)
 		{
 			temp = new File(paths.get(map));
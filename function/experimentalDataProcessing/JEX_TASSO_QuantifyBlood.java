@@ -11,6 +11,7 @@ import java.util.HashMap;
 import java.util.List;
 
 import jex.statics.JEXStatics;
+import utilities.ImageCache;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
 import Database.DataReader.ImageReader;
@@ -310,7 +311,7 @@ class BloosSpatterHelperFunction implements GraphicalCrunchingEnabling, ImagePan
 	}
 
 	private void displayImage(int index){
-		ImagePlus im = new ImagePlus(images.get(index));
+		ImagePlus im = ImageCache.getImagePlus(images.get(index));
 		JEXStatics.logManager.log("Placing in imagepanel "+images.get(index),1,this);
 		
 		imagepanel.setImage(im);
@@ -338,7 +339,7 @@ class BloosSpatterHelperFunction implements GraphicalCrunchingEnabling, ImagePan
 		getParameters();
 		
 		// Get the image
-		im = new ImagePlus(images.get(index));
+		im = ImageCache.getImagePlus(images.get(index));
 		imp = (ByteProcessor) im.getProcessor().convertToByte(true);
 		
 		///// Run step index
@@ -13,11 +13,13 @@ import java.util.Vector;
 
 import jex.statics.JEXStatics;
 import utilities.FunctionUtility;
+import utilities.ImageCache;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
 import Database.DBObjects.dimension.Dim;
 import Database.DBObjects.dimension.DimTable;
 import Database.DBObjects.dimension.DimensionMap;
+import Database.DataReader.ImageMetadata;
 import Database.DataReader.ImageReader;
 import Database.DataWriter.ImageWriter;
 import Database.Definition.Parameter;
@@ -271,7 +273,7 @@ public class JEX_TimeLapseAdaptiveBackgroundSubtraction extends ExperimentalData
 				float[] orig;
 				for(DimensionMap stackMap : stackMaps)
 				{
-					fpOrig = (FloatProcessor) (new ImagePlus(ImageReader.readObjectToImagePath(imageData, stackMap))).getProcessor().convertToFloat();
+					fpOrig = (FloatProcessor) (ImageCache.getImagePlus(ImageReader.readObjectToImagePath(imageData, stackMap))).getProcessor().convertToFloat();
 					orig = null;
 					orig = (float[]) fpOrig.getPixels();
 					for (int p=0; p<bg.length; p++)
@@ -343,10 +345,10 @@ public class JEX_TimeLapseAdaptiveBackgroundSubtraction extends ExperimentalData
 	private ImagePlus getVirtualStack(JEXEntry entry, JEXData imageData, List<DimensionMap> maps)
 	{
 		if(maps.size() == 0) return null;
-		ImagePlus im = ImageReader.readObjectToImagePlus(imageData);
+		ImageMetadata im = ImageReader.readObjectToImageMetadata(imageData);
 		TreeMap<DimensionMap,String> paths = ImageReader.readObjectToImagePathTable(imageData);
 		File temp = new File(paths.get(maps.get(0)));
-		VirtualStack stack = new VirtualStack(im.getWidth(), im.getHeight(), im.getProcessor().getColorModel(), temp.getParent());
+		VirtualStack stack = new VirtualStack(im.width, im.height, im.colorModel, temp.getParent());
 		for(DimensionMap map : maps)
 		{
 			temp = new File(paths.get(map));
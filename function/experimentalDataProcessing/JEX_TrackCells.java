@@ -12,6 +12,7 @@ import java.util.HashMap;
 import java.util.List;
 
 import jex.statics.JEXStatics;
+import utilities.ImageCache;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
 import Database.DataReader.ImageReader;
@@ -164,7 +165,7 @@ public class JEX_TrackCells extends ExperimentalDataCrunch {
 		Parameter p3 = new Parameter("Max Dissapearance","Maximum number of frames a cell can dissapear","3");
 		Parameter p4 = new Parameter("Seconds Per Frame","Seconds between each frame","15");
 		Parameter p5 = new Parameter("Micron Per Pixel","Image Scale in Micrometers per pixel","0.3");
-		Parameter p6 = new Parameter("Extension algorithm","Use a different extention algorithm",FormLine.DROPDOWN,new String[] {"Minimize displacements","Closest neighbour"},1);
+		Parameter p6 = new Parameter("Extension algorithm","Use a different extention algorithm",FormLine.DROPDOWN,new String[] {"Minimize displacements","Closest neighbour","Linear assignment"},1);
 		
 		// Make an array of the parameters and return it
 		ParameterSet parameterArray = new ParameterSet();
@@ -277,7 +278,7 @@ class TrackHelperFunction implements GraphicalCrunchingEnabling, ImagePanelInter
 			
 		}
 		else{
-			ImagePlus im = new ImagePlus(oimages.get(index));
+			ImagePlus im = ImageCache.getImagePlus(oimages.get(index));
 			imagepanel.setImage(im);
 		}
 	}
@@ -299,7 +300,9 @@ class TrackHelperFunction implements GraphicalCrunchingEnabling, ImagePanelInter
 		double spf          = Double.parseDouble(params.getValueOfParameter("Seconds Per Frame"));
 		double mpp          = Double.parseDouble(params.getValueOfParameter("Micron Per Pixel"));
 		String extensionModeStr = params.getValueOfParameter("Extension algorithm");
-		int extensionMode = (extensionModeStr.equals("Minimize displacements")) ? TrackExtend.EXTEND_TO_MINIMAL : TrackExtend.EXTEND_TO_CLOSEST;
+		int extensionMode = TrackExtend.EXTEND_TO_CLOSEST;
+		if (extensionModeStr.equals("Minimize displacements")) extensionMode = TrackExtend.EXTEND_TO_MINIMAL;
+		else if (extensionModeStr.equals("Linear assignment")) extensionMode = TrackExtend.EXTEND_TO_ASSIGNMENT;
 		
 		extender.maxDisplacement = maxDisplacement;
 		extender.maxDissapear    = maxDissapear;
@@ -308,7 +311,7 @@ class TrackHelperFunction implements GraphicalCrunchingEnabling, ImagePanelInter
 		extender.setExtensionMode(extensionMode);
 		
 		// image plus
-		ImagePlus im = new ImagePlus(oimages.get(index));
+		ImagePlus im = ImageCache.getImagePlus(oimages.get(index));
 		imagepanel.setImage(im);
 		
 		// Display the points still remaining for calculation
@@ -14,6 +14,7 @@ import java.util.HashMap;
 import java.util.List;
 
 import jex.statics.JEXStatics;
+import utilities.ImageCache;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
 import Database.DataReader.ImageReader;
@@ -289,7 +290,7 @@ public class JEX_TrackMovie extends ExperimentalDataCrunch {
 		// add each image one by one
 		JEXStatics.statusBar.setProgressPercentage(0);
 		for (int k = 0, len = imList.length; (k < len); k++) {
-			ImagePlus imk = new ImagePlus(imList[k]);
+			ImagePlus imk = ImageCache.getImagePlus(imList[k]);
 			BufferedImage bimage = trackImage(k, binning, imk, trajectories);
 
 			if (k == 0){
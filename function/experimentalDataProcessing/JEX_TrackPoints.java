@@ -26,6 +26,8 @@ import Database.Definition.Parameter;
 import Database.Definition.ParameterSet;
 import Database.Definition.TypeName;
 import function.ExperimentalDataCrunch;
+import function.tracker.LinearAssignment;
+import guiObject.FormLine;
 
 
 /**
@@ -154,12 +156,14 @@ public class JEX_TrackPoints extends ExperimentalDataCrunch {
 		Parameter p3 = new Parameter("Radius of Search","The number of pixels left, rigth, up, and down to search for a nearest neighbor match.","25");
 		Parameter p4 = new Parameter("Time Dim", "Name of the dimension along which points will be linked (typicall time)", "T");
 		Parameter p5 = new Parameter("Track Dim Name", "Tracks will be grouped into new rois and indexed with a new dim of this name.","Track");
+		Parameter p6 = new Parameter("Linking algorithm", "Link each point to its nearest neighbor or find the links minimizing the total displacement (linear assignment).",FormLine.DROPDOWN,new String[] {"Nearest neighbor","Linear assignment"},0);
 		
 		// Make an array of the parameters and return it
 		ParameterSet parameterArray = new ParameterSet();
 		parameterArray.addParameter(p3);
 		parameterArray.addParameter(p4);
 		parameterArray.addParameter(p5);
+		parameterArray.addParameter(p6);
 		return parameterArray;
 	}
 	
@@ -203,6 +207,7 @@ public class JEX_TrackPoints extends ExperimentalDataCrunch {
 		int radius = Integer.parseInt(parameters.getValueOfParameter("Radius of Search"));
 		String timeDimName = parameters.getValueOfParameter("Time Dim");
 		String trackDimName = parameters.getValueOfParameter("Track Dim Name");
+		boolean assignment = "Linear assignment".equals(parameters.getValueOfParameter("Linking algorithm"));
 		
 		// Run the function
 		DimTable roiTable = roiData.getDimTable();
@@ -238,8 +243,16 @@ public class JEX_TrackPoints extends ExperimentalDataCrunch {
 				lastPoints = roiMap.get(lastDim).getPointList();
 				
 				// Pair the points from the last timepoint to this timepoint
-				List<Pair<IdPoint,IdPoint>> pairs = HashedPointList.getNearestNeighbors(lastPoints, thisPoints, radius, false);
-				pairs = HashedPointList.filterConflicts(pairs);
+				List<Pair<IdPoint,IdPoint>> pairs;
+				if(assignment)
+				{
+					pairs = LinearAssignment.getAssignedNeighbors(lastPoints, thisPoints, radius);
+				}
+				else
+				{
+					pairs = HashedPointList.getNearestNeighbors(lastPoints, thisPoints, radius, false);
+					pairs = HashedPointList.filterConflicts(pairs);
+				}
 				
 				// Add the appropriate points to the accruing tracks
 				for(Pair<IdPoint,IdPoint> pair : pairs)
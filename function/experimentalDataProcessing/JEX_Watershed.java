@@ -7,6 +7,7 @@ import java.util.HashMap;
 import java.util.TreeMap;
 
 import jex.statics.JEXStatics;
+import utilities.ImageCache;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
 import Database.DBObjects.dimension.DimensionMap;
@@ -207,7 +208,7 @@ public class JEX_Watershed extends ExperimentalDataCrunch{
 		ImagePlus in;
 		for(DimensionMap map : imageMap.keySet())
 		{
-			in = new ImagePlus(imageMap.get(map));
+			in = ImageCache.getImagePlus(imageMap.get(map));
 			ByteProcessor ip = (ByteProcessor)in.getProcessor();
 			
 			WatershedUtility ws = new WatershedUtility();
@@ -25,6 +25,7 @@ import java.util.TreeMap;
 import java.util.Vector;
 
 import jex.statics.JEXStatics;
+import utilities.ImageCache;
 import utilities.StringUtility;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
@@ -367,7 +368,7 @@ class NeutrophilTrackerHelperFunction2 implements GraphicalCrunchingEnabling, Im
 		
 		if (roiData != null){
 			ROIPlus roip = RoiReader.readObjectToRoi(roiData);
-			rectangle    = (roip!=null && roip.roi!=null) ? roip.roi.getBounds() : null;
+			rectangle    = (roip!=null && roip.getRoi()!=null) ? roip.getRoi().getBounds() : null;
 		}
 		
 		if (cell != null){
@@ -424,7 +425,7 @@ class NeutrophilTrackerHelperFunction2 implements GraphicalCrunchingEnabling, Im
 	}
 
 	private void displayImage(int index){
-		ImagePlus im = new ImagePlus(jimages.get(index));
+		ImagePlus im = ImageCache.getImagePlus(jimages.get(index));
 		imagepanel.setImage(im);
 	}
 	
@@ -459,7 +460,7 @@ class NeutrophilTrackerHelperFunction2 implements GraphicalCrunchingEnabling, Im
 		///// Run step index
 		JEXStatics.logManager.log("Running step "+atStep,1,this);
 		if (atStep == 0){
-			im = new ImagePlus(jimages.get(index));
+			im = ImageCache.getImagePlus(jimages.get(index));
 			imp = (ByteProcessor) im.getProcessor().convertToByte(true);
 			imagepanel.setPointListArray(null,null);
 			imagepanel.setRoi(null);
@@ -472,7 +473,7 @@ class NeutrophilTrackerHelperFunction2 implements GraphicalCrunchingEnabling, Im
 			}
 		}
 		else if (atStep == 1){
-			im = new ImagePlus(jimages.get(index));
+			im = ImageCache.getImagePlus(jimages.get(index));
 			imp = (ByteProcessor) im.getProcessor().convertToByte(true);
 			imagepanel.setPointListArray(null,null);
 			imagepanel.setRoi(null);
@@ -487,7 +488,7 @@ class NeutrophilTrackerHelperFunction2 implements GraphicalCrunchingEnabling, Im
 			}
 		}
 		else if (atStep == 2){
-			im = new ImagePlus(jimages.get(index));
+			im = ImageCache.getImagePlus(jimages.get(index));
 			imp = (ByteProcessor) im.getProcessor().convertToByte(true);
 			imagepanel.setPointListArray(null,null);
 			imagepanel.setRoi(null);
@@ -501,7 +502,7 @@ class NeutrophilTrackerHelperFunction2 implements GraphicalCrunchingEnabling, Im
 			}
 		}
 		else if (atStep == 3){
-			im = new ImagePlus(jimages.get(index));
+			im = ImageCache.getImagePlus(jimages.get(index));
 			imp = (ByteProcessor) im.getProcessor().convertToByte(true);
 			imagepanel.setPointListArray(null,null);
 			imagepanel.setRoi(imageRoi);
@@ -515,7 +516,7 @@ class NeutrophilTrackerHelperFunction2 implements GraphicalCrunchingEnabling, Im
 			}
 		}
 		else if (atStep == 4){
-			im = new ImagePlus(jimages.get(index));
+			im = ImageCache.getImagePlus(jimages.get(index));
 			imp = (ByteProcessor) im.getProcessor().convertToByte(true);
 			
 			binImage();
@@ -533,7 +534,7 @@ class NeutrophilTrackerHelperFunction2 implements GraphicalCrunchingEnabling, Im
 			}
 		}
 		else if (atStep == 5){
-			im = new ImagePlus(jimages.get(index));
+			im = ImageCache.getImagePlus(jimages.get(index));
 			imp = (ByteProcessor) im.getProcessor().convertToByte(true);
 			imagepanel.setPointListArray(null,null);
 			
@@ -673,7 +674,7 @@ class NeutrophilTrackerHelperFunction2 implements GraphicalCrunchingEnabling, Im
 			cellImage = new ImagePlus("cell",cimpProc);
 		}
 		else if (useNeut){
-			cellImage = new ImagePlus(neutPath);
+			cellImage = ImageCache.getImagePlus(neutPath);
 			if (cellImage == null){
 				FloatProcessor fp = new FloatProcessor(radius,radius);
 				cellImage         = new ImagePlus("",fp);
@@ -698,7 +699,7 @@ class NeutrophilTrackerHelperFunction2 implements GraphicalCrunchingEnabling, Im
 			ROIPlus roip = RoiReader.readObjectToRoi(roiData);
 			
 			// Get the rectangle
-			Rectangle r = (roip!=null && roip.roi!=null) ? roip.roi.getBounds() : null;
+			Rectangle r = (roip!=null && roip.getRoi()!=null) ? roip.getRoi().getBounds() : null;
 			
 			// Bin the rectangle as needed
 //			int x1 = (int) r.getX()/bin;
@@ -747,7 +748,7 @@ class NeutrophilTrackerHelperFunction2 implements GraphicalCrunchingEnabling, Im
 			// get images after image of interest
 			for (int i=1; i<=scanDim; i++){
 				if (index+i < jimages.size()) {
-					ImagePlus imPlus = new ImagePlus(jimages.get(index+1));
+					ImagePlus imPlus = ImageCache.getImagePlus(jimages.get(index+1));
 					imagesToaverage.add(imPlus);
 				}
 			}
@@ -829,7 +830,7 @@ class NeutrophilTrackerHelperFunction2 implements GraphicalCrunchingEnabling, Im
 	private void findMaxInStack(){
 		for (int j=0, len=jimages.size(); j<len; j++){
 			index = j;
-			im = new ImagePlus(jimages.get(index));
+			im = ImageCache.getImagePlus(jimages.get(index));
 			imp = (ByteProcessor) im.getProcessor().convertToByte(true);
 			
 			binImage();
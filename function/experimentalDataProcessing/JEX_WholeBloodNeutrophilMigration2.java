@@ -28,6 +28,7 @@ import java.util.TreeMap;
 import java.util.Vector;
 
 import jex.statics.JEXStatics;
+import utilities.ImageCache;
 import utilities.ImageUtility;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
@@ -401,7 +402,7 @@ class NeutrophilTrackerHelperFunction3 implements GraphicalCrunchingEnabling, Im
 
 	private void displayImage(int index){
 //		ImagePlus im = jimages.get(index).getImagePlus();
-		ImagePlus im = new ImagePlus(jimages.get(index));
+		ImagePlus im = ImageCache.getImagePlus(jimages.get(index));
 		imagepanel.setImage(im);
 	}
 	
@@ -415,7 +416,7 @@ class NeutrophilTrackerHelperFunction3 implements GraphicalCrunchingEnabling, Im
 		
 		if (auto){
 //			im = jimages.get(index).getImagePlus();
-			im  = new ImagePlus(jimages.get(index));
+			im  = ImageCache.getImagePlus(jimages.get(index));
 			imp = (ByteProcessor) im.getProcessor().convertToByte(true);
 			binImage();
 			removeImobile();
@@ -441,7 +442,7 @@ class NeutrophilTrackerHelperFunction3 implements GraphicalCrunchingEnabling, Im
 		///// Run step index
 		JEXStatics.logManager.log("Running step "+atStep,1,this);
 //		im = jimages.get(index).getImagePlus();
-		im = new ImagePlus(jimages.get(index));
+		im = ImageCache.getImagePlus(jimages.get(index));
 		imp = (ByteProcessor) im.getProcessor().convertToByte(true);
 		imagepanel.setPointListArray(null,null);
 		imagepanel.setRoi(null);
@@ -641,7 +642,7 @@ class NeutrophilTrackerHelperFunction3 implements GraphicalCrunchingEnabling, Im
 			// get images after image of interest
 			for (int i=frame; i<=frame+immobile; i++){
 //				if (i < jimages.size()) imagesToaverage.add(jimages.get(i).getImagePlus());
-				if (i < jimages.size()) imagesToaverage.add(new ImagePlus(jimages.get(i)));
+				if (i < jimages.size()) imagesToaverage.add(ImageCache.getImagePlus(jimages.get(i)));
 			}
 			
 			// If not enough images were found then grab some before the image of interest
@@ -774,7 +775,7 @@ class NeutrophilTrackerHelperFunction3 implements GraphicalCrunchingEnabling, Im
 	 */
 	private void locateSeedParticles(){
 //		ImagePlus im = jimages.get(index).getImagePlus();
-		ImagePlus im = new ImagePlus(jimages.get(index));
+		ImagePlus im = ImageCache.getImagePlus(jimages.get(index));
 		seedParticles = locateSeedParticles(im, index, new PointList());
 		JEXStatics.logManager.log("Finding particles",1,this);
 		
@@ -883,7 +884,7 @@ class NeutrophilTrackerHelperFunction3 implements GraphicalCrunchingEnabling, Im
 		impmages = new ArrayList<ImagePlus>(0);
 		for (String imPath: jimages){
 			// Get the imageplus
-			ImagePlus image1  = new ImagePlus(imPath);//jimage.getImagePlus();
+			ImagePlus image1  = ImageCache.getImagePlus(imPath);//jimage.getImagePlus();
 			image1            = this.binImage(image1);
 			
 			// Remove the background if required
@@ -921,7 +922,7 @@ class NeutrophilTrackerHelperFunction3 implements GraphicalCrunchingEnabling, Im
 			// Get the image at index INDEX
 			int imageIndex  = (startTimes==-1) ? 0 : index * startTimes;
 //			ImagePlus image = jimages.get(imageIndex).getImagePlus();
-			ImagePlus image = new ImagePlus(jimages.get(imageIndex));
+			ImagePlus image = ImageCache.getImagePlus(jimages.get(imageIndex));
 			
 			// Get the existing points at index INDEX
 			PointList existingPoints = new PointList();
@@ -1347,7 +1348,7 @@ class NeutrophilTrackerHelperFunction3 implements GraphicalCrunchingEnabling, Im
 	{
 		// ------------------------------
 		// Get the first image in the stack
-		ImagePlus implus   = new ImagePlus(jimages.get(0));//jimages.get(0).getImagePlus();
+		ImagePlus implus   = ImageCache.getImagePlus(jimages.get(0));//jimages.get(0).getImagePlus();
 		ImageProcessor imp = implus.getProcessor();
 		imp                = imp.resize((int)(implus.getWidth()/this.bin));
 
@@ -25,6 +25,7 @@ import java.util.TreeMap;
 import java.util.Vector;
 
 import jex.statics.JEXStatics;
+import utilities.ImageCache;
 import utilities.StringUtility;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
@@ -370,7 +371,7 @@ class NeutrophilTrackerShortTimelapseHelperFunction implements GraphicalCrunchin
 	
 
 	private void displayImage(int index){
-		ImagePlus im = new ImagePlus(jimages.get(index));
+		ImagePlus im = ImageCache.getImagePlus(jimages.get(index));
 		imagepanel.setImage(im);
 	}
 	
@@ -404,7 +405,7 @@ class NeutrophilTrackerShortTimelapseHelperFunction implements GraphicalCrunchin
 		///// Run step index
 		JEXStatics.logManager.log("Running step "+atStep,1,this);
 		if (atStep == 0){
-			im = new ImagePlus(jimages.get(index));
+			im = ImageCache.getImagePlus(jimages.get(index));
 			imp = (ByteProcessor) im.getProcessor().convertToByte(true);
 			imagepanel.setPointListArray(null,null);
 			imagepanel.setRoi(null);
@@ -417,7 +418,7 @@ class NeutrophilTrackerShortTimelapseHelperFunction implements GraphicalCrunchin
 			}
 		}
 		else if (atStep == 1){
-			im = new ImagePlus(jimages.get(index));
+			im = ImageCache.getImagePlus(jimages.get(index));
 			imp = (ByteProcessor) im.getProcessor().convertToByte(true);
 			imagepanel.setPointListArray(null,null);
 			imagepanel.setRoi(null);
@@ -436,7 +437,7 @@ class NeutrophilTrackerShortTimelapseHelperFunction implements GraphicalCrunchin
 //			}
 		}
 		else if (atStep == 2){
-			im = new ImagePlus(jimages.get(index));
+			im = ImageCache.getImagePlus(jimages.get(index));
 			imp = (ByteProcessor) im.getProcessor().convertToByte(true);
 			imagepanel.setPointListArray(null,null);
 			imagepanel.setRoi(null);
@@ -450,7 +451,7 @@ class NeutrophilTrackerShortTimelapseHelperFunction implements GraphicalCrunchin
 			}
 		}
 		else if (atStep == 3){
-			im = new ImagePlus(jimages.get(index));
+			im = ImageCache.getImagePlus(jimages.get(index));
 			imp = (ByteProcessor) im.getProcessor().convertToByte(true);
 			imagepanel.setPointListArray(null,null);
 			imagepanel.setRoi(imageRoi);
@@ -464,7 +465,7 @@ class NeutrophilTrackerShortTimelapseHelperFunction implements GraphicalCrunchin
 			}
 		}
 		else if (atStep == 4){
-			im = new ImagePlus(jimages.get(index));
+			im = ImageCache.getImagePlus(jimages.get(index));
 			imp = (ByteProcessor) im.getProcessor().convertToByte(true);
 			
 			binImage();
@@ -482,7 +483,7 @@ class NeutrophilTrackerShortTimelapseHelperFunction implements GraphicalCrunchin
 			}
 		}
 		else if (atStep == 5){
-			im = new ImagePlus(jimages.get(index));
+			im = ImageCache.getImagePlus(jimages.get(index));
 			imp = (ByteProcessor) im.getProcessor().convertToByte(true);
 			imagepanel.setPointListArray(null,null);
 			
@@ -643,7 +644,7 @@ class NeutrophilTrackerShortTimelapseHelperFunction implements GraphicalCrunchin
 	private void findMaxInStack(){
 		for (int j=0, len=jimages.size(); j<len; j++){
 			index = j;
-			im = new ImagePlus(jimages.get(index));
+			im = ImageCache.getImagePlus(jimages.get(index));
 			imp = (ByteProcessor) im.getProcessor().convertToByte(true);
 			
 			binImage();
@@ -839,7 +840,7 @@ class NeutrophilTrackerShortTimelapseHelperFunction implements GraphicalCrunchin
 		
 		// add each image one by one
 		for (int k = 0, len = jimages.size(); (k < len); k++) {
-			ImagePlus imk = new ImagePlus(jimages.get(k));
+			ImagePlus imk = ImageCache.getImagePlus(jimages.get(k));
 			BufferedImage bimage = trackImage(k, binning, imk, trajectories);
 
 			if (k == 0){
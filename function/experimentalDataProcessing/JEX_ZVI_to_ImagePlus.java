@@ -1,19 +1,20 @@
 package function.experimentalDataProcessing;
 
-import ij.ImagePlus;
-import ij.ImageStack;
-
+import java.io.IOException;
 import java.util.HashMap;
-import java.util.Hashtable;
+import java.util.TreeMap;
 
+import jex.statics.JEXStatics;
 import utilities.ZVI_Reader;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
+import Database.DBObjects.dimension.DimensionMap;
 import Database.DataReader.FileReader;
 import Database.DataWriter.ImageWriter;
 import Database.Definition.Parameter;
 import Database.Definition.ParameterSet;
 import Database.Definition.TypeName;
+import Database.SingleUserDatabase.JEXWriter;
 import function.ExperimentalDataCrunch;
 import guiObject.FormLine;
 
@@ -95,7 +96,7 @@ public class JEX_ZVI_to_ImagePlus extends ExperimentalDataCrunch{
 	@Override
 	public boolean allowMultithreading()
 	{
-		return false;
+		return true;
 	}
 	
 	
@@ -199,27 +200,42 @@ public class JEX_ZVI_to_ImagePlus extends ExperimentalDataCrunch{
 		// Get the file name
 		String fname  = FileReader.readFileObject(data);
 		
-		// Read the ZVI
+		// Read the ZVI headers, the planes are read one by one when they are saved
 		ZVI_Reader zvireader = new ZVI_Reader();
-		Hashtable<Integer,ImageStack> result = zvireader.decodeZVI(fname);
-		if (result == null) return false;
+		if (!zvireader.open(fname)) return false;
 		
-		// Save the images
-		int i = 0;
-		for (Integer in: result.keySet())
+		try
+		{
+			// Extract the channels one after the other, entries are already run in parallel by the cruncher
+			int i = 0;
+			for (Integer theC: zvireader.getChannels())
+			{
+				TreeMap<DimensionMap,String> paths = new TreeMap<DimensionMap,String>();
+				int t = 0;
+				for (Integer plane: zvireader.getPlanes(theC))
+				{
+					String path = JEXWriter.saveImage(zvireader.readPlane(plane));
+					if (path == null) throw new IOException("Could not save plane " + plane);
+					paths.put(new DimensionMap("T=" + t), path);
+					t ++;
+				}
+				JEXData output = ImageWriter.makeImageStackFromPaths(outputNames[i].getName(), paths);
+				
+				// Save in the right output
+				output.setDataObjectInfo("Images extracted using the ZVI reader function");
+				realOutputs.add(output);
+				i ++;
+			}
+		}
+		catch (IOException e)
+		{
+			JEXStatics.logManager.log("Could not extract the images of " + fname, 0, this);
+			e.printStackTrace();
+			return false;
+		}
+		finally
 		{
-			// Make an image plus
-			ImageStack stack = result.get(in);
-			ImagePlus  im    = new ImagePlus("channel "+i,stack);
-			
-			// save the imageplus
-			JEXData output = ImageWriter.makeImageStack(outputNames[i].getName(), im, "T");
-			
-			// Save in the right output
-			output.setDataObjectInfo("Images extracted using the ZVI reader function");
-			realOutputs.add(output);
-			
-			i ++;
+			zvireader.close();
 		}
 		
 		// Return status
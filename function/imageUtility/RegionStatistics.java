@@ -0,0 +1,252 @@
+package function.imageUtility;
+
+import ij.gui.Roi;
+import ij.process.ColorProcessor;
+import ij.process.FloatProcessor;
+import ij.process.ImageProcessor;
+
+import java.awt.Rectangle;
+import java.util.Arrays;
+
+/**
+ * Statistics (area, mean, min, max, std. dev. and median) of many regions of an image.
+ *
+ * Measuring each ROI with ImagePlus.getStatistics builds a mask and a histogram and
+ * reads the image once per ROI. Here the regions are first drawn in a label map (the
+ * index of the region of each pixel) and all the regions are then measured together:
+ * one pass over the pixels for the counts, sums and extrema and a second pass that
+ * groups the values by region (counting sort on the labels) for the medians. The results
+ * are the same as getStatistics for 8, 16 and 32 bit images.
+ *
+ * Regions that are not areas, that overlap a region added before them or that have no
+ * pixel in the image are not measured here (isMeasured returns false) so the caller can
+ * measure them with ImageJ as before.
+ */
+public class RegionStatistics {
+
+	// Number of bins of the histograms of ImageJ for 32 bit images
+	private static final int FLOAT_BINS = 256;
+
+	private int width, height;
+	private int[] labels; // region index + 1 of each pixel, 0 outside the regions
+	private int nRegions = 0;
+	private boolean[] measured = new boolean[16];
+
+	private int[] count;
+	private double[] sum, sum2, min, max, median;
+
+	public RegionStatistics(int width, int height)
+	{
+		this.width = width;
+		this.height = height;
+		this.labels = new int[width * height];
+	}
+
+	/**
+	 * Add the region ROI, the regions are numbered from 0 in the order they are added
+	 * @param roi
+	 * @return the index of the region
+	 */
+	public int addRegion(Roi roi)
+	{
+		int region = this.nRegions;
+		this.nRegions++;
+		if(this.nRegions > this.measured.length)
+		{
+			this.measured = Arrays.copyOf(this.measured, 2 * this.nRegions);
+		}
+		this.measured[region] = (roi != null && roi.isArea() && this.draw(roi, region + 1));
+		return region;
+	}
+
+	/**
+	 * Number of regions added
+	 * @return
+	 */
+	public int size()
+	{
+		return this.nRegions;
+	}
+
+	/**
+	 * Return false if the statistics of REGION must be measured another way
+	 * @param region
+	 * @return
+	 */
+	public boolean isMeasured(int region)
+	{
+		return this.measured[region];
+	}
+
+	/**
+	 * Measure all the regions in IP, which must have the size given to the constructor
+	 * @param ip 8, 16 or 32 bit image
+	 */
+	public void measure(ImageProcessor ip)
+	{
+		if(ip.getWidth() != this.width || ip.getHeight() != this.height)
+		{
+			throw new IllegalArgumentException("Image of size " + ip.getWidth() + "x" + ip.getHeight() + " for regions of size " + this.width + "x" + this.height);
+		}
+		if(ip instanceof ColorProcessor)
+		{
+			throw new IllegalArgumentException("RGB images are not supported");
+		}
+		int n = this.nRegions;
+		this.count = new int[n];
+		this.sum = new double[n];
+		this.sum2 = new double[n];
+		this.min = new double[n];
+		this.max = new double[n];
+		this.median = new double[n];
+		Arrays.fill(this.min, Double.MAX_VALUE);
+		Arrays.fill(this.max, -Double.MAX_VALUE);
+
+		// First pass: counts, sums and extrema
+		int nPixels = this.labels.length;
+		for(int p = 0; p < nPixels; p++)
+		{
+			int label = this.labels[p];
+			if(label == 0) continue;
+			int r = label - 1;
+			double v = ip.getf(p);
+			this.count[r]++;
+			this.sum[r] += v;
+			this.sum2[r] += v * v;
+			if(v < this.min[r]) this.min[r] = v;
+			if(v > this.max[r]) this.max[r] = v;
+		}
+
+		// Second pass: values grouped by region for the medians
+		int[] start = new int[n + 1];
+		for(int r = 0; r < n; r++)
+		{
+			start[r + 1] = start[r] + this.count[r];
+		}
+		float[] values = new float[start[n]];
+		int[] next = Arrays.copyOf(start, n);
+		for(int p = 0; p < nPixels; p++)
+		{
+			int label = this.labels[p];
+			if(label == 0) continue;
+			values[next[label - 1]++] = ip.getf(p);
+		}
+		boolean isFloat = (ip instanceof FloatProcessor);
+		for(int r = 0; r < n; r++)
+		{
+			if(this.count[r] == 0)
+			{
+				// Empty regions are left to the caller
+				this.measured[r] = false;
+				continue;
+			}
+			Arrays.sort(values, start[r], start[r + 1]);
+			this.median[r] = this.getMedian(values, start[r], this.count[r], r, isFloat);
+		}
+	}
+
+	/**
+	 * Number of pixels of REGION
+	 * @param region
+	 * @return
+	 */
+	public int getPixelCount(int region)
+	{
+		return this.count[region];
+	}
+
+	/**
+	 * Area of REGION in calibrated units
+	 * @param region
+	 * @param pixelWidth
+	 * @param pixelHeight
+	 * @return
+	 */
+	public double getArea(int region, double pixelWidth, double pixelHeight)
+	{
+		return this.count[region] * pixelWidth * pixelHeight;
+	}
+
+	public double getMean(int region)
+	{
+		return this.sum[region] / this.count[region];
+	}
+
+	public double getMin(int region)
+	{
+		return this.min[region];
+	}
+
+	public double getMax(int region)
+	{
+		return this.max[region];
+	}
+
+	/**
+	 * Sample standard deviation, same formula as ImageStatistics
+	 * @param region
+	 * @return
+	 */
+	public double getStdDev(int region)
+	{
+		double n = this.count[region];
+		if(n < 2) return 0;
+		double stdDev = (n * this.sum2[region] - this.sum[region] * this.sum[region]) / n;
+		return (stdDev > 0) ? Math.sqrt(stdDev / (n - 1.0)) : 0;
+	}
+
+	public double getMedian(int region)
+	{
+		return this.median[region];
+	}
+
+	// ---------------------------------------------
+	// Helpers
+	// ---------------------------------------------
+
+	/**
+	 * Draw the pixels of ROI with LABEL, return false without drawing anything if the
+	 * region overlaps another one
+	 */
+	private boolean draw(Roi roi, int label)
+	{
+		Rectangle r = roi.getBounds();
+		ImageProcessor mask = roi.getMask();
+		int x0 = Math.max(0, r.x), x1 = Math.min(this.width, r.x + r.width);
+		int y0 = Math.max(0, r.y), y1 = Math.min(this.height, r.y + r.height);
+		for(int pass = 0; pass < 2; pass++)
+		{
+			for(int y = y0; y < y1; y++)
+			{
+				for(int x = x0; x < x1; x++)
+				{
+					if(mask != null && mask.get(x - r.x, y - r.y) == 0) continue;
+					int p = y * this.width + x;
+					if(pass == 0 && this.labels[p] != 0) return false;
+					if(pass == 1) this.labels[p] = label;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Median of the sorted values computed as ImageJ does: the value at the middle of
+	 * the 8 or 16 bit histogram (i.e. the upper median) and the center of the bin at the
+	 * middle of the 256 bin histogram between min and max for 32 bit images
+	 */
+	private double getMedian(float[] sorted, int start, int n, int region, boolean isFloat)
+	{
+		double middle = sorted[start + n / 2];
+		if(!isFloat)
+		{
+			return middle;
+		}
+		double histMin = this.min[region], histMax = this.max[region];
+		double binSize = (histMax - histMin) / FLOAT_BINS;
+		double scale = FLOAT_BINS / (histMax - histMin);
+		int bin = (int) (scale * (middle - histMin));
+		if(bin >= FLOAT_BINS) bin = FLOAT_BINS - 1;
+		return histMin + (bin + 0.5) * binSize;
+	}
+}
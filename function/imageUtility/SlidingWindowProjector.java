@@ -0,0 +1,278 @@
+package function.imageUtility;
+
+import ij.plugin.ZProjector;
+import ij.process.FloatProcessor;
+import ij.process.ImageProcessor;
+
+/**
+ * Projection of a window of slices that slides along a stack one slice at a time.
+ *
+ * Instead of projecting the whole window at each position like ZProjector, the slices of
+ * the window are kept in a ring buffer and the state of the window is updated with the
+ * slice that enters it and the slice that leaves it: running sums of the values and of
+ * their squares for mean, sum and std. dev. and a monotonic deque of slice numbers per
+ * pixel for max and min. The median is selected from the ring buffer when the projection
+ * is asked for. Each slice is read once and the memory used is windowSize slices (plus
+ * the slice numbers of the deques for max and min) whatever the length of the stack.
+ * The results are the same as ZProjector for grayscale (8, 16 and 32 bit) slices.
+ */
+public class SlidingWindowProjector {
+
+	private int method, windowSize;
+	private int width, height, nPixels;
+	private int count = 0; // number of slices in the window
+	private int added = 0; // number of slices added since the start, the window holds slices added-count to added-1
+
+	// values of the slices of the window, slice t is in ring[t % windowSize]
+	private float[][] ring;
+
+	// mean, sum, std. dev.
+	private double[] sum, sum2;
+
+	// max, min: circular deque of slice numbers of capacity windowSize per pixel, position i of the deque of pixel p is in dequeSlice[i][p]
+	private int[][] dequeSlice;
+	private int[] dequeHead, dequeSize;
+
+	// median: values of one pixel in the window
+	private float[] scratch;
+
+	/**
+	 * @param method one of the ZProjector methods (AVG_METHOD, MAX_METHOD, MIN_METHOD, SUM_METHOD, SD_METHOD, MEDIAN_METHOD)
+	 * @param windowSize
+	 * @param width
+	 * @param height
+	 */
+	public SlidingWindowProjector(int method, int windowSize, int width, int height)
+	{
+		if(windowSize < 1)
+		{
+			throw new IllegalArgumentException("Window size must be at least 1, was " + windowSize);
+		}
+		this.method = method;
+		this.windowSize = windowSize;
+		this.width = width;
+		this.height = height;
+		this.nPixels = width * height;
+
+		if(method == ZProjector.AVG_METHOD || method == ZProjector.SUM_METHOD || method == ZProjector.SD_METHOD)
+		{
+			this.sum = new double[this.nPixels];
+			if(method == ZProjector.SD_METHOD) this.sum2 = new double[this.nPixels];
+		}
+		else if(method == ZProjector.MAX_METHOD || method == ZProjector.MIN_METHOD)
+		{
+			this.dequeSlice = new int[windowSize][this.nPixels];
+			this.dequeHead = new int[this.nPixels];
+			this.dequeSize = new int[this.nPixels];
+		}
+		else if(method == ZProjector.MEDIAN_METHOD)
+		{
+			this.scratch = new float[windowSize];
+		}
+		else
+		{
+			throw new IllegalArgumentException("Unknown projection method " + method);
+		}
+		this.ring = new float[windowSize][];
+	}
+
+	/**
+	 * Return the ZProjector method for the names used in the function parameters
+	 * (mean, max, min, sum, std. dev., median)
+	 * @param name
+	 * @return
+	 */
+	public static int getMethod(String name)
+	{
+		if(name.equals("mean")) return ZProjector.AVG_METHOD;
+		else if(name.equals("max")) return ZProjector.MAX_METHOD;
+		else if(name.equals("min")) return ZProjector.MIN_METHOD;
+		else if(name.equals("sum")) return ZProjector.SUM_METHOD;
+		else if(name.equals("std. dev.")) return ZProjector.SD_METHOD;
+		return ZProjector.MEDIAN_METHOD;
+	}
+
+	/**
+	 * Number of slices currently in the window
+	 * @return
+	 */
+	public int size()
+	{
+		return this.count;
+	}
+
+	/**
+	 * Add the next slice of the stack to the window, the oldest slice leaves the window
+	 * if it is full. The values of IP are copied so IP can be shared or reused.
+	 * @param ip
+	 */
+	public void add(ImageProcessor ip)
+	{
+		this.checkSize(ip);
+
+		// The new slice takes the slot (and the array) of the slice leaving the window
+		int t = this.added;
+		int slot = t % this.windowSize;
+		boolean full = (this.count == this.windowSize);
+		if(!full) this.ring[slot] = new float[this.nPixels];
+		float[] values = this.ring[slot];
+		for(int p = 0; p < this.nPixels; p++)
+		{
+			float v = ip.getf(p);
+			if(this.sum != null)
+			{
+				this.sum[p] += v;
+				if(this.sum2 != null) this.sum2[p] += ((double) v) * v;
+				if(full)
+				{
+					float old = values[p];
+					this.sum[p] -= old;
+					if(this.sum2 != null) this.sum2[p] -= ((double) old) * old;
+				}
+			}
+			else if(this.dequeSize != null)
+			{
+				// The leaving slice is in the deque only if it is still the extremum
+				if(full && this.dequeSize[p] > 0 && this.dequeSlice[this.dequeHead[p]][p] == t - this.windowSize)
+				{
+					this.dequeHead[p] = (this.dequeHead[p] + 1) % this.windowSize;
+					this.dequeSize[p]--;
+				}
+				this.pushDeque(p, t, v);
+			}
+			values[p] = v;
+		}
+		this.added++;
+		if(!full) this.count++;
+	}
+
+	/**
+	 * Return the projection of the slices currently in the window
+	 * @return
+	 */
+	public FloatProcessor getProjection()
+	{
+		float[] result = new float[this.nPixels];
+		double n = this.count;
+		int half = this.count / 2;
+		for(int p = 0; p < this.nPixels; p++)
+		{
+			if(this.method == ZProjector.SUM_METHOD)
+			{
+				result[p] = (float) this.sum[p];
+			}
+			else if(this.method == ZProjector.AVG_METHOD)
+			{
+				result[p] = (float) (this.sum[p] / n);
+			}
+			else if(this.method == ZProjector.SD_METHOD)
+			{
+				// Same formula as ZProjector
+				double stdDev = 0;
+				if(n > 1)
+				{
+					stdDev = (n * this.sum2[p] - this.sum[p] * this.sum[p]) / n;
+					stdDev = (stdDev > 0) ? Math.sqrt(stdDev / (n - 1.0)) : 0;
+				}
+				result[p] = (float) stdDev;
+			}
+			else if(this.dequeSize != null)
+			{
+				result[p] = (this.dequeSize[p] == 0) ? 0 : this.valueOf(this.dequeSlice[this.dequeHead[p]][p], p);
+			}
+			else if(this.count > 0)
+			{
+				for(int i = 0; i < this.count; i++)
+				{
+					this.scratch[i] = this.ring[i][p];
+				}
+				float upper = select(this.scratch, this.count, half);
+				if((this.count & 1) == 0)
+				{
+					// After the selection the values below HALF are the smallest ones
+					float lower = this.scratch[0];
+					for(int i = 1; i < half; i++)
+					{
+						if(this.scratch[i] > lower) lower = this.scratch[i];
+					}
+					result[p] = (lower + upper) / 2f;
+				}
+				else
+				{
+					result[p] = upper;
+				}
+			}
+		}
+		return new FloatProcessor(this.width, this.height, result, null);
+	}
+
+	// ---------------------------------------------
+	// Helpers
+	// ---------------------------------------------
+
+	private void checkSize(ImageProcessor ip)
+	{
+		if(ip.getWidth() != this.width || ip.getHeight() != this.height)
+		{
+			throw new IllegalArgumentException("Slice of size " + ip.getWidth() + "x" + ip.getHeight() + " in a window of size " + this.width + "x" + this.height);
+		}
+	}
+
+	/**
+	 * Value of pixel P in slice T of the window
+	 */
+	private float valueOf(int t, int p)
+	{
+		return this.ring[t % this.windowSize][p];
+	}
+
+	/**
+	 * Push slice T of value V at the back of the deque of pixel P after dropping the
+	 * slices it dominates, so the front of the deque is always the extremum
+	 */
+	private void pushDeque(int p, int t, float v)
+	{
+		boolean max = (this.method == ZProjector.MAX_METHOD);
+		while(this.dequeSize[p] > 0)
+		{
+			int back = (this.dequeHead[p] + this.dequeSize[p] - 1) % this.windowSize;
+			float last = this.valueOf(this.dequeSlice[back][p], p);
+			if(max ? last > v : last < v) break;
+			this.dequeSize[p]--;
+		}
+		int tail = (this.dequeHead[p] + this.dequeSize[p]) % this.windowSize;
+		this.dequeSlice[tail][p] = t;
+		this.dequeSize[p]++;
+	}
+
+	/**
+	 * Rearrange the first N values of A so that A[K] is the value of rank K, the values
+	 * before it being smaller or equal and the ones after it larger or equal. Return A[K].
+	 */
+	private static float select(float[] a, int n, int k)
+	{
+		int lo = 0, hi = n - 1;
+		while(lo < hi)
+		{
+			float pivot = a[(lo + hi) >>> 1];
+			int i = lo, j = hi;
+			while(i <= j)
+			{
+				while(a[i] < pivot) i++;
+				while(a[j] > pivot) j--;
+				if(i <= j)
+				{
+					float tmp = a[i];
+					a[i] = a[j];
+					a[j] = tmp;
+					i++;
+					j--;
+				}
+			}
+			if(k <= j) hi = j;
+			else if(k >= i) lo = i;
+			else break;
+		}
+		return a[k];
+	}
+}
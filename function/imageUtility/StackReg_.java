@@ -57,6 +57,7 @@ import ij.process.Blitter;
 import ij.process.ByteProcessor;
 import ij.process.FloatProcessor;
 import ij.process.ImageConverter;
+import ij.process.ImageProcessor;
 import ij.process.ShortProcessor;
 
 import java.awt.BorderLayout;
@@ -71,6 +72,8 @@ import java.awt.TextArea;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.image.IndexColorModel;
+import java.io.File;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import jex.statics.JEXStatics;
 
@@ -88,6 +91,18 @@ public class StackReg_ implements PlugIn
 	Private global variables
 ....................................................................*/
 private static final double TINY = Float.intBitsToFloat(0x33FFFFFF);
+private static final AtomicInteger instances = new AtomicInteger(0);
+
+/* Temporary files handed to TurboReg_ are named after each instance so that
+	several stacks can be registered at the same time */
+private final String tempName = "StackReg" + instances.incrementAndGet();
+
+/* State of a stack registered frame by frame */
+private ImagePlus streamSource = null;
+private ImagePlus streamTarget = null;
+private double[][] streamTransform = null;
+private double[][] streamAnchorPoints = null;
+private int streamTransformation = -1;
 
 /*....................................................................
 	Public methods
@@ -192,21 +207,21 @@ public void run (final String arg) {
 		case ImagePlus.COLOR_RGB: {
 			colorWeights = getColorWeightsFromPrincipalComponents(imp);
 			imp.setSlice(targetSlice);
-			target = getGray32("StackRegTarget", imp, colorWeights);
+			target = getGray32(tempName + "Target", imp, colorWeights);
 			break;
 		}
 		case ImagePlus.GRAY8: {
-			target = new ImagePlus("StackRegTarget", new ByteProcessor(width, height, new byte[width * height], imp.getProcessor().getColorModel()));
+			target = new ImagePlus(tempName + "Target", new ByteProcessor(width, height, new byte[width * height], imp.getProcessor().getColorModel()));
 			target.getProcessor().copyBits(imp.getProcessor(), 0, 0, Blitter.COPY);
 			break;
 		}
 		case ImagePlus.GRAY16: {
-			target = new ImagePlus("StackRegTarget", new ShortProcessor(width, height, new short[width * height], imp.getProcessor().getColorModel()));
+			target = new ImagePlus(tempName + "Target", new ShortProcessor(width, height, new short[width * height], imp.getProcessor().getColorModel()));
 			target.getProcessor().copyBits(imp.getProcessor(), 0, 0, Blitter.COPY);
 			break;
 		}
 		case ImagePlus.GRAY32: {
-			target = new ImagePlus("StackRegTarget", new FloatProcessor(width, height, new float[width * height], imp.getProcessor().getColorModel()));
+			target = new ImagePlus(tempName + "Target", new FloatProcessor(width, height, new float[width * height], imp.getProcessor().getColorModel()));
 			target.getProcessor().copyBits(imp.getProcessor(), 0, 0, Blitter.COPY);
 			break;
 		}
@@ -236,7 +251,7 @@ public void run (final String arg) {
 		switch (imp.getType()) {
 			case ImagePlus.COLOR_256:
 			case ImagePlus.COLOR_RGB: {
-				target = getGray32("StackRegTarget", imp, colorWeights);
+				target = getGray32(tempName + "Target", imp, colorWeights);
 				break;
 			}
 			case ImagePlus.GRAY8:
@@ -294,72 +309,27 @@ public void run (ImagePlus imp, String mode) {
 		{0.0, 1.0, 0.0},
 		{0.0, 0.0, 1.0}
 	};
-	double[][] anchorPoints = null;
-	switch (transformation) {
-		case 0: {
-			anchorPoints = new double[1][3];
-			anchorPoints[0][0] = (double)(width / 2);
-			anchorPoints[0][1] = (double)(height / 2);
-			anchorPoints[0][2] = 1.0;
-			break;
-		}
-		case 1: {
-			anchorPoints = new double[3][3];
-			anchorPoints[0][0] = (double)(width / 2);
-			anchorPoints[0][1] = (double)(height / 2);
-			anchorPoints[0][2] = 1.0;
-			anchorPoints[1][0] = (double)(width / 2);
-			anchorPoints[1][1] = (double)(height / 4);
-			anchorPoints[1][2] = 1.0;
-			anchorPoints[2][0] = (double)(width / 2);
-			anchorPoints[2][1] = (double)((3 * height) / 4);
-			anchorPoints[2][2] = 1.0;
-			break;
-		}
-		case 2: {
-			anchorPoints = new double[2][3];
-			anchorPoints[0][0] = (double)(width / 4);
-			anchorPoints[0][1] = (double)(height / 2);
-			anchorPoints[0][2] = 1.0;
-			anchorPoints[1][0] = (double)((3 * width) / 4);
-			anchorPoints[1][1] = (double)(height / 2);
-			anchorPoints[1][2] = 1.0;
-			break;
-		}
-		case 3: {
-			anchorPoints = new double[3][3];
-			anchorPoints[0][0] = (double)(width / 2);
-			anchorPoints[0][1] = (double)(height / 4);
-			anchorPoints[0][2] = 1.0;
-			anchorPoints[1][0] = (double)(width / 4);
-			anchorPoints[1][1] = (double)((3 * height) / 4);
-			anchorPoints[1][2] = 1.0;
-			anchorPoints[2][0] = (double)((3 * width) / 4);
-			anchorPoints[2][1] = (double)((3 * height) / 4);
-			anchorPoints[2][2] = 1.0;
-			break;
-		}
-		default: {
-			IJ.error("Unexpected transformation");
-			return;
-		}
+	double[][] anchorPoints = getAnchorPoints(transformation, width, height);
+	if (anchorPoints == null) {
+		IJ.error("Unexpected transformation");
+		return;
 	}
 	ImagePlus source = null;
 	ImagePlus target = null;
 	double[] colorWeights = null;
 	switch (imp.getType()) {
 		case ImagePlus.GRAY8: {
-			target = new ImagePlus("StackRegTarget", new ByteProcessor(width, height, new byte[width * height], imp.getProcessor().getColorModel()));
+			target = new ImagePlus(tempName + "Target", new ByteProcessor(width, height, new byte[width * height], imp.getProcessor().getColorModel()));
 			target.getProcessor().copyBits(imp.getProcessor(), 0, 0, Blitter.COPY);
 			break;
 		}
 		case ImagePlus.GRAY16: {
-			target = new ImagePlus("StackRegTarget", new ShortProcessor(width, height, new short[width * height], imp.getProcessor().getColorModel()));
+			target = new ImagePlus(tempName + "Target", new ShortProcessor(width, height, new short[width * height], imp.getProcessor().getColorModel()));
 			target.getProcessor().copyBits(imp.getProcessor(), 0, 0, Blitter.COPY);
 			break;
 		}
 		case ImagePlus.GRAY32: {
-			target = new ImagePlus("StackRegTarget", new FloatProcessor(width, height, new float[width * height], imp.getProcessor().getColorModel()));
+			target = new ImagePlus(tempName + "Target", new FloatProcessor(width, height, new float[width * height], imp.getProcessor().getColorModel()));
 			target.getProcessor().copyBits(imp.getProcessor(), 0, 0, Blitter.COPY);
 			break;
 		}
@@ -418,6 +388,71 @@ public void run (ImagePlus imp, String mode) {
 	imp.setSlice(targetSlice);
 } /* end run */
 
+/********************************************************************/
+/* Start registering a stack frame by frame: each frame is aligned on
+	the previous one as it is given to registerNext, so only the previous
+	frame is kept in memory. The result is the same as run(imp, mode)
+	with the first slice as target.
+	Returns false if the mode or the type of the image is not supported. */
+public boolean startStream (ImageProcessor first, String mode) {
+	streamTransformation = getTransformation(mode);
+	if (streamTransformation == -1) {
+		return(false);
+	}
+	final int width = first.getWidth();
+	final int height = first.getHeight();
+	ImageProcessor copy = null;
+	if (first instanceof ByteProcessor) {
+		copy = new ByteProcessor(width, height, new byte[width * height], first.getColorModel());
+	}
+	else if (first instanceof ShortProcessor) {
+		copy = new ShortProcessor(width, height, new short[width * height], first.getColorModel());
+	}
+	else if (first instanceof FloatProcessor) {
+		copy = new FloatProcessor(width, height, new float[width * height], first.getColorModel());
+	}
+	else {
+		return(false);
+	}
+	copy.copyBits(first, 0, 0, Blitter.COPY);
+	streamTarget = new ImagePlus(tempName + "Target", copy);
+	streamSource = null;
+	streamTransform = new double[][] {
+		{1.0, 0.0, 0.0},
+		{0.0, 1.0, 0.0},
+		{0.0, 0.0, 1.0}
+	};
+	streamAnchorPoints = getAnchorPoints(streamTransformation, width, height);
+	return(true);
+} /* end startStream */
+
+/********************************************************************/
+/* Register the next frame of the stack started with startStream.
+	Returns the aligned frame or null if the registration failed. */
+public ImageProcessor registerNext (ImageProcessor frame) {
+	if (streamTarget == null) {
+		return(null);
+	}
+	final ImagePlus imp = new ImagePlus(tempName, frame);
+	streamSource = registerSlice(streamSource, streamTarget, imp, frame.getWidth(), frame.getHeight(),
+		streamTransformation, streamTransform, streamAnchorPoints, null, 1);
+	if (streamSource == null) {
+		return(null);
+	}
+	return(imp.getProcessor());
+} /* end registerNext */
+
+/********************************************************************/
+/* Forget the state of the stack registered frame by frame and delete
+	the temporary files of this instance */
+public void endStream () {
+	streamSource = null;
+	streamTarget = null;
+	streamTransform = null;
+	new File(IJ.getDirectory("temp") + tempName + "Source").delete();
+	new File(IJ.getDirectory("temp") + tempName + "Target").delete();
+} /* end endStream */
+
 /*....................................................................
 	Private methods
 ....................................................................*/
@@ -1112,6 +1147,74 @@ private void QRdecomposition (
 	}
 } /* end QRdecomposition */
 
+/*------------------------------------------------------------------*/
+private double[][] getAnchorPoints (
+	final int transformation,
+	final int width,
+	final int height
+) {
+	double[][] anchorPoints = null;
+	switch (transformation) {
+		case 0: {
+			anchorPoints = new double[1][3];
+			anchorPoints[0][0] = (double)(width / 2);
+			anchorPoints[0][1] = (double)(height / 2);
+			anchorPoints[0][2] = 1.0;
+			break;
+		}
+		case 1: {
+			anchorPoints = new double[3][3];
+			anchorPoints[0][0] = (double)(width / 2);
+			anchorPoints[0][1] = (double)(height / 2);
+			anchorPoints[0][2] = 1.0;
+			anchorPoints[1][0] = (double)(width / 2);
+			anchorPoints[1][1] = (double)(height / 4);
+			anchorPoints[1][2] = 1.0;
+			anchorPoints[2][0] = (double)(width / 2);
+			anchorPoints[2][1] = (double)((3 * height) / 4);
+			anchorPoints[2][2] = 1.0;
+			break;
+		}
+		case 2: {
+			anchorPoints = new double[2][3];
+			anchorPoints[0][0] = (double)(width / 4);
+			anchorPoints[0][1] = (double)(height / 2);
+			anchorPoints[0][2] = 1.0;
+			anchorPoints[1][0] = (double)((3 * width) / 4);
+			anchorPoints[1][1] = (double)(height / 2);
+			anchorPoints[1][2] = 1.0;
+			break;
+		}
+		case 3: {
+			anchorPoints = new double[3][3];
+			anchorPoints[0][0] = (double)(width / 2);
+			anchorPoints[0][1] = (double)(height / 4);
+			anchorPoints[0][2] = 1.0;
+			anchorPoints[1][0] = (double)(width / 4);
+			anchorPoints[1][1] = (double)((3 * height) / 4);
+			anchorPoints[1][2] = 1.0;
+			anchorPoints[2][0] = (double)((3 * width) / 4);
+			anchorPoints[2][1] = (double)((3 * height) / 4);
+			anchorPoints[2][2] = 1.0;
+			break;
+		}
+	}
+	return(anchorPoints);
+} /* end getAnchorPoints */
+
+/*------------------------------------------------------------------*/
+private int getTransformation (
+	final String mode
+) {
+	final String[] transformationItem = {"Translation","Rigid Body","Scaled Rotation","Affine"};
+	for (int i=0, len=transformationItem.length; i<len; i++){
+		if (transformationItem[i].equals(mode)){
+			return(i);
+		}
+	}
+	return(-1);
+} /* end getTransformation */
+
 /*------------------------------------------------------------------*/
 private ImagePlus registerSlice (
 	ImagePlus source,
@@ -1135,15 +1238,15 @@ private ImagePlus registerSlice (
 	double[][] localTransform = null;
 	switch (imp.getType()) {
 	case ImagePlus.GRAY8: {
-		source = new ImagePlus("StackRegSource", new ByteProcessor(width, height, (byte[])imp.getProcessor().getPixels(),imp.getProcessor().getColorModel()));
+		source = new ImagePlus(tempName + "Source", new ByteProcessor(width, height, (byte[])imp.getProcessor().getPixels(),imp.getProcessor().getColorModel()));
 		break;
 	}
 	case ImagePlus.GRAY16: {
-		source = new ImagePlus("StackRegSource", new ShortProcessor(width, height, (short[])imp.getProcessor().getPixels(),imp.getProcessor().getColorModel()));
+		source = new ImagePlus(tempName + "Source", new ShortProcessor(width, height, (short[])imp.getProcessor().getPixels(),imp.getProcessor().getColorModel()));
 		break;
 	}
 	case ImagePlus.GRAY32: {
-		source = new ImagePlus("StackRegSource", new FloatProcessor(width, height, (float[])imp.getProcessor().getPixels(),imp.getProcessor().getColorModel()));
+		source = new ImagePlus(tempName + "Source", new FloatProcessor(width, height, (float[])imp.getProcessor().getPixels(),imp.getProcessor().getColorModel()));
 		break;
 	}
 	default: {
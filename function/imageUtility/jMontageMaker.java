@@ -18,6 +18,7 @@ import java.awt.Color;
 import java.awt.Image;
 import java.io.File;
 import java.io.IOException;
+import utilities.ImageCache;
 
 
 /** Implements the Image/Stacks/Make Montage command. */
@@ -72,7 +73,7 @@ public class jMontageMaker implements PlugIn {
 		
 		ImagePlus imp = null;
 		try {
-			imp = new ImagePlus(result[0].getCanonicalPath());
+			imp = ImageCache.getImagePlus(result[0].getCanonicalPath());
 		} catch (IOException e) {
 			e.printStackTrace();
 		}
@@ -183,7 +184,7 @@ public class jMontageMaker implements PlugIn {
     public static ImagePlus makeMontage(File[] imageList, int columns, int rows, double scale, int first, int last, int inc, int borderWidth, boolean labels, boolean quiet) {
         ImagePlus imp = null;
 		try {
-			imp = new ImagePlus(imageList[0].getCanonicalPath());
+			imp = ImageCache.getImagePlus(imageList[0].getCanonicalPath());
 		} catch (IOException e) {
 			e.printStackTrace();
 		}
@@ -244,7 +245,7 @@ public class jMontageMaker implements PlugIn {
         while (slice<=last) {
         	ImagePlus nextImp = null;
     		try {
-    			nextImp = new ImagePlus(imageList[index].getCanonicalPath());
+    			nextImp = ImageCache.getImagePlus(imageList[index].getCanonicalPath());
     			System.out.println("   jMontageMaker ---> Montaging figure number "+index+" at path "+imageList[index].getCanonicalPath());
     		} catch (IOException e) {
     			e.printStackTrace();
@@ -0,0 +1,326 @@
+package function.tracker;
+
+import image.roi.IdPoint;
+import image.roi.PointGrid;
+import image.roi.PointList;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Vector;
+
+import utilities.Pair;
+
+/**
+ * Frame to frame linking of points as a linear assignment problem.
+ *
+ * Each point of the previous frame (or predicted position of a track) can be linked to
+ * a point of the new frame within MAXDISTANCE at the cost of their distance, be left
+ * without a point at the cost ENDCOST, and each new point can start a new track at the
+ * cost STARTCOST. The links minimizing the total cost are found on the augmented cost
+ * matrix (links, endings and starts) stored as sparse rows holding only the possible
+ * links, with shortest augmenting paths as in the sparse Jonker-Volgenant algorithm.
+ * Each augmentation only explores the links around the point it assigns so the cost
+ * stays close to linear in the number of points even when all the points of the frame
+ * are connected by possible links.
+ */
+public class LinearAssignment {
+
+	/**
+	 * Link the points FROM to the points TO
+	 * @param from
+	 * @param to
+	 * @param maxDistance
+	 * @param endCost cost of leaving a point of FROM unlinked
+	 * @param startCost cost of leaving a point of TO unlinked
+	 * @return for each point of FROM the index of its point in TO or -1
+	 */
+	public static int[] link(List<? extends Point> from, List<? extends Point> to, double maxDistance, double endCost, double startCost)
+	{
+		int n = from.size(), m = to.size();
+		int[] result = new int[n];
+		Arrays.fill(result, -1);
+		if(n == 0 || m == 0) return result;
+
+		// Find the possible links, the ids of the grid points are their index in TO
+		PointList indexed = new PointList();
+		for(int j = 0; j < m; j++)
+		{
+			indexed.add(new IdPoint(to.get(j), j));
+		}
+		PointGrid grid = new PointGrid(indexed, maxDistance);
+		List<int[]> links = new ArrayList<int[]>();
+		int[] fromDegree = new int[n], toDegree = new int[m];
+		for(int i = 0; i < n; i++)
+		{
+			Point p = from.get(i);
+			for(IdPoint q : grid.getInRange(p, maxDistance, false))
+			{
+				if(p.distance(q) >= maxDistance) continue;
+				links.add(new int[]{i, q.id});
+				fromDegree[i]++;
+				toDegree[q.id]++;
+			}
+		}
+
+		// Sparse augmented matrix, rows are the points of FROM then the starts of the points
+		// of TO, columns are the points of TO then the endings of the points of FROM
+		int size = n + m;
+		int[] rowStart = new int[size + 1];
+		for(int i = 0; i < n; i++) rowStart[i + 1] = rowStart[i] + fromDegree[i] + 1;
+		for(int j = 0; j < m; j++) rowStart[n + j + 1] = rowStart[n + j] + toDegree[j] + 1;
+		int[] cols = new int[rowStart[size]];
+		double[] costs = new double[rowStart[size]];
+		int[] next = Arrays.copyOf(rowStart, size);
+		for(int i = 0; i < n; i++)
+		{
+			cols[next[i]] = m + i;
+			costs[next[i]++] = endCost;
+		}
+		for(int j = 0; j < m; j++)
+		{
+			cols[next[n + j]] = j;
+			costs[next[n + j]++] = startCost;
+		}
+		for(int[] link : links)
+		{
+			int i = link[0], j = link[1];
+			cols[next[i]] = j;
+			costs[next[i]++] = from.get(i).distance(to.get(j));
+			cols[next[n + j]] = m + i;
+			costs[next[n + j]++] = 0;
+		}
+
+		int[] assignment = solve(rowStart, cols, costs, size);
+		for(int i = 0; i < n; i++)
+		{
+			if(assignment[i] < m) result[i] = assignment[i];
+		}
+		return result;
+	}
+
+	/**
+	 * Same as HashedPointList.getNearestNeighbors followed by filterConflicts but the pairs
+	 * minimize the total distance instead of being chosen greedily
+	 * @param l1
+	 * @param l2
+	 * @param radius
+	 * @return a pair for each point of L1 with its point in L2 or null
+	 */
+	public static List<Pair<IdPoint,IdPoint>> getAssignedNeighbors(PointList l1, PointList l2, double radius)
+	{
+		int[] links = link(l1, l2, radius, radius, radius);
+		List<Pair<IdPoint,IdPoint>> ret = new Vector<Pair<IdPoint,IdPoint>>();
+		for(int i = 0; i < links.length; i++)
+		{
+			IdPoint p2 = (links[i] < 0) ? null : l2.get(links[i]);
+			ret.add(new Pair<IdPoint,IdPoint>(l1.get(i), p2));
+		}
+		return ret;
+	}
+
+	/**
+	 * Minimum cost assignment of the rows of a sparse cost matrix to its columns. The
+	 * entries of row r are COLS[k] and COSTS[k] for k from ROWSTART[r] to ROWSTART[r+1]-1,
+	 * missing entries are forbidden. Each free row is assigned by a shortest augmenting
+	 * path (Dijkstra on the reduced costs) stopped at the first free column reached.
+	 * @param rowStart
+	 * @param cols
+	 * @param costs
+	 * @param nCols
+	 * @return the column assigned to each row
+	 * @throws IllegalArgumentException if the rows cannot all be assigned
+	 */
+	public static int[] solve(int[] rowStart, int[] cols, double[] costs, int nCols)
+	{
+		int nRows = rowStart.length - 1;
+		int[] colOf = new int[nRows], rowOf = new int[nCols];
+		Arrays.fill(colOf, -1);
+		Arrays.fill(rowOf, -1);
+		double[] assignedCost = new double[nRows];
+
+		// Column potentials, the reduced cost of entry (i,k) is costs - v[k] minus that of the column of row i
+		double[] v = new double[nCols];
+		double[] d = new double[nCols], predCost = new double[nCols];
+		Arrays.fill(d, Double.POSITIVE_INFINITY);
+		int[] pred = new int[nCols];
+		boolean[] scanned = new boolean[nCols];
+		int[] touched = new int[nCols], scannedOrder = new int[nCols];
+		ColumnHeap heap = new ColumnHeap(d);
+
+		for(int f = 0; f < nRows; f++)
+		{
+			int nTouched = 0, nScanned = 0;
+			for(int e = rowStart[f]; e < rowStart[f + 1]; e++)
+			{
+				int k = cols[e];
+				double h = costs[e] - v[k];
+				if(h < d[k])
+				{
+					if(d[k] == Double.POSITIVE_INFINITY) touched[nTouched++] = k;
+					d[k] = h;
+					pred[k] = f;
+					predCost[k] = costs[e];
+					heap.update(k);
+				}
+			}
+
+			// Dijkstra until a free column is reached
+			int free = -1;
+			while(!heap.isEmpty())
+			{
+				int j = heap.poll();
+				scanned[j] = true;
+				scannedOrder[nScanned++] = j;
+				if(rowOf[j] < 0)
+				{
+					free = j;
+					break;
+				}
+				int i = rowOf[j];
+				double base = d[j] - (assignedCost[i] - v[j]);
+				for(int e = rowStart[i]; e < rowStart[i + 1]; e++)
+				{
+					int k = cols[e];
+					if(scanned[k]) continue;
+					double h = base + costs[e] - v[k];
+					if(h < d[k])
+					{
+						if(d[k] == Double.POSITIVE_INFINITY) touched[nTouched++] = k;
+						d[k] = h;
+						pred[k] = i;
+						predCost[k] = costs[e];
+						heap.update(k);
+					}
+				}
+			}
+			if(free < 0)
+			{
+				throw new IllegalArgumentException("Row " + f + " cannot be assigned to any free column");
+			}
+
+			// Update the potentials of the columns scanned before the free one
+			double dmin = d[free];
+			for(int t = 0; t < nScanned - 1; t++)
+			{
+				int k = scannedOrder[t];
+				v[k] = v[k] + d[k] - dmin;
+			}
+
+			// Augment along the path
+			int j = free;
+			while(true)
+			{
+				int i = pred[j];
+				int old = colOf[i];
+				rowOf[j] = i;
+				colOf[i] = j;
+				assignedCost[i] = predCost[j];
+				if(i == f) break;
+				j = old;
+			}
+
+			// Reset only what this search touched
+			for(int t = 0; t < nTouched; t++)
+			{
+				int k = touched[t];
+				d[k] = Double.POSITIVE_INFINITY;
+				scanned[k] = false;
+			}
+			heap.clear();
+		}
+		return colOf;
+	}
+
+	/**
+	 * Binary min-heap of columns keyed by their tentative distance
+	 */
+	private static class ColumnHeap {
+		private double[] key;
+		private int[] heap, position;
+		private int size = 0;
+
+		ColumnHeap(double[] key)
+		{
+			this.key = key;
+			this.heap = new int[key.length];
+			this.position = new int[key.length];
+			Arrays.fill(this.position, -1);
+		}
+
+		boolean isEmpty()
+		{
+			return this.size == 0;
+		}
+
+		/**
+		 * Insert K or move it up after its key decreased
+		 */
+		void update(int k)
+		{
+			if(this.position[k] < 0)
+			{
+				this.heap[this.size] = k;
+				this.position[k] = this.size;
+				this.size++;
+			}
+			this.siftUp(this.position[k]);
+		}
+
+		int poll()
+		{
+			int top = this.heap[0];
+			this.position[top] = -1;
+			this.size--;
+			if(this.size > 0)
+			{
+				this.heap[0] = this.heap[this.size];
+				this.position[this.heap[0]] = 0;
+				this.siftDown(0);
+			}
+			return top;
+		}
+
+		void clear()
+		{
+			for(int t = 0; t < this.size; t++)
+			{
+				this.position[this.heap[t]] = -1;
+			}
+			this.size = 0;
+		}
+
+		private void siftUp(int index)
+		{
+			int k = this.heap[index];
+			while(index > 0)
+			{
+				int parent = (index - 1) >> 1;
+				if(this.key[this.heap[parent]] <= this.key[k]) break;
+				this.heap[index] = this.heap[parent];
+				this.position[this.heap[index]] = index;
+				index = parent;
+			}
+			this.heap[index] = k;
+			this.position[k] = index;
+		}
+
+		private void siftDown(int index)
+		{
+			int k = this.heap[index];
+			while(true)
+			{
+				int child = 2 * index + 1;
+				if(child >= this.size) break;
+				if(child + 1 < this.size && this.key[this.heap[child + 1]] < this.key[this.heap[child]]) child++;
+				if(this.key[this.heap[child]] >= this.key[k]) break;
+				this.heap[index] = this.heap[child];
+				this.position[this.heap[index]] = index;
+				index = child;
+			}
+			this.heap[index] = k;
+			this.position[k] = index;
+		}
+	}
+}
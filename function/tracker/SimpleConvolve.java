@@ -8,13 +8,9 @@ import ij.process.ImageProcessor;
 import ij.process.ImageStatistics;
 
 import java.awt.Rectangle;
-import java.awt.image.BufferedImage;
-import java.awt.image.ColorModel;
-import java.awt.image.ConvolveOp;
 import java.awt.image.Kernel;
 
 import jex.statics.JEXStatics;
-import utilities.ImageUtility;
 import utilities.StopWatch;
 
 public class SimpleConvolve {
@@ -83,34 +79,32 @@ public class SimpleConvolve {
 	
 	public ImageProcessor convolve(ImageProcessor arg, ImageProcessor kernel){
 		JEXStatics.logManager.log("Averaging typical cell image ",1,this);
-//		int w = arg.getWidth() - smallImageWidth;
-//		int h = arg.getHeight() - smallImageHeight;
 		int w = arg.getWidth() ;
 		int h = arg.getHeight() ;
 		
-		// normalize the kernel
-		kernel = this.getAdjustedImage(kernel);
-		
-		// pass the small image on every location x and y inside the ROI
-//		float maximum = 0;
-		int startY = Math.max((int) roi.getY(), 0);
-		int endY = Math.min(startY+(int)roi.getHeight(), h-smallImageHeight);
-		int startX = Math.max((int) roi.getX(), 0);
-		int endX = Math.min(startX+(int)roi.getWidth(), w-smallImageWidth);
-
+		// Score of the kernel minus its mean at every location x and y inside the ROI,
+		// computed for all the locations at once in the frequency domain
 		JEXStatics.logManager.log("Convolving ... ",1,this);
-		ImageProcessor result = new FloatProcessor(w,h);
-		for (int i=startY, len=endY; i<len; i++){
-			for (int j=startX, len2=endX; j<len2; j++){
-				float value = scoreConvolution(arg,kernel,i,j);
-				result.putPixelValue(j, i, value);
+		TemplateMatcher matcher = new TemplateMatcher(kernel, w, h);
+		float[] scores = (float[]) matcher.correlate(arg).getPixels();
+		int kw = matcher.getTemplateWidth(), kh = matcher.getTemplateHeight();
+		int ox = (kw-1)/2, oy = (kh-1)/2;
+		double n = kw*kh;
+		
+		Rectangle r = (roi == null) ? new Rectangle(0,0,w,h) : roi;
+		int startY = Math.max((int) r.getY(), 0);
+		int endY = Math.min(startY+(int)r.getHeight(), h-kh+1);
+		int startX = Math.max((int) r.getX(), 0);
+		int endX = Math.min(startX+(int)r.getWidth(), w-kw+1);
+		
+		float[] result = new float[w*h];
+		for (int i=startY; i<endY; i++){
+			for (int j=startX; j<endX; j++){
+				result[i*w + j] = (float) (scores[(i+oy)*w + j+ox] / n);
 			}
 		}
 		
-		ImagePlus finIm = new ImagePlus("",result);
-		finIm.show();
-		
-		return result;
+		return new FloatProcessor(w,h,result,null);
 	}
 	
 	public ImageProcessor getAdjustedImage(ImageProcessor raw){
@@ -296,34 +290,60 @@ public class SimpleConvolve {
 	}
 
 	/**
-	 * Faster convolution operation using implemented functions of awt.image
+	 * Faster convolution operation, computed in the frequency domain
 	 * @param im
 	 * @param convIm
 	 * @return
 	 */
 	public ImagePlus makeConvolution(ImagePlus im, ImagePlus convIm){
-		// Make bufferedimage source
-		BufferedImage bim = ImageUtility.imagePlus2BufferedImage(im);
-		
-		// make the kernel
-		FloatProcessor convFloat = (FloatProcessor) convIm.getProcessor().convertToFloat();
-		float[][] convMat = convFloat.getFloatArray();
-		Kernel kernel = makeConvolutionKernel(convMat, convIm, im);
-		
-		// Make the convolution operator
-		ConvolveOp convolver = new ConvolveOp(kernel);
-		
-		// Make the destination image
-		ColorModel model = im.getProcessor().getColorModel();
-		BufferedImage out = convolver.createCompatibleDestImage(bim, model);
-		
-		// Do the convolution
-		out = convolver.filter(bim, out);
-		
-		// Transform the buffered image into imageplus and return
-		ImagePlus result = new ImagePlus("",out);
+		TemplateMatcher matcher = makeConvolutionMatcher(convIm, im.getWidth(), im.getHeight());
+		ImagePlus result = new ImagePlus("",makeConvolution(matcher, im.getProcessor()));
 		return result;
 	}
+	
+	/**
+	 * Make the matcher used by makeConvolution for images of size WIDTH x HEIGHT, the
+	 * transform of the convolution image is computed once and the matcher can be used
+	 * for all the images of a stack, from several threads
+	 * @param convIm
+	 * @param width
+	 * @param height
+	 * @return
+	 */
+	public static TemplateMatcher makeConvolutionMatcher(ImagePlus convIm, int width, int height){
+		// A convolution is the correlation with the flipped kernel
+		ImageProcessor flipped = convIm.getProcessor().convertToFloat().duplicate();
+		flipped.flipHorizontal();
+		flipped.flipVertical();
+		return new TemplateMatcher(flipped, width, height);
+	}
+	
+	/**
+	 * Convolve the 8 bit version of IMP with the kernel of makeConvolutionKernel, clamped
+	 * to 0-255 with the edges set to 0 as java.awt.image.ConvolveOp did
+	 * @param matcher from makeConvolutionMatcher
+	 * @param imp
+	 * @return
+	 */
+	public static ByteProcessor makeConvolution(TemplateMatcher matcher, ImageProcessor imp){
+		ImageProcessor source = (imp instanceof ByteProcessor) ? imp : imp.convertToByte(true);
+		float[] conv = (float[]) matcher.correlate(source).getPixels();
+		
+		// The kernel of ConvolveOp is one pixel further for even sizes but its edges are the same
+		int w = source.getWidth(), h = source.getHeight();
+		int tw = matcher.getTemplateWidth(), th = matcher.getTemplateHeight();
+		int dx = 1 - tw % 2, dy = 1 - th % 2;
+		int endX = w - tw/2, endY = h - th/2;
+		double scale = 255 / matcher.getTemplateEnergy();
+		byte[] pixels = new byte[w*h];
+		for (int y=dy; y<endY; y++){
+			for (int x=dx; x<endX; x++){
+				double v = scale * conv[(y-dy)*w + x-dx];
+				pixels[y*w + x] = (byte) Math.max(0, Math.min(255, (int) v));
+			}
+		}
+		return new ByteProcessor(w, h, pixels, null);
+	}
 
 	/**
 	 * Return the score of the convolution of image CELLIMAGE in image IMAGE at location P
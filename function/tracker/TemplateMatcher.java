@@ -0,0 +1,188 @@
+package function.tracker;
+
+import ij.process.FHT;
+import ij.process.FloatProcessor;
+import ij.process.ImageProcessor;
+
+/**
+ * Template matching in the frequency domain.
+ *
+ * The score of the template at each position of an image is the correlation of the image
+ * with the template minus its mean. Computing it pixel by pixel costs W*H*w*h operations,
+ * here it is the product of the Hartley transforms of the image and of the template, i.e.
+ * O(N^2 log N) for images padded to N x N whatever the size of the template. The
+ * transform of the template is computed once and shared by all the images (and threads)
+ * matched with the same matcher.
+ *
+ * The normalized cross-correlation divides each score by the norms of the template and
+ * of the image window minus its mean, the sums of the windows are read from integral
+ * images of the values and of their squares.
+ *
+ * Scores are put at the center of the template (pixel ((w-1)/2, (h-1)/2) of the
+ * template) as a convolution kernel would and are 0 where the template does not fit in
+ * the image.
+ */
+public class TemplateMatcher {
+
+	private int width, height;   // size of the images
+	private int tw, th;          // size of the template
+	private int size;            // side of the transforms
+	private FHT templateTransform;
+	private double templateNorm; // norm of the template minus its mean
+
+	/**
+	 * @param template
+	 * @param width width of the images that will be matched
+	 * @param height height of the images that will be matched
+	 */
+	public TemplateMatcher(ImageProcessor template, int width, int height)
+	{
+		this.width = width;
+		this.height = height;
+		this.tw = template.getWidth();
+		this.th = template.getHeight();
+		this.size = 2;
+		while(this.size < Math.max(Math.max(width, height), Math.max(this.tw, this.th)))
+		{
+			this.size = 2 * this.size;
+		}
+
+		// Template minus its mean in the corner of a padded image
+		int n = this.tw * this.th;
+		double mean = 0;
+		for(int p = 0; p < n; p++)
+		{
+			mean += template.getf(p);
+		}
+		mean = mean / n;
+		float[] padded = new float[this.size * this.size];
+		double sum2 = 0;
+		for(int y = 0; y < this.th; y++)
+		{
+			for(int x = 0; x < this.tw; x++)
+			{
+				double v = template.getf(x, y) - mean;
+				padded[y * this.size + x] = (float) v;
+				sum2 += v * v;
+			}
+		}
+		this.templateNorm = Math.sqrt(sum2);
+		this.templateTransform = transform(padded, this.size);
+	}
+
+	public int getTemplateWidth()
+	{
+		return this.tw;
+	}
+
+	public int getTemplateHeight()
+	{
+		return this.th;
+	}
+
+	/**
+	 * Sum of the squares of the template minus its mean
+	 * @return
+	 */
+	public double getTemplateEnergy()
+	{
+		return this.templateNorm * this.templateNorm;
+	}
+
+	/**
+	 * Correlation of IMAGE with the template minus its mean
+	 * @param image
+	 * @return
+	 */
+	public FloatProcessor correlate(ImageProcessor image)
+	{
+		float[] c = this.correlation(image);
+		float[] result = new float[this.width * this.height];
+		int ox = (this.tw - 1) / 2, oy = (this.th - 1) / 2;
+		for(int y = 0; y <= this.height - this.th; y++)
+		{
+			for(int x = 0; x <= this.width - this.tw; x++)
+			{
+				result[(y + oy) * this.width + x + ox] = c[y * this.size + x];
+			}
+		}
+		return new FloatProcessor(this.width, this.height, result, null);
+	}
+
+	/**
+	 * Normalized cross-correlation of IMAGE and the template, between -1 and 1 (0 for
+	 * flat windows)
+	 * @param image
+	 * @return
+	 */
+	public FloatProcessor normalizedCorrelate(ImageProcessor image)
+	{
+		float[] c = this.correlation(image);
+
+		// Integral images of the values and of their squares, one row and column larger
+		int w1 = this.width + 1;
+		double[] s = new double[w1 * (this.height + 1)];
+		double[] s2 = new double[w1 * (this.height + 1)];
+		for(int y = 0; y < this.height; y++)
+		{
+			double row = 0, row2 = 0;
+			for(int x = 0; x < this.width; x++)
+			{
+				double v = image.getf(x, y);
+				row += v;
+				row2 += v * v;
+				s[(y + 1) * w1 + x + 1] = s[y * w1 + x + 1] + row;
+				s2[(y + 1) * w1 + x + 1] = s2[y * w1 + x + 1] + row2;
+			}
+		}
+
+		float[] result = new float[this.width * this.height];
+		int ox = (this.tw - 1) / 2, oy = (this.th - 1) / 2;
+		double n = this.tw * this.th;
+		for(int y = 0; y <= this.height - this.th; y++)
+		{
+			for(int x = 0; x <= this.width - this.tw; x++)
+			{
+				int a = y * w1 + x, b = a + this.tw, d = (y + this.th) * w1 + x, e = d + this.tw;
+				double sum = s[e] - s[b] - s[d] + s[a];
+				double sum2 = s2[e] - s2[b] - s2[d] + s2[a];
+				double var = sum2 - sum * sum / n;
+				double norm = (var > 0) ? Math.sqrt(var) * this.templateNorm : 0;
+				// The template has a mean of 0 so its correlation with the window is that of the window minus its mean
+				result[(y + oy) * this.width + x + ox] = (norm > 0) ? (float) (c[y * this.size + x] / norm) : 0;
+			}
+		}
+		return new FloatProcessor(this.width, this.height, result, null);
+	}
+
+	/**
+	 * Return C with C[y*size+x] the correlation of the template with the window of IMAGE at (x,y)
+	 */
+	private float[] correlation(ImageProcessor image)
+	{
+		if(image.getWidth() != this.width || image.getHeight() != this.height)
+		{
+			throw new IllegalArgumentException("Image of size " + image.getWidth() + "x" + image.getHeight() + " for a matcher of size " + this.width + "x" + this.height);
+		}
+		float[] padded = new float[this.size * this.size];
+		for(int y = 0; y < this.height; y++)
+		{
+			for(int x = 0; x < this.width; x++)
+			{
+				padded[y * this.size + x] = image.getf(x, y);
+			}
+		}
+		FHT product = transform(padded, this.size).conjugateMultiply(this.templateTransform);
+		product.setShowProgress(false);
+		product.inverseTransform();
+		return (float[]) product.getPixels();
+	}
+
+	private static FHT transform(float[] pixels, int size)
+	{
+		FHT fht = new FHT(new FloatProcessor(size, size, pixels, null));
+		fht.setShowProgress(false);
+		fht.transform();
+		return fht;
+	}
+}
@@ -10,6 +10,7 @@ import java.util.List;
 public class TrackExtend {
 	public static int EXTEND_TO_CLOSEST = 2;
 	public static int EXTEND_TO_MINIMAL = 1;
+	public static int EXTEND_TO_ASSIGNMENT = 3;
 	
 	// class final variables
 	private double ADDITION_PENALITY = 70;
@@ -74,7 +75,8 @@ public class TrackExtend {
 		activeTrajectories = new ArrayList<Trajectory>(0);
 		for (int i=0, len=allTrajectories.size(); i<len; i++){
 			Trajectory trajectory = allTrajectories.get(i);
-			if (trajectory.isActive(currentImage)){
+			boolean active = (mode == EXTEND_TO_ASSIGNMENT) ? (currentImage - trajectory.length() - 1 <= maxDissapear) : trajectory.isActive(currentImage);
+			if (active){
 				trajectory.trim(currentImage);
 				trajectory.interpolate(currentImage);
 				activeTrajectories.add(trajectory);
@@ -142,6 +144,9 @@ public class TrackExtend {
 		if (mode == EXTEND_TO_CLOSEST){
 			result = closestExtension(activeTrajectories, pList);
 		}
+		else if (mode == EXTEND_TO_ASSIGNMENT){
+			result = assignmentExtension(activeTrajectories, pList);
+		}
 		else if (mode == EXTEND_TO_MINIMAL){
 			boolean OVERFLOW = true;
 			List<Integer>[] possibilities = null;
@@ -514,6 +519,36 @@ public class TrackExtend {
 	}
 	
 	
+	/**
+	 * Return the extension minimizing the sum of the displacements, the track endings and
+	 * the track additions, solved as a linear assignment between the interpolated positions
+	 * of the trajectories (which can have missed up to maxDissapear frames) and the new points
+	 * @param trajectories
+	 * @param pList
+	 * @return
+	 */
+	private List<Point> assignmentExtension(List<Trajectory> trajectories, PointList pList){
+		List<Point> predicted = new ArrayList<Point>(trajectories.size());
+		for (Trajectory trajectory: trajectories){
+			predicted.add(trajectory.interpolatedPoint());
+		}
+		int[] links = LinearAssignment.link(predicted, pList, maxDisplacement, ENDING_PENALITY, ADDITION_PENALITY);
+		
+		boolean[] linked = new boolean[pList.size()];
+		List<Point> result = new ArrayList<Point>(trajectories.size() + pList.size());
+		for (int i=0, len=links.length; i<len; i++){
+			if (links[i] < 0) result.add(new Point(-1,-1));
+			else {
+				result.add(pList.get(links[i]));
+				linked[links[i]] = true;
+			}
+		}
+		for (int j=0, len=pList.size(); j<len; j++){
+			if (!linked[j]) result.add(pList.get(j));
+		}
+		return result;
+	}
+	
 	/**
 	 * Return the distance between the trajectory and a point
 	 * @param p
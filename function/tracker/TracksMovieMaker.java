@@ -15,6 +15,7 @@ import java.util.List;
 
 import jex.statics.JEXStatics;
 import ch.randelshofer.media.quicktime.QuickTimeOutputStream;
+import utilities.ImageCache;
 
 public class TracksMovieMaker {
 	// Variables
@@ -119,7 +120,7 @@ public class TracksMovieMaker {
 
 		// add each image one by one
 		for (int k = 0, len = images.size(); (k < len); k++) {
-			ImagePlus imk = new ImagePlus(images.get(k));
+			ImagePlus imk = ImageCache.getImagePlus(images.get(k));
 			
 			// If the show trail flag is on show the trail, else not
 			BufferedImage bimage = null;
@@ -3,48 +3,31 @@ package image.roi;
 import java.awt.Point;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.TreeMap;
 import java.util.Vector;
 
 import jex.statics.JEXStatics;
 import utilities.Pair;
 
+/**
+ * Nearest point queries and pairing of two lists of points on top of a PointGrid
+ */
 public class HashedPointList implements Comparator<Pair<IdPoint,IdPoint>>{
 	
-	TreeMap<Integer,PointList> xHash = new TreeMap<Integer,PointList>();
-	TreeMap<Integer,PointList> yHash = new TreeMap<Integer,PointList>();
+	PointGrid grid;
 	PointList points;
 	
 	public HashedPointList()
 	{
 		this.points = new PointList();
+		this.grid = new PointGrid(this.points);
 	}
 	
 	public HashedPointList(PointList points)
 	{
 		this.points = points;
-		PointList hashedPoints;
-		for(IdPoint p : points)
-		{
-			// Add to xHash
-			hashedPoints = this.xHash.get(p.x);
-			if(hashedPoints == null)
-			{
-				hashedPoints = new PointList();
-			}
-			hashedPoints.add(p);
-			this.xHash.put(p.x, hashedPoints);
-			
-			// Add to yHash
-			hashedPoints = this.yHash.get(p.y);
-			if(hashedPoints == null)
-			{
-				hashedPoints = new PointList();
-			}
-			hashedPoints.add(p);
-			this.yHash.put(p.y, hashedPoints);
-		}
+		this.grid = new PointGrid(points);
 	}
 	
 	/**
@@ -58,82 +41,32 @@ public class HashedPointList implements Comparator<Pair<IdPoint,IdPoint>>{
 	 */
 	public IdPoint getNearestInRange(Point p, double radius, boolean squareRegion)
 	{
-		PointList xMatches = new PointList();
-		PointList yMatches = new PointList();
-		PointList matches;
-		
-		// Get the points with the x point in the correct range
-		for(int i = 0; i <= radius; i++)
-		{
-			//System.out.println(i);
-			matches = this.xHash.get(p.x+i);
-			if(matches != null) xMatches.addAll(matches);
-			if(i > 0)
-			{
-				matches = this.xHash.get(p.x-i);
-				if(matches != null) xMatches.addAll(matches);
-			}
-		}
-		if(xMatches.size() == 0)
-		{
-			return null;
-		}
-		
-		// Get the points with the y point in the correct range
-		for(int i = 0; i <= radius; i++)
-		{
-			matches = this.yHash.get(p.y+i);
-			if(matches != null) yMatches.addAll(matches);
-			if(i > 0)
-			{
-				matches = this.yHash.get(p.y-i);
-				if(matches != null) yMatches.addAll(matches);
-			}
-		}
-		if(yMatches.size() == 0)
-		{
-			return null;
-		}
-		
-		// Perform the intersection of the match lists
-		xMatches.retainAll(yMatches);
-		if(xMatches.size() == 0)
+		// Get the points in the square of integer half side around p
+		PointList matches = this.grid.getInRange(p, Math.floor(radius), true);
+		if(matches.size() == 0)
 		{
 			return null;
 		}
-		if(xMatches.size() == 1)
-		{
-			return xMatches.get(0);
-		}
 		
-		// Calculate the 'distance measure' from p for each remaining point
-		double[] distance = new double[xMatches.size()];
-		for(int i = 0; i < distance.length; i++)
-		{
-			distance[i] = Math.pow((xMatches.get(i).x-p.x),2) + Math.pow((xMatches.get(i).y-p.y),2);
-		}
-		
-		// Find the min distance and return a new point with those coordinates
+		// Find the nearest point
 		// Set the minimum radius to be that of the corners of the searched square region
 		// or the circle that fits within that square
-		double min=radius*radius; 
+		double min = radius*radius; 
 		if(squareRegion)
 		{
 			min = min * Math.sqrt(2);
 		}
-		for(int i = 0; i < distance.length; i++)
-		{
-			min = Math.min(min,distance[i]);
-		}
-		for(int i = 0; i < distance.length; i++)
+		IdPoint nearest = null;
+		for(IdPoint match : matches)
 		{
-			if(distance[i] == min)
+			double distance = Math.pow((match.x-p.x),2) + Math.pow((match.y-p.y),2);
+			if(distance < min || (distance == min && nearest == null))
 			{
-				return xMatches.get(i);
+				min = distance;
+				nearest = match;
 			}
 		}
-		//JEXStatics.logManager.log("No nearest point found", 0, this);
-		return null;
+		return nearest;
 	}
 	
 	public static List<Pair<IdPoint,IdPoint>> getNearestNeighbors(PointList l1, PointList l2, double radius, boolean squareRegion)
@@ -157,19 +90,20 @@ public class HashedPointList implements Comparator<Pair<IdPoint,IdPoint>>{
 		
 		// Take the first occurrence of each 
 		List<Pair<IdPoint,IdPoint>> resolved = new Vector<Pair<IdPoint,IdPoint>>();
+		IdentityHashMap<IdPoint,Boolean> connected = new IdentityHashMap<IdPoint,Boolean>();
 		for(Pair<IdPoint,IdPoint> pair : pairs)
 		{
 			// If this pair connects a point p1 with a point p2 that is already connected to a different point p1
 			// (i.e., already exists in the resolved list), eliminate the connection from p1 to p2
-			if(hasConflict(resolved, pair))
+			if(pair.p2 != null && connected.containsKey(pair.p2))
 			{
 				pair.p2 = null; // Eliminate the conflicting connection with p2 that already exists in a different pair
-				resolved.add(pair);
 			}
-			else
+			else if(pair.p2 != null)
 			{
-				resolved.add(pair);
+				connected.put(pair.p2, Boolean.TRUE);
 			}
+			resolved.add(pair);
 		}
 		
 		// Resort resolved list before returning
@@ -178,22 +112,6 @@ public class HashedPointList implements Comparator<Pair<IdPoint,IdPoint>>{
 		return resolved;
 	}
 	
-	private static boolean hasConflict(List<Pair<IdPoint,IdPoint>> pairs, Pair<IdPoint,IdPoint> p)
-	{
-		if(p.p2 == null)
-		{
-			return false;
-		}
-		for(Pair<IdPoint,IdPoint> pair : pairs)
-		{
-			if(pair.p2 == p.p2)
-			{
-				return true;
-			}
-		}
-		return false;
-	}
-	
 	public static double distance(Pair<IdPoint,IdPoint> p)
 	{
 		if(p.size() < 2 || p.p1 == null || p.p2 == null) return Double.MAX_VALUE;
@@ -203,9 +121,7 @@ public class HashedPointList implements Comparator<Pair<IdPoint,IdPoint>>{
 	
 	public boolean remove(Point p)
 	{
-		PointList xMatches = this.xHash.get(p.x);
-		PointList yMatches = this.yHash.get(p.y);
-		return (this.points.remove(p) && xMatches != null && xMatches.remove(p) && yMatches != null && yMatches.remove(p));
+		return (this.points.remove(p) && this.grid.remove(p));
 	}
 
 	public int compare(Pair<IdPoint,IdPoint> pair1, Pair<IdPoint,IdPoint> pair2)
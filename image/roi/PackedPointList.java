@@ -0,0 +1,305 @@
+package image.roi;
+
+import java.awt.Polygon;
+import java.awt.Rectangle;
+import java.util.Arrays;
+
+/**
+ * Points stored in primitive arrays (x, y and id of each point) and their text encodings.
+ *
+ * The points of the ROIs are saved in the database as a string. The legacy encoding is a
+ * list of "x,y,id" separated by semicolons. The packed encoding stores the differences
+ * between consecutive points as zigzag varints in base 64 behind the prefix PREFIX: the
+ * points of an outline or of a grid of cells are close to each other and their ids are
+ * usually consecutive, so most points take 2 to 3 bytes instead of 10 to 15 characters.
+ * Both encodings are parsed character by character without intermediate strings.
+ */
+public class PackedPointList {
+
+	public static final String PREFIX = "P1:";
+
+	private static final char[] BASE64 = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".toCharArray();
+	private static final int[] BASE64_VALUES = new int[128];
+	static
+	{
+		Arrays.fill(BASE64_VALUES, -1);
+		for(int i = 0; i < BASE64.length; i++)
+		{
+			BASE64_VALUES[BASE64[i]] = i;
+		}
+	}
+
+	public int[] xs, ys, ids;
+	public int size = 0;
+
+	public PackedPointList(int capacity)
+	{
+		this.xs = new int[Math.max(1, capacity)];
+		this.ys = new int[Math.max(1, capacity)];
+		this.ids = new int[Math.max(1, capacity)];
+	}
+
+	public PackedPointList(PointList points)
+	{
+		this(points.size());
+		for(IdPoint p : points)
+		{
+			this.add(p.x, p.y, p.id);
+		}
+	}
+
+	public void add(int x, int y, int id)
+	{
+		if(this.size == this.xs.length)
+		{
+			int capacity = 2 * this.size;
+			this.xs = Arrays.copyOf(this.xs, capacity);
+			this.ys = Arrays.copyOf(this.ys, capacity);
+			this.ids = Arrays.copyOf(this.ids, capacity);
+		}
+		this.xs[this.size] = x;
+		this.ys[this.size] = y;
+		this.ids[this.size] = id;
+		this.size++;
+	}
+
+	/**
+	 * Add the points to POINTS
+	 * @param points
+	 */
+	public void addTo(PointList points)
+	{
+		points.ensureCapacity(points.size() + this.size);
+		for(int i = 0; i < this.size; i++)
+		{
+			points.add(this.xs[i], this.ys[i], this.ids[i]);
+		}
+	}
+
+	public PointList toPointList()
+	{
+		PointList ret = new PointList();
+		this.addTo(ret);
+		return ret;
+	}
+
+	public Polygon toPolygon()
+	{
+		return new Polygon(Arrays.copyOf(this.xs, this.size), Arrays.copyOf(this.ys, this.size), this.size);
+	}
+
+	public Rectangle getBounds()
+	{
+		return this.toPolygon().getBounds();
+	}
+
+	// ---------------------------------------------
+	// Encoding
+	// ---------------------------------------------
+
+	/**
+	 * Return the packed encoding of POINTS
+	 * @param points
+	 * @return
+	 */
+	public static String encode(PointList points)
+	{
+		byte[] buffer = new byte[5 + 15 * points.size()];
+		int length = writeVarint(buffer, 0, points.size());
+		int x = 0, y = 0, id = -1;
+		for(IdPoint p : points)
+		{
+			length = writeVarint(buffer, length, zigzag(p.x - x));
+			length = writeVarint(buffer, length, zigzag(p.y - y));
+			length = writeVarint(buffer, length, zigzag(p.id - (id + 1)));
+			x = p.x;
+			y = p.y;
+			id = p.id;
+		}
+
+		// Base 64 without padding
+		StringBuilder ret = new StringBuilder(PREFIX.length() + (4 * length + 2) / 3);
+		ret.append(PREFIX);
+		for(int i = 0; i < length; i += 3)
+		{
+			int b0 = buffer[i] & 0xff;
+			int b1 = (i + 1 < length) ? buffer[i + 1] & 0xff : 0;
+			int b2 = (i + 2 < length) ? buffer[i + 2] & 0xff : 0;
+			ret.append(BASE64[b0 >> 2]);
+			ret.append(BASE64[((b0 & 0x3) << 4) | (b1 >> 4)]);
+			if(i + 1 < length) ret.append(BASE64[((b1 & 0xf) << 2) | (b2 >> 6)]);
+			if(i + 2 < length) ret.append(BASE64[b2 & 0x3f]);
+		}
+		return ret.toString();
+	}
+
+	/**
+	 * Parse a point list saved in the packed or in the legacy encoding
+	 * @param s
+	 * @return
+	 */
+	public static PackedPointList parse(String s)
+	{
+		if(s == null)
+		{
+			return new PackedPointList(0);
+		}
+		if(s.startsWith(PREFIX))
+		{
+			return decode(s);
+		}
+		return parseLegacy(s);
+	}
+
+	private static PackedPointList decode(String s)
+	{
+		// Base 64 to bytes
+		int start = PREFIX.length();
+		int chars = s.length() - start;
+		byte[] buffer = new byte[(chars * 3) / 4];
+		int length = 0, bits = 0, nBits = 0;
+		for(int i = start; i < s.length(); i++)
+		{
+			char c = s.charAt(i);
+			int v = (c < 128) ? BASE64_VALUES[c] : -1;
+			if(v < 0)
+			{
+				throw new IllegalArgumentException("Invalid character '" + c + "' in packed point list");
+			}
+			bits = (bits << 6) | v;
+			nBits += 6;
+			if(nBits >= 8)
+			{
+				nBits -= 8;
+				buffer[length++] = (byte) (bits >> nBits);
+				bits = bits & ((1 << nBits) - 1);
+			}
+		}
+
+		// Varints to points
+		int[] pos = new int[]{0};
+		int n = readVarint(buffer, length, pos);
+		PackedPointList ret = new PackedPointList(n);
+		int x = 0, y = 0, id = -1;
+		for(int i = 0; i < n; i++)
+		{
+			x = x + unzigzag(readVarint(buffer, length, pos));
+			y = y + unzigzag(readVarint(buffer, length, pos));
+			id = id + 1 + unzigzag(readVarint(buffer, length, pos));
+			ret.add(x, y, id);
+		}
+		return ret;
+	}
+
+	/**
+	 * Parse "x,y,id;x,y,id;..." (id optional), points without x or y are skipped
+	 */
+	private static PackedPointList parseLegacy(String s)
+	{
+		PackedPointList ret = new PackedPointList(s.length() / 8);
+		int[] fields = new int[3];
+		boolean[] present = new boolean[3];
+		int field = 0, len = s.length();
+		int start = 0;
+		for(int i = 0; i <= len; i++)
+		{
+			char c = (i < len) ? s.charAt(i) : ';';
+			if(c == ',' || c == ';')
+			{
+				if(field < 3)
+				{
+					present[field] = (i > start);
+					if(present[field])
+					{
+						fields[field] = parseInt(s, start, i);
+					}
+				}
+				field++;
+				start = i + 1;
+				if(c == ';')
+				{
+					if(field > 1 && present[0] && present[1])
+					{
+						ret.add(fields[0], fields[1], (field > 2 && present[2]) ? fields[2] : 0);
+					}
+					else if(field == 1 && present[0])
+					{
+						// Same error as the previous parser for a point without y
+						throw new IndexOutOfBoundsException("Point without y in point list");
+					}
+					field = 0;
+					present[0] = present[1] = present[2] = false;
+				}
+			}
+		}
+		return ret;
+	}
+
+	private static int parseInt(String s, int start, int end)
+	{
+		int i = start;
+		boolean negative = false;
+		if(s.charAt(i) == '-' || s.charAt(i) == '+')
+		{
+			negative = (s.charAt(i) == '-');
+			i++;
+		}
+		if(i == end)
+		{
+			throw new NumberFormatException("For input string: \"" + s.substring(start, end) + "\"");
+		}
+		long ret = 0;
+		for(; i < end; i++)
+		{
+			int digit = s.charAt(i) - '0';
+			if(digit < 0 || digit > 9 || ret > Integer.MAX_VALUE + 1L)
+			{
+				throw new NumberFormatException("For input string: \"" + s.substring(start, end) + "\"");
+			}
+			ret = 10 * ret + digit;
+		}
+		ret = negative ? -ret : ret;
+		if(ret > Integer.MAX_VALUE || ret < Integer.MIN_VALUE)
+		{
+			throw new NumberFormatException("For input string: \"" + s.substring(start, end) + "\"");
+		}
+		return (int) ret;
+	}
+
+	private static int zigzag(int v)
+	{
+		return (v << 1) ^ (v >> 31);
+	}
+
+	private static int unzigzag(int v)
+	{
+		return (v >>> 1) ^ -(v & 1);
+	}
+
+	private static int writeVarint(byte[] buffer, int pos, int v)
+	{
+		while((v & ~0x7f) != 0)
+		{
+			buffer[pos++] = (byte) ((v & 0x7f) | 0x80);
+			v = v >>> 7;
+		}
+		buffer[pos++] = (byte) v;
+		return pos;
+	}
+
+	private static int readVarint(byte[] buffer, int length, int[] pos)
+	{
+		int ret = 0;
+		for(int shift = 0; shift < 35; shift += 7)
+		{
+			if(pos[0] >= length)
+			{
+				throw new IllegalArgumentException("Truncated packed point list");
+			}
+			byte b = buffer[pos[0]++];
+			ret = ret | ((b & 0x7f) << shift);
+			if((b & 0x80) == 0) return ret;
+		}
+		throw new IllegalArgumentException("Invalid packed point list");
+	}
+}
@@ -0,0 +1,314 @@
+package image.roi;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Vector;
+
+import utilities.Pair;
+
+/**
+ * Uniform grid over the points of a PointList for spatial queries.
+ *
+ * Each point is put in the square cell of size CELLSIZE that contains it, so a query of
+ * radius r only looks at the points of the (2r/CELLSIZE + 1)^2 cells around the query
+ * point instead of the whole list. With a cell size close to the typical search radius
+ * each query costs a few cells whatever the number of points.
+ */
+public class PointGrid {
+
+	private double cellSize;
+	private HashMap<Long,List<IdPoint>> cells = new HashMap<Long,List<IdPoint>>();
+	private int size = 0;
+
+	/**
+	 * Grid with cells holding a few points each on average
+	 * @param points
+	 */
+	public PointGrid(List<? extends IdPoint> points)
+	{
+		this(points, getCellSize(points));
+	}
+
+	/**
+	 * @param points
+	 * @param cellSize side of the cells of the grid, usually the radius of the queries
+	 */
+	public PointGrid(List<? extends IdPoint> points, double cellSize)
+	{
+		this.cellSize = Math.max(1, cellSize);
+		for(IdPoint p : points)
+		{
+			this.add(p);
+		}
+	}
+
+	public void add(IdPoint p)
+	{
+		Long key = this.cellKey(this.cell(p.x), this.cell(p.y));
+		List<IdPoint> cell = this.cells.get(key);
+		if(cell == null)
+		{
+			cell = new ArrayList<IdPoint>(4);
+			this.cells.put(key, cell);
+		}
+		cell.add(p);
+		this.size++;
+	}
+
+	/**
+	 * Remove the point equal to P from the grid
+	 * @param p
+	 * @return true if the point was in the grid
+	 */
+	public boolean remove(Point p)
+	{
+		Long key = this.cellKey(this.cell(p.x), this.cell(p.y));
+		List<IdPoint> cell = this.cells.get(key);
+		if(cell == null || !cell.remove(p))
+		{
+			return false;
+		}
+		if(cell.size() == 0)
+		{
+			this.cells.remove(key);
+		}
+		this.size--;
+		return true;
+	}
+
+	public int size()
+	{
+		return this.size;
+	}
+
+	/**
+	 * Return the points within RADIUS of P
+	 * @param p
+	 * @param radius
+	 * @param squareRegion search in a square of half side RADIUS instead of a circle
+	 * @return
+	 */
+	public PointList getInRange(Point p, double radius, boolean squareRegion)
+	{
+		PointList ret = new PointList();
+		double r2 = radius * radius;
+		int x0 = this.cell(p.x - radius), x1 = this.cell(p.x + radius);
+		int y0 = this.cell(p.y - radius), y1 = this.cell(p.y + radius);
+		for(int cx = x0; cx <= x1; cx++)
+		{
+			for(int cy = y0; cy <= y1; cy++)
+			{
+				List<IdPoint> cell = this.cells.get(this.cellKey(cx, cy));
+				if(cell == null) continue;
+				for(IdPoint q : cell)
+				{
+					double dx = q.x - p.x, dy = q.y - p.y;
+					if(squareRegion ? (Math.abs(dx) <= radius && Math.abs(dy) <= radius) : (dx * dx + dy * dy <= r2))
+					{
+						ret.add(q);
+					}
+				}
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Return the nearest point within RADIUS of P
+	 * @param p
+	 * @param radius
+	 * @return the nearest point or null if there is none
+	 */
+	public IdPoint getNearest(Point p, double radius)
+	{
+		IdPoint ret = null;
+		double min = radius * radius;
+		int x0 = this.cell(p.x - radius), x1 = this.cell(p.x + radius);
+		int y0 = this.cell(p.y - radius), y1 = this.cell(p.y + radius);
+		for(int cx = x0; cx <= x1; cx++)
+		{
+			for(int cy = y0; cy <= y1; cy++)
+			{
+				List<IdPoint> cell = this.cells.get(this.cellKey(cx, cy));
+				if(cell == null) continue;
+				for(IdPoint q : cell)
+				{
+					double d = distance2(p, q);
+					if(d < min || (d == min && ret == null))
+					{
+						min = d;
+						ret = q;
+					}
+				}
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Return the K nearest points within RADIUS of P in ascending order of distance
+	 * @param p
+	 * @param k
+	 * @param radius
+	 * @return
+	 */
+	public PointList getKNearest(final Point p, int k, double radius)
+	{
+		PointList ret = new PointList();
+		if(k <= 0) return ret;
+
+		// Grow the searched square ring by ring until k points are surely found
+		double r = Math.min(radius, this.cellSize);
+		while(true)
+		{
+			PointList found = this.getInRange(p, r, false);
+			if(found.size() >= k || r >= radius || found.size() == this.size)
+			{
+				Collections.sort(found, new Comparator<IdPoint>(){
+					public int compare(IdPoint q1, IdPoint q2)
+					{
+						return Double.compare(distance2(p, q1), distance2(p, q2));
+					}
+				});
+				for(int i = 0; i < found.size() && i < k; i++)
+				{
+					ret.add(found.get(i));
+				}
+				return ret;
+			}
+			r = Math.min(radius, 2 * r);
+		}
+	}
+
+	// ---------------------------------------------
+	// Pairing of two lists of points
+	// ---------------------------------------------
+
+	/**
+	 * Pair each point of L1 with its nearest point of L2 within RADIUS
+	 * @param l1
+	 * @param l2
+	 * @param radius
+	 * @return a pair for each point of L1 with its nearest point in L2 or null
+	 */
+	public static List<Pair<IdPoint,IdPoint>> getNearestNeighbors(PointList l1, PointList l2, double radius)
+	{
+		PointGrid grid = new PointGrid(l2, radius);
+		List<Pair<IdPoint,IdPoint>> ret = new Vector<Pair<IdPoint,IdPoint>>();
+		for(IdPoint p : l1)
+		{
+			ret.add(new Pair<IdPoint,IdPoint>(p, grid.getNearest(p, radius)));
+		}
+		return ret;
+	}
+
+	/**
+	 * Pair the points of L1 and L2 that are each other's nearest point within RADIUS
+	 * @param l1
+	 * @param l2
+	 * @param radius
+	 * @return a pair for each point of L1 with its mutual nearest point in L2 or null
+	 */
+	public static List<Pair<IdPoint,IdPoint>> getMutualNearestNeighbors(PointList l1, PointList l2, double radius)
+	{
+		PointGrid grid1 = new PointGrid(l1, radius);
+		PointGrid grid2 = new PointGrid(l2, radius);
+		List<Pair<IdPoint,IdPoint>> ret = new Vector<Pair<IdPoint,IdPoint>>();
+		for(IdPoint p : l1)
+		{
+			IdPoint nearest = grid2.getNearest(p, radius);
+			if(nearest != null && grid1.getNearest(nearest, radius) != p)
+			{
+				nearest = null;
+			}
+			ret.add(new Pair<IdPoint,IdPoint>(p, nearest));
+		}
+		return ret;
+	}
+
+	/**
+	 * Pair the points of L1 and L2 so that each point is used at most once. All the
+	 * possible pairs within RADIUS are taken in ascending order of distance and a pair is
+	 * kept if neither of its points is already paired. Unlike getNearestNeighbors followed
+	 * by HashedPointList.filterConflicts, a point of L1 that loses its nearest point can be
+	 * paired with the next nearest one.
+	 * @param l1
+	 * @param l2
+	 * @param radius
+	 * @return a pair for each point of L1 with its point in L2 or null, in the order of L1
+	 */
+	public static List<Pair<IdPoint,IdPoint>> getConflictFreePairs(PointList l1, PointList l2, double radius)
+	{
+		// All the candidate pairs, sorted by distance
+		PointGrid grid = new PointGrid(l2, radius);
+		List<Pair<IdPoint,IdPoint>> candidates = new ArrayList<Pair<IdPoint,IdPoint>>();
+		for(IdPoint p : l1)
+		{
+			for(IdPoint q : grid.getInRange(p, radius, false))
+			{
+				candidates.add(new Pair<IdPoint,IdPoint>(p, q));
+			}
+		}
+		Collections.sort(candidates, new HashedPointList());
+
+		// Greedy pairing, points are compared by identity as in filterConflicts
+		IdentityHashMap<IdPoint,IdPoint> paired1 = new IdentityHashMap<IdPoint,IdPoint>();
+		IdentityHashMap<IdPoint,IdPoint> paired2 = new IdentityHashMap<IdPoint,IdPoint>();
+		for(Pair<IdPoint,IdPoint> candidate : candidates)
+		{
+			if(paired1.containsKey(candidate.p1) || paired2.containsKey(candidate.p2)) continue;
+			paired1.put(candidate.p1, candidate.p2);
+			paired2.put(candidate.p2, candidate.p1);
+		}
+
+		List<Pair<IdPoint,IdPoint>> ret = new Vector<Pair<IdPoint,IdPoint>>();
+		for(IdPoint p : l1)
+		{
+			ret.add(new Pair<IdPoint,IdPoint>(p, paired1.get(p)));
+		}
+		return ret;
+	}
+
+	// ---------------------------------------------
+	// Helpers
+	// ---------------------------------------------
+
+	/**
+	 * Side of the cells for about 4 points per cell if the points are spread evenly
+	 */
+	private static double getCellSize(List<? extends IdPoint> points)
+	{
+		if(points.size() == 0) return 1;
+		int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
+		for(IdPoint p : points)
+		{
+			minX = Math.min(minX, p.x);
+			minY = Math.min(minY, p.y);
+			maxX = Math.max(maxX, p.x);
+			maxY = Math.max(maxY, p.y);
+		}
+		double area = ((double) (maxX - minX + 1)) * (maxY - minY + 1);
+		return 2 * Math.sqrt(area / points.size());
+	}
+
+	private static double distance2(Point p, Point q)
+	{
+		double dx = q.x - p.x, dy = q.y - p.y;
+		return dx * dx + dy * dy;
+	}
+
+	private int cell(double coordinate)
+	{
+		return (int) Math.floor(coordinate / this.cellSize);
+	}
+
+	private Long cellKey(int x, int y)
+	{
+		return (((long) x) << 32) ^ (y & 0xffffffffL);
+	}
+}
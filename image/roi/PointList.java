@@ -11,7 +11,6 @@ import java.util.Map.Entry;
 import java.util.TreeMap;
 import java.util.Vector;
 
-import utilities.CSVList;
 import utilities.Copiable;
 import utilities.LSVList;
 import utilities.SSVList;
@@ -42,21 +41,8 @@ public class PointList extends Vector<IdPoint> implements Copiable<PointList> {
 		
 		if(polygonPts != null)
 		{
-			SSVList polygon = new SSVList(polygonPts);
-			Iterator<String> itr = polygon.iterator();
-			while(itr.hasNext())
-			{
-				CSVList pt = new CSVList(itr.next());
-				if (pt.get(0).equals("") || pt.get(1).equals("")) continue;
-				int x = Integer.parseInt(pt.get(0));
-				int y = Integer.parseInt(pt.get(1));
-				int id = 0;
-				if(pt.size() > 2)
-				{
-					id = Integer.parseInt(pt.get(2));
-				}
-				this.add(x, y, id);
-			}
+			// Legacy "x,y,id;x,y,id" or packed encoding
+			PackedPointList.parse(polygonPts).addTo(this);
 		}
 	}
 	
@@ -311,6 +297,15 @@ public class PointList extends Vector<IdPoint> implements Copiable<PointList> {
 		return this.getPointListCenteredAt(0, 0);
 	}
 	
+	/**
+	 * Return the packed encoding of this list, see PackedPointList
+	 * @return
+	 */
+	public String packedString()
+	{
+		return PackedPointList.encode(this);
+	}
+	
 	public String pointListString()
 	{
 		SSVList polygonPts = new SSVList();
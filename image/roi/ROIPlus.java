@@ -27,8 +27,10 @@ public class ROIPlus implements Copiable<ROIPlus>, Iterable<ROIPlus> {
 	// Roi type
 	public int type = ROI_RECT;
 	
-	// IJ ROI
-	public Roi roi ;
+	// IJ ROI, made from the type and points it was last made of by getRoi
+	private Roi roi ;
+	private int roiType ;
+	private int[] roiPoints ;
 	
 	// Point list
 	public PointList       pointList ;
@@ -111,8 +113,7 @@ public class ROIPlus implements Copiable<ROIPlus>, Iterable<ROIPlus> {
 		{
 			this.pointList = new PointList(pList); // New
 		}
-		//		roi = new PolygonRoi(pointList.toPolygon(), Roi.POLYGON); // New
-		createIJroi();
+		// The ImageJ roi is only made when it is asked for by getRoi
 	}
 	
 	public ROIPlus(Rectangle rectangle){
@@ -131,7 +132,9 @@ public class ROIPlus implements Copiable<ROIPlus>, Iterable<ROIPlus> {
 	
 	public ROIPlus(String pList, String type)
 	{
-		this(new PointList(pList), new Integer(type));	
+		// The parsed list is not shared so it does not need the copy of ROIPlus(PointList, int)
+		this.type      = new Integer(type);
+		this.pointList = new PointList(pList);
 	}
 	
 	public Shape getShape()
@@ -160,10 +163,38 @@ public class ROIPlus implements Copiable<ROIPlus>, Iterable<ROIPlus> {
 		return false;
 	}
 	
+	/**
+	 * Return a copy of the ImageJ roi of this ROIPlus that the caller can move or modify
+	 * (ImagePlus.setRoi modifies it too). The roi it is copied from is only rebuilt when
+	 * the type or the points changed since it was made.
+	 * @return
+	 */
 	public Roi getRoi()
 	{
-		this.createIJroi();
-		return this.roi;
+		if(this.roi == null || !this.isRoiCurrent())
+		{
+			this.createIJroi();
+		}
+		return (this.roi == null) ? null : (Roi) this.roi.clone();
+	}
+	
+	private boolean isRoiCurrent()
+	{
+		// The points are live references that can be moved in place, compare their values
+		if(this.roiPoints == null || this.roiType != this.type || this.pointList == null || this.roiPoints.length != 2*this.pointList.size())
+		{
+			return false;
+		}
+		int i = 0;
+		for(IdPoint p : this.pointList)
+		{
+			if(this.roiPoints[i] != p.x || this.roiPoints[i+1] != p.y)
+			{
+				return false;
+			}
+			i = i + 2;
+		}
+		return true;
 	}
 	
 	public double getLength()
@@ -184,6 +215,15 @@ public class ROIPlus implements Copiable<ROIPlus>, Iterable<ROIPlus> {
 	        	case ROI_POLYGON:  this.roi = this.toPolygonRoi(); break;
 	        	case ROI_POINT:  this.roi = this.toPointRoi(); break;
 			}
+			this.roiType = this.type;
+			this.roiPoints = new int[2*this.pointList.size()];
+			int i = 0;
+			for(IdPoint p : this.pointList)
+			{
+				this.roiPoints[i] = p.x;
+				this.roiPoints[i+1] = p.y;
+				i = i + 2;
+			}
 		}
     }
 	
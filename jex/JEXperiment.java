@@ -1135,7 +1135,7 @@ public class JEXperiment extends JFrame implements ActionListener, WindowListene
 	{
 		public void actionPerformed(ActionEvent e)
 	    {
-			JEXStatics.cruncher.stopCrunch = true;
+			JEXStatics.cruncher.cancelTickets();
 	    	JEXStatics.logManager.log("Aborting Crunch!", 0, this);
 	    }
 	}
@@ -1,17 +1,16 @@
 package jex.dataView;
 
-import ij.ImagePlus;
-import ij.process.ImageProcessor;
-
 import java.awt.Graphics;
 import java.awt.Graphics2D;
-import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
 
 import javax.swing.BoxLayout;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
 
 import jex.statics.DisplayStatics;
+import utilities.ThumbnailCache;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
 import Database.DataReader.ImageReader;
@@ -34,6 +33,11 @@ public class JEXDataPanelController{
 	 */
 	public void setData(JEXData data){
 		this.data = data;
+		if (data != null && data.getTypeName().getType().equals(JEXData.IMAGE))
+		{
+			// Start making the thumbnails before the first paint
+			ThumbnailCache.prefetch(ImageReader.readObjectToImagePath(data));
+		}
 	}
 	
 	/**
@@ -113,9 +117,11 @@ public class JEXDataPanelController{
 			{
 				return;
 			}
-			ImagePlus source = ImageReader.readObjectToImagePlus(data);
+			// Only the thumbnails are painted, the full image is never decoded here
+			String path = ImageReader.readObjectToImagePath(data);
+			BufferedImage source = ThumbnailCache.getThumbnail(path, Math.max(wpane, hpane), this);
 			
-			if (source != null && source.getProcessor() != null)
+			if (source != null)
 			{
 				// Find the new scale of the image
 				int w         = source.getWidth();
@@ -130,16 +136,11 @@ public class JEXDataPanelController{
 				int yPos      = hpane/2 - newH/2;
 				int xPos      = wpane/2 - newW/2;
 				
-				// resize the image
-				ImageProcessor imp = source.getProcessor();
-				if (imp == null) return;
-				imp = imp.resize(newW);
-				Image image = imp.getBufferedImage();
-				
 				// draw the image
 				g2.setColor(DisplayStatics.lightBackground);
 				g2.fillRect(0, 0, wpane, hpane);
-				g2.drawImage(image, xPos, yPos,this);
+				g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+				g2.drawImage(source, xPos, yPos, newW, newH, this);
 				
 			}
 		}
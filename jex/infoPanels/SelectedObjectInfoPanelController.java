@@ -28,6 +28,7 @@ import preferences.XPreferencePanelController;
 import preferences.XPreferences;
 import signals.SSCenter;
 import utilities.FontUtility;
+import utilities.ImageCache;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
 import Database.Definition.TypeName;
@@ -207,7 +208,7 @@ public class SelectedObjectInfoPanelController extends InfoPanelController
 			if (type.equals(JEXData.IMAGE))
 			{
 				ImageDisplay imagePanel = new ImageDisplay(this,"Viewer");
-				ImagePlus image = new ImagePlus(value);
+				ImagePlus image = ImageCache.getImagePlus(value);
 				if (image.getProcessor() == null) return null;
 				imagePanel.setImage(image);
 				imagePanel.setSize(new Dimension(200,150));
@@ -181,9 +181,9 @@ public class FunctionListPanel {
 		this.rebuildList();
 	}
 	
-	public void runAllFunctions(boolean autoSave)
+	public void runAllFunctions(boolean autoSave, boolean pipelined)
 	{
-		parent.runAllFunctions(true, autoSave);
+		parent.runAllFunctions(true, autoSave, pipelined);
 	}
 	
 	public void loadFunctionList()
@@ -23,6 +23,7 @@ public class FunctionLoadSaveAddRunPanel implements ActionListener {
 	private JButton addButton  = new JButton();
 	private JButton runButton  = new JButton();
 	private JCheckBox autoSave = new JCheckBox();
+	private JCheckBox pipeline = new JCheckBox();
 	
 	public FunctionLoadSaveAddRunPanel(FunctionListPanel parent)
 	{
@@ -40,7 +41,7 @@ public class FunctionLoadSaveAddRunPanel implements ActionListener {
 		this.panel = new JPanel();
 		this.panel.setBackground(DisplayStatics.lightBackground);
 		//this.panel.setBorder(BorderFactory.createLineBorder(Color.BLACK));
-		this.panel.setLayout(new MigLayout("center, flowx, ins 0","[fill,grow,center]0[fill,grow,center]0[fill,grow,center]0[fill,grow,center]0[]"));
+		this.panel.setLayout(new MigLayout("center, flowx, ins 0","[fill,grow,center]0[fill,grow,center]0[fill,grow,center]0[fill,grow,center]0[]0[]"));
 		//this.setMaximumSize(new Dimension(250,800));
 		//this.setPreferredSize(new Dimension(250,200));
 
@@ -72,6 +73,10 @@ public class FunctionLoadSaveAddRunPanel implements ActionListener {
 		
 		// Create autoSave checkBox
 		autoSave.setText("Auto-Save");
+		
+		// Create pipeline checkBox
+		pipeline.setText("Pipeline");
+		pipeline.setToolTipText("Run each entry through the whole list of functions as soon as its inputs exist");
 
 		// Create the button panel
 		this.panel.setBackground(DisplayStatics.lightBackground);
@@ -80,6 +85,7 @@ public class FunctionLoadSaveAddRunPanel implements ActionListener {
 		this.panel.add(addButton,"growx, width 10:10:");
 		this.panel.add(runButton,"growx, width 10:10:");
 		this.panel.add(autoSave);
+		this.panel.add(pipeline);
 	}	
 	
 	public void actionPerformed(ActionEvent e)
@@ -90,7 +96,7 @@ public class FunctionLoadSaveAddRunPanel implements ActionListener {
 		}
 		else if (e.getSource() == this.runButton)
 		{
-			parent.runAllFunctions(this.autoSave.isSelected());
+			parent.runAllFunctions(this.autoSave.isSelected(), this.pipeline.isSelected());
 		}
 		else if (e.getSource() == this.loadButton)
 		{
@@ -23,6 +23,7 @@ import Database.DBObjects.JEXWorkflow;
 import Database.Definition.TypeName;
 import cruncher.JEXFunction;
 import cruncher.Ticket;
+import cruncher.WorkflowTicket;
 
 public class JEXFunctionPanel extends JPanel
 {
@@ -235,6 +236,18 @@ public class JEXFunctionPanel extends JPanel
 	 * Run all the functions in the list one by one for all entries available
 	 */
 	public void runAllFunctions(boolean runAll, boolean autoSave)
+	{
+		this.runAllFunctions(runAll, autoSave, false);
+	}
+	
+	/**
+	 * Run the functions of the list on the selected entries (or the viewed entry)
+	 * @param runAll
+	 * @param autoSave
+	 * @param pipelined run the list as a workflow where each entry goes through the
+	 * whole chain of functions as soon as its inputs exist, instead of one function after the other
+	 */
+	public void runAllFunctions(boolean runAll, boolean autoSave, boolean pipelined)
 	{
 		// Get the entries to run the function on
 		TreeSet<JEXEntry> entries = null;
@@ -255,6 +268,19 @@ public class JEXFunctionPanel extends JPanel
 
 			JEXStatics.main.displayGlassPane(diagPanel,true);
 		}
+		else if (pipelined)
+		{
+			JEXWorkflow workflow = new JEXWorkflow();
+			for (FunctionBlockPanel fb: functionList)
+			{
+				workflow.add(fb.getFunction());
+			}
+			if (workflow.size() == 0) return;
+			
+			WorkflowTicket ticket = new WorkflowTicket(workflow, entries);
+			ticket.setAutoSave(autoSave);
+			JEXStatics.cruncher.runWorkflow(ticket);
+		}
 		else
 		{
 			// Loop through the functions
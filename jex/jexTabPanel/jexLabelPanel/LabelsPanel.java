@@ -28,6 +28,7 @@ import jex.statics.DisplayStatics;
 import jex.statics.JEXStatics;
 import net.miginfocom.swing.MigLayout;
 import signals.SSCenter;
+import signals.Slot;
 import utilities.FontUtility;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
@@ -56,7 +57,7 @@ public class LabelsPanel extends JPanel implements ActionListener {
 		super();
 		
 		// Link to the signal from a database list change
-		SSCenter.defaultCenter().connect(JEXStatics.jexManager, JEXManager.AVAILABLELAB, this, "objectsChanged", (Class[])null);
+		SSCenter.defaultCenter().connect(JEXStatics.jexManager, JEXManager.AVAILABLELAB, Slot.EDT, this, "objectsChanged", (Class[])null);
 		SSCenter.defaultCenter().connect(JEXStatics.jexManager, JEXManager.SCOPE, this, "scopeChanged", (Class[])null);
 		JEXStatics.logManager.log("Connected to database object change signal", 0, this);
 		
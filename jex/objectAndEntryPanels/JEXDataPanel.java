@@ -32,6 +32,7 @@ import jex.statics.DisplayStatics;
 import jex.statics.JEXStatics;
 import net.miginfocom.swing.MigLayout;
 import signals.SSCenter;
+import signals.Slot;
 import utilities.FontUtility;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
@@ -91,7 +92,7 @@ public class JEXDataPanel implements ActionListener{
 		scroll.setBorder(BorderFactory.createEmptyBorder());
 		
 		// Setup updating links
-		SSCenter.defaultCenter().connect(JEXStatics.jexDBManager, JEXManager.EXPERIMENTTREE_UPDATE, this, "rebuild", (Class[])null);
+		SSCenter.defaultCenter().connect(JEXStatics.jexDBManager, JEXManager.EXPERIMENTTREE_UPDATE, Slot.EDT, this, "rebuild", (Class[])null);
 		
 		rebuild();
 	}
@@ -114,7 +115,7 @@ public class JEXDataPanel implements ActionListener{
 		scroll.setBorder(BorderFactory.createEmptyBorder());
 
 		// Setup updating links
-		SSCenter.defaultCenter().connect(JEXStatics.jexDBManager, JEXManager.EXPERIMENTTREE_UPDATE, this, "rebuild", (Class[])null);
+		SSCenter.defaultCenter().connect(JEXStatics.jexDBManager, JEXManager.EXPERIMENTTREE_UPDATE, Slot.EDT, this, "rebuild", (Class[])null);
 		
 		rebuild();
 	}
@@ -1,52 +1,377 @@
 package jex.statics;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Log of JEX.
+ *
+ * The calling thread only checks the detail level and puts a record (time, thread, level,
+ * source, message and parameters) in a bounded lock-free ring buffer. A background thread
+ * formats the records and writes them to the screen or to a rotating log file, so logging
+ * from the functions of a ticket does not wait on the console. Messages given with
+ * parameters ("Saved image {} of {}") are only formatted by that thread.
+ */
 public class LogManager {
 	// Statics
 	public static int NODETAIL     = 0  ;
 	public static int NORMALDETAIL = 1  ;
 	public static int HIGHDETAIL   = 2  ;
 	public static int ERROR        = -1 ;
-	
+
 	public static int OUTPUT2SCREEN = 0 ;
 	public static int OUTPUT2FILE   = 1 ;
-	
+
+	// Ring buffer
+	private static final int CAPACITY = 1 << 14;
+	private static final int MASK     = CAPACITY - 1;
+
+	// Log files
+	public static long   MAX_FILE_BYTES = 10 * 1024 * 1024;
+	public static int    MAX_FILES      = 5;
+
 	// Variables
-	int detailLevel = 1;
-	int output = 0;
-	
+	volatile int detailLevel = 1;
+	volatile int output = 0;
+
+	// Records of the ring buffer, a slot can be written when its sequence is the
+	// sequence of the producer and read when it is the sequence of the consumer + 1
+	private final LogRecord[] records = new LogRecord[CAPACITY];
+	private final AtomicLongArray sequences = new AtomicLongArray(CAPACITY);
+	private final AtomicLong tail = new AtomicLong(0);
+	private volatile long head = 0; // only written by the writer thread
+	private volatile Thread writer = null;
+	private volatile boolean writerParked = false;
+
+	// File output
+	private String logPath = System.getProperty("user.home") + File.separator + "JEX.log";
+	private Writer fileWriter = null;
+	private long fileBytes = 0;
+	private final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
+
 	public LogManager(){
-		
+		for (int i = 0; i < CAPACITY; i++)
+		{
+			this.sequences.set(i, i);
+		}
+	}
+
+	public void setDetailLevel(int detailLevel)
+	{
+		this.detailLevel = detailLevel;
+	}
+
+	public int getDetailLevel()
+	{
+		return this.detailLevel;
+	}
+
+	/**
+	 * Send the log to the screen (OUTPUT2SCREEN) or to the log file (OUTPUT2FILE)
+	 * @param output
+	 */
+	public void setOutput(int output)
+	{
+		this.output = output;
+	}
+
+	/**
+	 * Set the file used with OUTPUT2FILE, older logs are renamed PATH.1 to PATH.MAX_FILES
+	 * @param path
+	 */
+	public void setLogFile(String path)
+	{
+		this.flush();
+		synchronized(this)
+		{
+			this.closeFile();
+			this.logPath = path;
+		}
+	}
+
+	/**
+	 * Return true if a message of PRIORITY would be logged, to avoid building
+	 * expensive messages for nothing
+	 * @param priority
+	 * @return
+	 */
+	public boolean isLogged(int priority)
+	{
+		return this.detailLevel >= priority || this.detailLevel == ERROR;
 	}
 
 	public void log(String str, int priority, Object source){
+		this.log(str, priority, source, (Object[]) null);
+	}
+
+	/**
+	 * Log a message with parameters, each {} of FORMAT is replaced by the next
+	 * parameter when the message is written
+	 * @param format
+	 * @param priority
+	 * @param source
+	 * @param params
+	 */
+	public void log(String format, int priority, Object source, Object... params){
 		if (detailLevel >= priority){
-			String sourceClass = (source == null) ? "###" : source.getClass().getSimpleName();
-			if(source instanceof String)
-			{
-				sourceClass = source.toString();
-			}
-			
-			String toOutput = "   " + sourceClass + " ---> "+str;
-			output(toOutput);
+			this.publish(new LogRecord(false, priority, source, format, params));
 		}
 		else if (detailLevel == ERROR)
 		{
-			String sourceClass = (source == null) ? "###" : source.getClass().getSimpleName();
-			if(source instanceof String)
+			this.publish(new LogRecord(true, priority, source, format, params));
+		}
+	}
+
+	/**
+	 * Wait until the records logged so far are written
+	 */
+	public void flush()
+	{
+		long target = this.tail.get();
+		while(this.writer != null && this.head < target && Thread.currentThread() != this.writer)
+		{
+			LockSupport.unpark(this.writer);
+			Thread.yield();
+		}
+	}
+
+	// ---------------------------------------------
+	// Ring buffer
+	// ---------------------------------------------
+
+	private void publish(LogRecord record)
+	{
+		if(this.writer == null)
+		{
+			this.startWriter();
+		}
+		long seq = this.tail.getAndIncrement();
+		int index = (int) (seq & MASK);
+		while(this.sequences.get(index) != seq)
+		{
+			// The buffer is full, wait for the writer
+			LockSupport.unpark(this.writer);
+			Thread.yield();
+		}
+		this.records[index] = record;
+		this.sequences.set(index, seq + 1);
+		if(this.writerParked)
+		{
+			LockSupport.unpark(this.writer);
+		}
+	}
+
+	private LogRecord poll()
+	{
+		if(this.isEmpty())
+		{
+			return null;
+		}
+		int index = (int) (this.head & MASK);
+		LogRecord record = this.records[index];
+		this.records[index] = null;
+		this.sequences.set(index, this.head + CAPACITY);
+		this.head++;
+		return record;
+	}
+
+	private boolean isEmpty()
+	{
+		return this.sequences.get((int) (this.head & MASK)) != this.head + 1;
+	}
+
+	private synchronized void startWriter()
+	{
+		if(this.writer != null) return;
+		Thread t = new Thread(new Runnable(){
+			public void run()
+			{
+				drain();
+			}
+		}, "JEX log writer");
+		t.setDaemon(true);
+		this.writer = t;
+		t.start();
+
+		// Write what is left when JEX closes
+		Runtime.getRuntime().addShutdownHook(new Thread(new Runnable(){
+			public void run()
 			{
-				sourceClass = source.toString();
+				flush();
 			}
-			String toOutput = "!! ERROR !! " + sourceClass + " ---> "+str;
-			output(toOutput);
+		}));
+	}
+
+	private void drain()
+	{
+		while(true)
+		{
+			LogRecord record = this.poll();
+			if(record != null)
+			{
+				this.write(record);
+				continue;
+			}
+
+			// Nothing to write, wait a little for the next record and flush the
+			// file only if none came so that a busy log is not flushed line by line
+			this.writerParked = true;
+			if(this.isEmpty())
+			{
+				LockSupport.parkNanos(1000000L);
+				if(this.isEmpty())
+				{
+					this.flushFile();
+					LockSupport.parkNanos(100000000L);
+				}
+			}
+			this.writerParked = false;
 		}
 	}
-	
-	private void output(String str){
+
+	// ---------------------------------------------
+	// Output
+	// ---------------------------------------------
+
+	private void write(LogRecord record)
+	{
+		String sourceClass = (record.source == null) ? "###" : record.source.getClass().getSimpleName();
+		if(record.source instanceof String)
+		{
+			sourceClass = record.source.toString();
+		}
+		String prefix = record.error ? "!! ERROR !! " : "   ";
+		String toOutput = prefix + sourceClass + " ---> " + record.getMessage();
+		output(toOutput, record);
+	}
+
+	private void output(String str, LogRecord record){
 		if (output == OUTPUT2SCREEN){
 			System.out.println(str);
 		}
 		else if (output == OUTPUT2FILE){
-			
+			this.writeToFile(this.dateFormat.format(new Date(record.time)) + " [" + record.thread + "] " + record.priority + " " + str);
+		}
+	}
+
+	private synchronized void writeToFile(String line)
+	{
+		try
+		{
+			if(this.fileWriter == null || this.fileBytes > MAX_FILE_BYTES)
+			{
+				this.rotate();
+			}
+			this.fileWriter.write(line);
+			this.fileWriter.write(System.getProperty("line.separator"));
+			this.fileBytes = this.fileBytes + line.length() + 1;
+		}
+		catch (IOException e)
+		{
+			// Fall back to the screen
+			this.output = OUTPUT2SCREEN;
+			System.out.println("   LogManager ---> Couldn't write to the log file " + this.logPath + ", logging to the screen");
+			System.out.println(line);
+		}
+	}
+
+	/**
+	 * Open the log file, renaming it PATH.1 (and the older ones PATH.2 ...) if it is full
+	 */
+	private void rotate() throws IOException
+	{
+		this.closeFile();
+		File file = new File(this.logPath);
+		if(file.exists() && file.length() > MAX_FILE_BYTES)
+		{
+			new File(this.logPath + "." + MAX_FILES).delete();
+			for(int i = MAX_FILES - 1; i > 0; i--)
+			{
+				File older = new File(this.logPath + "." + i);
+				if(older.exists()) older.renameTo(new File(this.logPath + "." + (i + 1)));
+			}
+			file.renameTo(new File(this.logPath + ".1"));
+		}
+		file = new File(this.logPath);
+		this.fileBytes = file.exists() ? file.length() : 0;
+		this.fileWriter = new OutputStreamWriter(new FileOutputStream(file, true), "UTF-8");
+	}
+
+	private synchronized void flushFile()
+	{
+		if(this.fileWriter == null) return;
+		try
+		{
+			this.fileWriter.flush();
+		}
+		catch (IOException e)
+		{
+			e.printStackTrace();
+		}
+	}
+
+	private synchronized void closeFile()
+	{
+		if(this.fileWriter == null) return;
+		try
+		{
+			this.fileWriter.close();
+		}
+		catch (IOException e)
+		{
+			e.printStackTrace();
+		}
+		this.fileWriter = null;
+	}
+
+	/**
+	 * A message waiting to be written
+	 */
+	private static class LogRecord {
+		boolean error;
+		int priority;
+		long time;
+		String thread;
+		Object source;
+		String format;
+		Object[] params;
+
+		LogRecord(boolean error, int priority, Object source, String format, Object[] params)
+		{
+			this.error = error;
+			this.priority = priority;
+			this.time = System.currentTimeMillis();
+			this.thread = Thread.currentThread().getName();
+			this.source = source;
+			this.format = format;
+			this.params = params;
+		}
+
+		String getMessage()
+		{
+			if(this.params == null || this.params.length == 0 || this.format == null)
+			{
+				return this.format;
+			}
+			StringBuilder ret = new StringBuilder(this.format.length() + 16 * this.params.length);
+			int start = 0, p = 0;
+			int index;
+			while(p < this.params.length && (index = this.format.indexOf("{}", start)) >= 0)
+			{
+				ret.append(this.format, start, index);
+				ret.append(String.valueOf(this.params[p++]));
+				start = index + 2;
+			}
+			ret.append(this.format, start, this.format.length());
+			return ret.toString();
 		}
 	}
 }
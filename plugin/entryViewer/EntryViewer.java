@@ -15,6 +15,7 @@ import net.miginfocom.swing.MigLayout;
 import plugins.plugin.PlugIn;
 import plugins.plugin.PlugInController;
 import signals.SSCenter;
+import signals.Slot;
 import utilities.FontUtility;
 import Database.DBObjects.JEXEntry;
 
@@ -42,7 +43,7 @@ public class EntryViewer implements PlugInController
 		this.setVisible(true);
 
 		// Make appropriate connections
-		SSCenter.defaultCenter().connect(JEXStatics.jexManager, JEXManager.AVAILABLEOBJ, this, "viewedEntryChanged", (Class[])null);
+		SSCenter.defaultCenter().connect(JEXStatics.jexManager, JEXManager.AVAILABLEOBJ, Slot.EDT, this, "viewedEntryChanged", (Class[])null);
 	}
 	
 	////////////////////////////////////////
@@ -49,6 +49,7 @@ import jex.statics.JEXStatics;
 import plugins.plugin.PlugIn;
 import plugins.plugin.PlugInController;
 import utilities.FontUtility;
+import utilities.ImageCache;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXEntry;
 import Database.DataReader.ImageReader;
@@ -130,8 +131,8 @@ public class ImageAligner implements PlugInController, ActionListener {
 	
 	public void start(String path1, String path2){
 		// pass the arguments
-		image1 = new ImagePlus(path1);
-		image2 = new ImagePlus(path2);
+		image1 = ImageCache.getImagePlus(path1);
+		image2 = ImageCache.getImagePlus(path2);
 		
 //		image1.show();
 //		image2.show();
@@ -26,6 +26,7 @@ import plugins.plugin.PlugInController;
 import plugins.viewer.DataBrowser;
 import plugins.viewer.ImageDelegate;
 import signals.SSCenter;
+import utilities.ImageCache;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXDataSingle;
 import Database.DBObjects.JEXEntry;
@@ -255,7 +256,7 @@ public class ImageAligner implements PlugInController {
 			//			this.imageFilePath  = ds.get(JEXDataSingle.FOLDERNAME) + File.separator + ds.get(JEXDataSingle.FILENAME);
 
 			JEXStatics.logManager.log("Opening image at path "+this.frontImageFilePath, 1, this);
-			this.frontImage = new ImagePlus(this.frontImageFilePath);
+			this.frontImage = ImageCache.getImagePlus(this.frontImageFilePath);
 			this.setFrontImage(frontImage);
 			this.statusUpdated();
 
@@ -278,7 +279,7 @@ public class ImageAligner implements PlugInController {
 			//			this.imageFilePath  = ds.get(JEXDataSingle.FOLDERNAME) + File.separator + ds.get(JEXDataSingle.FILENAME);
 
 			JEXStatics.logManager.log("Opening image at path "+this.backImageFilePath, 1, this);
-			this.backImage = new ImagePlus(this.backImageFilePath);
+			this.backImage = ImageCache.getImagePlus(this.backImageFilePath);
 			this.setBackImage(backImage);
 			this.statusUpdated();
 
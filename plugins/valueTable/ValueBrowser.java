@@ -14,6 +14,7 @@ import plugins.plugin.PlugIn;
 import plugins.plugin.PlugInController;
 import plugins.viewer.EntryMenu;
 import signals.SSCenter;
+import signals.Slot;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXDataSingle;
 import Database.DBObjects.JEXEntry;
@@ -44,7 +45,7 @@ public class ValueBrowser implements PlugInController
 		this.setVisible(true);
 
 		// Make appropriate connections
-		SSCenter.defaultCenter().connect(JEXStatics.jexManager, JEXManager.AVAILABLEOBJ, this, "viewedEntryChanged", (Class[])null);
+		SSCenter.defaultCenter().connect(JEXStatics.jexManager, JEXManager.AVAILABLEOBJ, Slot.EDT, this, "viewedEntryChanged", (Class[])null);
 	}
 	
 	public ValueBrowser(TreeSet<JEXEntry> entries, TypeName tn)
@@ -37,6 +37,7 @@ import jex.statics.JEXStatics;
 import plugins.plugin.PlugIn;
 import plugins.plugin.PlugInController;
 import signals.SSCenter;
+import signals.Slot;
 import utilities.FileUtility;
 import Database.DBObjects.JEXData;
 import Database.DBObjects.JEXDataSingle;
@@ -114,7 +115,7 @@ public class ImageBrowser implements PlugInController
 
 		// Make appropriate connections
 		SSCenter.defaultCenter().connect(this.limitAdjuster, LimitAdjuster.SIG_limitsChanged_NULL, this, "setLimits", (Class[])null);
-		SSCenter.defaultCenter().connect(JEXStatics.jexManager, JEXManager.AVAILABLEOBJ, this, "roiListChange", (Class[])null);
+		SSCenter.defaultCenter().connect(JEXStatics.jexManager, JEXManager.AVAILABLEOBJ, Slot.EDT, this, "roiListChange", (Class[])null);
 		SSCenter.defaultCenter().connect(this.roiMenu, RoiMenu.SIG_AddRoi_intType, this, "addRoi", new Class[]{Integer.class});
 		SSCenter.defaultCenter().connect(this.actionMenu, ActionMenu.SIG_DeleteRoi_NULL, this, "deleteRoi", (Class[])null);
 		SSCenter.defaultCenter().connect(this.actionMenu, ActionMenu.SIG_SetMode_intType, this, "setMode", new Class[]{Integer.class});
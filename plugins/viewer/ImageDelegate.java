@@ -13,6 +13,7 @@ import java.awt.Rectangle;
 
 import jex.statics.JEXStatics;
 import signals.SSCenter;
+import utilities.ImageCache;
 
 public class ImageDelegate {
 	
@@ -50,7 +51,7 @@ public class ImageDelegate {
 		}
 		this.imagePath = path;
 		JEXStatics.logManager.log("Opening image at path "+this.imagePath, 1, this);
-		this.setImage(new ImagePlus(path));
+		this.setImage(ImageCache.getImagePlus(path));
 	}
 	
 	/**
@@ -3,6 +3,11 @@ package signals;
 
 import java.lang.ref.*;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import javax.swing.SwingUtilities;
 
 import jex.statics.JEXStatics;
 
@@ -28,6 +33,13 @@ public class SSCenter
     */
     private Hashtable<Signal, Vector<Slot>> slots; // thread-safe
     
+    /**
+    * Slots queued for the event dispatch thread or the background thread
+    * with the args of the last emission
+    */
+    private IdentityHashMap<Slot, Object[]> pending = new IdentityHashMap<Slot, Object[]>();
+    private ExecutorService background = null;
+    
     /**
     * Default constructor creates a new SSCenter.
     */
@@ -61,6 +73,18 @@ public class SSCenter
 	* mapped slotProviders. If null, any object can emit this signal.
 	*/
 	public void connect( Object signalProvider, String signalName, Object slotProvider, String slotMethod, Class<?>... slotArgTypes )
+    {
+		this.connect(signalProvider, signalName, Slot.DIRECT, slotProvider, slotMethod, slotArgTypes);
+    }
+	
+	/**
+	* Same as connect but the slot is invoked as specified by DISPATCH, one of
+	* Slot.DIRECT (in the emitting thread), Slot.EDT (on the event dispatch thread)
+	* or Slot.BACKGROUND (on the background thread of this center). Use Slot.EDT
+	* for slots that rebuild a part of the interface so that signals emitted by
+	* the functions of a ticket do not rebuild it in the worker threads.
+	*/
+	public void connect( Object signalProvider, String signalName, int dispatch, Object slotProvider, String slotMethod, Class<?>... slotArgTypes )
     {
 		// JEXStatics.logManager.log("SSCenter connect: count " + this.size(), 0, this);
         // remove freed objects
@@ -73,6 +97,7 @@ public class SSCenter
         }
         Signal signal = new Signal( signalProvider, signalName);
         Slot slot = new Slot(slotProvider, slotMethod, slotArgTypes );
+        slot.setDispatch(dispatch);
         
         _connect(signal, slot); 
     }
@@ -151,6 +176,11 @@ public class SSCenter
 	/**
 	* Emits the specified signal with the args passed to the slotMethod of
 	* the connected slots.
+	* Slots connected with Slot.EDT or Slot.BACKGROUND are queued instead of
+	* being invoked right away (EDT slots emitted from the event dispatch thread
+	* are invoked right away). A slot already queued is not queued again, it is
+	* invoked once with the args of the last emission, so a burst of signals
+	* from the same provider results in a single call.
 	* @param aNotification The notification that will be passed
 	* to the observers selector.
 	*/
@@ -163,54 +193,94 @@ public class SSCenter
 		if(signalName == null) return;
 		
 		// get slots connected to given signal (null signalProvider changed to NullMarker in _getSlots)
-        List<Slot> mergedList = _getSlots( signalProvider, signalName );
+        Vector<Slot> list = _getSlots( signalProvider, signalName );
+        if ( list == null ) return;
 
-        Slot tempSlot;
-        Iterator<Slot> it = mergedList.iterator();
-        while ( it.hasNext() )
+        for ( Slot tempSlot : list.toArray(new Slot[0]) )
         {
-            tempSlot = it.next();
-            
             // Clean up garbage collected slots
-            if ( tempSlot.slotProvider() == null ) it.remove();
-            else
+            if ( tempSlot.slotProvider() == null ) list.remove( tempSlot );
+            else if ( tempSlot.dispatch() == Slot.DIRECT )
             {
             	tempSlot.invoke( args );
             }
+            else if ( tempSlot.dispatch() == Slot.EDT && SwingUtilities.isEventDispatchThread() )
+            {
+            	// This call replaces any call still queued
+            	synchronized(pending)
+            	{
+            		pending.remove(tempSlot);
+            	}
+            	tempSlot.invoke( args );
+            }
+            else
+            {
+            	_queue( tempSlot, args );
+            }
         }
         
     }
 	
-	private List<Slot> _getSlots( Object signalProvider, String signalName )
+	private Vector<Slot> _getSlots( Object signalProvider, String signalName )
 	{
-		List<Slot> ret = new LinkedList<Slot>();
-        List<Slot> tempSlotList;
-        
-        if ( signalProvider != null ) 
-        { // both are specified
-        	tempSlotList = this.slots.get( new Signal( signalProvider, signalName ) );
-            if ( tempSlotList != null )
-            {
-                ret.addAll( tempSlotList );
-            }
-            // we would use this if we didn't want to have to remember to put null
-            // for the provider when emitting anonymous signals.
-			//            tempSlotList = slots.get( new Signal( NullMarker, signalName ) );
-			//            if ( tempSlotList != null )
-			//            {
-			//                ret.addAll( tempSlotList );
-			//            }
-        }
-        else 
+        if ( signalProvider == null ) 
         { // object is null
-        	tempSlotList = slots.get( new Signal( NullMarker, signalName ) );
-            if ( tempSlotList != null )
-            {
-                ret.addAll( tempSlotList );
-            }
+        	signalProvider = NullMarker;
         }
-        
-        return ret;
+        // the live list is returned, emit iterates over a copy of it
+        return this.slots.get( new Signal( signalProvider, signalName ) );
+	}
+	
+	/**
+	 * Queue a call of the slot with ARGS unless a call is already queued,
+	 * in which case the queued call will use ARGS
+	 */
+	private void _queue( final Slot slot, Object[] args )
+	{
+		synchronized(pending)
+		{
+			boolean queued = pending.containsKey(slot);
+			pending.put(slot, args);
+			if ( queued ) return;
+		}
+		
+		Runnable call = new Runnable(){
+			public void run()
+			{
+				Object[] latest;
+				synchronized(pending)
+				{
+					if ( !pending.containsKey(slot) ) return; // already invoked directly
+					latest = pending.remove(slot);
+				}
+				if ( slot.slotProvider() != null ) slot.invoke(latest);
+			}
+		};
+		if ( slot.dispatch() == Slot.EDT )
+		{
+			SwingUtilities.invokeLater(call);
+		}
+		else
+		{
+			_getBackgroundExecutor().execute(call);
+		}
+	}
+	
+	private synchronized ExecutorService _getBackgroundExecutor()
+	{
+		if ( background == null )
+		{
+			// A single daemon thread keeps the order of the signals
+			background = Executors.newSingleThreadExecutor(new ThreadFactory(){
+				public Thread newThread(Runnable r)
+				{
+					Thread t = new Thread(r, "SSCenter background slots");
+					t.setDaemon(true);
+					return t;
+				}
+			});
+		}
+		return background;
 	}
 	
 	/**
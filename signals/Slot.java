@@ -3,6 +3,9 @@ package signals;
 import java.lang.ref.WeakReference;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 
 import jex.statics.JEXStatics;
 
@@ -13,15 +16,26 @@ import jex.statics.JEXStatics;
  */ 
 public class Slot extends WeakReference<Object>
 {
+	/**
+	 * Where the slot is invoked when its signal is emitted: in the emitting thread,
+	 * on the event dispatch thread or on the background thread of the SSCenter.
+	 * Slots that are not invoked in the emitting thread are coalesced, see SSCenter.emit
+	 */
+	public static final int DIRECT = 0, EDT = 1, BACKGROUND = 2;
+	
+	// Methods already looked up, the same slots are connected again and again by the panels
+	private static final Map<String,Method> methods = Collections.synchronizedMap(new HashMap<String,Method>());
+	
 	private Method method;
 	private int hashCode;
+	private int dispatch = DIRECT;
 
 	public Slot( Object slotProvider, String slotMethod, Class<?>... slotArgTypes )
 	{
 		super( slotProvider);
 		hashCode = slotProvider.hashCode();
 		try {
-			method = slotProvider.getClass().getMethod(slotMethod, slotArgTypes);
+			method = getMethod(slotProvider.getClass(), slotMethod, slotArgTypes);
 		} catch (SecurityException e) {
 			e.printStackTrace();
 		} catch (NoSuchMethodException e) {
@@ -41,7 +55,7 @@ public class Slot extends WeakReference<Object>
 		super( slotProvider);
 		hashCode = slotProvider.hashCode();
 		try {
-			method = slotProvider.getMethod(slotMethod, slotArgTypes);
+			method = getMethod(slotProvider, slotMethod, slotArgTypes);
 		} catch (SecurityException e) {
 			e.printStackTrace();
 		} catch (NoSuchMethodException e) {
@@ -50,10 +64,40 @@ public class Slot extends WeakReference<Object>
 		}
 	}
 
+	private static Method getMethod(Class<?> c, String slotMethod, Class<?>... slotArgTypes) throws NoSuchMethodException
+	{
+		StringBuilder key = new StringBuilder(c.getName()).append('#').append(slotMethod);
+		if(slotArgTypes != null)
+		{
+			for(Class<?> argType : slotArgTypes)
+			{
+				key.append(',').append(argType.getName());
+			}
+		}
+		String k = key.toString();
+		Method ret = methods.get(k);
+		if(ret == null)
+		{
+			ret = c.getMethod(slotMethod, slotArgTypes);
+			methods.put(k, ret);
+		}
+		return ret;
+	}
+
 	public Method method()
 	{
 		return method;
 	}
+	
+	public int dispatch()
+	{
+		return dispatch;
+	}
+	
+	public void setDispatch(int dispatch)
+	{
+		this.dispatch = dispatch;
+	}
 
 	public Object slotProvider()
 	{
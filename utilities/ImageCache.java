@@ -0,0 +1,294 @@
+package utilities;
+
+import ij.ImagePlus;
+import ij.ImageStack;
+import ij.process.ImageProcessor;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Process-wide cache of decoded images keyed by file path.
+ *
+ * The viewers, the preview panels and consecutive functions of a workflow keep opening
+ * the same files. Decoded images are kept in a least-recently-used map bounded by the
+ * number of bytes of their pixels and are checked against the length and modification
+ * time of their file on each access. A file requested by several threads at once is
+ * decoded only once, the other threads wait for that decode.
+ *
+ * Ownership: functions modify the images they open, so getImagePlus returns a copy
+ * that belongs to the caller. Callers that only read the pixels and never change the
+ * image (its processor, pixels, roi, calibration or display range) can use
+ * getSharedImagePlus instead, which returns the cached image itself without copying.
+ */
+public class ImageCache {
+
+	// Maximum number of bytes of pixels kept in the cache
+	public static long MAX_BYTES = Runtime.getRuntime().maxMemory() / 8;
+
+	private static final Object lock = new Object();
+	private static final LinkedHashMap<String,CachedImage> cache = new LinkedHashMap<String,CachedImage>(16, 0.75f, true);
+	private static final HashMap<String,FutureTask<ImagePlus>> loading = new HashMap<String,FutureTask<ImagePlus>>();
+	private static long bytes = 0;
+
+	// Statistics
+	private static long hits = 0, misses = 0, evictions = 0;
+
+	/**
+	 * Same as new ImagePlus(path) but the file is decoded only if it is not in the cache
+	 * @param path
+	 * @return a copy of the image that the caller can modify
+	 */
+	public static ImagePlus getImagePlus(String path)
+	{
+		return get(path, true);
+	}
+	
+	/**
+	 * Same as getImagePlus but returns the cached image itself, shared with every other
+	 * caller. It must only be read: don't change its processor, pixels, roi, calibration
+	 * or display range, use getImagePlus to get an image to modify.
+	 * @param path
+	 * @return the cached image, read only
+	 */
+	public static ImagePlus getSharedImagePlus(String path)
+	{
+		return get(path, false);
+	}
+	
+	private static ImagePlus get(final String path, boolean copy)
+	{
+		if(path == null)
+		{
+			return new ImagePlus(path);
+		}
+		File file = new File(path);
+		long length = file.length(), lastModified = file.lastModified();
+
+		FutureTask<ImagePlus> task = null;
+		ImagePlus hit = null;
+		boolean owner = false;
+		synchronized(lock)
+		{
+			CachedImage cached = cache.get(path);
+			if(cached != null && cached.length == length && cached.lastModified == lastModified)
+			{
+				hits++;
+				hit = cached.image;
+			}
+			else
+			{
+				remove(path);
+				misses++;
+				task = loading.get(path);
+				if(task == null)
+				{
+					task = new FutureTask<ImagePlus>(new Callable<ImagePlus>(){
+						public ImagePlus call()
+						{
+							return new ImagePlus(path);
+						}
+					});
+					loading.put(path, task);
+					owner = true;
+				}
+			}
+		}
+		if(hit != null)
+		{
+			// The cached pixels are never modified so they can be copied outside the lock
+			return copy ? copy(hit) : hit;
+		}
+
+		// Decode in the calling thread, other threads asking for the same file wait on the task
+		if(owner)
+		{
+			task.run();
+		}
+		ImagePlus image = null;
+		try
+		{
+			image = task.get();
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+		catch (ExecutionException e)
+		{
+			e.printStackTrace();
+		}
+		finally
+		{
+			if(owner)
+			{
+				synchronized(lock)
+				{
+					loading.remove(path);
+					if(image != null && image.getProcessor() != null)
+					{
+						put(path, new CachedImage(image, length, lastModified));
+					}
+				}
+			}
+		}
+
+		if(image == null || image.getProcessor() == null)
+		{
+			// Let ImagePlus report the file that could not be opened as it would without the cache
+			return (image == null) ? new ImagePlus(path) : image;
+		}
+		return copy ? copy(image) : image;
+	}
+
+	/**
+	 * Drop the image of PATH from the cache, e.g. after overwriting or deleting its file
+	 * @param path
+	 */
+	public static void invalidate(String path)
+	{
+		synchronized(lock)
+		{
+			remove(path);
+		}
+	}
+
+	/**
+	 * Empty the cache
+	 */
+	public static void clear()
+	{
+		synchronized(lock)
+		{
+			cache.clear();
+			bytes = 0;
+		}
+	}
+
+	public static long getHits()
+	{
+		return hits;
+	}
+
+	public static long getMisses()
+	{
+		return misses;
+	}
+
+	public static long getEvictions()
+	{
+		return evictions;
+	}
+
+	/**
+	 * Number of bytes of pixels currently held by the cache
+	 * @return
+	 */
+	public static long getBytes()
+	{
+		return bytes;
+	}
+
+	/**
+	 * Return a short summary of the cache usage
+	 * @return
+	 */
+	public static String getStatistics()
+	{
+		synchronized(lock)
+		{
+			long total = hits + misses;
+			double hitRate = (total == 0) ? 0 : 100.0 * hits / total;
+			return "Image cache: " + cache.size() + " images, " + (bytes / (1024*1024)) + " of " + (MAX_BYTES / (1024*1024)) + " MB, " + hits + " hits, " + misses + " misses (" + String.format("%.1f", hitRate) + "% hits), " + evictions + " evictions";
+		}
+	}
+
+	// ---------------------------------------------
+	// Helpers
+	// ---------------------------------------------
+
+	private static void put(String path, CachedImage cached)
+	{
+		remove(path);
+		if(cached.bytes > MAX_BYTES)
+		{
+			return;
+		}
+		cache.put(path, cached);
+		bytes = bytes + cached.bytes;
+
+		// Evict the least recently used images
+		Iterator<CachedImage> itr = cache.values().iterator();
+		while(bytes > MAX_BYTES && itr.hasNext())
+		{
+			CachedImage oldest = itr.next();
+			if(oldest == cached) break;
+			itr.remove();
+			bytes = bytes - oldest.bytes;
+			evictions++;
+		}
+	}
+
+	private static void remove(String path)
+	{
+		CachedImage old = cache.remove(path);
+		if(old != null)
+		{
+			bytes = bytes - old.bytes;
+		}
+	}
+
+	private static ImagePlus copy(ImagePlus image)
+	{
+		ImagePlus ret;
+		if(image.getStackSize() > 1)
+		{
+			ImageStack stack = image.getStack();
+			ImageStack copy = new ImageStack(stack.getWidth(), stack.getHeight());
+			for(int i = 1; i <= stack.getSize(); i++)
+			{
+				copy.addSlice(stack.getSliceLabel(i), stack.getProcessor(i).duplicate());
+			}
+			ret = new ImagePlus(image.getTitle(), copy);
+			ret.setDimensions(image.getNChannels(), image.getNSlices(), image.getNFrames());
+			ret.setOpenAsHyperStack(image.getOpenAsHyperStack());
+			if(image.getBitDepth() == 16 || image.getBitDepth() == 32)
+			{
+				ret.setDisplayRange(image.getDisplayRangeMin(), image.getDisplayRangeMax());
+			}
+		}
+		else
+		{
+			ImageProcessor ip = image.getProcessor();
+			ImageProcessor dup = ip.duplicate();
+			if(image.getBitDepth() == 16 || image.getBitDepth() == 32)
+			{
+				dup.setMinAndMax(ip.getMin(), ip.getMax());
+			}
+			ret = new ImagePlus(image.getTitle(), dup);
+		}
+		ret.setCalibration(image.getCalibration());
+		ret.setFileInfo(image.getOriginalFileInfo());
+		return ret;
+	}
+
+	private static class CachedImage {
+		ImagePlus image;
+		long length, lastModified, bytes;
+
+		CachedImage(ImagePlus image, long length, long lastModified)
+		{
+			this.image = image;
+			this.length = length;
+			this.lastModified = lastModified;
+			int bitDepth = image.getBitDepth();
+			long bytesPerPixel = (bitDepth == 24) ? 4 : Math.max(1, bitDepth / 8);
+			this.bytes = ((long) image.getWidth()) * image.getHeight() * image.getStackSize() * bytesPerPixel;
+		}
+	}
+}
@@ -71,7 +71,7 @@ public class ImageUtility {
 	 * @return
 	 */
 	public static BufferedImage openImage(String path){
-		ImagePlus im = new ImagePlus(path);
+		ImagePlus im = ImageCache.getImagePlus(path);
 		if (im.getProcessor() == null)
 			return null;
 		Image image = im.getImage();
@@ -85,7 +85,7 @@ public class ImageUtility {
 	 * @return
 	 */
 	public static BufferedImage openImage(String path, int width, int height){
-		ImagePlus im = new ImagePlus(path);
+		ImagePlus im = ImageCache.getSharedImagePlus(path); // only read by resize
 		if (im.getProcessor() == null)
 			return null;
 		
@@ -198,78 +198,99 @@ public class StringUtility implements Comparator<String>{
 	}
 
 	/**
-	 * Alphanumeric string sorter
+	 * Alphanumeric string sorter. Runs of digits are compared by their numerical 
+	 * value, other runs character by character. Walks both strings in place 
+	 * without allocating, it is called on every lookup of a DimensionMap
 	 * @param thisString
 	 * @param thatString
 	 * @return
 	 */
 	public static int compareString(String thisString, String thatString)
 	{
-		String string1 = thisString;
-		String string2 = thatString;
+		if (thatString == null || thisString == null) return 0;
+		if (thisString == thatString) return 0;
 		
-		if (string2 == null || string1 == null) {
-            return 0;
-        }
- 
-        int lengthFirstStr = string1.length();
-        int lengthSecondStr = string2.length();
- 
-        int index1 = 0;
-        int index2 = 0;
- 
-        while (index1 < lengthFirstStr && index2 < lengthSecondStr) {
-            char ch1 = string1.charAt(index1);
-            char ch2 = string2.charAt(index2);
- 
-            int maxLength = Math.max(lengthFirstStr, lengthSecondStr);
-            char[] space1 = new char[maxLength];
-            char[] space2 = new char[maxLength];
- 
-            int loc1 = 0;
-            int loc2 = 0;
- 
-            do {
-                space1[loc1++] = ch1;
-                index1++;
- 
-                if (index1 < lengthFirstStr) {
-                    ch1 = string1.charAt(index1);
-                } else {
-                    break;
-                }
-            } while (Character.isDigit(ch1) == Character.isDigit(space1[0]));
- 
-            do {
-                space2[loc2++] = ch2;
-                index2++;
- 
-                if (index2 < lengthSecondStr) {
-                    ch2 = string2.charAt(index2);
-                } else {
-                    break;
-                }
-            } while (Character.isDigit(ch2) == Character.isDigit(space2[0]));
- 
-            String str1 = new String(space1);
-            String str2 = new String(space2);
- 
-            int result;
- 
-            if (Character.isDigit(space1[0]) && Character.isDigit(space2[0])) {
-                Integer firstNumberToCompare = new Integer(Integer
-                        .parseInt(str1.trim()));
-                Integer secondNumberToCompare = new Integer(Integer
-                        .parseInt(str2.trim()));
-                result = firstNumberToCompare.compareTo(secondNumberToCompare);
-            } else {
-                result = str1.compareTo(str2);
-            }
- 
-            if (result != 0) {
-                return result;
-            }
-        }
-        return lengthFirstStr - lengthSecondStr;
+		int lengthFirstStr  = thisString.length();
+		int lengthSecondStr = thatString.length();
+		
+		int index1 = 0;
+		int index2 = 0;
+		
+		while (index1 < lengthFirstStr && index2 < lengthSecondStr)
+		{
+			boolean digit1 = Character.isDigit(thisString.charAt(index1));
+			boolean digit2 = Character.isDigit(thatString.charAt(index2));
+			int end1 = endOfRun(thisString, index1, digit1);
+			int end2 = endOfRun(thatString, index2, digit2);
+			
+			int result;
+			if (digit1 && digit2)
+			{
+				result = compareNumberRuns(thisString, index1, end1, thatString, index2, end2);
+			}
+			else
+			{
+				result = compareTextRuns(thisString, index1, end1, thatString, index2, end2);
+			}
+			
+			if (result != 0) return result;
+			
+			index1 = end1;
+			index2 = end2;
+		}
+		return lengthFirstStr - lengthSecondStr;
+	}
+	
+	/**
+	 * Return the index following the run of digits (or non-digits) starting at START
+	 */
+	private static int endOfRun(String str, int start, boolean digit)
+	{
+		int end = start + 1;
+		while (end < str.length() && Character.isDigit(str.charAt(end)) == digit)
+		{
+			end++;
+		}
+		return end;
+	}
+	
+	/**
+	 * Compare two runs of digits by value, whatever their number of digits
+	 */
+	private static int compareNumberRuns(String str1, int start1, int end1, String str2, int start2, int end2)
+	{
+		// Skip the leading zeros
+		while (start1 < end1 - 1 && Character.digit(str1.charAt(start1), 10) == 0) start1++;
+		while (start2 < end2 - 1 && Character.digit(str2.charAt(start2), 10) == 0) start2++;
+		
+		// More significant digits is a bigger number
+		int length1 = end1 - start1;
+		int length2 = end2 - start2;
+		if (length1 != length2) return (length1 < length2) ? -1 : 1;
+		
+		for (int i = 0; i < length1; i++)
+		{
+			int d1 = Character.digit(str1.charAt(start1 + i), 10);
+			int d2 = Character.digit(str2.charAt(start2 + i), 10);
+			if (d1 != d2) return (d1 < d2) ? -1 : 1;
+		}
+		return 0;
+	}
+	
+	/**
+	 * Compare two runs of characters lexicographically
+	 */
+	private static int compareTextRuns(String str1, int start1, int end1, String str2, int start2, int end2)
+	{
+		int length1 = end1 - start1;
+		int length2 = end2 - start2;
+		int n = Math.min(length1, length2);
+		for (int i = 0; i < n; i++)
+		{
+			char c1 = str1.charAt(start1 + i);
+			char c2 = str2.charAt(start2 + i);
+			if (c1 != c2) return c1 - c2;
+		}
+		return length1 - length2;
 	}
 }
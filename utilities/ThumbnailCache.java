@@ -0,0 +1,414 @@
+package utilities;
+
+import ij.ImagePlus;
+import ij.process.ImageProcessor;
+
+import java.awt.Component;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import javax.imageio.ImageIO;
+import javax.swing.SwingUtilities;
+
+import jex.statics.JEXStatics;
+import Database.SingleUserDatabase.JEXWriter;
+
+/**
+ * Process-wide cache of downsampled previews of image files.
+ *
+ * Each image gets a pyramid of thumbnails whose largest side is 64, 128, 256 and 512
+ * pixels (or less for smaller images). Pyramids are built by a background thread the first
+ * time an image is requested or when a function creates it, saved as png files in the
+ * THUMBNAILS folder of the database and kept in memory in a least-recently-used map
+ * bounded by the number of bytes of their pixels. getThumbnail never decodes the image:
+ * it returns null while the pyramid is not ready and repaints the component that asked
+ * for it once it is.
+ *
+ * Thumbnail files are identified by the path of their image relative to the database
+ * folder and by its length and modification time, so they are rebuilt when the file
+ * changes and files with the same name in different folders do not share them. Writing
+ * the thumbnails of an image deletes the ones of its previous versions and the files
+ * that have not been used for MAX_AGE are deleted the first time the folder is used.
+ * Images in the temp folder (they get a new path when the database is saved) or outside
+ * the database only have thumbnails in memory.
+ */
+public class ThumbnailCache {
+
+	public static final String THUMBNAILS = "Thumbnails";
+	public static final int[] SIDES = new int[]{64, 128, 256, 512};
+
+	// Maximum number of bytes of thumbnail pixels kept in memory
+	public static long MAX_BYTES = Runtime.getRuntime().maxMemory() / 32;
+
+	// Thumbnail files not used for that many milliseconds are deleted
+	public static long MAX_AGE = 30L * 24 * 60 * 60 * 1000;
+
+	private static final Object lock = new Object();
+	private static final LinkedHashMap<String,Pyramid> cache = new LinkedHashMap<String,Pyramid>(16, 0.75f, true);
+	private static final HashMap<String,List<Component>> loading = new HashMap<String,List<Component>>();
+	private static long bytes = 0;
+	private static String prunedFolder = null; // only touched by the builder thread
+
+	private static final ExecutorService builder = Executors.newSingleThreadExecutor(new ThreadFactory(){
+		public Thread newThread(Runnable r)
+		{
+			Thread t = new Thread(r, "JEX thumbnails");
+			t.setDaemon(true);
+			t.setPriority(Thread.MIN_PRIORITY);
+			return t;
+		}
+	});
+
+	/**
+	 * Return the smallest thumbnail of the image at PATH whose largest side is at least
+	 * SIDE (or the largest thumbnail), or null if it is not in memory yet. In that case
+	 * the thumbnail is loaded or built in the background and TOREPAINT is repainted
+	 * when it is ready.
+	 * @param path
+	 * @param side
+	 * @param toRepaint can be null
+	 * @return
+	 */
+	public static BufferedImage getThumbnail(String path, int side, Component toRepaint)
+	{
+		if(path == null) return null;
+		File file = new File(path);
+		long length = file.length(), lastModified = file.lastModified();
+		synchronized(lock)
+		{
+			Pyramid pyramid = cache.get(path);
+			if(pyramid != null && pyramid.length == length && pyramid.lastModified == lastModified)
+			{
+				return pyramid.getLevel(side);
+			}
+		}
+		request(path, toRepaint);
+		return null;
+	}
+
+	/**
+	 * Build the thumbnails of the image at PATH in the background, e.g. when a function
+	 * has just created it
+	 * @param path
+	 */
+	public static void prefetch(String path)
+	{
+		if(path == null) return;
+		request(path, null);
+	}
+
+	/**
+	 * Drop the thumbnails of PATH from memory
+	 * @param path
+	 */
+	public static void invalidate(String path)
+	{
+		synchronized(lock)
+		{
+			remove(path);
+		}
+	}
+
+	/**
+	 * Empty the memory cache, the thumbnail files are kept
+	 */
+	public static void clear()
+	{
+		synchronized(lock)
+		{
+			cache.clear();
+			bytes = 0;
+		}
+	}
+
+	// ---------------------------------------------
+	// Loading
+	// ---------------------------------------------
+
+	private static void request(final String path, Component toRepaint)
+	{
+		synchronized(lock)
+		{
+			List<Component> waiting = loading.get(path);
+			if(waiting != null)
+			{
+				if(toRepaint != null && !waiting.contains(toRepaint)) waiting.add(toRepaint);
+				return;
+			}
+			waiting = new ArrayList<Component>(1);
+			if(toRepaint != null) waiting.add(toRepaint);
+			loading.put(path, waiting);
+		}
+		builder.execute(new Runnable(){
+			public void run()
+			{
+				load(path);
+			}
+		});
+	}
+
+	private static void load(String path)
+	{
+		Pyramid pyramid = null;
+		try
+		{
+			File file = new File(path);
+			pyramid = new Pyramid(file.length(), file.lastModified());
+			File folder = getFolder();
+			String pathKey = (folder == null) ? null : getPathKey(file);
+			if(pathKey == null)
+			{
+				pyramid.build(path);
+			}
+			else
+			{
+				prune(folder);
+				String key = pathKey + "_" + Long.toHexString(pyramid.length) + "_" + Long.toHexString(pyramid.lastModified);
+				if(!pyramid.read(folder, key))
+				{
+					pyramid.build(path);
+					deleteVersions(folder, pathKey);
+					pyramid.write(folder, key);
+				}
+			}
+		}
+		catch (Exception e)
+		{
+			JEXStatics.logManager.log("Could not make the thumbnails of {}", 1, "ThumbnailCache", path);
+			e.printStackTrace();
+		}
+
+		List<Component> waiting;
+		synchronized(lock)
+		{
+			waiting = loading.remove(path);
+			if(pyramid != null)
+			{
+				// A pyramid without level is kept too so a file that cannot be read is not retried on each paint
+				put(path, pyramid);
+			}
+		}
+		for (final Component c : waiting)
+		{
+			SwingUtilities.invokeLater(new Runnable(){
+				public void run()
+				{
+					c.repaint();
+				}
+			});
+		}
+	}
+
+	/**
+	 * Folder of the thumbnail files or null if no database is open
+	 */
+	private static File getFolder()
+	{
+		if(JEXStatics.jexManager == null || JEXStatics.jexManager.getDatabaseInfo() == null) return null;
+		String dbFolder = JEXWriter.getDatabaseFolder();
+		if(dbFolder == null) return null;
+		File folder = new File(dbFolder + File.separator + THUMBNAILS);
+		if(!folder.exists() && !folder.mkdirs()) return null;
+		return folder;
+	}
+
+	/**
+	 * Hash of the path of FILE relative to the database folder or null if the file is
+	 * not in the database or is in its temp folder
+	 */
+	private static String getPathKey(File file) throws NoSuchAlgorithmException, IOException
+	{
+		String dbPath = new File(JEXWriter.getDatabaseFolder()).getAbsolutePath() + File.separator;
+		String filePath = file.getAbsolutePath();
+		if(!filePath.startsWith(dbPath)) return null;
+		String relative = filePath.substring(dbPath.length());
+		if(relative.startsWith(JEXWriter.getTempFolderName() + File.separator)) return null;
+
+		// Same key whatever the separator of the platform
+		byte[] digest = MessageDigest.getInstance("MD5").digest(relative.replace(File.separatorChar, '/').getBytes("UTF-8"));
+		StringBuilder ret = new StringBuilder(2 * digest.length);
+		for (byte b : digest)
+		{
+			ret.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		}
+		return ret.toString();
+	}
+
+	/**
+	 * Delete the thumbnail files of all the versions of the image of PATHKEY
+	 */
+	private static void deleteVersions(File folder, String pathKey)
+	{
+		File[] files = folder.listFiles();
+		if(files == null) return;
+		for (File f : files)
+		{
+			if(f.getName().startsWith(pathKey + "_")) f.delete();
+		}
+	}
+
+	/**
+	 * Delete the thumbnail files of FOLDER not used for MAX_AGE, once per database
+	 */
+	private static void prune(File folder)
+	{
+		if(folder.getPath().equals(prunedFolder)) return;
+		prunedFolder = folder.getPath();
+		File[] files = folder.listFiles();
+		if(files == null) return;
+		long oldest = System.currentTimeMillis() - MAX_AGE;
+		int count = 0;
+		for (File f : files)
+		{
+			if(f.getName().endsWith(".png") && f.lastModified() < oldest && f.delete()) count++;
+		}
+		if(count > 0)
+		{
+			JEXStatics.logManager.log("Deleted " + count + " unused thumbnail files", 1, "ThumbnailCache");
+		}
+	}
+
+	private static void put(String path, Pyramid pyramid)
+	{
+		remove(path);
+		cache.put(path, pyramid);
+		bytes = bytes + pyramid.bytes;
+
+		// Evict the least recently used pyramids
+		Iterator<Pyramid> itr = cache.values().iterator();
+		while(bytes > MAX_BYTES && itr.hasNext())
+		{
+			Pyramid oldest = itr.next();
+			if(oldest == pyramid) break;
+			itr.remove();
+			bytes = bytes - oldest.bytes;
+		}
+	}
+
+	private static void remove(String path)
+	{
+		Pyramid old = cache.remove(path);
+		if(old != null)
+		{
+			bytes = bytes - old.bytes;
+		}
+	}
+
+	/**
+	 * Thumbnails of one image from the smallest to the largest
+	 */
+	private static class Pyramid {
+		long length, lastModified, bytes = 0;
+		List<BufferedImage> levels = new ArrayList<BufferedImage>(SIDES.length);
+
+		Pyramid(long length, long lastModified)
+		{
+			this.length = length;
+			this.lastModified = lastModified;
+		}
+
+		BufferedImage getLevel(int side)
+		{
+			for (BufferedImage level : this.levels)
+			{
+				if(Math.max(level.getWidth(), level.getHeight()) >= side) return level;
+			}
+			return (this.levels.size() == 0) ? null : this.levels.get(this.levels.size() - 1);
+		}
+
+		/**
+		 * Decode the image once and downsample the largest level by halves
+		 */
+		void build(String path)
+		{
+			ImagePlus im = new ImagePlus(path);
+			ImageProcessor ip = im.getProcessor();
+			if(ip == null) return;
+
+			int w = ip.getWidth(), h = ip.getHeight();
+			double scale = Math.min(1.0, ((double) SIDES[SIDES.length - 1]) / Math.max(w, h));
+			int lw = Math.max(1, (int) Math.round(scale * w)), lh = Math.max(1, (int) Math.round(scale * h));
+			if(lw != w || lh != h)
+			{
+				ip.setInterpolate(true);
+				ip = ip.resize(lw, lh);
+			}
+			BufferedImage level = toRGB(ip.createImage(), lw, lh);
+
+			List<BufferedImage> ret = new ArrayList<BufferedImage>(SIDES.length);
+			ret.add(level);
+			for (int i = SIDES.length - 2; i >= 0; i--)
+			{
+				if(Math.max(level.getWidth(), level.getHeight()) <= SIDES[i]) continue;
+				double s = ((double) SIDES[i]) / Math.max(level.getWidth(), level.getHeight());
+				level = toRGB(level, Math.max(1, (int) Math.round(s * level.getWidth())), Math.max(1, (int) Math.round(s * level.getHeight())));
+				ret.add(0, level);
+			}
+			this.setLevels(ret);
+		}
+
+		boolean read(File folder, String key) throws IOException
+		{
+			if(folder == null) return false;
+			List<BufferedImage> ret = new ArrayList<BufferedImage>(SIDES.length);
+			for (int i = 0; i < SIDES.length; i++)
+			{
+				File f = new File(folder, key + "_" + i + ".png");
+				if(!f.exists()) break;
+				BufferedImage level = ImageIO.read(f);
+				if(level == null) return false;
+				ret.add(level);
+
+				// Mark the file as used so it is not pruned
+				f.setLastModified(System.currentTimeMillis());
+			}
+			if(ret.size() == 0) return false;
+			this.setLevels(ret);
+			return true;
+		}
+
+		void write(File folder, String key) throws IOException
+		{
+			if(folder == null) return;
+			for (int i = 0; i < this.levels.size(); i++)
+			{
+				ImageIO.write(this.levels.get(i), "png", new File(folder, key + "_" + i + ".png"));
+			}
+		}
+
+		private void setLevels(List<BufferedImage> levels)
+		{
+			this.levels = levels;
+			this.bytes = 0;
+			for (BufferedImage level : levels)
+			{
+				this.bytes = this.bytes + 4L * level.getWidth() * level.getHeight();
+			}
+		}
+
+		private static BufferedImage toRGB(Image image, int w, int h)
+		{
+			BufferedImage ret = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+			Graphics2D g = ret.createGraphics();
+			g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+			g.drawImage(image, 0, 0, w, h, null);
+			g.dispose();
+			return ret;
+		}
+	}
+}
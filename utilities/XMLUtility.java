@@ -66,11 +66,11 @@ public class XMLUtility
 	}
 	
 	/**
-	* Saves the data base in a file
+	* Saves the data base in a file, returns false if the file could not be written
 	*/
-	public static void XMLsave(String fullPath, Element toSave)
+	public static boolean XMLsave(String fullPath, Element toSave)
 	{
-		saveString(fullPath, toHardXML(toSave));
+		return saveString(fullPath, toHardXML(toSave));
 	}
 	
 	/**
@@ -108,15 +108,17 @@ public class XMLUtility
 	 * @param fullPath
 	 * @param toSave
 	 */
-	private static void saveString(String fullPath, String toSave)
+	private static boolean saveString(String fullPath, String toSave)
 	{
 		try
 		{
 			Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(fullPath), "UTF-8")); 
 			writer.write(toSave);
 			writer.close();
+			return true;
 		}
 		catch (IOException e) { System.out.println("ERROR creatingfile"); }
+		return false;
 	}
 
 }
@@ -3,6 +3,8 @@ package utilities;
 import ij.*;
 import ij.io.*;
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.*;
 
 import jex.statics.JEXStatics;
@@ -30,8 +32,11 @@ public class ZVI_Reader {
 	//+ new code
 	private Set<Integer> C_Set = new HashSet<Integer>(); // to hold C channel index collection
 	//- (mb)    
-	private ImageProcessor ip1;
 	String fileName ;
+	private FileInfo[] planes;
+	private RandomAccessFile file;
+	private FileChannel channel;
+	private ByteBuffer planeBuffer; // reused by readPlane
 	// -- Constants --
 
 	/** First few bytes of every ZVI file. */
@@ -64,7 +69,41 @@ public class ZVI_Reader {
 
 	/** Executes the plugin. */
 	public Hashtable<Integer,ImageStack> decodeZVI(String zviFileName) {
-		if (zviFileName == null) return null;
+		if (!open(zviFileName)) return null;
+
+		// make ImageStack for each channel and add each plane to
+		// its channel, planes are read one by one from the file.
+		Hashtable<Integer,ImageStack> img = new Hashtable<Integer,ImageStack>();
+		try {
+			for (int n=0; n<planes.length; n++) {
+				int theC = getChannel(planes[n]);
+				ImageStack stack = img.get(theC);
+				if (stack == null) {
+					stack = new ImageStack(planes[n].width, planes[n].height);
+					img.put(theC, stack);
+				}
+				stack.addSlice(null, readPlane(n));
+			}
+		}
+		catch (IOException e) {
+			JEXStatics.logManager.log("Could not extract pixel data.",1,this);
+			e.printStackTrace();
+			return null;
+		}
+		finally {
+			close();
+		}
+		return img;
+	}
+
+	// -- Plane by plane access --
+
+	/**
+	 * Opens the file and reads its headers, the planes are then read one at a time
+	 * with readPlane or iterator. Returns false if the file is not a ZVI file.
+	 */
+	public boolean open(String zviFileName) {
+		if (zviFileName == null) return false;
 		File zviFile     = new File(zviFileName);
 		this.fileName    = zviFile.getName();
 		String directory = zviFile.getParent() + File.separator;
@@ -77,56 +116,127 @@ public class ZVI_Reader {
 		}
 		catch (Exception e) {
 			JEXStatics.logManager.log("ZVI Reader error",1,this);
-			return null;
+			return false;
 		}
 		if (fi == null) {
 			JEXStatics.logManager.log("Could not find header information",1,this);
-			return null;
+			return false;
 		}
 
-		Opener opener = new Opener();
-		ImagePlus imp = opener.openTiffStack(fi); // is there a cleaner way?
-		if (imp == null) {
-			JEXStatics.logManager.log("Could not extract pixel data.",1,this);
-			return null;
+		try {
+			file = new RandomAccessFile(zviFile, "r");
+			channel = file.getChannel();
+		}
+		catch (IOException e) {
+			JEXStatics.logManager.log("ZVI Reader error",1,this);
+			return false;
 		}
-		//setStack(fileName, imp.getStack());
+		planes = fi;
+		return true;
+	}
 
-		// addition by TjC
-		ImageStack istk = imp.getStack();
+	/** Closes the file opened with open. */
+	public void close() {
+		try {
+			if (file != null) file.close();
+		}
+		catch (IOException e) {
+			e.printStackTrace();
+		}
+		file = null;
+		channel = null;
+		planeBuffer = null;
+	}
 
-		int nSlice = istk .getSize();
-		int sWidth = istk.getWidth();
-		int sHeight = istk.getHeight();
-//		String stackName="";
-		
-		// make ImageStack for each channel.
-		Hashtable<Integer,ImageStack> img = new Hashtable<Integer,ImageStack>();
-		Iterator<Integer> it = C_Set.iterator();
-		while (it.hasNext()) {
-			Object theC = it.next();
-			img.put((Integer)theC, new ImageStack (sWidth,sHeight));
+	/** Number of image planes in the file. */
+	public int getPlaneCount() {
+		return (planes == null) ? 0 : planes.length;
+	}
+
+	/** Z, C and T index of a plane. */
+	public int[] getZCT(int plane) {
+		StringTokenizer st = new StringTokenizer(planes[plane].info," ,");
+		return new int[] {Integer.parseInt(st.nextToken()), Integer.parseInt(st.nextToken()), Integer.parseInt(st.nextToken())};
+	}
+
+	/**
+	 * Channel indexes of the file, in the same order as the keys of the
+	 * table returned by decodeZVI.
+	 */
+	public List<Integer> getChannels() {
+		Hashtable<Integer,Integer> channels = new Hashtable<Integer,Integer>();
+		for (int n=0; n<getPlaneCount(); n++) {
+			channels.put(getChannel(planes[n]), n);
 		}
-		// iteratate thru all image slices and
-		// add slice to corresponding channel ImageStack.
-		for (int n=0; n< nSlice; n++) {
-			int theC = getChannel(fi[n]);
-			ip1 = istk.getProcessor(n+1);
-			((ImageStack)img.get(new Integer(theC))).addSlice(null, ip1);
+		return new ArrayList<Integer>(channels.keySet());
+	}
+
+	/** Indexes of the planes of channel THEC, in the order of the file. */
+	public List<Integer> getPlanes(int theC) {
+		List<Integer> ret = new ArrayList<Integer>();
+		for (int n=0; n<getPlaneCount(); n++) {
+			if (getChannel(planes[n]) == theC) ret.add(n);
 		}
-		
-//		// name image stacks and show them.
-//		it = C_Set.iterator();
-//		while (it.hasNext()) {
-//			Object theC = it.next();
-//			stackName = fileName + "  Ch"+ theC;
-//			new ImagePlus(stackName, ((ImageStack)img.get(theC))).show();
-//		}
-//		//- (mb)
-		
-		return img;
+		return ret;
 	}
 
+	/**
+	 * Reads a plane. Only the bytes of the plane are read from the file, into a buffer
+	 * reused from plane to plane, so the memory used does not depend on the size of the
+	 * file. The file is not mapped so it can be moved or deleted once closed. A plane
+	 * cut by the end of the file is read partially.
+	 */
+	public synchronized ImageProcessor readPlane(int plane) throws IOException {
+		FileInfo fi = (FileInfo) planes[plane].clone();
+		long offset = planes[plane].getOffset();
+		fi.offset = 0;
+		fi.longOffset = 0;
+		int size = fi.width * fi.height * fi.getBytesPerPixel();
+		if (planeBuffer == null || planeBuffer.capacity() < size) planeBuffer = ByteBuffer.allocate(size);
+		planeBuffer.clear();
+		planeBuffer.limit(size);
+		while (planeBuffer.hasRemaining()) {
+			if (channel.read(planeBuffer, offset + planeBuffer.position()) < 0) break;
+		}
+		planeBuffer.flip();
+
+		Object pixels = new ij.io.ImageReader(fi).readPixels(new BufferInputStream(planeBuffer));
+		if (pixels instanceof byte[]) return new ByteProcessor(fi.width, fi.height, (byte[]) pixels, null);
+		if (pixels instanceof short[]) return new ShortProcessor(fi.width, fi.height, (short[]) pixels, null);
+		if (pixels instanceof int[]) return new ColorProcessor(fi.width, fi.height, (int[]) pixels);
+		if (pixels instanceof float[]) return new FloatProcessor(fi.width, fi.height, (float[]) pixels, null);
+		if (pixels instanceof Object[]) {
+			// 48-bit color, keep the first component... better than nothing
+			JEXStatics.logManager.log("Warning: only the first component of 48-bit color plane #" + (plane + 1) + " is read",1,this);
+			return new ShortProcessor(fi.width, fi.height, (short[]) ((Object[]) pixels)[0], null);
+		}
+		throw new IOException("Could not extract pixel data of plane #" + (plane + 1));
+	}
+
+	/**
+	 * Iterates over the planes of channel THEC, each plane is read when it is
+	 * asked for. Read errors end the iteration.
+	 */
+	public Iterator<ImageProcessor> iterator(int theC) {
+		final Iterator<Integer> indexes = getPlanes(theC).iterator();
+		return new Iterator<ImageProcessor>() {
+			public boolean hasNext() {
+				return indexes.hasNext();
+			}
+			public ImageProcessor next() {
+				try {
+					return readPlane(indexes.next().intValue());
+				}
+				catch (IOException e) {
+					e.printStackTrace();
+					throw new NoSuchElementException(e.getMessage());
+				}
+			}
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
 
 	// -- Helper methods --
 
@@ -365,6 +475,7 @@ public class ZVI_Reader {
 			fi[i].width = zviBlock.width;
 			fi[i].height = zviBlock.height;
 			fi[i].offset = (int) zviBlock.imagePos;
+			fi[i].longOffset = zviBlock.imagePos; // files over 2 GB
 			fi[i].fileType = ft;
 			//+ (mb)
 			//+ new code
@@ -462,6 +573,36 @@ public class ZVI_Reader {
 
 	// -- Helper classes --
 
+	/** Reads the bytes of a plane from a buffer. */
+	private static class BufferInputStream extends InputStream {
+		private ByteBuffer buffer;
+
+		public BufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		public int read() {
+			return buffer.hasRemaining() ? (buffer.get() & 0xff) : -1;
+		}
+
+		public int read(byte[] b, int off, int len) {
+			if (!buffer.hasRemaining()) return -1;
+			len = Math.min(len, buffer.remaining());
+			buffer.get(b, off, len);
+			return len;
+		}
+
+		public long skip(long n) {
+			int k = (int) Math.min(n, buffer.remaining());
+			buffer.position(buffer.position() + k);
+			return k;
+		}
+
+		public int available() {
+			return buffer.remaining();
+		}
+	}
+
 	/** Contains information collected from a ZVI image header. */
 	private class ZVIBlock {
 		private int theZ, theC, theT;
@@ -1,17 +1,28 @@
 package weka.core.converters;
 
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.RandomAccessFile;
 import java.io.StreamTokenizer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
 import java.util.TreeMap;
 
 import jex.statics.JEXStatics;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.CountingInputStream;
+
 import utilities.Pair;
 import weka.core.Instance;
 import weka.core.Instances;
 import Database.DBObjects.dimension.Dim;
 import Database.DBObjects.dimension.DimTable;
 import Database.DBObjects.dimension.DimensionMap;
+import Database.DBObjects.dimension.NumericTable;
 import Database.DBObjects.dimension.Table;
 import Database.SingleUserDatabase.JEXWriter;
 
@@ -23,6 +34,21 @@ public class JEXTableReader2
 	public DimTable dimTable = null;
 	public boolean multipleReadsFlag = true; // flag to automatically reset the reader 
 	
+	// Binary tables (JEXTableWriter2.BINARY_FILE) are read from the file instead of the ArffLoader.
+	// Each reader opens the file for itself and keeps it open for the following reads while
+	// multipleReadsFlag is set. close() releases it, so nothing holds on to the file once the
+	// reader is closed and it can be moved or deleted.
+	private static final int BINARY_BUFFER_SIZE = 1 << 16;
+	private boolean binary = false;
+	private RandomAccessFile binaryFile = null;
+	private DataInputStream binaryIn = null;
+	private CountingInputStream binaryCounter = null;
+	private long binaryStreamStart = 0; // file position of the first byte of binaryIn
+	private long dataStart = 0, dataEnd = 0;
+	private boolean binaryNumeric = true;
+	private long indexStart = -1; // position of the row index, see JEXTableWriter2.writeBinaryIndex
+	private int indexEntrySize = 8;
+	
 	/**
 	 * 
 	 */
@@ -65,14 +91,40 @@ public class JEXTableReader2
 		return ret;
 	}
 	
+	/**
+	 * Read a numeric table into a dense NumericTable instead of a TreeMap of boxed values
+	 * @param filePath
+	 * @return
+	 */
+	public static NumericTable getDenseNumericTable(String filePath)
+	{
+		return getDenseNumericTable(filePath, null);
+	}
+	
+	public static NumericTable getDenseNumericTable(String filePath, DimensionMap filter)
+	{
+		JEXTableReader2 reader = new JEXTableReader2(filePath);
+		reader.readHeader(); // leaves reader open
+		reader.multipleReadsFlag = false;
+		NumericTable ret = reader.readDenseNumericData(filter); // this function calls close();
+		return ret;
+	}
+	
 	public static DimTable getDimTable(String filePath)
 	{
 		JEXTableReader2 reader = new JEXTableReader2(filePath);
 		reader.readHeader(); // leaves reader open
 		reader.close(); // closes reader
-		return reader.dimTable.copy();
+		return (reader.dimTable == null) ? null : reader.dimTable.copy();
 	}
 	
+	/**
+	 * Return the entries of DATA matching FILTER. Walks the whole map, use
+	 * NumericTable.getFilteredTable to slice numeric tables
+	 * @param data
+	 * @param filter
+	 * @return
+	 */
 	public static <E> TreeMap<DimensionMap,E> filter(TreeMap<DimensionMap,E> data, DimensionMap filter)
 	{
 		TreeMap<DimensionMap,E> ret = new TreeMap<DimensionMap,E>();
@@ -107,8 +159,19 @@ public class JEXTableReader2
 		}
 	}
 	
+	public boolean isBinary()
+	{
+		return JEXTableWriter2.isBinary(this.filePath);
+	}
+	
 	public void readHeader()
 	{
+		if(this.isBinary())
+		{
+			this.binary = true;
+			this.readBinaryHeader();
+			return;
+		}
 		try
 		{
 			this.loader.setFile(new File(this.filePath));
@@ -122,8 +185,331 @@ public class JEXTableReader2
 		}
 	}
 	
+	/**
+	 * Open the binary file and read its header and the position of its row index
+	 * (see JEXTableWriter2.writeBinaryHeader). The dim table stays null if the file
+	 * can't be read so the read methods return null.
+	 */
+	private void readBinaryHeader()
+	{
+		this.dimTable = null;
+		try
+		{
+			this.binaryFile = new RandomAccessFile(this.filePath, "r");
+			this.binaryIn = null;
+			this.seek(0);
+			String version = this.binaryIn.readUTF();
+			if(!JEXTableWriter2.BINARY_VERSION.equals(version) && !JEXTableWriter2.BINARY_VERSION_INT_INDEX.equals(version))
+			{
+				JEXStatics.logManager.log("Unknown table format: " + this.filePath, 0, JEXTableReader2.class.getSimpleName());
+				this.close();
+				return;
+			}
+			this.indexEntrySize = JEXTableWriter2.BINARY_VERSION.equals(version) ? 8 : 4;
+			this.binaryIn.readUTF(); // table name
+			this.binaryIn.readUTF(); // value name
+			this.binaryNumeric = this.binaryIn.readBoolean();
+			int nDims = this.binaryIn.readInt();
+			DimTable dimTable = new DimTable();
+			for(int i = 0; i < nDims; i++)
+			{
+				String name = this.binaryIn.readUTF();
+				int nValues = this.binaryIn.readInt();
+				String[] values = new String[nValues];
+				for(int j = 0; j < nValues; j++)
+				{
+					values[j] = this.binaryIn.readUTF();
+				}
+				dimTable.add(new Dim(name, values));
+			}
+			this.dataStart = this.position();
+			this.dataEnd = this.binaryFile.length();
+			
+			// Row index at the end of the file (missing if the writer wasn't closed)
+			this.indexStart = -1;
+			int footer = this.indexEntrySize + 4;
+			if(this.dataEnd - footer >= this.dataStart)
+			{
+				this.seek(this.dataEnd - footer);
+				long indexStart = (this.indexEntrySize == 8) ? this.binaryIn.readLong() : this.binaryIn.readInt();
+				if(this.binaryIn.readInt() == JEXTableWriter2.BINARY_INDEX_MAGIC && indexStart >= this.dataStart && this.dataEnd - footer - indexStart == (long) this.indexEntrySize * dimTable.mapCount())
+				{
+					this.indexStart = indexStart;
+					this.dataEnd = indexStart;
+				}
+			}
+			this.seek(this.dataStart);
+			this.dimTable = dimTable;
+		}
+		catch (IOException e)
+		{
+			e.printStackTrace();
+			JEXStatics.logManager.log("Couldn't read the table " + this.filePath, 0, JEXTableReader2.class.getSimpleName());
+			this.close();
+		}
+	}
+	
+	/**
+	 * Position in the file of the next byte of the binary stream
+	 */
+	private long position()
+	{
+		return this.binaryStreamStart + this.binaryCounter.getByteCount();
+	}
+	
+	/**
+	 * Move the binary stream to POSITION. Positions a little ahead are reached by
+	 * reading through the buffer, others by moving the file channel.
+	 */
+	private void seek(long position) throws IOException
+	{
+		if(this.binaryIn != null)
+		{
+			long ahead = position - this.position();
+			if(ahead >= 0 && ahead <= BINARY_BUFFER_SIZE)
+			{
+				IOUtils.skipFully(this.binaryIn, ahead);
+				return;
+			}
+		}
+		FileChannel channel = this.binaryFile.getChannel();
+		channel.position(position);
+		this.binaryStreamStart = position;
+		this.binaryCounter = new CountingInputStream(new BufferedInputStream(Channels.newInputStream(channel), BINARY_BUFFER_SIZE));
+		this.binaryIn = new DataInputStream(this.binaryCounter);
+	}
+	
+	/**
+	 * Return the position of each row of ROWS read from the row index, -1 for rows that
+	 * weren't written. ROWS are in increasing order so the index is read forward.
+	 */
+	private long[] rowPositions(int[] rows) throws IOException
+	{
+		long[] ret = new long[rows.length];
+		for(int k = 0; k < rows.length; k++)
+		{
+			this.seek(this.indexStart + (long) this.indexEntrySize * rows[k]);
+			ret[k] = (this.indexEntrySize == 8) ? this.binaryIn.readLong() : this.binaryIn.readInt();
+		}
+		return ret;
+	}
+	
+	/**
+	 * Read the dim value indices of the next row of a binary table into INDICES
+	 * @return false at the end of the table
+	 */
+	private boolean readBinaryIndices(int[] indices) throws IOException
+	{
+		if(this.position() >= this.dataEnd) return false;
+		for(int i = 0; i < indices.length; i++)
+		{
+			indices[i] = this.binaryIn.readInt();
+		}
+		return true;
+	}
+	
+	/**
+	 * Read the value of the current row of a binary table, null if missing
+	 */
+	private Object readBinaryValue() throws IOException
+	{
+		if(this.binaryNumeric)
+		{
+			double val = this.binaryIn.readDouble();
+			return Double.isNaN(val) ? null : Double.valueOf(val);
+		}
+		if(!this.binaryIn.readBoolean()) return null;
+		byte[] bytes = new byte[this.binaryIn.readInt()];
+		this.binaryIn.readFully(bytes);
+		return new String(bytes, "UTF-8");
+	}
+	
+	/**
+	 * Read the value of the current row of a binary table as a double, NaN if it
+	 * is missing or, in string tables, not a number
+	 */
+	private double readBinaryDouble() throws IOException
+	{
+		if(this.binaryNumeric)
+		{
+			return this.binaryIn.readDouble();
+		}
+		String val = (String) this.readBinaryValue();
+		try
+		{
+			return (val == null) ? Double.NaN : Double.parseDouble(val);
+		}
+		catch (NumberFormatException e)
+		{
+			return Double.NaN;
+		}
+	}
+	
+	/**
+	 * Skip the value of the current row of a binary table
+	 */
+	private void skipBinaryValue() throws IOException
+	{
+		if(this.binaryNumeric)
+		{
+			IOUtils.skipFully(this.binaryIn, 8);
+			return;
+		}
+		if(!this.binaryIn.readBoolean()) return;
+		IOUtils.skipFully(this.binaryIn, this.binaryIn.readInt());
+	}
+	
+	/**
+	 * Return the next row of the table (ARFF or binary), null at the end of the table.
+	 * The value of the pair is null for missing values.
+	 */
+	protected <E> Pair<DimensionMap,E> nextPair() throws IOException
+	{
+		return this.nextPair(null);
+	}
+	
+	/**
+	 * Return the next row of the table matching REQUIRED (see requiredIndices), null at
+	 * the end of the table. The dim value indices of each row are checked before the row 
+	 * is turned into a DimensionMap so non matching rows are skipped without building them.
+	 * The value of the pair is null for missing values.
+	 */
+	@SuppressWarnings("unchecked")
+	protected <E> Pair<DimensionMap,E> nextPair(int[] required) throws IOException
+	{
+		if(!this.binary)
+		{
+			Instance instance;
+			while((instance = this.loader.m_ArffReader.readInstance(this.structure)) != null)
+			{
+				if(matches(instance, required)) return getPair(instance);
+			}
+			return null;
+		}
+		
+		int[] indices = new int[this.dimTable.size()];
+		while(this.readBinaryIndices(indices))
+		{
+			if(!matches(indices, required))
+			{
+				this.skipBinaryValue();
+				continue;
+			}
+			return new Pair<DimensionMap,E>(this.makeMap(indices), (E) this.readBinaryValue());
+		}
+		return null;
+	}
+	
+	/**
+	 * Return the index of the value each dim must have to pass FILTER (-1 for any value)
+	 * @param filter
+	 * @return null if there is no filter
+	 */
+	private int[] requiredIndices(DimensionMap filter)
+	{
+		if(filter == null) return null;
+		int[] required = new int[this.dimTable.size()];
+		for(int i = 0; i < required.length; i++)
+		{
+			String value = filter.get(this.dimTable.get(i).dimName);
+			required[i] = (value == null) ? -1 : this.dimTable.get(i).index(value);
+		}
+		return required;
+	}
+	
+	/**
+	 * Rows with a missing dim value (index -1) never match, they have no place in the table
+	 */
+	private static boolean matches(int[] indices, int[] required)
+	{
+		for(int i = 0; i < indices.length; i++)
+		{
+			if(indices[i] < 0) return false;
+			if(required != null && required[i] >= 0 && indices[i] != required[i]) return false;
+		}
+		return true;
+	}
+	
+	private static boolean matches(Instance instance, int[] required)
+	{
+		if(required == null) return true;
+		for(int i = 0; i < required.length; i++)
+		{
+			// A missing nominal value is NaN, which would be cast to the index of the first label
+			if(required[i] >= 0 && (instance.isMissing(i) || (int) instance.value(i) != required[i])) return false;
+		}
+		return true;
+	}
+	
+	private DimensionMap makeMap(int[] indices)
+	{
+		DimensionMap map = new DimensionMap();
+		for(int i = 0; i < indices.length; i++)
+		{
+			Dim dim = this.dimTable.get(i);
+			map.put(dim.dimName, dim.valueAt(indices[i]));
+		}
+		return map;
+	}
+	
+	/**
+	 * Return the positions (in DimTable order) of the dimension maps matching REQUIRED,
+	 * in the order of the filtered sub table
+	 * @param required
+	 * @return
+	 */
+	private int[] matchingRows(int[] required)
+	{
+		int n = this.dimTable.size();
+		int[] strides = new int[n];
+		int[] sizes = new int[n];
+		int stride = 1, count = 1, base = 0;
+		for(int i = n - 1; i > -1; i--)
+		{
+			strides[i] = stride;
+			sizes[i] = (required[i] >= 0) ? 1 : this.dimTable.get(i).size();
+			base = base + ((required[i] >= 0) ? required[i] * stride : 0);
+			stride = stride * this.dimTable.get(i).size();
+			count = count * sizes[i];
+		}
+		
+		int[] ret = new int[count];
+		int[] counter = new int[n];
+		for(int k = 0; k < count; k++)
+		{
+			int row = base;
+			for(int i = 0; i < n; i++)
+			{
+				row = row + counter[i] * strides[i];
+			}
+			ret[k] = row;
+			for(int i = n - 1; i > -1; i--)
+			{
+				counter[i]++;
+				if(counter[i] < sizes[i]) break;
+				counter[i] = 0;
+			}
+		}
+		return ret;
+	}
+	
 	public void close()
 	{
+		if(this.binary)
+		{
+			this.binaryIn = null;
+			this.binaryCounter = null;
+			try
+			{
+				if(this.binaryFile != null) this.binaryFile.close();
+			}
+			catch (IOException e)
+			{
+				e.printStackTrace();
+			}
+			this.binaryFile = null;
+			return;
+		}
 		try
 		{
 			if(this.loader != null)
@@ -137,6 +523,18 @@ public class JEXTableReader2
 		}
 	}
 	
+	/**
+	 * End of a read, the file stays open for the next read if multipleReadsFlag is set
+	 * (close() must then be called once done with the reader)
+	 */
+	private void finishRead()
+	{
+		if(!this.multipleReadsFlag)
+		{
+			this.close();
+		}
+	}
+	
 	public DimTable getDimTable()
 	{
 		return this.dimTable;
@@ -174,11 +572,17 @@ public class JEXTableReader2
 	
 	public Boolean isNumeric()
 	{
+		if(this.binary) return this.binaryNumeric;
 		return this.structure.attribute(this.structure.numAttributes()-1).isNumeric();
 	}
 	
 	private <E> Table<E> readData(DimensionMap filter, E dummyInstance)
 	{
+		if(this.dimTable == null)
+		{
+			this.finishRead();
+			return null;
+		}
 		JEXStatics.statusBar.setStatusText("Started Reading ARFF");
 		DimTable filteredDimTable;
 		if(filter == null)
@@ -189,6 +593,11 @@ public class JEXTableReader2
 		{
 			filteredDimTable = this.dimTable.getSubTable(filter);
 		}
+		if(filteredDimTable == null)
+		{
+			this.finishRead();
+			return null;
+		}
 		
 		double count = 0;
 		try
@@ -200,13 +609,11 @@ public class JEXTableReader2
 			// gather the data
 			TreeMap<DimensionMap,E> data = new TreeMap<DimensionMap,E>();
 			
-			Instance instance;
 			Pair<DimensionMap,E> pair;
 			if(filter == null)
 			{
-				while ((instance = this.loader.m_ArffReader.readInstance(this.structure)) != null)
+				while ((pair = this.<E>nextPair()) != null)
 				{
-					pair = getPair(instance);
 					if(pair.p2 != null)
 					{
 						data.put(pair.p1, pair.p2);
@@ -218,12 +625,26 @@ public class JEXTableReader2
 					}
 				}
 			}
+			else if(this.indexStart >= 0)
+			{
+				// Seek straight to the rows of the filtered sub table
+				for(long offset : this.rowPositions(this.matchingRows(this.requiredIndices(filter))))
+				{
+					if(offset < 0) continue;
+					this.seek(offset);
+					pair = this.<E>nextPair();
+					if(pair != null && pair.p2 != null)
+					{
+						data.put(pair.p1, pair.p2);
+					}
+				}
+			}
 			else
 			{
-				while ((instance = this.loader.m_ArffReader.readInstance(this.structure)) != null)
+				int[] required = this.requiredIndices(filter);
+				while ((pair = this.<E>nextPair(required)) != null)
 				{
-					pair = getPair(instance);
-					if(pair.p2 != null && filteredDimTable.hasDimensionMap(pair.p1))
+					if(pair.p2 != null)
 					{
 						data.put(pair.p1, pair.p2);
 					}
@@ -236,13 +657,142 @@ public class JEXTableReader2
 			}
 			
 			Table<E> ret = new Table<E>(filteredDimTable,data);
-			this.close();
+			this.finishRead();
+			JEXStatics.statusBar.setStatusText("Reading ARFF Done.");
+			return ret;
+		}
+		catch (Exception e)
+		{
+			e.printStackTrace();
+			this.finishRead();
+			return null;
+		}
+	}
+	
+	/**
+	 * Read the numeric values straight into the double[] of a NumericTable. The offset
+	 * of each line is computed from the indices of its nominal values, so no DimensionMap
+	 * or Double is created per line.
+	 * @param filter
+	 * @return
+	 */
+	public NumericTable readDenseNumericData(DimensionMap filter)
+	{
+		if(this.dimTable == null)
+		{
+			this.finishRead();
+			return null;
+		}
+		JEXStatics.statusBar.setStatusText("Started Reading ARFF");
+		DimTable filteredDimTable;
+		if(filter == null)
+		{
+			filteredDimTable = this.dimTable.copy();
+		}
+		else
+		{
+			filteredDimTable = this.dimTable.getSubTable(filter);
+		}
+		if(filteredDimTable == null)
+		{
+			this.finishRead();
+			return null;
+		}
+		
+		// Index of the value each dim must have to pass the filter (-1 for all)
+		int nDims = this.dimTable.size();
+		int[] required = (filter == null) ? new int[nDims] : this.requiredIndices(filter);
+		if(filter == null) Arrays.fill(required, -1);
+		
+		double count = 0;
+		try
+		{
+			if(this.multipleReadsFlag)
+			{
+				this.reset();
+			}
+			NumericTable ret = new NumericTable(filteredDimTable);
+			int[] indices = new int[nDims];
+			
+			if(this.indexStart >= 0 && filter != null)
+			{
+				// Seek straight to the value of each row of the filtered sub table, they come in the order of the table
+				long[] offsets = this.rowPositions(this.matchingRows(required));
+				for(int k = 0; k < offsets.length; k++)
+				{
+					if(offsets[k] < 0) continue;
+					this.seek(offsets[k] + 4L * nDims);
+					ret.data[k] = this.readBinaryDouble();
+				}
+				this.finishRead();
+				JEXStatics.statusBar.setStatusText("Reading ARFF Done.");
+				return ret;
+			}
+			
+			int[] rowIndices = new int[nDims];
+			while (true)
+			{
+				// Read the dim value indices and the value of the row
+				double val;
+				if(this.binary)
+				{
+					if(!this.readBinaryIndices(rowIndices)) break;
+					val = this.readBinaryDouble();
+				}
+				else
+				{
+					Instance instance = this.loader.m_ArffReader.readInstance(this.structure);
+					if(instance == null) break;
+					for(int i = 0; i < nDims; i++)
+					{
+						// Missing nominal values get the missing index of the binary format
+						rowIndices[i] = instance.isMissing(i) ? -1 : (int) instance.value(i);
+					}
+					val = instance.value(nDims);
+				}
+				count++;
+				if(count%1000 == 0)
+				{
+					JEXStatics.statusBar.setStatusText("Reading ARFF Line Number: " + count + "");
+				}
+				
+				if(Double.isNaN(val)) continue;
+				
+				boolean match = true;
+				for(int i = 0; i < nDims; i++)
+				{
+					int index = rowIndices[i];
+					if(index < 0)
+					{
+						// No place in the table for a row with a missing dim value
+						match = false;
+						break;
+					}
+					if(required[i] >= 0)
+					{
+						if(index != required[i])
+						{
+							match = false;
+							break;
+						}
+						index = 0; // the filtered dim only has one value in the sub table
+					}
+					indices[i] = index;
+				}
+				if(match)
+				{
+					ret.data[ret.offset(indices)] = val;
+				}
+			}
+			
+			this.finishRead();
 			JEXStatics.statusBar.setStatusText("Reading ARFF Done.");
 			return ret;
 		}
 		catch (Exception e)
 		{
 			e.printStackTrace();
+			this.finishRead();
 			return null;
 		}
 	}
@@ -262,6 +812,11 @@ public class JEXTableReader2
 		if(splitDimName == null || tableName == null || reader == null) return null;
 		
 		reader.readHeader();
+		if(reader.dimTable == null)
+		{
+			reader.close();
+			return null;
+		}
 		int displayPercentage = -1, currentPercentage = 0;
 		try
 		{
@@ -290,14 +845,13 @@ public class JEXTableReader2
 			
 			// Write each datapoint to a file
 			JEXStatics.statusBar.setStatusText("Splitting ARFFs: 0%");
-			Instance instance;
 			Pair<DimensionMap,E> pair;
 			count = 0;
 			total = reader.dimTable.mapCount();
 			displayPercentage = 0;
-			while ((instance = reader.loader.m_ArffReader.readInstance(reader.structure)) != null)
+			while ((pair = reader.<E>nextPair()) != null)
 			{
-				if(JEXStatics.cruncher.stopCrunch)
+				if(JEXStatics.cruncher.isCanceled())
 				{
 					// Exit gracefully
 					for(String splitDimValue : splitDim.dimValues)
@@ -307,7 +861,6 @@ public class JEXTableReader2
 					}
 					return null;
 				}
-				pair = reader.getPair(instance);
 				DimensionMap map = pair.p1;
 				JEXTableWriter2 theWriter = writers.get(map.get(splitDimName));
 				theWriter.writeData(map, pair.p2);
@@ -351,6 +904,10 @@ public class JEXTableReader2
 			e.printStackTrace();
 			return null;
 		}
+		finally
+		{
+			reader.close();
+		}
 	}
 	
 	/**
@@ -360,7 +917,15 @@ public class JEXTableReader2
 	{
 		try
 		{
-			// Read file through the header
+			if(this.binary)
+			{
+				// The file is kept open between reads, go back to the first row
+				this.seek(this.dataStart);
+				return;
+			}
+			
+			// Read file through the header, the loader reopens the file without closing it
+			this.close();
 			this.loader.reset();
 			this.loader.getStructure();
 			while(this.loader.m_ArffReader.m_Tokenizer.nextToken() != StreamTokenizer.TT_EOL){};
@@ -1,22 +1,31 @@
 package weka.core.converters;
 
+import java.io.BufferedOutputStream;
 import java.io.BufferedWriter;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.TreeMap;
 
 import jex.statics.JEXStatics;
+
+import org.apache.commons.io.output.CountingOutputStream;
+
 import weka.core.Attribute;
 import weka.core.Instances;
 import weka.core.Utils;
 import Database.DBObjects.dimension.Dim;
 import Database.DBObjects.dimension.DimTable;
 import Database.DBObjects.dimension.DimensionMap;
+import Database.DBObjects.dimension.NumericTable;
 import Database.DBObjects.dimension.Table;
 import Database.SingleUserDatabase.JEXWriter;
 
@@ -26,7 +35,15 @@ public class JEXTableWriter2 {
 	public final static String METADATA = "Metadata";
 	public final static String ARFF_FILE = "arff", CSV_FILE = "csv", TXT_FILE = "txt";
 	
+	// Binary table format, see writeBinaryHeader
+	public final static String BINARY_FILE = "jxt";
+	public final static String BINARY_VERSION = "JEXTable-2";
+	public final static String BINARY_VERSION_INT_INDEX = "JEXTable-1"; // row index of int positions, still read
+	public final static int BINARY_INDEX_MAGIC = 0x4A585449;
+	
 	public PrintWriter writer;
+	public DataOutputStream binaryWriter;
+	private CountingOutputStream binaryCounter; // position in the binary file, which can pass 2 GB
 	public String filePath, tableName;
 	public DimTable dimTable;
 	public Instances instances;
@@ -34,6 +51,10 @@ public class JEXTableWriter2 {
 	public static int precisionAfterDecPoint = 6;
 	
 	private int rowCounter = 0;
+	private boolean isNumeric = true;
+	private List<HashMap<String,Integer>> valueIndices; // dictionary index of each dim value for binary files
+	private long[] rowOffsets; // position of the row of each dimension map (in DimTable order) for binary files
+	private int[] strides;
 	
 	public static <E> String writeTable(String tableName, Table<E> table)
 	{
@@ -103,6 +124,58 @@ public class JEXTableWriter2 {
 		this.close();
 	}
 	
+	/**
+	 * Write a dense numeric table. Binary files are written straight from its double[], the
+	 * dim value indices of each row coming from a mixed-radix counter, so no DimensionMap
+	 * or Double is made per row. Missing (NaN) cells have no row in text files.
+	 * @param table
+	 */
+	public void writeTable(NumericTable table)
+	{
+		this.writeNumericTableHeader(table.dimTable);
+		if(this.binaryWriter != null)
+		{
+			try
+			{
+				int n = table.dimTable.size();
+				int[] counter = new int[n];
+				for(int row = 0; row < table.data.length; row++)
+				{
+					this.rowOffsets[row] = this.binaryCounter.getByteCount();
+					for(int i = 0; i < n; i++)
+					{
+						this.binaryWriter.writeInt(counter[i]);
+					}
+					this.binaryWriter.writeDouble(table.data[row]);
+					for(int i = n - 1; i > -1; i--)
+					{
+						counter[i]++;
+						if(counter[i] < table.dimTable.get(i).size()) break;
+						counter[i] = 0;
+					}
+				}
+			}
+			catch (IOException e)
+			{
+				e.printStackTrace();
+			}
+		}
+		else if(this.writer != null)
+		{
+			int row = 0;
+			for(DimensionMap map : table.dimTable.getIterator())
+			{
+				double value = table.data[row];
+				row++;
+				if(!Double.isNaN(value))
+				{
+					this.writeData(map, value);
+				}
+			}
+		}
+		this.close();
+	}
+	
 	/**
 	 * Every possible dimension map must have a row even if the value is blank (i.e. "")
 	 * @param filter
@@ -134,6 +207,32 @@ public class JEXTableWriter2 {
 			this.writer.flush();
 			this.writer.close();
 		}
+		if(this.binaryWriter != null)
+		{
+			try
+			{
+				this.writeBinaryIndex();
+				this.binaryWriter.close();
+			}
+			catch (IOException e)
+			{
+				e.printStackTrace();
+			}
+		}
+	}
+	
+	/**
+	 * Is this table written in the binary format (chosen from the extension of the file)
+	 * @return
+	 */
+	public boolean isBinary()
+	{
+		return isBinary(this.filePath);
+	}
+	
+	public static boolean isBinary(String filePath)
+	{
+		return filePath != null && filePath.toLowerCase().endsWith("." + BINARY_FILE);
 	}
 	
 	public String getPath()
@@ -153,6 +252,11 @@ public class JEXTableWriter2 {
 	
 	protected void writeHeader(DimTable dimTable, boolean isNumeric)
 	{
+		if(this.isBinary())
+		{
+			this.writeBinaryHeader(dimTable, isNumeric);
+			return;
+		}
 		try
 		{
 			this.dimTable = dimTable;
@@ -185,8 +289,123 @@ public class JEXTableWriter2 {
 		}
 	}
 	
+	/**
+	 * The binary format is a header followed by one record per row, all big-endian (DataOutputStream).
+	 * Header: version, table name, value name, numeric flag, the number of dims and for each dim
+	 * its name, number of values and values. Row: the index of the value of each dim in the
+	 * header (int) then the value, a double (NaN if missing) for numeric tables or a flag and a
+	 * UTF-8 string for string tables. Rows of numeric tables all have the same length.
+	 * The file ends with the row index written by writeBinaryIndex.
+	 * @param dimTable
+	 * @param isNumeric
+	 */
+	protected void writeBinaryHeader(DimTable dimTable, boolean isNumeric)
+	{
+		try
+		{
+			this.dimTable = dimTable;
+			this.isNumeric = isNumeric;
+			this.valueIndices = new ArrayList<HashMap<String,Integer>>(dimTable.size());
+			this.strides = new int[dimTable.size()];
+			this.rowOffsets = new long[dimTable.mapCount()];
+			Arrays.fill(this.rowOffsets, -1);
+			int stride = 1;
+			for(int i = dimTable.size() - 1; i > -1; i--)
+			{
+				this.strides[i] = stride;
+				stride = stride * dimTable.get(i).size();
+			}
+			
+			this.binaryCounter = new CountingOutputStream(new BufferedOutputStream(new FileOutputStream(new File(filePath)), 1 << 16));
+			this.binaryWriter = new DataOutputStream(this.binaryCounter);
+			this.binaryWriter.writeUTF(BINARY_VERSION);
+			this.binaryWriter.writeUTF(this.tableName);
+			this.binaryWriter.writeUTF(this.valueHeaderName);
+			this.binaryWriter.writeBoolean(isNumeric);
+			this.binaryWriter.writeInt(dimTable.size());
+			for(int i = 0; i < dimTable.size(); i++)
+			{
+				Dim dim = dimTable.get(i);
+				this.valueIndices.add(new HashMap<String,Integer>());
+				this.binaryWriter.writeUTF(dim.name());
+				this.binaryWriter.writeInt(dim.size());
+				for(int j = 0; j < dim.size(); j++)
+				{
+					this.binaryWriter.writeUTF(dim.valueAt(j));
+					this.valueIndices.get(i).put(dim.valueAt(j), j);
+				}
+			}
+		}
+		catch (Exception e)
+		{
+			e.printStackTrace();
+			this.close();
+		}
+	}
+	
+	private <E> void writeBinaryRow(DimensionMap map, E value) throws IOException
+	{
+		long rowStart = this.binaryCounter.getByteCount();
+		int row = 0;
+		for(int i = 0; i < this.dimTable.size(); i++)
+		{
+			Integer index = this.valueIndices.get(i).get(map.get(this.dimTable.get(i).name()));
+			this.binaryWriter.writeInt((index == null) ? -1 : index);
+			row = (index == null || row < 0) ? -1 : row + index * this.strides[i];
+		}
+		if(row >= 0)
+		{
+			this.rowOffsets[row] = rowStart;
+		}
+		if(this.isNumeric)
+		{
+			this.binaryWriter.writeDouble((value == null) ? Double.NaN : ((Number)value).doubleValue());
+		}
+		else
+		{
+			this.binaryWriter.writeBoolean(value != null);
+			if(value != null)
+			{
+				byte[] bytes = value.toString().getBytes("UTF-8");
+				this.binaryWriter.writeInt(bytes.length);
+				this.binaryWriter.write(bytes);
+			}
+		}
+	}
+	
+	/**
+	 * Footer of binary files: the position (long) of the row of each dimension map of
+	 * the DimTable (in DimTable order, -1 if there is no row), the position of this
+	 * index (long) and BINARY_INDEX_MAGIC (int). Filtered reads seek to the matching rows with it.
+	 * @throws IOException
+	 */
+	private void writeBinaryIndex() throws IOException
+	{
+		if(this.rowOffsets == null) return;
+		long indexStart = this.binaryCounter.getByteCount();
+		for(long offset : this.rowOffsets)
+		{
+			this.binaryWriter.writeLong(offset);
+		}
+		this.binaryWriter.writeLong(indexStart);
+		this.binaryWriter.writeInt(BINARY_INDEX_MAGIC);
+		this.rowOffsets = null;
+	}
+	
 	public <E> void writeData(DimensionMap map, E value)
 	{
+		if(this.binaryWriter != null)
+		{
+			try
+			{
+				this.writeBinaryRow(map, value);
+			}
+			catch (IOException e)
+			{
+				e.printStackTrace();
+			}
+			return;
+		}
 		this.writer.println(this.makeRow(map, value));
 		rowCounter++;
 		if(rowCounter > 100)